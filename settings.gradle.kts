@@ -1 +1,4 @@
 rootProject.name = "mockobor"
+
+include("mockobor-processor")
+project(":mockobor-processor").projectDir = file("subprojects/annotation-processor")
@@ -13,6 +13,10 @@ import org.mockobor.mockedobservable.*;
 
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 
 /**
@@ -166,6 +170,12 @@ public final class Mockobor {
 	private static final NotifierFactory NOTIFIER_FACTORY = new NotifierFactory( MockoborContext.LISTENER_DETECTORS_REGISTRY,
 	                                                                             MockoborContext.MOCKING_TOOLS_REGISTRY );
 
+	private static final Executor PREWARM_EXECUTOR = Executors.newCachedThreadPool( runnable -> {
+		Thread thread = new Thread( runnable, "mockobor-prewarm" );
+		thread.setDaemon( true );
+		return thread;
+	} );
+
 	// ==================================================================================
 	// ============================== Listener notifier =================================
 	// ==================================================================================
@@ -253,6 +263,41 @@ public final class Mockobor {
 	}
 
 
+	/**
+	 * To prepare creation of notifiers for mocks of the specified types in background.
+	 * <p></p>
+	 * It does the expensive part of {@link #createNotifierFor} in advance (on daemon background threads):<ul>
+	 * <li>index methods of the specified types,</li>
+	 * <li>search for registration (add/remove listener) methods,</li>
+	 * <li>define classes of notifier proxies and</li>
+	 * <li>initialize available mocking tools.</li>
+	 * </ul>
+	 * So it can be called as early as possible (for example, in a static initializer or in {@code @BeforeAll}),
+	 * and later {@link #createNotifierFor} for mocks of these types finds everything prepared.
+	 * <p>
+	 * It uses global settings statically stored in {@link MockoborContext}.
+	 * <p></p>
+	 * Typical usage:
+	 * <pre class="code"><code class="java">
+	 * &#64;BeforeAll
+	 * static void prewarm() {
+	 *     Mockobor.prewarm( ObservableObject.class, AnotherObservable.class );
+	 * }
+	 * </code></pre>
+	 * To see how long the preparation takes:
+	 * <pre class="code"><code class="java">
+	 * Mockobor.prewarm( ObservableObject.class ).thenAccept( System.out::println );
+	 * </code></pre>
+	 *
+	 * @param observableTypes types (classes or interfaces) of observables, which will be mocked
+	 * @return future completed with timings of the preparation (errors, like types without registration methods, are reported in it)
+	 * @see PrewarmReport
+	 */
+	public static @NonNull CompletableFuture<PrewarmReport> prewarm( @NonNull Class<?>... observableTypes ) {
+		return NOTIFIER_FACTORY.prewarm( Arrays.asList( observableTypes ), notifierSettings(), PREWARM_EXECUTOR );
+	}
+
+
 	/** @return a new copy of {@link NotifierSettings} created on base of settings statically stored in {@link MockoborContext}. */
 	public static @NonNull NotifierSettingsUpdater notifierSettings() {
 		return MockoborContext.notifierSettingsImpl.toBuilder().build();
@@ -0,0 +1,42 @@
+package org.mockobor;
+
+import org.mockobor.listener_detectors.PrecomputedListenerDetector;
+
+import java.lang.annotation.*;
+
+
+/**
+ * To generate at compile time a listener definition detector for an observable type.
+ * <p>
+ * It is processed by mockobor's annotation processor (module {@code mockobor-processor}),
+ * which generates a {@link PrecomputedListenerDetector} with all typical java style registration methods
+ * ({@code addXxxListener}/{@code removeXxxListener}, see {@link org.mockobor.listener_detectors.TypicalJavaListenerDetector})
+ * of the observable type and registers it as a service.
+ * Mocks of this type are then handled by the generated detector without reflective detection of registration methods.
+ * <p>
+ * Observable type can be:<ul>
+ * <li>the annotated type itself, if {@link #value()} is empty,</li>
+ * <li>types specified in {@link #value()} (for example, if a test class is annotated to prepare observable types of collaborators).</li>
+ * </ul>
+ * <p>
+ * Example:
+ * <pre class="code"><code class="java">
+ * &#064;MockoborObservable
+ * public interface ObservableModel {
+ *     void addModelListener( ModelListener listener );
+ *     void removeModelListener( ModelListener listener );
+ * }
+ * </code></pre>
+ * <p>
+ * Listeners of {@code PropertyChangeListener} type are not precomputed, because they are handled by {@code PropertyChangeDetector}.
+ */
+@Documented
+@Retention( RetentionPolicy.CLASS )
+@Target( ElementType.TYPE )
+public @interface MockoborObservable {
+
+	/**
+	 * @return observable types to generate detectors for; if empty - the annotated type
+	 */
+	Class<?>[] value() default {};
+}
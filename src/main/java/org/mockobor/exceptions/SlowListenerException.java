@@ -0,0 +1,24 @@
+package org.mockobor.exceptions;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.mockobor.mockedobservable.SlowListenerWatchdog;
+import org.mockobor.mockedobservable.SlowListenerWatchdog.Overrun;
+
+
+/**
+ * Thrown to abort a dispatch if a listener overran its latency budget (see {@link SlowListenerWatchdog}).
+ */
+public class SlowListenerException extends MockoborException {
+
+	private final transient @NonNull Overrun overrun;
+
+	public SlowListenerException( @NonNull Overrun overrun ) {
+		super( "Slow " + overrun );
+		this.overrun = overrun;
+	}
+
+	/** @return the overrun, which aborted the dispatch */
+	public @NonNull Overrun getOverrun() {
+		return overrun;
+	}
+}
@@ -2,17 +2,17 @@ package org.mockobor.listener_detectors;
 
 import lombok.AccessLevel;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
 import org.mockobor.exceptions.MockoborImplementationError;
 import org.mockobor.listener_detectors.ListenerDefinition.ListenerDefinitionImpl;
 import org.mockobor.listener_detectors.RegistrationDelegate.RegistrationInvocation;
+import org.mockobor.utils.reflection.MethodSignature;
 import org.mockobor.utils.reflection.TypeUtils;
 
 import java.lang.reflect.Method;
 import java.util.*;
-import java.util.stream.IntStream;
+import java.util.function.Function;
 
 
 /**
@@ -20,6 +20,8 @@ import java.util.stream.IntStream;
  */
 public abstract class AbstractDetector implements ListenerDefinitionDetector {
 
+	private static final Object[] NO_ARGUMENTS = new Object[0];
+
 	/**
 	 * To check if the specified parameter type is a listener type.
 	 * <p>
@@ -53,6 +55,24 @@ public abstract class AbstractDetector implements ListenerDefinitionDetector {
 	protected abstract boolean isRemoveMethods( @NonNull Method method );
 
 
+	/**
+	 * To get types of listener parameters this detector is interested in.
+	 * <p>
+	 * Listeners can be only interfaces, so per default it returns an empty list:
+	 * only methods with at least one interface-typed parameter will be examined.
+	 * <p>
+	 * If the detector knows its listener types (like {@code PropertyChangeListener}), it should return them,
+	 * so methods without these parameter types will be skipped and {@link #isListenerClass} will be called only for these types.
+	 *
+	 * @return listener types or empty list if any interface can be a listener
+	 * @see ListenerDefinitionDetector#getListenerParameterTypes()
+	 */
+	@Override
+	public @NonNull Collection<Class<?>> getListenerParameterTypes() {
+		return Collections.emptyList();
+	}
+
+
 	/**
 	 * To get a list of delegations to custom implementation of notification methods.
 	 * <p></p>
@@ -93,7 +113,28 @@ public abstract class AbstractDetector implements ListenerDefinitionDetector {
 
 	@Override
 	public @NonNull ListenerDefinition detect( @NonNull Collection<Method> methods ) {
-		ListenerDefinitionImpl listenerDefinition = detectRegistrations( methods );
+		return completeDefinition( detectRegistrations( methods ) );
+	}
+
+	/**
+	 * To recreate a listener definition from descriptors of registration methods detected before
+	 * (see {@link ListenerDefinitionImpl#getRegistrationDescriptors()}), without examination of methods.
+	 * <p>
+	 * It creates the same definition as {@link #detect} would create for the methods found by the specified lookup.
+	 *
+	 * @param methodLookup function to find a method of the mocked observable by signature (returns null if not found)
+	 * @param descriptors  descriptors of registration methods
+	 * @return recreated listener definition or null if some of the described methods are not found
+	 */
+	public @Nullable ListenerDefinition rehydrate( @NonNull Function<MethodSignature, @Nullable Method> methodLookup,
+	                                               @NonNull List<RegistrationDescriptor> descriptors ) {
+		ListenerDefinitionImpl listenerDefinition = new ListenerDefinitionImpl();
+		return addRegistrations( listenerDefinition, methodLookup, descriptors )
+		       ? completeDefinition( listenerDefinition )
+		       : null;
+	}
+
+	private @NonNull ListenerDefinition completeDefinition( @NonNull ListenerDefinitionImpl listenerDefinition ) {
 		if( listenerDefinition.hasListenerDetected() ) {
 			listenerDefinition.addAdditionalInterfaces( getAdditionalInterfaces() );
 			getCustomNotificationMethodDelegates().forEach( listenerDefinition::addNotification );
@@ -115,22 +156,66 @@ public abstract class AbstractDetector implements ListenerDefinitionDetector {
 	 */
 	protected @NonNull ListenerDefinitionImpl detectRegistrations( @NonNull Collection<Method> methods ) {
 		ListenerDefinitionImpl listenerDefinition = new ListenerDefinitionImpl();
+		Collection<Class<?>> listenerTypes = getListenerParameterTypes();
 		for( Method method : methods ) {
-			ListenerRegistrationParameters registrationParameters = getListenerRegistrationParameter( method );
+			ListenerRegistrationParameters registrationParameters = getListenerRegistrationParameter( method, listenerTypes );
 			if( registrationParameters != null ) {
 				if( isAddMethods( method ) ) {
-					RegistrationInvocation addDelegate = createAddDelegate( registrationParameters );
-					listenerDefinition.addRegistration( new RegistrationDelegate( method, addDelegate ) );
-					listenerDefinition.addDetectedListeners( registrationParameters.getListenerClasses() );
+					addRegistration( listenerDefinition, method, registrationParameters, createDescriptor( true, method, registrationParameters ) );
 				} else if( isRemoveMethods( method ) ) {
-					RegistrationInvocation removeDelegate = createRemoveDelegate( registrationParameters );
-					listenerDefinition.addRegistration( new RegistrationDelegate( method, removeDelegate ) );
+					addRegistration( listenerDefinition, method, registrationParameters, createDescriptor( false, method, registrationParameters ) );
 				}
 			}
 		}
 		return listenerDefinition;
 	}
 
+	/**
+	 * To add registrations for the specified descriptors to the specified listener definition.
+	 *
+	 * @param listenerDefinition listener definition to add registrations to
+	 * @param methodLookup       function to find a method of the mocked observable by signature (returns null if not found)
+	 * @param descriptors        descriptors of registration methods
+	 * @return true if methods for all descriptors were found; false if some descriptors were skipped
+	 */
+	protected boolean addRegistrations( @NonNull ListenerDefinitionImpl listenerDefinition,
+	                                    @NonNull Function<MethodSignature, @Nullable Method> methodLookup,
+	                                    @NonNull Collection<RegistrationDescriptor> descriptors ) {
+		boolean allFound = true;
+		for( RegistrationDescriptor descriptor : descriptors ) {
+			Method method = methodLookup.apply( descriptor.getSignature() );
+			if( method != null ) {
+				addRegistration( listenerDefinition, method, descriptor.createParameters( method ), descriptor );
+			} else {
+				allFound = false;
+			}
+		}
+		return allFound;
+	}
+
+	private void addRegistration( @NonNull ListenerDefinitionImpl listenerDefinition,
+	                              @NonNull Method method,
+	                              @NonNull ListenerRegistrationParameters registrationParameters,
+	                              @NonNull RegistrationDescriptor descriptor ) {
+		if( descriptor.isRegistration() ) {
+			RegistrationInvocation addDelegate = createAddDelegate( registrationParameters );
+			listenerDefinition.addRegistration( new RegistrationDelegate( method, addDelegate ), descriptor );
+			listenerDefinition.addDetectedListeners( registrationParameters.getListenerClasses() );
+		} else {
+			RegistrationInvocation removeDelegate = createRemoveDelegate( registrationParameters );
+			listenerDefinition.addRegistration( new RegistrationDelegate( method, removeDelegate ), descriptor );
+		}
+	}
+
+	private static @NonNull RegistrationDescriptor createDescriptor( boolean registration,
+	                                                                 @NonNull Method method,
+	                                                                 @NonNull ListenerRegistrationParameters rp ) {
+		return new RegistrationDescriptor( registration,
+		                                   MethodSignature.of( method ),
+		                                   rp.listenerIndexes,
+		                                   rp.selectorIndexes );
+	}
+
 	protected @NonNull RegistrationInvocation createAddDelegate( ListenerRegistrationParameters rp ) {
 		return ( listeners, method, arguments ) -> createDelegate( rp, method, arguments, listeners::addListener );
 	}
@@ -144,13 +229,13 @@ public abstract class AbstractDetector implements ListenerDefinitionDetector {
 	                                             @NonNull Method method,
 	                                             Object[] arguments,
 	                                             @NonNull ListenerRegistration registration ) {
-		if( arguments == null ) arguments = new Object[0];
+		if( arguments == null ) arguments = NO_ARGUMENTS;
 		ListenerSelector selector = rp.createSelector( method, arguments );
-		List<Integer> listenerIndexes = rp.getListenerIndexes();
-		List<Class<?>> listenerClasses = rp.getListenerClasses();
-		for( int i = 0; i < listenerIndexes.size(); i++ ) {
+		int[] listenerIndexes = rp.listenerIndexes;
+		List<Class<?>> listenerClasses = rp.listenerClasses;
+		for( int i = 0; i < listenerIndexes.length; i++ ) {
 			Class<L> listenerClass = (Class<L>) listenerClasses.get( i );
-			L listener = listenerClass.cast( arguments[listenerIndexes.get( i )] );
+			L listener = listenerClass.cast( arguments[listenerIndexes[i]] );
 			registration.invoke( selector, listenerClass, listener );
 		}
 		return TypeUtils.getDefaultReturnValue( method.getReturnType() );
@@ -169,20 +254,31 @@ public abstract class AbstractDetector implements ListenerDefinitionDetector {
 	 * @see #isListenerClass
 	 */
 	protected @Nullable ListenerRegistrationParameters getListenerRegistrationParameter( @NonNull Method method ) {
-		List<Integer> selectorIndexes = new ArrayList<>();
-		List<Integer> listenerIndexes = new ArrayList<>();
-		List<Class<?>> listenerClasses = new ArrayList<>();
+		return getListenerRegistrationParameter( method, getListenerParameterTypes() );
+	}
+
+	private @Nullable ListenerRegistrationParameters getListenerRegistrationParameter( @NonNull Method method,
+	                                                                                  @NonNull Collection<Class<?>> listenerTypes ) {
 		Class<?>[] parameterTypes = method.getParameterTypes();
+		int[] selectorIndexes = new int[parameterTypes.length];
+		int[] listenerIndexes = new int[parameterTypes.length];
+		int selectorCount = 0;
+		int listenerCount = 0;
+		List<Class<?>> listenerClasses = new ArrayList<>();
 		for( int i = 0; i < parameterTypes.length; i++ ) {
-			if( parameterTypes[i].isInterface() && isListenerClass( parameterTypes[i], method ) ) {
-				listenerIndexes.add( i );
+			if( parameterTypes[i].isInterface()
+			    && ( listenerTypes.isEmpty() || listenerTypes.contains( parameterTypes[i] ) )
+			    && isListenerClass( parameterTypes[i], method ) ) {
+				listenerIndexes[listenerCount++] = i;
 				listenerClasses.add( parameterTypes[i] );
 			} else {
-				selectorIndexes.add( i );
+				selectorIndexes[selectorCount++] = i;
 			}
 		}
-		return !listenerIndexes.isEmpty()
-		       ? new ListenerRegistrationParameters( method, listenerIndexes, listenerClasses, selectorIndexes )
+		return listenerCount > 0
+		       ? new ListenerRegistrationParameters( method, Arrays.copyOf( listenerIndexes, listenerCount ),
+		                                             Collections.unmodifiableList( listenerClasses ),
+		                                             Arrays.copyOf( selectorIndexes, selectorCount ) )
 		       : null;
 	}
 
@@ -193,8 +289,10 @@ public abstract class AbstractDetector implements ListenerDefinitionDetector {
 
 	/**
 	 * To store information about listener and other parameters obtained from registration method.
+	 * <p>
+	 * Indexes are stored as precomputed {@code int} arrays, so (de)registration of listeners allocates only the selector
+	 * (see {@link #createSelector}).
 	 */
-	@RequiredArgsConstructor
 	@Getter
 	public static class ListenerRegistrationParameters {
 
@@ -203,15 +301,86 @@ public abstract class AbstractDetector implements ListenerDefinitionDetector {
 		private final Method registrationMethod; // only to compare with invoked method
 
 		/** Index of listener parameter in registration method's arguments. */
-		private final List<Integer> listenerIndexes;
+		@Getter( AccessLevel.NONE )
+		private final int @NonNull [] listenerIndexes;
 
 		/** Type of listener found in registration method. */
 		@NonNull
 		private final List<Class<?>> listenerClasses;
 
 		/** Indexes of other parameters (except listener) in registration method's arguments used to create selector. */
-		@NonNull
-		private final List<Integer> selectorIndexes;
+		@Getter( AccessLevel.NONE )
+		private final int @NonNull [] selectorIndexes;
+
+		@Getter( AccessLevel.NONE )
+		private final int parameterCount;
+
+		@Getter( AccessLevel.NONE )
+		private final boolean varArgs;
+
+
+		/**
+		 * @param registrationMethod registration method
+		 * @param listenerIndexes    indexes of listener parameters (in ascending order)
+		 * @param listenerClasses    types of listener parameters (in the same order as indexes)
+		 * @param selectorIndexes    indexes of other parameters used to create selector (in ascending order)
+		 * @see #ListenerRegistrationParameters(Method, int[], List, int[])
+		 */
+		public ListenerRegistrationParameters( @NonNull Method registrationMethod,
+		                                       @NonNull List<Integer> listenerIndexes,
+		                                       @NonNull List<Class<?>> listenerClasses,
+		                                       @NonNull List<Integer> selectorIndexes ) {
+			this( registrationMethod, toArray( listenerIndexes ), listenerClasses, toArray( selectorIndexes ) );
+		}
+
+		/**
+		 * @param registrationMethod registration method
+		 * @param listenerIndexes    indexes of listener parameters (in ascending order)
+		 * @param listenerClasses    types of listener parameters (in the same order as indexes)
+		 * @param selectorIndexes    indexes of other parameters used to create selector (in ascending order)
+		 */
+		public ListenerRegistrationParameters( @NonNull Method registrationMethod,
+		                                       int @NonNull [] listenerIndexes,
+		                                       @NonNull List<Class<?>> listenerClasses,
+		                                       int @NonNull [] selectorIndexes ) {
+			this.registrationMethod = registrationMethod;
+			this.listenerIndexes = listenerIndexes.clone();
+			this.listenerClasses = listenerClasses;
+			this.selectorIndexes = selectorIndexes.clone();
+			this.parameterCount = registrationMethod.getParameterCount();
+			this.varArgs = registrationMethod.isVarArgs();
+		}
+
+
+		/** @return indexes of listener parameters in registration method's arguments (unmodifiable) */
+		public @NonNull List<Integer> getListenerIndexes() {
+			return toList( listenerIndexes );
+		}
+
+		/** @return indexes of other parameters (except listener) in registration method's arguments used to create selector (unmodifiable) */
+		public @NonNull List<Integer> getSelectorIndexes() {
+			return toList( selectorIndexes );
+		}
+
+		/** @return a copy of indexes of listener parameters in registration method's arguments */
+		public int @NonNull [] getListenerIndexArray() {
+			return listenerIndexes.clone();
+		}
+
+		/** @return a copy of indexes of other parameters (except listener) in registration method's arguments used to create selector */
+		public int @NonNull [] getSelectorIndexArray() {
+			return selectorIndexes.clone();
+		}
+
+		private static int @NonNull [] toArray( @NonNull List<Integer> indexes ) {
+			return indexes.stream().mapToInt( Integer::intValue ).toArray();
+		}
+
+		private static @NonNull List<Integer> toList( int @NonNull [] indexes ) {
+			List<Integer> list = new ArrayList<>( indexes.length );
+			for( int index : indexes ) list.add( index );
+			return Collections.unmodifiableList( list );
+		}
 
 
 		/**
@@ -223,45 +392,53 @@ public abstract class AbstractDetector implements ListenerDefinitionDetector {
 		 */
 		public @NonNull ListenerSelector createSelector( @NonNull Method invokedMethod, @NonNull Object[] arguments ) {
 			checkIsSameMethod( invokedMethod, arguments );
-			return createSelector( invokedMethod, arguments, new ArrayList<>( selectorIndexes ) );
+			return varArgs && arguments.length != parameterCount
+			       ? ListenerSelector.selector( selectVarargArguments( arguments ) )
+			       : selectArguments( arguments );
 		}
 
-
-		private static @NonNull ListenerSelector createSelector( @NonNull Method invokedMethod,
-		                                                         @NonNull Object[] arguments,
-		                                                         @NonNull List<Integer> selectorIndexesCopy ) {
-			if( invokedMethod.isVarArgs() ) {
-				if( arguments.length < invokedMethod.getParameterCount() ) {
-					// vararg omitted => remove vararg elements from selector indexes
-					selectorIndexesCopy.removeIf( idx -> idx >= arguments.length );
-				} else if( arguments.length > invokedMethod.getParameterCount() ) {
-					// more than one vararg => add indexes of extra parameters
-					IntStream.range( invokedMethod.getParameterCount(), arguments.length ).forEach( selectorIndexesCopy::add );
-				}
-			}
-			Object[] selectorArguments = new Object[selectorIndexesCopy.size()];
+		/** fixed arity (or varargs passed as one array): select arguments by precomputed indexes. */
+		private @NonNull ListenerSelector selectArguments( @NonNull Object[] arguments ) {
+			if( selectorIndexes.length == 0 ) return ListenerSelector.selector();
+			if( selectorIndexes.length == 1 ) return ListenerSelector.selector( arguments[selectorIndexes[0]] );
+			Object[] selectorArguments = new Object[selectorIndexes.length];
 			for( int i = 0; i < selectorArguments.length; i++ ) {
-				selectorArguments[i] = arguments[selectorIndexesCopy.get( i )];
+				selectorArguments[i] = arguments[selectorIndexes[i]];
 			}
 			return ListenerSelector.selector( selectorArguments );
 		}
 
+		/**
+		 * expanded varargs: omitted varargs are not a part of selector, extra varargs are added to selector.
+		 */
+		private @NonNull Object @NonNull [] selectVarargArguments( @NonNull Object[] arguments ) {
+			int declaredCount = 0; // selector indexes in ascending order => count of indexes present in arguments
+			while( declaredCount < selectorIndexes.length && selectorIndexes[declaredCount] < arguments.length ) declaredCount++;
+			int extraCount = Math.max( 0, arguments.length - parameterCount );
+
+			Object[] selectorArguments = new Object[declaredCount + extraCount];
+			for( int i = 0; i < declaredCount; i++ ) {
+				selectorArguments[i] = arguments[selectorIndexes[i]];
+			}
+			if( extraCount > 0 ) System.arraycopy( arguments, parameterCount, selectorArguments, declaredCount, extraCount );
+			return selectorArguments;
+		}
+
 
 		private void checkIsSameMethod( @NonNull Method invokedMethod, @NonNull Object[] arguments ) {
-			if( !Objects.equals( invokedMethod, registrationMethod ) ) {
+			if( invokedMethod != registrationMethod && !registrationMethod.equals( invokedMethod ) ) {
 				throw new MockoborImplementationError( "create selector for unexpected method (expected: %s, was: %s)",
 				                                       registrationMethod, invokedMethod.getName() );
 			}
-			int declaredNumberOfArguments = selectorIndexes.size() + listenerIndexes.size();
-			if( !invokedMethod.isVarArgs() ) {
-				if( arguments.length != declaredNumberOfArguments ) {
+			if( !varArgs ) {
+				if( arguments.length != parameterCount ) {
 					throw new MockoborImplementationError( "create selector for unexpected number of parameters (method: %s, expected: %d, was: %d:%s)",
-					                                       invokedMethod.getName(), declaredNumberOfArguments,
+					                                       invokedMethod.getName(), parameterCount,
 					                                       arguments.length, Arrays.asList( arguments ) );
 				}
-			} else if( arguments.length < declaredNumberOfArguments - 1 ) { // less than with empty varargs
+			} else if( arguments.length < parameterCount - 1 ) { // less than with empty varargs
 				throw new MockoborImplementationError( "create selector for unexpected number of parameters (vararg method: %s, expected>=%d, was: %d:%s)",
-				                                       invokedMethod.getName(), declaredNumberOfArguments - 1,
+				                                       invokedMethod.getName(), parameterCount - 1,
 				                                       arguments.length, Arrays.asList( arguments ) );
 			}
 		}
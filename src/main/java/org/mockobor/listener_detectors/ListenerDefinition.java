@@ -1,12 +1,14 @@
 package org.mockobor.listener_detectors;
 
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
 import org.mockobor.exceptions.MockoborIllegalArgumentException;
 import org.mockobor.exceptions.MockoborImplementationError;
 import org.mockobor.listener_detectors.NotificationMethodDelegate.NotificationMethodInvocation;
 import org.mockobor.mockedobservable.ObservableNotifier;
 import org.mockobor.mockedobservable.PropertyChangeNotifier;
 import org.mockobor.mockedobservable.mocking_tools.ListenerRegistrationHandler;
+import org.mockobor.utils.reflection.MethodIndex;
 
 import java.beans.PropertyChangeListener;
 import java.lang.reflect.Method;
@@ -97,7 +99,10 @@ public interface ListenerDefinition {
 
 		private final List<RegistrationDelegate> registrations = new ArrayList<>();
 
-		private final Map<Method, NotificationMethodInvocation> notifications = new HashMap<>();
+		/** Descriptors of registrations (only for registrations added with descriptor). */
+		private final List<RegistrationDescriptor> registrationDescriptors = new ArrayList<>();
+
+		private final MethodIndex<NotificationMethodInvocation> notifications = new MethodIndex<>();
 
 		private final Set<Class<?>> additionalInterfaces = new HashSet<>();
 
@@ -144,14 +149,41 @@ public interface ListenerDefinition {
 			registrations.add( registration );
 		}
 
+		/**
+		 * To add delegate for registration method together with its descriptor.
+		 *
+		 * @param registration registration delegate to add
+		 * @param descriptor   descriptor of the registration method (to store/rehydrate the registration)
+		 * @see #getRegistrationDescriptors()
+		 */
+		public void addRegistration( @NonNull RegistrationDelegate registration, @NonNull RegistrationDescriptor descriptor ) {
+			registrations.add( registration );
+			registrationDescriptors.add( descriptor );
+		}
+
+		/**
+		 * To get descriptors of all registrations.
+		 * <p>
+		 * Descriptors are available only if all registrations were added with descriptors
+		 * (see {@link #addRegistration(RegistrationDelegate, RegistrationDescriptor)}).
+		 *
+		 * @return immutable list of descriptors of all registrations or null if some registrations have no descriptor
+		 * @see AbstractDetector#rehydrate
+		 */
+		public @Nullable List<RegistrationDescriptor> getRegistrationDescriptors() {
+			return registrationDescriptors.size() == registrations.size() ? Collections.unmodifiableList( registrationDescriptors ) : null;
+		}
+
 
 		@Override
 		public @NonNull Map<Method, NotificationMethodInvocation> getCustomNotificationMethodDelegates() {
-			return Collections.unmodifiableMap( notifications );
+			return notifications.asMap();
 		}
 
 		/**
 		 * To add delegate for notification method.
+		 * <p>
+		 * Delegates are indexed by method signature, so a delegate replaces a previously added delegate for a similar method.
 		 *
 		 * @param delegate delegate for notification method to add
 		 * @see #getCustomNotificationMethodDelegates()
@@ -1,6 +1,7 @@
 package org.mockobor.listener_detectors;
 
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
 
 import java.lang.reflect.Method;
 import java.util.Collection;
@@ -19,6 +20,7 @@ import java.util.Collection;
  * <li>{@code isRemoveMethods(Method)}</li>
  * </ul>
  * and optional:<ul>
+ * <li>{@code getListenerParameterTypes()}</li>
  * <li>{@code getAdditionalInterfaces()}</li>
  * <li>{@code getNotificationDelegates()}</li>
  * </ul>
@@ -39,4 +41,38 @@ public interface ListenerDefinitionDetector {
 	 * @return definition of detected listeners.
 	 */
 	@NonNull ListenerDefinition detect( @NonNull Collection<Method> methods );
+
+
+	/**
+	 * To get types of listener parameters this detector is interested in.
+	 * <p>
+	 * It allows passing into {@link #detect} only methods, which can be registration methods for this detector:<ul>
+	 * <li>null (default) - all methods (nothing known about listener types)</li>
+	 * <li>empty collection - only methods with at least one parameter of an interface type</li>
+	 * <li>otherwise - only methods with at least one parameter of one of the returned types</li>
+	 * </ul>
+	 *
+	 * @return types of listener parameters or null if all methods should be examined
+	 * @see AbstractDetector#getListenerParameterTypes()
+	 */
+	default @Nullable Collection<Class<?>> getListenerParameterTypes() {
+		return null;
+	}
+
+
+	/**
+	 * To get a fingerprint of this detector: a string, which is the same for detectors detecting the same listeners
+	 * in the same methods (also in different JVMs).
+	 * <p>
+	 * It is a part of keys of the persistent detection cache, so detection results stored by one set of detectors
+	 * are not used by another one.
+	 * <p>
+	 * Per default it is the class name.
+	 * Detectors configurable in runtime (like {@link TypicalJavaListenerDetector}) should add their configuration.
+	 *
+	 * @return fingerprint of this detector
+	 */
+	default @NonNull String getFingerprint() {
+		return getClass().getName();
+	}
 }
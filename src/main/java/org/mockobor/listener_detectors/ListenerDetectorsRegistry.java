@@ -4,6 +4,7 @@ import org.eclipse.jdt.annotation.NonNull;
 
 import java.beans.PropertyChangeSupport;
 import java.util.Collection;
+import java.util.Collections;
 
 
 /**
@@ -42,6 +43,22 @@ public interface ListenerDetectorsRegistry {
 	void registerListenerDefinitionDetector( @NonNull ListenerDefinitionDetector listenerDefinitionDetector );
 
 
+	/**
+	 * To return precomputed detectors applicable for the specified type of mocked observable
+	 * (see {@link PrecomputedListenerDetector}, {@link org.mockobor.MockoborObservable}).
+	 * <p><br>
+	 * Precomputed detectors take precedence over all detectors returned from {@link #getDetectors()}.
+	 * <p><br>
+	 * It returns an empty list per default.
+	 *
+	 * @param mockedObservableType class of mocked observable
+	 * @return immutable list of precomputed detectors for the specified type (or its super types)
+	 */
+	default @NonNull Collection<PrecomputedListenerDetector> getPrecomputedDetectors( @NonNull Class<?> mockedObservableType ) {
+		return Collections.emptyList();
+	}
+
+
 	/**
 	 * To remove all registered custom listener definition detectors.
 	 * <p><br>
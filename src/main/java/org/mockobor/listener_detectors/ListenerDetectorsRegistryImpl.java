@@ -2,10 +2,8 @@ package org.mockobor.listener_detectors;
 
 import org.eclipse.jdt.annotation.NonNull;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
+import java.util.stream.Collectors;
 
 
 /**
@@ -18,6 +16,20 @@ public class ListenerDetectorsRegistryImpl implements ListenerDetectorsRegistry
 
 	private final List<ListenerDefinitionDetector> detectors = new ArrayList<>();
 
+	/** All precomputed detectors found in classpath (loaded lazily). */
+	private volatile List<PrecomputedListenerDetector> precomputedDetectors;
+
+	/** type of mocked observable -> applicable precomputed detectors. */
+	private final ClassValue<List<PrecomputedListenerDetector>> precomputedDetectorsByType = new ClassValue<List<PrecomputedListenerDetector>>() {
+		@Override
+		protected List<PrecomputedListenerDetector> computeValue( Class<?> type ) {
+			List<PrecomputedListenerDetector> applicable = getAllPrecomputedDetectors().stream()
+			                                                                        .filter( d -> d.getObservableType().isAssignableFrom( type ) )
+			                                                                        .collect( Collectors.toList() );
+			return applicable.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList( applicable );
+		}
+	};
+
 	public ListenerDetectorsRegistryImpl() {
 		registerDefaultDetectors();
 	}
@@ -32,6 +44,26 @@ public class ListenerDetectorsRegistryImpl implements ListenerDetectorsRegistry
 		detectors.add( 0, listenerDefinitionDetector );
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p><br>
+	 * Precomputed detectors are loaded (once) using {@link ServiceLoader} as services of {@link PrecomputedListenerDetector}.
+	 */
+	@Override
+	public @NonNull Collection<PrecomputedListenerDetector> getPrecomputedDetectors( @NonNull Class<?> mockedObservableType ) {
+		return precomputedDetectorsByType.get( mockedObservableType );
+	}
+
+	private @NonNull List<PrecomputedListenerDetector> getAllPrecomputedDetectors() {
+		List<PrecomputedListenerDetector> loaded = precomputedDetectors;
+		if( loaded == null ) {
+			loaded = new ArrayList<>();
+			ServiceLoader.load( PrecomputedListenerDetector.class ).forEach( loaded::add );
+			precomputedDetectors = loaded;
+		}
+		return loaded;
+	}
+
 	@Override
 	public void reset() {
 		detectors.clear();
@@ -1,13 +1,12 @@
 package org.mockobor.listener_detectors;
 
-import lombok.AccessLevel;
-import lombok.EqualsAndHashCode;
-import lombok.RequiredArgsConstructor;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
 
 import java.util.Arrays;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 
@@ -60,19 +59,107 @@ import java.util.stream.Collectors;
  * ...
  * }
  * </code></pre>
+ * <p>
+ * Selectors are immutable (as long as their values are immutable) and cache their hash code,
+ * because they are used as keys to store and find listeners.
+ * The empty selector and selectors with one String value are shared instances.
  */
-@EqualsAndHashCode
-@RequiredArgsConstructor( access = AccessLevel.PRIVATE )
 public final class ListenerSelector {
 
-	private final Object[] objects;
+	/** Maximal number of interned String selectors (see {@link #selector(Object)}). */
+	static final int MAX_INTERNED_SELECTORS = 1024;
 
+	private static final ListenerSelector EMPTY = new ListenerSelector( new Object[0], null );
+
+	/** String value (typically property name) -> selector with this value. */
+	private static final Map<String, ListenerSelector> INTERNED_SELECTORS = new ConcurrentHashMap<>();
+
+	/** Values of selector with zero or two and more values; null for one-value selectors. */
+	private final Object @Nullable [] objects;
+
+	/** Value of one-value selector. */
+	private final @Nullable Object object;
+
+	private final int hash;
+
+
+	private ListenerSelector( Object @Nullable [] objects, @Nullable Object object ) {
+		this.objects = objects;
+		this.object = object;
+		this.hash = objects != null ? Arrays.deepHashCode( objects ) : 31 + deepHashCode( object );
+	}
+
+
+	/**
+	 * To create a selector with the specified values.
+	 *
+	 * @param objects values of selector; null is the same as one {@code null} value
+	 * @return selector with the specified values
+	 */
 	public static @NonNull ListenerSelector selector( @Nullable Object... objects ) {
-		return new ListenerSelector( objects != null ? objects : new Object[]{ null } );
+		if( objects == null ) return selector( (Object) null );
+		switch( objects.length ) {
+			case 0:
+				return EMPTY;
+			case 1:
+				return selector( objects[0] );
+			default:
+				return new ListenerSelector( objects, null );
+		}
+	}
+
+	/**
+	 * To get a selector without values (selector used to register listeners without any qualifier).
+	 *
+	 * @return the empty selector (always the same instance)
+	 */
+	public static @NonNull ListenerSelector selector() {
+		return EMPTY;
+	}
+
+	/**
+	 * To create a selector with one value.
+	 * <p>
+	 * Selectors with a String value (like property name) are interned, so repeated calls return the same instance.
+	 *
+	 * @param object value of selector
+	 * @return selector with the specified value
+	 */
+	public static @NonNull ListenerSelector selector( @Nullable Object object ) {
+		if( !( object instanceof String ) ) return new ListenerSelector( null, object );
+
+		ListenerSelector interned = INTERNED_SELECTORS.get( object );
+		if( interned != null ) return interned;
+		ListenerSelector selector = new ListenerSelector( null, object );
+		if( INTERNED_SELECTORS.size() >= MAX_INTERNED_SELECTORS ) return selector;
+		interned = INTERNED_SELECTORS.putIfAbsent( (String) object, selector );
+		return interned != null ? interned : selector;
+	}
+
+
+	private static int deepHashCode( @Nullable Object object ) {
+		return object != null && object.getClass().isArray() ? Arrays.deepHashCode( new Object[]{ object } ) - 31 : Objects.hashCode( object );
+	}
+
+	@Override
+	public boolean equals( @Nullable Object o ) {
+		if( this == o ) return true;
+		if( !( o instanceof ListenerSelector ) ) return false;
+		ListenerSelector that = (ListenerSelector) o;
+		if( hash != that.hash ) return false;
+		return objects != null
+		       ? that.objects != null && Arrays.deepEquals( objects, that.objects )
+		       : that.objects == null && Objects.deepEquals( object, that.object );
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
 	}
 
 	@Override
 	public String toString() {
+		if( objects == null ) return "selector(" + object + ")";
 		return Arrays.stream( objects )
 		             .map( Objects::toString )
 		             .collect( Collectors.joining( ", ", "selector(", ")" ) );
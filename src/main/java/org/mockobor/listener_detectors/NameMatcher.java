@@ -0,0 +1,94 @@
+package org.mockobor.listener_detectors;
+
+import org.eclipse.jdt.annotation.NonNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+
+/**
+ * Memoized matcher of names (of classes or methods) against a regular expression.
+ * <p>
+ * Regular expressions which are pure literals or literals with leading/trailing {@code .*}
+ * are compiled to plain string checks ({@code equals}, {@code startsWith}, {@code endsWith}, {@code contains}).
+ * For other regular expressions a literal prefix (if any) is checked before the regular expression is used.
+ * <p>
+ * Decisions are memoized per name, so repeated checks of the same name (typical for mocks of the same type)
+ * are a hash lookup.
+ */
+final class NameMatcher {
+
+	private static final String ANY = ".*";
+
+	private static final String META_CHARACTERS = "\\^$.|?*+()[]{}";
+
+	private final @NonNull String regexp;
+
+	private final @NonNull Predicate<String> predicate;
+
+	private final Map<String, Boolean> decisions = new ConcurrentHashMap<>();
+
+
+	NameMatcher( @NonNull String regexp ) {
+		this.regexp = regexp;
+		this.predicate = compile( regexp );
+	}
+
+
+	/**
+	 * @param name name to check
+	 * @return true if the whole name matches the regular expression of this matcher
+	 */
+	boolean matches( @NonNull String name ) {
+		Boolean decision = decisions.get( name );
+		if( decision == null ) {
+			decision = predicate.test( name );
+			decisions.put( name, decision );
+		}
+		return decision;
+	}
+
+
+	private static @NonNull Predicate<String> compile( @NonNull String regexp ) {
+		if( isLiteral( regexp ) ) return regexp::equals;
+
+		boolean anyPrefix = regexp.startsWith( ANY );
+		boolean anySuffix = regexp.endsWith( ANY ) && regexp.length() >= 2 * ANY.length();
+		String core = regexp.substring( anyPrefix ? ANY.length() : 0, regexp.length() - ( anySuffix ? ANY.length() : 0 ) );
+		if( ( anyPrefix || anySuffix ) && isLiteral( core ) ) {
+			if( anyPrefix && anySuffix ) return name -> name.contains( core );
+			if( anyPrefix ) return name -> name.endsWith( core );
+			return name -> name.startsWith( core );
+		}
+
+		Pattern pattern = Pattern.compile( regexp );
+		String literalPrefix = getLiteralPrefix( regexp );
+		if( literalPrefix.isEmpty() ) return name -> pattern.matcher( name ).matches();
+		return name -> name.startsWith( literalPrefix ) && pattern.matcher( name ).matches();
+	}
+
+	private static boolean isLiteral( @NonNull String regexp ) {
+		for( int i = 0; i < regexp.length(); i++ ) {
+			if( META_CHARACTERS.indexOf( regexp.charAt( i ) ) >= 0 ) return false;
+		}
+		return true;
+	}
+
+	/** @return literal characters at the start of the regular expression which every matched name must start with */
+	private static @NonNull String getLiteralPrefix( @NonNull String regexp ) {
+		if( regexp.indexOf( '|' ) >= 0 ) return ""; // alternatives may start with anything
+
+		int end = 0;
+		while( end < regexp.length() && META_CHARACTERS.indexOf( regexp.charAt( end ) ) < 0 ) end++;
+		if( end < regexp.length() && "?*{".indexOf( regexp.charAt( end ) ) >= 0 ) end--; // the last literal character is optional
+		return regexp.substring( 0, Math.max( end, 0 ) );
+	}
+
+
+	@Override
+	public String toString() {
+		return "NameMatcher(" + regexp + ")";
+	}
+}
@@ -2,10 +2,12 @@ package org.mockobor.listener_detectors;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.mockobor.Mockobor;
+import org.mockobor.mockedobservable.ObservableNotificationDelegates;
 import org.mockobor.mockedobservable.ObservableNotifier;
 import org.mockobor.utils.reflection.ReflectionUtils;
 
 import java.lang.reflect.Method;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Observer;
@@ -28,6 +30,9 @@ import java.util.Observer;
  */
 public class ObservableDetector extends AbstractDetector implements ListenerDefinitionDetector {
 
+	@SuppressWarnings( "deprecation" )
+	private static final Collection<Class<?>> LISTENER_TYPES = Collections.singletonList( Observer.class );
+
 	@SuppressWarnings( "deprecation" )
 	@Override
 	protected boolean isListenerClass( @NonNull Class<?> parameterType, @NonNull Method method ) {
@@ -46,8 +51,19 @@ public class ObservableDetector extends AbstractDetector implements ListenerDefi
 		return ReflectionUtils.methodMatch( method, "deleteObserver", Observer.class );
 	}
 
+	@Override
+	public @NonNull Collection<Class<?>> getListenerParameterTypes() {
+		return LISTENER_TYPES;
+	}
+
 	@Override
 	protected @NonNull List<Class<?>> getAdditionalInterfaces() {
 		return Collections.singletonList( ObservableNotifier.class );
 	}
+
+	/** Fast path for notification methods of {@link ObservableNotifier} (see {@link ObservableNotificationDelegates}). */
+	@Override
+	protected @NonNull List<NotificationMethodDelegate> getCustomNotificationMethodDelegates() {
+		return ObservableNotificationDelegates.getNotificationDelegates();
+	}
 }
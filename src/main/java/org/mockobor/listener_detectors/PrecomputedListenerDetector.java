@@ -0,0 +1,130 @@
+package org.mockobor.listener_detectors;
+
+import lombok.Getter;
+import org.eclipse.jdt.annotation.NonNull;
+import org.mockobor.MockoborObservable;
+import org.mockobor.listener_detectors.ListenerDefinition.ListenerDefinitionImpl;
+import org.mockobor.utils.reflection.MethodIndex;
+import org.mockobor.utils.reflection.MethodSignature;
+
+import java.lang.reflect.Method;
+import java.util.*;
+
+
+/**
+ * Base class for listener definition detectors with registration methods computed in advance
+ * (typically generated at compile time by mockobor's annotation processor for types annotated with {@link MockoborObservable}).
+ * <p>
+ * A precomputed detector knows the signatures of registration methods of one observable type,
+ * indexes of listener parameters and indexes of parameters used as selectors.
+ * Detection is only a lookup of methods with these signatures - no reflective examination of methods is needed.
+ * <p>
+ * Precomputed detectors are loaded by {@link ListenerDetectorsRegistryImpl} using {@link ServiceLoader}
+ * (as services of this class) and used for mocks of their observable types (or subtypes)
+ * before all registered detectors.
+ * Registration methods found by precomputed detectors are not examined by other detectors.
+ * <p>
+ * Implementation notes: subclasses must have a public no-arg constructor,
+ * which defines registration methods using {@link #addRegistrationMethod} and {@link #addDeregistrationMethod}.
+ * Precomputed methods not found in a mock (for example, because the observable class was changed after generation)
+ * are ignored - they will be examined by registered detectors.
+ */
+public abstract class PrecomputedListenerDetector extends AbstractDetector {
+
+	/** Type (class or interface) which registration methods are precomputed. */
+	@Getter
+	private final @NonNull Class<?> observableType;
+
+	private final List<RegistrationDescriptor> descriptors = new ArrayList<>();
+
+	private final Set<Class<?>> listenerTypes = new LinkedHashSet<>();
+
+
+	protected PrecomputedListenerDetector( @NonNull Class<?> observableType ) {
+		this.observableType = observableType;
+	}
+
+
+	/**
+	 * To define a registration method (like {@code addXxxListener}).
+	 *
+	 * @param name            method name
+	 * @param returnType      return type of method
+	 * @param parameterTypes  parameter types of method
+	 * @param listenerIndexes indexes of listener parameters
+	 * @param selectorIndexes indexes of other parameters (used to create selector)
+	 */
+	protected final void addRegistrationMethod( @NonNull String name, @NonNull Class<?> returnType, @NonNull Class<?>[] parameterTypes,
+	                                            int @NonNull [] listenerIndexes, int @NonNull [] selectorIndexes ) {
+		addMethod( true, name, returnType, parameterTypes, listenerIndexes, selectorIndexes );
+	}
+
+	/**
+	 * To define a deregistration method (like {@code removeXxxListener}).
+	 *
+	 * @param name            method name
+	 * @param returnType      return type of method
+	 * @param parameterTypes  parameter types of method
+	 * @param listenerIndexes indexes of listener parameters
+	 * @param selectorIndexes indexes of other parameters (used to create selector)
+	 */
+	protected final void addDeregistrationMethod( @NonNull String name, @NonNull Class<?> returnType, @NonNull Class<?>[] parameterTypes,
+	                                              int @NonNull [] listenerIndexes, int @NonNull [] selectorIndexes ) {
+		addMethod( false, name, returnType, parameterTypes, listenerIndexes, selectorIndexes );
+	}
+
+	private void addMethod( boolean registration, @NonNull String name, @NonNull Class<?> returnType, @NonNull Class<?>[] parameterTypes,
+	                        int @NonNull [] listenerIndexes, int @NonNull [] selectorIndexes ) {
+		RegistrationDescriptor descriptor = new RegistrationDescriptor( registration, MethodSignature.of( name, returnType, parameterTypes ),
+		                                                                listenerIndexes, selectorIndexes );
+		descriptors.add( descriptor );
+		listenerTypes.addAll( descriptor.getListenerClasses() );
+	}
+
+
+	// ==================================================================================
+	// ================================== detection =====================================
+	// ==================================================================================
+
+	/**
+	 * @return precomputed listener types
+	 */
+	@Override
+	public @NonNull Collection<Class<?>> getListenerParameterTypes() {
+		return Collections.unmodifiableSet( listenerTypes );
+	}
+
+	/**
+	 * To find precomputed registration methods in the specified methods (by signature).
+	 *
+	 * @param methods methods of observable object
+	 * @return listenersDefinition with precomputed registrations found in the specified methods
+	 */
+	@Override
+	protected @NonNull ListenerDefinitionImpl detectRegistrations( @NonNull Collection<Method> methods ) {
+		ListenerDefinitionImpl listenerDefinition = new ListenerDefinitionImpl();
+		addRegistrations( listenerDefinition, MethodIndex.of( methods )::findMethod, descriptors );
+		return listenerDefinition;
+	}
+
+	@Override
+	protected boolean isListenerClass( @NonNull Class<?> parameterType, @NonNull Method method ) {
+		return listenerTypes.contains( parameterType );
+	}
+
+	@Override
+	protected boolean isAddMethods( @NonNull Method method ) {
+		return descriptors.stream().anyMatch( d -> d.isRegistration() && d.getSignature().matches( method ) );
+	}
+
+	@Override
+	protected boolean isRemoveMethods( @NonNull Method method ) {
+		return descriptors.stream().anyMatch( d -> !d.isRegistration() && d.getSignature().matches( method ) );
+	}
+
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "(" + observableType.getName() + ", " + descriptors.size() + " registration methods)";
+	}
+}
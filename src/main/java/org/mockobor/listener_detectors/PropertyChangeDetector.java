@@ -2,12 +2,14 @@ package org.mockobor.listener_detectors;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.mockobor.Mockobor;
+import org.mockobor.mockedobservable.PropertyChangeNotificationDelegates;
 import org.mockobor.mockedobservable.PropertyChangeNotifier;
 import org.mockobor.utils.reflection.ReflectionUtils;
 
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
 import java.lang.reflect.Method;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
@@ -31,6 +33,8 @@ import java.util.List;
  */
 public class PropertyChangeDetector extends AbstractDetector implements ListenerDefinitionDetector {
 
+	private static final Collection<Class<?>> LISTENER_TYPES = Collections.singletonList( PropertyChangeListener.class );
+
 	@Override
 	protected boolean isListenerClass( @NonNull Class<?> parameterType, @NonNull Method method ) {
 		return parameterType.equals( PropertyChangeListener.class );
@@ -48,8 +52,19 @@ public class PropertyChangeDetector extends AbstractDetector implements Listener
 		       || ReflectionUtils.methodMatch( method, "removePropertyChangeListener", String.class, PropertyChangeListener.class );
 	}
 
+	@Override
+	public @NonNull Collection<Class<?>> getListenerParameterTypes() {
+		return LISTENER_TYPES;
+	}
+
 	@Override
 	protected @NonNull List<Class<?>> getAdditionalInterfaces() {
 		return Collections.singletonList( PropertyChangeNotifier.class );
 	}
+
+	/** Fast path for fire-methods of {@link PropertyChangeNotifier} (see {@link PropertyChangeNotificationDelegates}). */
+	@Override
+	protected @NonNull List<NotificationMethodDelegate> getCustomNotificationMethodDelegates() {
+		return PropertyChangeNotificationDelegates.getNotificationDelegates();
+	}
 }
@@ -0,0 +1,113 @@
+package org.mockobor.listener_detectors;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.mockobor.listener_detectors.AbstractDetector.ListenerRegistrationParameters;
+import org.mockobor.utils.reflection.MethodSignature;
+
+import java.lang.reflect.Method;
+import java.util.*;
+
+
+/**
+ * Immutable description of a detected (de)registration method, independent of the {@link Method} object it was detected in.
+ * <p>
+ * It contains everything {@link AbstractDetector} computes reflectively for a registration method:
+ * the signature, the kind of registration (add/remove) and the indexes of listener and selector parameters.
+ * Therefore, it can be computed in advance (see {@link PrecomputedListenerDetector}) or stored persistently
+ * and later rehydrated into {@link RegistrationDelegate} by searching for a method with the same signature
+ * (see {@link AbstractDetector#rehydrate}).
+ */
+public final class RegistrationDescriptor {
+
+	private final boolean registration;
+
+	private final @NonNull MethodSignature signature;
+
+	private final int @NonNull [] listenerIndexes;
+
+	private final int @NonNull [] selectorIndexes;
+
+	private final @NonNull List<Class<?>> listenerClasses;
+
+
+	/**
+	 * @param registration    true for registration methods (like add-listener), false for deregistration methods (like remove-listener)
+	 * @param signature       signature of (de)registration method
+	 * @param listenerIndexes indexes of listener parameters
+	 * @param selectorIndexes indexes of other parameters (used to create selector)
+	 */
+	public RegistrationDescriptor( boolean registration,
+	                               @NonNull MethodSignature signature,
+	                               int @NonNull [] listenerIndexes,
+	                               int @NonNull [] selectorIndexes ) {
+		this.registration = registration;
+		this.signature = signature;
+		this.listenerIndexes = listenerIndexes.clone();
+		this.selectorIndexes = selectorIndexes.clone();
+
+		Class<?>[] parameterTypes = signature.getParameterTypes();
+		List<Class<?>> classes = new ArrayList<>( listenerIndexes.length );
+		for( int listenerIndex : listenerIndexes ) classes.add( parameterTypes[listenerIndex] );
+		this.listenerClasses = Collections.unmodifiableList( classes );
+	}
+
+
+	/** @return true for registration methods (like add-listener), false for deregistration methods (like remove-listener) */
+	public boolean isRegistration() {
+		return registration;
+	}
+
+	public @NonNull MethodSignature getSignature() {
+		return signature;
+	}
+
+	/** @return a copy of indexes of listener parameters */
+	public int @NonNull [] getListenerIndexes() {
+		return listenerIndexes.clone();
+	}
+
+	/** @return a copy of indexes of selector parameters */
+	public int @NonNull [] getSelectorIndexes() {
+		return selectorIndexes.clone();
+	}
+
+	/** @return immutable list of listener types (types of listener parameters) */
+	public @NonNull List<Class<?>> getListenerClasses() {
+		return listenerClasses;
+	}
+
+
+	/**
+	 * To create registration parameters for the specified method.
+	 *
+	 * @param method method with the signature of this descriptor (see {@link MethodSignature#matches})
+	 * @return registration parameters for the specified method
+	 */
+	@NonNull ListenerRegistrationParameters createParameters( @NonNull Method method ) {
+		return new ListenerRegistrationParameters( method, listenerIndexes, listenerClasses, selectorIndexes );
+	}
+
+
+	@Override
+	public boolean equals( @Nullable Object o ) {
+		if( this == o ) return true;
+		if( !( o instanceof RegistrationDescriptor ) ) return false;
+		RegistrationDescriptor that = (RegistrationDescriptor) o;
+		return registration == that.registration
+		       && signature.equals( that.signature )
+		       && Arrays.equals( listenerIndexes, that.listenerIndexes )
+		       && Arrays.equals( selectorIndexes, that.selectorIndexes );
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * ( 31 * signature.hashCode() + Boolean.hashCode( registration ) ) + Arrays.hashCode( listenerIndexes );
+	}
+
+	@Override
+	public String toString() {
+		return ( registration ? "registration " : "deregistration " ) + signature
+		       + " (listeners: " + Arrays.toString( listenerIndexes ) + ", selector: " + Arrays.toString( selectorIndexes ) + ")";
+	}
+}
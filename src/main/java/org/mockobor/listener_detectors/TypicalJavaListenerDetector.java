@@ -5,7 +5,6 @@ import org.eclipse.jdt.annotation.NonNull;
 import org.mockobor.Mockobor;
 
 import java.lang.reflect.Method;
-import java.util.regex.Pattern;
 
 
 /**
@@ -23,12 +22,22 @@ import java.util.regex.Pattern;
  * <li>a notifier object returned from {@link Mockobor#createNotifierFor} implements {@code XxxListener}</li>
  * <li>the found registration methods will be redirected to the notifier object</li>
  * </ul>
+ * <p>
+ * Decisions are memoized per listener class and per method name,
+ * so the detection for listener types seen before does not run the regular expressions again.
  */
 public class TypicalJavaListenerDetector extends AbstractDetector implements ListenerDefinitionDetector {
 
-	private final Pattern listenerClassNamePattern;
-	private final Pattern addMethodNamePattern;
-	private final Pattern removeMethodNamePattern;
+	private final NameMatcher listenerClassNameMatcher;
+	private final NameMatcher addMethodNameMatcher;
+	private final NameMatcher removeMethodNameMatcher;
+
+	private final ClassValue<Boolean> listenerClasses = new ClassValue<Boolean>() {
+		@Override
+		protected Boolean computeValue( Class<?> type ) {
+			return listenerClassNameMatcher.matches( type.getSimpleName() );
+		}
+	};
 
 	public TypicalJavaListenerDetector() {
 		this( ".*Listener", "add(.*)Listeners?", "remove(.*)Listeners?" );
@@ -38,23 +47,28 @@ public class TypicalJavaListenerDetector extends AbstractDetector implements Lis
 	public TypicalJavaListenerDetector( @NonNull String listenerClassNameRegexp,
 	                                    @NonNull String addMethodNameRegexp,
 	                                    @NonNull String removeMethodNameRegexp ) {
-		this.listenerClassNamePattern = Pattern.compile( listenerClassNameRegexp );
-		this.addMethodNamePattern = Pattern.compile( addMethodNameRegexp );
-		this.removeMethodNamePattern = Pattern.compile( removeMethodNameRegexp );
+		this.listenerClassNameMatcher = new NameMatcher( listenerClassNameRegexp );
+		this.addMethodNameMatcher = new NameMatcher( addMethodNameRegexp );
+		this.removeMethodNameMatcher = new NameMatcher( removeMethodNameRegexp );
+	}
+
+	@Override
+	public @NonNull String getFingerprint() {
+		return getClass().getName() + "(" + listenerClassNameMatcher + "," + addMethodNameMatcher + "," + removeMethodNameMatcher + ")";
 	}
 
 	@Override
 	protected boolean isListenerClass( @NonNull Class<?> parameterType, @NonNull Method method ) {
-		return listenerClassNamePattern.matcher( parameterType.getSimpleName() ).matches();
+		return listenerClasses.get( parameterType );
 	}
 
 	@Override
 	protected boolean isAddMethods( @NonNull Method method ) {
-		return addMethodNamePattern.matcher( method.getName() ).matches();
+		return addMethodNameMatcher.matches( method.getName() );
 	}
 
 	@Override
 	protected boolean isRemoveMethods( @NonNull Method method ) {
-		return removeMethodNamePattern.matcher( method.getName() ).matches();
+		return removeMethodNameMatcher.matches( method.getName() );
 	}
 }
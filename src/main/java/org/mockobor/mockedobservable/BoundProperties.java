@@ -0,0 +1,139 @@
+package org.mockobor.mockedobservable;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+import java.beans.PropertyChangeEvent;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * Last values of bound properties set by {@link PropertyChangeNotifier#setProperty}.
+ * <p>
+ * Values of {@code int}, {@code long} and {@code double} properties are stored unboxed,
+ * so setting of an unchanged value does not allocate anything.
+ * Values are boxed only to create an event if the value has been changed.
+ * <p>
+ * Created lazily by {@link ListenersManager}, so notifiers which do not use bound properties do not hold any state.
+ */
+final class BoundProperties {
+
+	private static final byte UNSET = 0;
+	private static final byte OBJECT = 1;
+	private static final byte INT = 2;
+	private static final byte LONG = 3;
+	private static final byte DOUBLE = 4;
+
+
+	/** property name -> last value of the property. */
+	private final Map<String, Value> values = new HashMap<>();
+
+
+	/**
+	 * @param propertyName name of the property
+	 * @return last value set for the specified property or null if the property was never set
+	 */
+	synchronized @Nullable Object get( @NonNull String propertyName ) {
+		Value value = values.get( propertyName );
+		return value != null ? value.get() : null;
+	}
+
+	/**
+	 * To store a new value of the specified property.
+	 *
+	 * @param source       source of event (mocked observable)
+	 * @param propertyName name of the property
+	 * @param newValue     new value of the property
+	 * @return event to fire or null if the value was not changed (old and new values are equal and non-null)
+	 */
+	synchronized @Nullable PropertyChangeEvent set( @NonNull Object source, @NonNull String propertyName, @Nullable Object newValue ) {
+		Value value = value( propertyName );
+		Object oldValue = value.get();
+		value.setObject( newValue );
+		return createEvent( source, propertyName, oldValue, newValue );
+	}
+
+	/**
+	 * To store a new value of the specified {@code int} property (see {@link #set(Object, String, Object)}).
+	 */
+	synchronized @Nullable PropertyChangeEvent set( @NonNull Object source, @NonNull String propertyName, int newValue ) {
+		Value value = value( propertyName );
+		if( value.kind == INT && value.bits == newValue ) return null;
+		Object oldValue = value.get();
+		value.setBits( INT, newValue );
+		return createEvent( source, propertyName, oldValue, newValue );
+	}
+
+	/**
+	 * To store a new value of the specified {@code long} property (see {@link #set(Object, String, Object)}).
+	 */
+	synchronized @Nullable PropertyChangeEvent set( @NonNull Object source, @NonNull String propertyName, long newValue ) {
+		Value value = value( propertyName );
+		if( value.kind == LONG && value.bits == newValue ) return null;
+		Object oldValue = value.get();
+		value.setBits( LONG, newValue );
+		return createEvent( source, propertyName, oldValue, newValue );
+	}
+
+	/**
+	 * To store a new value of the specified {@code double} property (see {@link #set(Object, String, Object)}).
+	 * <p>
+	 * Values are compared like {@link Double#equals}, so {@code NaN} is equal to itself and {@code 0.0} differs from {@code -0.0}.
+	 */
+	synchronized @Nullable PropertyChangeEvent set( @NonNull Object source, @NonNull String propertyName, double newValue ) {
+		Value value = value( propertyName );
+		long bits = Double.doubleToLongBits( newValue );
+		if( value.kind == DOUBLE && value.bits == bits ) return null;
+		Object oldValue = value.get();
+		value.setBits( DOUBLE, bits );
+		return createEvent( source, propertyName, oldValue, newValue );
+	}
+
+
+	private @NonNull Value value( @NonNull String propertyName ) {
+		return values.computeIfAbsent( propertyName, n -> new Value() );
+	}
+
+	private static @Nullable PropertyChangeEvent createEvent( @NonNull Object source, @NonNull String propertyName,
+	                                                          @Nullable Object oldValue, @Nullable Object newValue ) {
+		if( oldValue != null && oldValue.equals( newValue ) ) return null;
+		return new PropertyChangeEvent( source, propertyName, oldValue, newValue );
+	}
+
+
+	/** Last value of one property: primitive values are stored in {@code bits}, all other values in {@code object}. */
+	private static final class Value {
+
+		private byte kind = UNSET;
+
+		private long bits;
+
+		private @Nullable Object object;
+
+
+		private @Nullable Object get() {
+			switch( kind ) {
+				case INT:
+					return (int) bits;
+				case LONG:
+					return bits;
+				case DOUBLE:
+					return Double.longBitsToDouble( bits );
+				default:
+					return object;
+			}
+		}
+
+		private void setObject( @Nullable Object newValue ) {
+			kind = OBJECT;
+			object = newValue;
+		}
+
+		private void setBits( byte newKind, long newBits ) {
+			kind = newKind;
+			bits = newBits;
+			object = null;
+		}
+	}
+}
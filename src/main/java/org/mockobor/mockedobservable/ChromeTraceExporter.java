@@ -0,0 +1,287 @@
+package org.mockobor.mockedobservable;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.mockobor.exceptions.MockoborException;
+import org.mockobor.listener_detectors.ListenerSelector;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Exporter of notification timelines in the Chrome Trace Event format (JSON array format),
+ * which can be loaded in trace viewers like {@code chrome://tracing} or <a href="https://ui.perfetto.dev">Perfetto</a>
+ * (see {@link ExtendedListenersNotifier#setTraceExporter}).
+ * <p>
+ * Each dispatch of a notification is written as a complete event (with thread, duration and arguments:
+ * observable, number of notified listeners, nesting depth), each registration and deregistration of a listener - as an instant event.
+ * Re-entrant notifications (a listener fires another notification, possibly of another notifier) are nested
+ * in trace viewers under the notification, which caused them, so cascades and their latency can be seen at a glance.
+ * <p>
+ * Events are written in a direct buffer, which is flushed to the file channel only if it is full (or on {@link #close()}),
+ * so the overhead stays low on large runs. One exporter can be used by several notifiers (and threads) at once.
+ * <p>
+ * Example:
+ * <pre class="code"><code class="java">
+ *
+ * try( ChromeTraceExporter exporter = new ChromeTraceExporter( Paths.get( "build/notifications.json" ) ) ) {
+ *     notifier1.setTraceExporter( exporter );
+ *     notifier2.setTraceExporter( exporter );
+ *
+ *     // ... test ...
+ * }
+ *
+ * </code></pre>
+ */
+public class ChromeTraceExporter implements AutoCloseable {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private static final String PROCESS_ID = Long.toString( ProcessHandle.current().pid() );
+
+
+	private final @NonNull Path file;
+
+	private final FileChannel channel;
+
+	/** Guarded by itself. */
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect( BUFFER_SIZE );
+
+	private final long startNanos = System.nanoTime();
+
+	/** Threads, whose names are already written. */
+	private final Set<Long> namedThreads = ConcurrentHashMap.newKeySet();
+
+	/** Nesting depth of dispatches per thread. */
+	private final ThreadLocal<int[]> depth = ThreadLocal.withInitial( () -> new int[1] );
+
+	/** Builder of events per thread (reused to avoid allocations). */
+	private final ThreadLocal<StringBuilder> eventBuilder = ThreadLocal.withInitial( () -> new StringBuilder( 256 ) );
+
+	private boolean firstEvent = true;
+
+	private volatile boolean closed;
+
+
+	/**
+	 * Creates an exporter, which writes events to the specified file (the file is created or truncated).
+	 *
+	 * @param file file to write trace events to
+	 * @throws MockoborException if the file can not be opened
+	 */
+	public ChromeTraceExporter( @NonNull Path file ) {
+		this.file = file;
+		try {
+			channel = FileChannel.open( file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE );
+		}
+		catch( IOException e ) {
+			throw new MockoborException( "can not open trace file " + file, e );
+		}
+		buffer.put( "[\n".getBytes( StandardCharsets.UTF_8 ) );
+	}
+
+
+	/** @return file the events are written to */
+	public @NonNull Path getFile() {
+		return file;
+	}
+
+	/**
+	 * To write all buffered events to the file.
+	 *
+	 * @throws MockoborException if the events can not be written
+	 */
+	public void flush() {
+		synchronized( buffer ) {
+			if( !closed ) writeBuffer();
+		}
+	}
+
+	/**
+	 * To write all buffered events, complete the JSON array and close the file.
+	 * <p>
+	 * Events sent after close are ignored.
+	 *
+	 * @throws MockoborException if the events can not be written
+	 */
+	@Override
+	public void close() {
+		synchronized( buffer ) {
+			if( closed ) return;
+			closed = true;
+			append( "\n]\n" );
+			try {
+				writeBuffer();
+			}
+			finally {
+				try {
+					channel.close();
+				}
+				catch( IOException e ) {
+					throw new MockoborException( "can not close trace file " + file, e ); // NOSONAR: exception in finally
+				}
+			}
+		}
+	}
+
+
+	// ==================================================================================
+	// ===================================== events =====================================
+	// ==================================================================================
+
+	/**
+	 * To mark the start of a dispatch in the current thread.
+	 *
+	 * @return start time to pass to {@link #endDispatch}
+	 */
+	long beginDispatch() {
+		depth.get()[0]++;
+		return System.nanoTime();
+	}
+
+	/**
+	 * To write a dispatch started by {@link #beginDispatch()} in the current thread as complete event.
+	 *
+	 * @param start         value returned by {@link #beginDispatch()}
+	 * @param observable    observable of the notifier
+	 * @param listenerClass class of notified listeners
+	 * @param method        name of the notification method
+	 * @param listeners     number of notified listeners (negative if unknown)
+	 * @param completed     false if a listener threw an exception
+	 */
+	void endDispatch( long start, @NonNull Object observable, @NonNull Class<?> listenerClass, @NonNull String method,
+	                  int listeners, boolean completed ) {
+		long end = System.nanoTime();
+		int[] currentDepth = depth.get();
+		int nesting = currentDepth[0]--;
+		if( closed ) return;
+
+		StringBuilder event = startEvent( listenerClass.getSimpleName() + "." + method, "dispatch", "X", start );
+		event.append( ",\"dur\":" );
+		appendMicros( event, end - start );
+		event.append( ",\"args\":{\"observable\":" );
+		appendObservable( event, observable );
+		event.append( ",\"listenerClass\":" );
+		appendString( event, listenerClass.getName() );
+		if( listeners >= 0 ) event.append( ",\"listeners\":" ).append( listeners );
+		event.append( ",\"depth\":" ).append( nesting );
+		if( !completed ) event.append( ",\"failed\":true" );
+		event.append( "}}" );
+		write( event );
+	}
+
+	/** To write a registration (or deregistration) of a listener as instant event. */
+	void registration( boolean registered, @NonNull Object observable, @NonNull ListenerSelector selector, @NonNull Class<?> listenerClass ) {
+		if( closed ) return;
+		StringBuilder event = startEvent( ( registered ? "register " : "deregister " ) + listenerClass.getSimpleName(),
+		                                  "registration", "i", System.nanoTime() );
+		event.append( ",\"s\":\"t\",\"args\":{\"observable\":" );
+		appendObservable( event, observable );
+		event.append( ",\"listenerClass\":" );
+		appendString( event, listenerClass.getName() );
+		event.append( ",\"selector\":" );
+		appendString( event, selector.toString() );
+		event.append( "}}" );
+		write( event );
+	}
+
+
+	private @NonNull StringBuilder startEvent( @NonNull String name, @NonNull String category, @NonNull String phase, long nanos ) {
+		Thread thread = Thread.currentThread();
+		StringBuilder event = eventBuilder.get();
+		event.setLength( 0 );
+		if( namedThreads.add( thread.getId() ) ) {
+			// metadata event: name of the thread shown by trace viewers
+			event.append( "{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":" ).append( PROCESS_ID )
+			     .append( ",\"tid\":" ).append( thread.getId() ).append( ",\"args\":{\"name\":" );
+			appendString( event, thread.getName() );
+			event.append( "}},\n" );
+		}
+		event.append( "{\"name\":" );
+		appendString( event, name );
+		event.append( ",\"cat\":\"" ).append( category ).append( "\",\"ph\":\"" ).append( phase )
+		     .append( "\",\"pid\":" ).append( PROCESS_ID ).append( ",\"tid\":" ).append( thread.getId() ).append( ",\"ts\":" );
+		appendMicros( event, nanos - startNanos );
+		return event;
+	}
+
+	/** To append the specified nanoseconds as microseconds with 3 decimal places (the unit of the trace format). */
+	private static void appendMicros( @NonNull StringBuilder event, long nanos ) {
+		long value = Math.max( 0, nanos );
+		long fraction = value % 1000;
+		event.append( value / 1000 ).append( '.' );
+		if( fraction < 100 ) event.append( '0' );
+		if( fraction < 10 ) event.append( '0' );
+		event.append( fraction );
+	}
+
+	private static void appendObservable( @NonNull StringBuilder event, @NonNull Object observable ) {
+		appendString( event, observable.getClass().getSimpleName() + "@" + Integer.toHexString( System.identityHashCode( observable ) ) );
+	}
+
+	private static void appendString( @NonNull StringBuilder event, @NonNull String value ) {
+		event.append( '"' );
+		for( int i = 0; i < value.length(); i++ ) {
+			char c = value.charAt( i );
+			if( c == '"' || c == '\\' ) {
+				event.append( '\\' ).append( c );
+			} else if( c < 0x20 ) {
+				event.append( String.format( "\\u%04x", (int) c ) );
+			} else {
+				event.append( c );
+			}
+		}
+		event.append( '"' );
+	}
+
+
+	// ==================================================================================
+	// ===================================== output =====================================
+	// ==================================================================================
+
+	private void write( @NonNull StringBuilder event ) {
+		byte[] bytes = event.toString().getBytes( StandardCharsets.UTF_8 );
+		synchronized( buffer ) {
+			if( closed ) return;
+			if( !firstEvent ) append( ",\n" );
+			firstEvent = false;
+			append( bytes );
+		}
+	}
+
+	/** Must be called by the owner of the buffer lock. */
+	private void append( @NonNull String text ) {
+		append( text.getBytes( StandardCharsets.UTF_8 ) );
+	}
+
+	/** Must be called by the owner of the buffer lock. */
+	private void append( byte @NonNull [] bytes ) {
+		int offset = 0;
+		while( offset < bytes.length ) {
+			if( !buffer.hasRemaining() ) writeBuffer();
+			int length = Math.min( buffer.remaining(), bytes.length - offset );
+			buffer.put( bytes, offset, length );
+			offset += length;
+		}
+	}
+
+	/** Must be called by the owner of the buffer lock. */
+	private void writeBuffer() {
+		buffer.flip();
+		try {
+			while( buffer.hasRemaining() ) channel.write( buffer );
+		}
+		catch( IOException e ) {
+			throw new MockoborException( "can not write trace file " + file, e );
+		}
+		finally {
+			buffer.clear();
+		}
+	}
+}
@@ -0,0 +1,145 @@
+package org.mockobor.mockedobservable;
+
+import lombok.Value;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.mockobor.listener_detectors.ListenerSelector;
+
+import java.beans.IndexedPropertyChangeEvent;
+import java.beans.PropertyChangeEvent;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+
+/**
+ * Notifications postponed by {@link ListenersManager} in coalescing mode (see {@link NotifierSettings#shouldCoalesceNotifications()}).
+ * <p>
+ * Repeated notifications for the same listener class, selectors and notification method are merged:<ul>
+ * <li>{@link PropertyChangeEvent}s - the merged event contains the old value of the first and the new value of the last event</li>
+ * <li>all other notifications - the last notification replaces the previous ones</li>
+ * </ul>
+ * Pending notifications are kept in order of their first occurrence.
+ */
+final class CoalescedNotifications {
+
+	/** (listener class, selectors, notification) -> pending notification. */
+	private final Map<Key, Pending> pending = new LinkedHashMap<>();
+
+
+	/**
+	 * To add a notification or merge it with the pending notification with the same key.
+	 *
+	 * @param listenerClass class of listeners to notify
+	 * @param selectors     selectors used by registration of listeners
+	 * @param notification  key of notification (the invoked listener method, if known)
+	 * @param dispatch      sends the notification to one listener: listener, argument
+	 * @param argument      argument of notification
+	 */
+	synchronized void add( @NonNull Class<?> listenerClass, @NonNull ListenerSelector @NonNull [] selectors, @NonNull Object notification,
+	                       @NonNull BiConsumer<Object, Object> dispatch, @Nullable Object argument ) {
+		Key key = new Key( listenerClass, Arrays.asList( selectors ), notification );
+		Pending previous = pending.get( key );
+		if( previous == null ) {
+			String methodName = notification instanceof Method ? ( (Method) notification ).getName() : null;
+			pending.put( key, new Pending( listenerClass, selectors, methodName, dispatch, argument ) );
+		} else {
+			previous.merge( dispatch, argument );
+		}
+	}
+
+	/** @return number of pending (already merged) notifications */
+	synchronized int size() {
+		return pending.size();
+	}
+
+	/** @return all pending notifications (in order of their first occurrence); this container is empty afterward */
+	synchronized @NonNull List<Pending> drain() {
+		List<Pending> drained = new ArrayList<>( pending.values() );
+		pending.clear();
+		return drained;
+	}
+
+
+	/**
+	 * @param first first event of burst
+	 * @param last  last event of burst
+	 * @return event with the old value of the first event and the new value of the last event
+	 */
+	static @NonNull PropertyChangeEvent mergeEvents( @NonNull PropertyChangeEvent first, @NonNull PropertyChangeEvent last ) {
+		PropertyChangeEvent merged = last instanceof IndexedPropertyChangeEvent
+		                             ? new IndexedPropertyChangeEvent( last.getSource(), last.getPropertyName(), first.getOldValue(),
+		                                                               last.getNewValue(), ( (IndexedPropertyChangeEvent) last ).getIndex() )
+		                             : new PropertyChangeEvent( last.getSource(), last.getPropertyName(), first.getOldValue(), last.getNewValue() );
+		merged.setPropagationId( last.getPropagationId() );
+		return merged;
+	}
+
+
+	@Value
+	private static class Key {
+		@NonNull Class<?>               listenerClass;
+		@NonNull List<ListenerSelector> selectors;
+		@NonNull Object                 notification;
+	}
+
+	/** One pending notification (possibly merged from several notifications). */
+	static final class Pending {
+
+		final @NonNull Class<?> listenerClass;
+
+		final @NonNull ListenerSelector @NonNull [] selectors;
+
+		/** Name of the notification method (for metrics and traces; null if the notification is not keyed by a method). */
+		final @Nullable String methodName;
+
+		@NonNull BiConsumer<Object, Object> dispatch;
+
+		@Nullable Object argument;
+
+		private int mergedCount = 1;
+
+
+		private Pending( @NonNull Class<?> listenerClass, @NonNull ListenerSelector @NonNull [] selectors, @Nullable String methodName,
+		                 @NonNull BiConsumer<Object, Object> dispatch, @Nullable Object argument ) {
+			this.listenerClass = listenerClass;
+			this.selectors = selectors;
+			this.methodName = methodName;
+			this.dispatch = dispatch;
+			this.argument = argument;
+		}
+
+		/** The merged notification is sent by the dispatch of the last notification (it can be sent over another path). */
+		private void merge( @NonNull BiConsumer<Object, Object> nextDispatch, @Nullable Object next ) {
+			dispatch = nextDispatch;
+			PropertyChangeEvent previousEvent = propertyChangeEvent( argument );
+			PropertyChangeEvent nextEvent = propertyChangeEvent( next );
+			if( previousEvent != null && nextEvent != null ) {
+				PropertyChangeEvent merged = mergeEvents( previousEvent, nextEvent );
+				argument = next instanceof Object[] ? new Object[]{ merged } : merged;
+			} else {
+				argument = next;
+			}
+			mergedCount++;
+		}
+
+		/** @return true if this notification is merged from property changes, which cancel each other out (like 1 -> 2 -> 1) */
+		boolean isCanceledOut() {
+			PropertyChangeEvent event = propertyChangeEvent( argument );
+			return mergedCount > 1 && event != null && event.getOldValue() != null && event.getOldValue().equals( event.getNewValue() );
+		}
+
+		/** @return property change event passed as argument (directly or as the only element of invocation arguments) or null */
+		private static @Nullable PropertyChangeEvent propertyChangeEvent( @Nullable Object argument ) {
+			if( argument instanceof PropertyChangeEvent ) return (PropertyChangeEvent) argument;
+			if( argument instanceof Object[] && ( (Object[]) argument ).length == 1 && ( (Object[]) argument )[0] instanceof PropertyChangeEvent ) {
+				return (PropertyChangeEvent) ( (Object[]) argument )[0];
+			}
+			return null;
+		}
+	}
+}
@@ -0,0 +1,323 @@
+package org.mockobor.mockedobservable;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.mockobor.exceptions.MockoborException;
+import org.mockobor.exceptions.MockoborIllegalArgumentException;
+import org.mockobor.exceptions.MockoborImplementationError;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Concurrent, but reproducible dispatch of notifications (see {@link ExtendedListenersNotifier#setDeterministicDispatch}).
+ * <p>
+ * Tasks (listener invocations, registrations of listeners etc.) are spread across the specified number of threads,
+ * but only one of these threads runs at a time. At each scheduling point the running thread passes control to another
+ * thread chosen by a seeded random generator, so the interleaving depends only on the seed.
+ * <p>
+ * Each run (a dispatch of one notification or a call of {@link #runConcurrently}) uses its own seed derived from the seed
+ * of the dispatch and the ordinal of the run, so the interleaving of a run does not depend on the tasks of previous runs.
+ * The first run uses the seed of the dispatch itself: a failing run can be replayed by creating a new {@code DeterministicDispatch}
+ * with the seed of this run (reported in the failure message) and the same number of threads.
+ * <p>
+ * Worker threads are reused by all runs of a dispatch (they are stopped after a minute without runs).
+ * Runs started concurrently from different threads are executed one after another.
+ * <p>
+ * Scheduling points are:<ul>
+ * <li>start of each task (each listener invocation)</li>
+ * <li>registration and deregistration of listeners by a notifier, which uses a deterministic dispatch</li>
+ * <li>explicit calls of {@link #yieldPoint()} (for example, inside listeners between "check" and "act")</li>
+ * </ul>
+ * Note: Listeners must not block waiting for each other (like waiting on a latch released by another listener),
+ * because the thread, which should release it, can not run until the waiting thread reaches the next scheduling point.
+ * <p>
+ * Example:
+ * <pre class="code"><code class="java">
+ *
+ * DeterministicDispatch dispatch = DeterministicDispatch.withRandomSeed( 4 );
+ * notifier.setDeterministicDispatch( dispatch );
+ * try {
+ *     ( (MyListener) notifier ).onChange( "v1" ); // listeners invoked on 4 threads in seeded order
+ * }
+ * catch( MockoborException e ) {
+ *     // message contains the seed of the failed run to replay it: new DeterministicDispatch( seedOfRun, 4 )
+ * }
+ *
+ * </code></pre>
+ */
+public final class DeterministicDispatch {
+
+	/** Worker of the current thread (null if the current thread is not a worker of a deterministic dispatch). */
+	private static final ThreadLocal<Worker> CURRENT_WORKER = new ThreadLocal<>();
+
+	/** Distance between seeds of consecutive runs (golden ratio, like in {@link java.util.SplittableRandom}). */
+	private static final long RUN_SEED_INCREMENT = 0x9E3779B97F4A7C15L;
+
+	private final long seed;
+
+	private final int threads;
+
+	/** Reusable worker threads of all runs. */
+	private final ThreadPoolExecutor workerThreads;
+
+	private final AtomicInteger createdThreads = new AtomicInteger();
+
+	/** Ordinal of the next run. */
+	private long runs;
+
+
+	/**
+	 * @param seed    seed of the interleaving
+	 * @param threads number of threads used to run tasks (at least 1)
+	 */
+	public DeterministicDispatch( long seed, int threads ) {
+		if( threads < 1 ) throw new MockoborIllegalArgumentException( "number of threads should be positive, but was %d", threads );
+		this.seed = seed;
+		this.threads = threads;
+		this.workerThreads = new ThreadPoolExecutor( threads, threads, 1, TimeUnit.MINUTES, new LinkedBlockingQueue<>(), this::newWorkerThread );
+		this.workerThreads.allowCoreThreadTimeOut( true );
+	}
+
+	/**
+	 * @param threads number of threads used to run tasks (at least 1)
+	 * @return dispatch with a new random seed (see {@link #getSeed()} to replay it)
+	 */
+	public static @NonNull DeterministicDispatch withRandomSeed( int threads ) {
+		return new DeterministicDispatch( new Random().nextLong(), threads );
+	}
+
+
+	/** @return seed of the interleaving */
+	public long getSeed() {
+		return seed;
+	}
+
+	/** @return number of threads used to run tasks */
+	public int getThreads() {
+		return threads;
+	}
+
+
+	/**
+	 * To run the specified tasks concurrently with seeded interleaving and wait until all of them are done.
+	 * <p>
+	 * If it is called from one of the threads of a running dispatch (nested notification), the tasks are run in the current thread,
+	 * but with scheduling points before each task.
+	 *
+	 * @param tasks tasks to run
+	 * @throws MockoborException if at least one task failed (the first failure is the cause, the message contains the seed of the run)
+	 */
+	public void runConcurrently( @NonNull List<? extends Runnable> tasks ) {
+		if( CURRENT_WORKER.get() != null ) {
+			for( Runnable task : tasks ) {
+				yieldPoint();
+				task.run();
+			}
+			return;
+		}
+		if( !tasks.isEmpty() ) execute( tasks );
+	}
+
+	/**
+	 * To run the specified tasks concurrently with seeded interleaving (see {@link #runConcurrently(List)}).
+	 * <p>
+	 * It can be used to register and deregister listeners in parallel.
+	 *
+	 * @param tasks tasks to run
+	 * @throws MockoborException if at least one task failed (the first failure is the cause, the message contains the seed of the run)
+	 */
+	public void runConcurrently( @NonNull Runnable... tasks ) {
+		runConcurrently( Arrays.asList( tasks ) );
+	}
+
+	/**
+	 * Scheduling point: if the current thread is a thread of a running deterministic dispatch,
+	 * control is passed to a thread chosen by the seeded random generator (possibly the current one).
+	 * <p>
+	 * Does nothing if it is called from other threads.
+	 */
+	public static void yieldPoint() {
+		Worker worker = CURRENT_WORKER.get();
+		if( worker != null ) worker.run.passTurn( worker.index );
+	}
+
+	@Override
+	public String toString() {
+		return "DeterministicDispatch(seed=" + seed + ", threads=" + threads + ")";
+	}
+
+
+	/** To execute the specified tasks as the next run (runs started concurrently are executed one after another). */
+	private synchronized void execute( @NonNull List<? extends Runnable> tasks ) {
+		long ordinal = runs++;
+		new Run( ordinal, seed + ordinal * RUN_SEED_INCREMENT, tasks ).execute();
+	}
+
+	private @NonNull Thread newWorkerThread( @NonNull Runnable worker ) {
+		Thread thread = new Thread( worker, "mockobor-dispatch-" + seed + "-" + createdThreads.getAndIncrement() );
+		thread.setDaemon( true );
+		return thread;
+	}
+
+
+	// ==================================================================================
+	// ====================================== Run =======================================
+	// ==================================================================================
+
+	/** One execution of tasks: threads pass a baton to each other, only the owner of the baton runs. */
+	private final class Run {
+
+		private final long ordinal;
+
+		private final long runSeed;
+
+		private final @NonNull Random random;
+
+		private final Object lock = new Object();
+
+		private final List<Deque<Runnable>> queues = new ArrayList<>();
+
+		private final boolean[] finished;
+
+		private int live;
+
+		/** Index of worker, which may run now. */
+		private int turn = -1;
+
+		private @Nullable Throwable failure;
+
+
+		private Run( long ordinal, long runSeed, @NonNull List<? extends Runnable> tasks ) {
+			this.ordinal = ordinal;
+			this.runSeed = runSeed;
+			this.random = new Random( runSeed );
+			int workers = Math.min( threads, tasks.size() );
+			for( int i = 0; i < workers; i++ ) queues.add( new ArrayDeque<>() );
+			// first round-robin (so each worker gets at least one task), then random
+			for( int i = 0; i < tasks.size(); i++ ) {
+				queues.get( i < workers ? i : random.nextInt( workers ) ).add( tasks.get( i ) );
+			}
+			finished = new boolean[workers];
+			live = workers;
+		}
+
+		private void execute() {
+			synchronized( lock ) {
+				turn = pickNext();
+			}
+			for( int i = 0; i < queues.size(); i++ ) {
+				int index = i;
+				workerThreads.execute( () -> work( index ) );
+			}
+			awaitAllFinished();
+
+			if( failure != null ) {
+				throw new MockoborException( String.format( "notification failed in run %d of %s; replay it with new DeterministicDispatch( %dL, %d ): %s",
+				                                            ordinal, DeterministicDispatch.this, runSeed, threads, failure ), failure );
+			}
+		}
+
+		private void work( int index ) {
+			CURRENT_WORKER.set( new Worker( this, index ) );
+			try {
+				awaitTurn( index );
+				Deque<Runnable> queue = queues.get( index );
+				boolean first = true;
+				Runnable task;
+				while( ( task = queue.poll() ) != null ) {
+					if( !first ) passTurn( index );
+					first = false;
+					try {
+						task.run();
+					}
+					catch( Throwable e ) { // NOSONAR: all failures are reported to the caller
+						synchronized( lock ) {
+							if( failure == null ) failure = e;
+						}
+					}
+				}
+			}
+			finally {
+				CURRENT_WORKER.remove(); // the thread is reused by the next run
+				finish( index );
+			}
+		}
+
+		private void passTurn( int index ) {
+			synchronized( lock ) {
+				turn = pickNext();
+				lock.notifyAll();
+				awaitTurn( index );
+			}
+		}
+
+		private void finish( int index ) {
+			synchronized( lock ) {
+				finished[index] = true;
+				live--;
+				if( live > 0 ) turn = pickNext();
+				lock.notifyAll();
+			}
+		}
+
+		private void awaitTurn( int index ) {
+			synchronized( lock ) {
+				while( turn != index ) {
+					try {
+						lock.wait();
+					}
+					catch( InterruptedException e ) {
+						Thread.currentThread().interrupt();
+						throw new MockoborException( "interrupted while waiting for turn in %s", DeterministicDispatch.this );
+					}
+				}
+			}
+		}
+
+		/** @return index of a randomly chosen not finished worker (must be called by the owner of the lock) */
+		private int pickNext() {
+			int n = random.nextInt( live );
+			for( int i = 0; i < finished.length; i++ ) {
+				if( !finished[i] && n-- == 0 ) return i;
+			}
+			throw new MockoborImplementationError( "no live workers in %s", DeterministicDispatch.this );
+		}
+
+		private void awaitAllFinished() {
+			synchronized( lock ) {
+				while( live > 0 ) {
+					try {
+						lock.wait();
+					}
+					catch( InterruptedException e ) {
+						Thread.currentThread().interrupt();
+						throw new MockoborException( "interrupted while waiting for %s", DeterministicDispatch.this );
+					}
+				}
+			}
+		}
+	}
+
+	/** Thread of a running dispatch. */
+	private static final class Worker {
+
+		private final @NonNull Run run;
+
+		private final int index;
+
+		private Worker( @NonNull Run run, int index ) {
+			this.run = run;
+			this.index = index;
+		}
+	}
+}
@@ -0,0 +1,302 @@
+package org.mockobor.mockedobservable;
+
+import lombok.SneakyThrows;
+import lombok.Value;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.mockobor.exceptions.MockoborException;
+import org.mockobor.listener_detectors.ListenerSelector;
+import org.mockobor.utils.reflection.TypeUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * Single event thread (like the event dispatch thread of Swing), which can be used to send all notifications
+ * of a notifier (see {@link ExtendedListenersNotifier#setEventDispatchThread}).
+ * <p>
+ * Tasks are passed to the event thread over a lock-free multi-producer single-consumer queue
+ * and executed in order of submission. Notifications sent from the event thread itself are executed immediately.
+ * <p>
+ * Example:
+ * <pre class="code"><code class="java">
+ *
+ * try( EventDispatchThread eventThread = new EventDispatchThread() ) {
+ *     notifier.setEventDispatchThread( eventThread );
+ *
+ *     ( (MyListener) notifier ).onChange( "v1" );                              // invokeAndWait: listeners are called on the event thread
+ *     eventThread.notifierFor( notifier, MyListener.class ).onChange( "v2" ); // invokeLater: returns immediately
+ *     eventThread.invokeAndWait( () -&gt; {} );                                // wait until "v2" is dispatched
+ *
+ *     EventDispatchThread.Statistics statistics = eventThread.getStatistics(); // queue depth, latency
+ * }
+ *
+ * </code></pre>
+ */
+public class EventDispatchThread implements AutoCloseable {
+
+	private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+	/** The event thread waits at most so long without check of the queue (protection against lost wake-ups). */
+	private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos( 100 );
+
+
+	private final MpscQueue<Task> queue = new MpscQueue<>();
+
+	private final Thread thread;
+
+	private volatile boolean running = true;
+
+	/** True if the event thread is parked (or about to park) waiting for tasks. */
+	private volatile boolean waiting;
+
+	private final List<Throwable> uncaughtFailures = Collections.synchronizedList( new ArrayList<>() );
+
+	// statistics: depth is updated by producers and the consumer, all other values - by the event thread only
+	private final AtomicInteger queueDepth = new AtomicInteger();
+	private final AtomicInteger maxQueueDepth = new AtomicInteger();
+	private volatile long dispatchedTasks;
+	private volatile long failedTasks;
+	private volatile long totalLatencyNanos;
+	private volatile long maxLatencyNanos;
+
+
+	/** Creates and starts a new event thread. */
+	public EventDispatchThread() {
+		thread = new Thread( this::loop, "mockobor-event-thread-" + THREAD_NUMBER.incrementAndGet() );
+		thread.setDaemon( true );
+		thread.start();
+	}
+
+
+	// ==================================================================================
+	// =================================== invocation ===================================
+	// ==================================================================================
+
+	/** @return true if the current thread is this event thread */
+	public boolean isEventDispatchThread() {
+		return Thread.currentThread() == thread;
+	}
+
+	/**
+	 * To execute the specified task asynchronously on the event thread (like {@code SwingUtilities.invokeLater}).
+	 * <p>
+	 * Exceptions thrown by the task are collected (see {@link #getUncaughtFailures()}).
+	 *
+	 * @param task task to execute
+	 * @throws MockoborException if the event thread is already closed
+	 */
+	public void invokeLater( @NonNull Runnable task ) {
+		submit( new Task( () -> {
+			task.run();
+			return null;
+		}, null ) );
+	}
+
+	/**
+	 * To execute the specified task on the event thread and wait until it is done (like {@code SwingUtilities.invokeAndWait}).
+	 * <p>
+	 * If it is called from the event thread, the task is executed immediately.
+	 *
+	 * @param task task to execute
+	 * @throws MockoborException if the event thread is already closed
+	 */
+	public void invokeAndWait( @NonNull Runnable task ) {
+		callAndWait( () -> {
+			task.run();
+			return null;
+		} );
+	}
+
+	/**
+	 * To execute the specified task on the event thread, wait until it is done and return its result.
+	 * <p>
+	 * If it is called from the event thread, the task is executed immediately.
+	 * Exceptions thrown by the task are rethrown in the calling thread.
+	 *
+	 * @param task task to execute
+	 * @param <T>  type of result
+	 * @return result of the task
+	 * @throws MockoborException if the event thread is already closed or the waiting thread is interrupted
+	 */
+	@SneakyThrows
+	public <T> T callAndWait( @NonNull Callable<T> task ) {
+		if( isEventDispatchThread() ) return task.call();
+
+		CompletableFuture<Object> result = new CompletableFuture<>();
+		submit( new Task( task, result ) );
+		try {
+			@SuppressWarnings( "unchecked" ) T value = (T) result.get();
+			return value;
+		}
+		catch( ExecutionException e ) {
+			throw e.getCause();
+		}
+		catch( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+			throw new MockoborException( "interrupted while waiting for %s", thread.getName() );
+		}
+	}
+
+	/**
+	 * To get a proxy, which implements the specified listener interface and sends every call of its methods
+	 * asynchronously on this event thread (over {@link ListenersNotifier#notifierFor(Class, ListenerSelector...)}, see {@link #invokeLater}).
+	 *
+	 * @param notifier      notifier used to send notifications
+	 * @param listenerClass class of required listener
+	 * @param selectors     selectors used by registration of listeners (none - like {@code selector()})
+	 * @param <L>           class of required listener
+	 * @return an object which implements the specified listener interface to send notifications later
+	 */
+	public @NonNull <L> L notifierFor( @NonNull ListenersNotifier notifier, @NonNull Class<L> listenerClass,
+	                                   @NonNull ListenerSelector... selectors ) {
+		ListenerSelector[] usedSelectors = selectors.length == 0 ? new ListenerSelector[]{ ListenerSelector.selector() } : selectors.clone();
+		return listenerClass.cast( Proxy.newProxyInstance(
+				getClass().getClassLoader(),
+				new Class[]{ listenerClass },
+				( proxy, method, args ) -> {
+					invokeLater( () -> ListenersManager.invokeUnwrapped( method, notifier.notifierFor( listenerClass, usedSelectors ), args ) );
+					return TypeUtils.getDefaultReturnValue( method.getReturnType() );
+				} ) );
+	}
+
+	/** @return exceptions thrown by tasks submitted by {@link #invokeLater} (in order of occurrence) */
+	public @NonNull List<Throwable> getUncaughtFailures() {
+		synchronized( uncaughtFailures ) {
+			return new ArrayList<>( uncaughtFailures );
+		}
+	}
+
+	/** @return current statistics of the event thread */
+	public @NonNull Statistics getStatistics() {
+		long dispatched = dispatchedTasks;
+		return new Statistics( queueDepth.get(), maxQueueDepth.get(), dispatched, failedTasks,
+		                       Duration.ofNanos( dispatched > 0 ? totalLatencyNanos / dispatched : 0 ),
+		                       Duration.ofNanos( maxLatencyNanos ) );
+	}
+
+	/**
+	 * To stop the event thread after execution of all already submitted tasks.
+	 * <p>
+	 * New tasks are not accepted anymore.
+	 */
+	@Override
+	public void close() {
+		running = false;
+		LockSupport.unpark( thread );
+		if( !isEventDispatchThread() ) {
+			try {
+				thread.join();
+			}
+			catch( InterruptedException e ) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+
+	// ==================================================================================
+	// =================================== event loop ===================================
+	// ==================================================================================
+
+	private void submit( @NonNull Task task ) {
+		int depth = queueDepth.incrementAndGet(); // before check of running, so the event loop can not stop before the task is executed
+		if( !running ) {
+			queueDepth.decrementAndGet();
+			throw new MockoborException( "%s is closed", thread.getName() );
+		}
+		if( depth > maxQueueDepth.get() ) maxQueueDepth.accumulateAndGet( depth, Math::max );
+		queue.offer( task );
+		if( waiting ) LockSupport.unpark( thread );
+	}
+
+	private void loop() {
+		while( true ) {
+			Task task = queue.poll();
+			if( task != null ) {
+				queueDepth.decrementAndGet();
+				execute( task );
+			} else if( !running && queueDepth.get() == 0 ) {
+				return;
+			} else {
+				waiting = true;
+				if( queueDepth.get() == 0 && running ) LockSupport.parkNanos( this, MAX_PARK_NANOS );
+				waiting = false;
+			}
+		}
+	}
+
+	/** Statistic fields are written by the event thread only, so non-atomic updates of them are safe. */
+	private void execute( @NonNull Task task ) {
+		long latency = System.nanoTime() - task.submitted;
+		totalLatencyNanos += latency;
+		if( latency > maxLatencyNanos ) maxLatencyNanos = latency;
+		// statistics are updated before completion of the result, so a waiting caller sees them
+		Object value;
+		try {
+			value = task.callable.call();
+		}
+		catch( Throwable e ) { // NOSONAR: exceptions of tasks must not stop the event thread
+			failedTasks++;
+			dispatchedTasks++;
+			if( task.result != null ) {
+				task.result.completeExceptionally( e );
+			} else {
+				uncaughtFailures.add( e );
+			}
+			return;
+		}
+		dispatchedTasks++;
+		if( task.result != null ) task.result.complete( value );
+	}
+
+
+	private static final class Task {
+
+		private final long submitted = System.nanoTime();
+
+		private final @NonNull Callable<?> callable;
+
+		/** Result for waiting caller (null for invokeLater). */
+		private final @Nullable CompletableFuture<Object> result;
+
+		private Task( @NonNull Callable<?> callable, @Nullable CompletableFuture<Object> result ) {
+			this.callable = callable;
+			this.result = result;
+		}
+	}
+
+
+	/** Statistics of an event thread. */
+	@Value
+	public static class Statistics {
+
+		/** Number of submitted, but not yet started tasks. */
+		int queueDepth;
+
+		/** Maximal observed number of waiting tasks. */
+		int maxQueueDepth;
+
+		/** Number of executed tasks (including failed). */
+		long dispatchedTasks;
+
+		/** Number of tasks, which threw an exception. */
+		long failedTasks;
+
+		/** Average time from submission to start of execution of tasks. */
+		@NonNull Duration averageLatency;
+
+		/** Maximal time from submission to start of execution of a task. */
+		@NonNull Duration maxLatency;
+	}
+}
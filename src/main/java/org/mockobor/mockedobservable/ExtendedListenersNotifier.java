@@ -0,0 +1,230 @@
+package org.mockobor.mockedobservable;
+
+import lombok.Value;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.mockobor.Mockobor;
+import org.mockobor.listener_detectors.ListenerSelector;
+
+import java.util.List;
+
+
+/**
+ * Optional features of notifiers returned by {@link Mockobor#createNotifierFor}: metrics, tracing, profiling,
+ * registration history, coalescing of notifications, concurrent dispatch, etc.
+ * <p>
+ * All notifiers created by Mockobor implement this interface, so it can be reached by a cast:
+ * <pre class="code"><code class="java">
+ *
+ * ListenersNotifier notifier = Mockobor.createNotifierFor( mockedObservable );
+ * ( (ExtendedListenersNotifier) notifier ).setMetrics( metrics );
+ *
+ * </code></pre>
+ * It is implemented by Mockobor itself and is not intended to be implemented by clients: new methods can be added in new versions.
+ */
+public interface ExtendedListenersNotifier extends ListenersNotifier {
+
+
+	/**
+	 * To collect metrics of this notifier: registrations, dispatched notifications and durations of listener invocations
+	 * (see {@link NotifierMetrics} and {@link RecordingNotifierMetrics}).
+	 *
+	 * @param metrics metrics to report to or null to disable metrics (default)
+	 */
+	void setMetrics( @Nullable NotifierMetrics metrics );
+
+	/** @return metrics of this notifier ({@link NotifierMetrics#noop()} if disabled) */
+	@NonNull NotifierMetrics getMetrics();
+
+
+	/**
+	 * To write all dispatches of notifications and registrations of listeners of this notifier as Chrome trace events
+	 * (see {@link ChromeTraceExporter}).
+	 * <p>
+	 * The same exporter can be set in several notifiers, so cascades of notifications between them are shown on one timeline.
+	 *
+	 * @param exporter exporter to use or null to stop tracing (default)
+	 */
+	void setTraceExporter( @Nullable ChromeTraceExporter exporter );
+
+
+	/**
+	 * To start a new history of registrations and deregistrations of listeners (see {@link RegistrationHistory}).
+	 *
+	 * @param size               number of kept records (0 - no history)
+	 * @param stackTraceSampling a stack trace is taken for every n-th record (0 - never, 1 - for each record)
+	 * @see NotifierSettingsUpdater#registrationHistory
+	 */
+	void setRegistrationHistory( int size, int stackTraceSampling );
+
+	/**
+	 * To get the last registrations and deregistrations of listeners by this notifier.
+	 * <p>
+	 * It is dumped in the message of {@link org.mockobor.exceptions.UnregisteredListenersFoundException}, but it can be helpful to find leaked listeners in other cases too:
+	 * <pre class="code"><code class="java">
+	 *
+	 * notifier.getRegistrationHistory().getRecords().stream()
+	 *         .filter( RegistrationHistory.Record::isRegistration )
+	 *         .forEach( System.out::println );
+	 *
+	 * </code></pre>
+	 *
+	 * @return the current registration history (the size is defined by {@link NotifierSettings#getRegistrationHistorySize()})
+	 */
+	@NonNull RegistrationHistory getRegistrationHistory();
+
+
+	/**
+	 * To switch profiling of listener invocations on or off.
+	 * <p>
+	 * In profiling mode each listener invocation is wrapped with measuring of CPU time and allocated bytes
+	 * of the dispatching thread (over {@code ThreadMXBean}) and wall time; the values are aggregated
+	 * per listener class and notification method (see {@link #profile()}).
+	 * Listeners invoked over {@link DeterministicDispatch} are not profiled.
+	 * <p>
+	 * Switching profiling on starts a new profile (if profiling is not already on).
+	 *
+	 * @param profiling true - profile listener invocations; false (default) - stop profiling (the collected profile is kept)
+	 */
+	void setProfiling( boolean profiling );
+
+	/**
+	 * To get the profile of listener invocations collected since profiling was switched on (see {@link #setProfiling}).
+	 * <p>
+	 * Example:
+	 * <pre class="code"><code class="java">
+	 *
+	 * notifier.setProfiling( true );
+	 * for( int i = 0; i &lt; 10_000; i++ ) propertyChangeNotifier.setProperty( "price", 100.0 + i );
+	 * System.out.println( notifier.profile() ); // listeners sorted by CPU time
+	 *
+	 * </code></pre>
+	 *
+	 * @return snapshot of the current (or the last) profile; empty if profiling was never switched on
+	 */
+	@NonNull ListenerProfile profile();
+
+
+	/**
+	 * To watch each invocation of listeners by the specified watchdog, which flags listeners overrunning their latency budget
+	 * (see {@link SlowListenerWatchdog}).
+	 * <p>
+	 * Example:
+	 * <pre class="code"><code class="java">
+	 *
+	 * SlowListenerWatchdog watchdog = new SlowListenerWatchdog( Duration.ofMillis( 20 ), true ); // abort dispatch on overrun
+	 * notifier.setSlowListenerWatchdog( watchdog );
+	 *
+	 * ( (PropertyChangeNotifier) notifier ).firePropertyChange( "price", 100, 101 ); // SlowListenerException if a listener is too slow
+	 *
+	 * </code></pre>
+	 *
+	 * @param watchdog watchdog to use or null to not watch listener invocations (default)
+	 */
+	void setSlowListenerWatchdog( @Nullable SlowListenerWatchdog watchdog );
+
+
+	/**
+	 * To send all notifications of this notifier on the specified event thread (like the event dispatch thread of Swing).
+	 * <p>
+	 * Notifications are passed to the event thread and the calling thread waits until they are dispatched
+	 * (like {@code invokeAndWait}), so exceptions of listeners and strict checks of the listener list are reported to the caller.
+	 * Use {@link EventDispatchThread#invokeLater} or {@link EventDispatchThread#notifierFor} to send notifications asynchronously.
+	 *
+	 * @param eventThread event thread to use or null to send notifications in the calling thread (default)
+	 */
+	void setEventDispatchThread( @Nullable EventDispatchThread eventThread );
+
+
+	/**
+	 * To dispatch notifications concurrently, but reproducibly: listeners are invoked on several threads
+	 * under a seeded interleaving (see {@link DeterministicDispatch}).
+	 * <p>
+	 * Registrations and deregistrations of listeners by this notifier made by dispatched listeners or by tasks of
+	 * {@link DeterministicDispatch#runConcurrently} are scheduling points of the same interleaving
+	 * (registrations are not scheduling points if no deterministic dispatch is set).
+	 *
+	 * @param dispatch deterministic dispatch to use or null to invoke listeners sequentially in the current thread (default)
+	 */
+	void setDeterministicDispatch( @Nullable DeterministicDispatch dispatch );
+
+
+	/**
+	 * To switch coalescing of notifications on or off (see {@link NotifierSettings#shouldCoalesceNotifications()}).
+	 * <p>
+	 * In coalescing mode notifications are not sent immediately, but postponed until {@link #flushNotifications()}.
+	 * Repeated notifications for the same listener class, selectors and notification method are merged:<ul>
+	 * <li>{@code PropertyChangeEvent}s - the merged event contains the old value of the first and the new value of the last event
+	 * (it is not sent at all if these values are equal)</li>
+	 * <li>all other notifications - only the last notification is sent</li>
+	 * </ul>
+	 * Availability of listeners is checked immediately (see {@link #setStrictCheckListenerList}),
+	 * but notifications are sent to listeners registered at the moment of flush.
+	 * <p>
+	 * Pending notifications are flushed if coalescing is switched off.
+	 *
+	 * @param coalesce true - postpone and merge notifications; false (default) - send notifications immediately
+	 */
+	void setCoalesceNotifications( boolean coalesce );
+
+	/**
+	 * To send all notifications postponed in coalescing mode (see {@link #setCoalesceNotifications}).
+	 *
+	 * @return number of sent (merged) notifications
+	 */
+	int flushNotifications();
+
+	/**
+	 * To run the specified batch of notifications in coalescing mode and flush them afterward
+	 * (see {@link #setCoalesceNotifications}).
+	 * <p>
+	 * The batch mode is per thread: only notifications sent by the current thread are postponed and flushed by the batch.
+	 * Notifications sent by other threads during the batch are sent immediately (or postponed until {@link #flushNotifications()}
+	 * if coalescing is switched on for the whole notifier).
+	 * <p>
+	 * Example:
+	 * <pre class="code"><code class="java">
+	 *
+	 * int sent = notifier.coalesceNotifications( () -&gt; {
+	 *     for( int i = 0; i &lt; 1000; i++ ) propertyChangeNotifier.setProperty( "price", 100.0 + i );
+	 * } ); // only one event (null -&gt; 1099.0) is sent
+	 *
+	 * </code></pre>
+	 *
+	 * @param batch notifications to coalesce
+	 * @return number of sent (merged) notifications
+	 */
+	int coalesceNotifications( @NonNull Runnable batch );
+
+	/** @return number of notifications postponed in coalescing mode (already merged; without notifications of running batches) */
+	int numberOfPendingNotifications();
+
+
+	/**
+	 * Get a list of weakly stored listeners, which were garbage collected without being removed
+	 * (see {@link NotifierSettings#shouldStoreListenersWeakly()}).
+	 * <p>
+	 * Such listeners are leaks: the tested object forgot to remove them. They are not notified anymore,
+	 * but {@link #allListenersAreUnregistered()} returns false and {@link Mockobor#assertThatAllListenersAreUnregistered} reports them.
+	 *
+	 * @return list of leaked listeners (always empty if listeners are stored strongly)
+	 */
+	@NonNull List<LeakedListener> getLeakedListeners();
+
+
+	/**
+	 * Weakly stored listener, which was garbage collected without being removed (see {@link #getLeakedListeners()}).
+	 */
+	@Value
+	class LeakedListener {
+		@NonNull Class<?>         listenerClass;
+		@NonNull ListenerSelector selector;
+		/** Class name and identity hash code of the collected listener. */
+		@NonNull String           listener;
+
+		@Override
+		public String toString() {
+			return listener + " (garbage collected, but not removed) registered as " + listenerClass.getSimpleName() + ".class with " + selector;
+		}
+	}
+}
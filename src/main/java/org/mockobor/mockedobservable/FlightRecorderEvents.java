@@ -0,0 +1,215 @@
+package org.mockobor.mockedobservable;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.eclipse.jdt.annotation.NonNull;
+import org.mockobor.listener_detectors.ListenerSelector;
+
+
+/**
+ * Custom JDK Flight Recorder events of Mockobor, so slow test suites can be profiled with standard JFR tooling
+ * (for example: {@code -XX:StartFlightRecording} and JDK Mission Control).
+ * <p>
+ * Events (category "Mockobor"):<ul>
+ * <li>{@code org.mockobor.NotifierCreated} - creation of a notifier with durations of its phases (detection, stubbing, proxy)</li>
+ * <li>{@code org.mockobor.ListenerRegistered} and {@code org.mockobor.ListenerDeregistered}</li>
+ * <li>{@code org.mockobor.NotificationDispatched} - a notification with listener class, method, number of notified listeners and duration</li>
+ * </ul>
+ * Events are created only while at least one recording is running (see {@link #isRecording()}),
+ * so without recording the cost is a read of a volatile field.
+ */
+@NoArgsConstructor( access = AccessLevel.PRIVATE )
+final class FlightRecorderEvents {
+
+	private static final String CATEGORY = "Mockobor";
+
+	/** True if at least one JFR recording is running. */
+	private static volatile boolean recording;
+
+	static {
+		try {
+			FlightRecorder.addListener( new FlightRecorderListener() {
+				@Override
+				public void recorderInitialized( FlightRecorder recorder ) {
+					updateRecording( recorder );
+				}
+
+				@Override
+				public void recordingStateChanged( Recording changed ) {
+					updateRecording( FlightRecorder.getFlightRecorder() );
+				}
+			} );
+		}
+		catch( LinkageError | RuntimeException e ) { // NOSONAR: JFR is not available (like in runtimes without module jdk.jfr)
+			recording = false;
+		}
+	}
+
+	private static void updateRecording( @NonNull FlightRecorder recorder ) {
+		recording = recorder.getRecordings().stream().anyMatch( r -> r.getState() == RecordingState.RUNNING );
+	}
+
+
+	/** @return true if at least one JFR recording is running, so events should be created */
+	static boolean isRecording() {
+		return recording;
+	}
+
+	/** @return started {@link NotifierCreated} event (should be called only if {@link #isRecording()}) */
+	static @NonNull NotifierCreated beginNotifierCreation() {
+		NotifierCreated event = new NotifierCreated();
+		event.begin();
+		return event;
+	}
+
+	/** @return started {@link NotificationDispatched} event (should be called only if {@link #isRecording()}) */
+	static @NonNull NotificationDispatched beginDispatch() {
+		NotificationDispatched event = new NotificationDispatched();
+		event.begin();
+		return event;
+	}
+
+	/** To commit a {@link ListenerRegistered} event (should be called only if {@link #isRecording()}). */
+	static void listenerRegistered( @NonNull Class<?> observableClass, @NonNull ListenerSelector selector, @NonNull Class<?> listenerClass ) {
+		ListenerRegistered event = new ListenerRegistered();
+		if( event.shouldCommit() ) {
+			event.observableClass = observableClass;
+			event.listenerClass = listenerClass;
+			event.selector = selector.toString();
+			event.commit();
+		}
+	}
+
+	/** To commit a {@link ListenerDeregistered} event (should be called only if {@link #isRecording()}). */
+	static void listenerDeregistered( @NonNull Class<?> observableClass, @NonNull ListenerSelector selector, @NonNull Class<?> listenerClass ) {
+		ListenerDeregistered event = new ListenerDeregistered();
+		if( event.shouldCommit() ) {
+			event.observableClass = observableClass;
+			event.listenerClass = listenerClass;
+			event.selector = selector.toString();
+			event.commit();
+		}
+	}
+
+
+	// ==================================================================================
+	// ===================================== events =====================================
+	// ==================================================================================
+
+	@Name( "org.mockobor.NotifierCreated" )
+	@Label( "Notifier Created" )
+	@Description( "Creation of a notifier for a mocked observable (Mockobor.createNotifierFor)" )
+	@Category( CATEGORY )
+	@StackTrace( false )
+	static final class NotifierCreated extends Event {
+
+		@Label( "Observable Class" )
+		Class<?> observableClass;
+
+		@Label( "Listener Definitions" )
+		@Description( "Number of detected listener definitions" )
+		int listenerDefinitions;
+
+		@Label( "Detection" )
+		@Description( "Duration of detection of listener registration methods" )
+		@Timespan
+		long detectionDuration;
+
+		@Label( "Stubbing" )
+		@Description( "Duration of redirection of registration methods of the mock to the notifier" )
+		@Timespan
+		long stubbingDuration;
+
+		@Label( "Proxy" )
+		@Description( "Duration of creation of the notifier proxy" )
+		@Timespan
+		long proxyDuration;
+
+		/** To set the fields and commit this event, if it is enabled and passes the threshold. */
+		void complete( @NonNull Class<?> observableClass, int listenerDefinitions,
+		               long detectionDuration, long stubbingDuration, long proxyDuration ) {
+			end();
+			if( shouldCommit() ) {
+				this.observableClass = observableClass;
+				this.listenerDefinitions = listenerDefinitions;
+				this.detectionDuration = detectionDuration;
+				this.stubbingDuration = stubbingDuration;
+				this.proxyDuration = proxyDuration;
+				commit();
+			}
+		}
+	}
+
+	@Name( "org.mockobor.ListenerRegistered" )
+	@Label( "Listener Registered" )
+	@Description( "Registration of a listener in a mocked observable" )
+	@Category( CATEGORY )
+	static final class ListenerRegistered extends Event {
+
+		@Label( "Observable Class" )
+		Class<?> observableClass;
+
+		@Label( "Listener Class" )
+		Class<?> listenerClass;
+
+		@Label( "Selector" )
+		String selector;
+	}
+
+	@Name( "org.mockobor.ListenerDeregistered" )
+	@Label( "Listener Deregistered" )
+	@Description( "Deregistration of a listener from a mocked observable" )
+	@Category( CATEGORY )
+	static final class ListenerDeregistered extends Event {
+
+		@Label( "Observable Class" )
+		Class<?> observableClass;
+
+		@Label( "Listener Class" )
+		Class<?> listenerClass;
+
+		@Label( "Selector" )
+		String selector;
+	}
+
+	@Name( "org.mockobor.NotificationDispatched" )
+	@Label( "Notification Dispatched" )
+	@Description( "Notification sent by a notifier to all its listeners" )
+	@Category( CATEGORY )
+	@StackTrace( false )
+	static final class NotificationDispatched extends Event {
+
+		@Label( "Listener Class" )
+		Class<?> listenerClass;
+
+		@Label( "Method" )
+		@Description( "Name of the notification method" )
+		String method;
+
+		@Label( "Listeners" )
+		@Description( "Number of notified listeners (fan-out)" )
+		int listeners;
+
+		/** To set the fields and commit this event, if it is enabled and passes the threshold. */
+		void complete( @NonNull Class<?> listenerClass, @NonNull String method, int listeners ) {
+			end();
+			if( shouldCommit() ) {
+				this.listenerClass = listenerClass;
+				this.method = method;
+				this.listeners = listeners;
+				commit();
+			}
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package org.mockobor.mockedobservable;
+
+import org.mockobor.exceptions.MockoborIllegalArgumentException;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Lock-free histogram of durations in nanoseconds with log-linear buckets (like HdrHistogram).
+ * <p>
+ * Values below 64 are counted exactly; larger values are counted in 32 linear sub-buckets per power of two,
+ * so the relative error of reported percentiles is at most 1/32 (about 3%) for the whole range of {@code long}.
+ * Recording of a value does not allocate anything.
+ */
+public final class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 5;
+
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS; // 32
+
+	/** Values below it have their own bucket. */
+	private static final int EXACT_LIMIT = SUB_BUCKETS << 1; // 64
+
+	private static final int BUCKETS = EXACT_LIMIT + ( 62 - SUB_BUCKET_BITS ) * SUB_BUCKETS;
+
+
+	private final AtomicLongArray counts = new AtomicLongArray( BUCKETS );
+
+	private final LongAdder totalCount = new LongAdder();
+
+	private final LongAdder totalValue = new LongAdder();
+
+	private final AtomicLong min = new AtomicLong( Long.MAX_VALUE );
+
+	private final AtomicLong max = new AtomicLong( Long.MIN_VALUE );
+
+
+	/**
+	 * To record a value.
+	 *
+	 * @param nanos duration in nanoseconds (negative values are recorded as 0)
+	 */
+	public void record( long nanos ) {
+		long value = Math.max( 0, nanos );
+		counts.incrementAndGet( bucketIndex( value ) );
+		totalCount.increment();
+		totalValue.add( value );
+		if( value < min.get() ) min.accumulateAndGet( value, Math::min );
+		if( value > max.get() ) max.accumulateAndGet( value, Math::max );
+	}
+
+	/** @return number of recorded values */
+	public long getTotalCount() {
+		return totalCount.sum();
+	}
+
+	/** @return minimal recorded value or 0 if nothing recorded */
+	public long getMin() {
+		return getTotalCount() > 0 ? min.get() : 0;
+	}
+
+	/** @return maximal recorded value or 0 if nothing recorded */
+	public long getMax() {
+		return getTotalCount() > 0 ? max.get() : 0;
+	}
+
+	/** @return arithmetic mean of recorded values or 0 if nothing recorded */
+	public double getMean() {
+		long count = getTotalCount();
+		return count > 0 ? (double) totalValue.sum() / count : 0;
+	}
+
+	/**
+	 * @param percentile percentile (0..100), like 50 for median or 99.9
+	 * @return value below or equal to which the specified percent of recorded values are (within the precision of buckets),
+	 *         0 if nothing recorded
+	 */
+	public long getValueAtPercentile( double percentile ) {
+		if( percentile < 0 || percentile > 100 ) {
+			throw new MockoborIllegalArgumentException( "percentile should be between 0 and 100, but was %s", percentile );
+		}
+		long count = getTotalCount();
+		if( count == 0 ) return 0;
+
+		long rank = Math.max( 1, (long) Math.ceil( percentile / 100 * count ) );
+		long seen = 0;
+		for( int i = 0; i < BUCKETS; i++ ) {
+			seen += counts.get( i );
+			if( seen >= rank ) return Math.min( highestValueOf( i ), getMax() );
+		}
+		return getMax();
+	}
+
+	@Override
+	public String toString() {
+		return String.format( "count=%d, min=%d, p50=%d, p90=%d, p99=%d, max=%d, mean=%.1f (ns)",
+		                      getTotalCount(), getMin(), getValueAtPercentile( 50 ), getValueAtPercentile( 90 ),
+		                      getValueAtPercentile( 99 ), getMax(), getMean() );
+	}
+
+
+	static int bucketIndex( long value ) {
+		if( value < EXACT_LIMIT ) return (int) value;
+		int shift = 63 - Long.numberOfLeadingZeros( value ) - SUB_BUCKET_BITS; // >= 1
+		return EXACT_LIMIT + ( shift - 1 ) * SUB_BUCKETS + (int) ( ( value >>> shift ) - SUB_BUCKETS );
+	}
+
+	/** @return the highest value counted in the bucket with the specified index */
+	static long highestValueOf( int index ) {
+		if( index < EXACT_LIMIT ) return index;
+		int shift = ( index - EXACT_LIMIT ) / SUB_BUCKETS + 1;
+		long subBucket = ( index - EXACT_LIMIT ) % SUB_BUCKETS + SUB_BUCKETS;
+		long next = ( subBucket + 1 ) << shift;
+		return next > 0 ? next - 1 : Long.MAX_VALUE;
+	}
+}
@@ -0,0 +1,158 @@
+package org.mockobor.mockedobservable;
+
+import lombok.Value;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+
+/**
+ * Profile of listener invocations of a notifier (see {@link ExtendedListenersNotifier#profile()}):
+ * CPU time, allocated bytes and wall time per listener class and notification method.
+ * <p>
+ * It answers "which listener is expensive under this event load" without an external profiler:
+ * <pre class="code"><code class="java">
+ *
+ * notifier.setProfiling( true );
+ *
+ * // ... send a lot of notifications ...
+ *
+ * ListenerProfile profile = notifier.profile();
+ * System.out.println( profile );                             // report sorted by CPU time
+ * ListenerProfile.Entry mostExpensive = profile.getEntries().get( 0 );
+ * profile.getEntriesByAllocatedBytes();                      // sorted by allocated bytes
+ *
+ * </code></pre>
+ * Listener classes are the classes of listener objects (not the listener interfaces used by registration),
+ * so different implementations of the same listener interface are profiled separately.
+ */
+public final class ListenerProfile {
+
+	private static final Comparator<Entry> BY_CPU_TIME = Comparator.comparingLong( Entry::getCpuTimeNanos ).reversed()
+	                                                               .thenComparing( Comparator.comparingLong( Entry::getAllocatedBytes ).reversed() )
+	                                                               .thenComparing( Comparator.comparingLong( Entry::getWallTimeNanos ).reversed() );
+
+	private static final Comparator<Entry> BY_ALLOCATED_BYTES = Comparator.comparingLong( Entry::getAllocatedBytes ).reversed()
+	                                                                      .thenComparing( BY_CPU_TIME );
+
+	private final @NonNull List<Entry> entries;
+
+	private final boolean cpuTimeMeasured;
+
+	private final boolean allocationMeasured;
+
+
+	ListenerProfile( @NonNull List<Entry> entries, boolean cpuTimeMeasured, boolean allocationMeasured ) {
+		List<Entry> sorted = new ArrayList<>( entries );
+		sorted.sort( BY_CPU_TIME );
+		this.entries = Collections.unmodifiableList( sorted );
+		this.cpuTimeMeasured = cpuTimeMeasured;
+		this.allocationMeasured = allocationMeasured;
+	}
+
+	/** @return empty profile (if profiling was never switched on) */
+	static @NonNull ListenerProfile empty() {
+		return new ListenerProfile( Collections.emptyList(), ListenerProfiler.CPU_TIME_MEASURED, ListenerProfiler.ALLOCATION_MEASURED );
+	}
+
+
+	/** @return all entries sorted by CPU time (the most expensive first) */
+	public @NonNull List<Entry> getEntries() {
+		return entries;
+	}
+
+	/** @return all entries sorted by allocated bytes (the most allocating first) */
+	public @NonNull List<Entry> getEntriesByAllocatedBytes() {
+		List<Entry> sorted = new ArrayList<>( entries );
+		sorted.sort( BY_ALLOCATED_BYTES );
+		return sorted;
+	}
+
+	/**
+	 * @param listenerClass class of listener objects
+	 * @param method        name of the notification method
+	 * @return entry of the specified listener class and method or null if such listeners were not invoked
+	 */
+	public @Nullable Entry getEntry( @NonNull Class<?> listenerClass, @NonNull String method ) {
+		for( Entry entry : entries ) {
+			if( entry.getListenerClass().equals( listenerClass ) && entry.getMethod().equals( method ) ) return entry;
+		}
+		return null;
+	}
+
+	/** @return true if the JVM measures CPU time per thread (otherwise CPU times are 0) */
+	public boolean isCpuTimeMeasured() {
+		return cpuTimeMeasured;
+	}
+
+	/** @return true if the JVM measures allocated bytes per thread (otherwise allocated bytes are 0) */
+	public boolean isAllocationMeasured() {
+		return allocationMeasured;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder report = new StringBuilder( "ListenerProfile (sorted by CPU time" );
+		if( !cpuTimeMeasured ) report.append( ", CPU time not measured" );
+		if( !allocationMeasured ) report.append( ", allocations not measured" );
+		report.append( "):" );
+		for( Entry entry : entries ) report.append( "\n    " ).append( entry );
+		return report.toString();
+	}
+
+
+	/** Profile of invocations of one listener class and notification method. */
+	@Value
+	public static class Entry {
+
+		/** Class of listener objects. */
+		@NonNull Class<?> listenerClass;
+
+		/** Name of the notification method. */
+		@NonNull String method;
+
+		/** Number of invocations. */
+		long invocations;
+
+		/** CPU time of all invocations in nanoseconds. */
+		long cpuTimeNanos;
+
+		/** Bytes allocated by all invocations. */
+		long allocatedBytes;
+
+		/** Wall time of all invocations in nanoseconds. */
+		long wallTimeNanos;
+
+		/** @return CPU time of all invocations */
+		public @NonNull Duration getCpuTime() {
+			return Duration.ofNanos( cpuTimeNanos );
+		}
+
+		/** @return wall time of all invocations */
+		public @NonNull Duration getWallTime() {
+			return Duration.ofNanos( wallTimeNanos );
+		}
+
+		/** @return average CPU time of one invocation in nanoseconds */
+		public double getAverageCpuTimeNanos() {
+			return invocations > 0 ? (double) cpuTimeNanos / invocations : 0;
+		}
+
+		/** @return average number of bytes allocated by one invocation */
+		public double getAverageAllocatedBytes() {
+			return invocations > 0 ? (double) allocatedBytes / invocations : 0;
+		}
+
+		@Override
+		public String toString() {
+			return String.format( "%s.%s: invocations=%d, cpu=%.3f ms (%.0f ns/call), allocated=%d bytes (%.0f bytes/call), wall=%.3f ms",
+			                      listenerClass.getName(), method, invocations,
+			                      cpuTimeNanos / 1e6, getAverageCpuTimeNanos(), allocatedBytes, getAverageAllocatedBytes(), wallTimeNanos / 1e6 );
+		}
+	}
+}
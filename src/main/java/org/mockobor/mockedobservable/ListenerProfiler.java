@@ -0,0 +1,117 @@
+package org.mockobor.mockedobservable;
+
+import lombok.Value;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.mockobor.mockedobservable.ListenerProfile.Entry;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+
+/**
+ * Collector of CPU time, allocated bytes and wall time of listener invocations per listener class and notification method
+ * (see {@link ExtendedListenersNotifier#setProfiling}).
+ * <p>
+ * CPU time and allocated bytes are measured as deltas of the current thread (over {@link ThreadMXBean}),
+ * so they include all work done by a listener in the dispatching thread (including nested notifications).
+ */
+final class ListenerProfiler {
+
+	private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+	/** True if the JVM measures CPU time of the current thread. */
+	static final boolean CPU_TIME_MEASURED = THREADS.isCurrentThreadCpuTimeSupported() && THREADS.isThreadCpuTimeEnabled();
+
+	/** Bean to measure allocations of the current thread (null if the JVM does not support it). */
+	private static final com.sun.management.@Nullable ThreadMXBean ALLOCATIONS = allocationBean();
+
+	/** True if the JVM measures allocated bytes of the current thread. */
+	static final boolean ALLOCATION_MEASURED = ALLOCATIONS != null;
+
+
+	private final Map<MethodKey, Counters> counters = new ConcurrentHashMap<>();
+
+
+	private static com.sun.management.@Nullable ThreadMXBean allocationBean() {
+		try {
+			if( THREADS instanceof com.sun.management.ThreadMXBean ) {
+				com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) THREADS;
+				if( bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled() ) return bean;
+			}
+		}
+		catch( LinkageError e ) { // NOSONAR: module jdk.management is not available
+			// allocations are not measured
+		}
+		return null;
+	}
+
+
+	/** @return CPU time of the current thread in nanoseconds (0 if not measured) */
+	static long cpuTime() {
+		return CPU_TIME_MEASURED ? Math.max( 0, THREADS.getCurrentThreadCpuTime() ) : 0;
+	}
+
+	/** @return number of bytes allocated by the current thread so far (0 if not measured) */
+	static long allocatedBytes() {
+		com.sun.management.ThreadMXBean allocations = ALLOCATIONS;
+		return allocations != null ? Math.max( 0, allocations.getThreadAllocatedBytes( Thread.currentThread().getId() ) ) : 0;
+	}
+
+
+	/**
+	 * To record an invocation of the specified listener started with the specified values of the current thread.
+	 *
+	 * @param listener       the invoked listener (it is profiled per its class)
+	 * @param method         name of the notification method
+	 * @param cpuStart       {@link #cpuTime()} before the invocation
+	 * @param allocatedStart {@link #allocatedBytes()} before the invocation
+	 * @param wallStart      {@link System#nanoTime()} before the invocation
+	 */
+	void record( @NonNull Object listener, @NonNull String method, long cpuStart, long allocatedStart, long wallStart ) {
+		long wallTime = System.nanoTime() - wallStart;
+		long cpuTime = cpuTime() - cpuStart;
+		long allocated = allocatedBytes() - allocatedStart;
+		Counters methodCounters = counters.computeIfAbsent( new MethodKey( listener.getClass(), method ), k -> new Counters() );
+		methodCounters.invocations.increment();
+		methodCounters.cpuTime.add( cpuTime );
+		methodCounters.allocatedBytes.add( allocated );
+		methodCounters.wallTime.add( wallTime );
+	}
+
+	/** @return snapshot of all collected values */
+	@NonNull ListenerProfile snapshot() {
+		List<Entry> entries = counters.entrySet().stream()
+		                              .map( e -> e.getValue().toEntry( e.getKey() ) )
+		                              .collect( Collectors.toList() );
+		return new ListenerProfile( entries, CPU_TIME_MEASURED, ALLOCATION_MEASURED );
+	}
+
+
+	@Value
+	private static class MethodKey {
+		@NonNull Class<?> listenerClass;
+		@NonNull String   method;
+	}
+
+	private static final class Counters {
+
+		private final LongAdder invocations = new LongAdder();
+
+		private final LongAdder cpuTime = new LongAdder();
+
+		private final LongAdder allocatedBytes = new LongAdder();
+
+		private final LongAdder wallTime = new LongAdder();
+
+		private @NonNull Entry toEntry( @NonNull MethodKey key ) {
+			return new Entry( key.getListenerClass(), key.getMethod(), invocations.sum(),
+			                  cpuTime.sum(), allocatedBytes.sum(), wallTime.sum() );
+		}
+	}
+}
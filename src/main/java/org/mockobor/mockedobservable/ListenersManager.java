@@ -7,12 +7,23 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.mockobor.exceptions.ListenersNotFoundException;
 import org.mockobor.listener_detectors.ListenerContainer;
 import org.mockobor.listener_detectors.ListenerSelector;
+import org.mockobor.mockedobservable.FlightRecorderEvents.NotificationDispatched;
+import org.mockobor.mockedobservable.SlowListenerWatchdog.Watch;
 import org.mockobor.utils.reflection.TypeUtils;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
 import java.util.*;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 
 
@@ -22,7 +33,21 @@ import java.util.stream.Collectors;
  * It used in "runtime" to store registered listeners and send notifications to these listeners.
  */
 @RequiredArgsConstructor
-public class ListenersManager implements ListenerContainer, ListenersNotifier {
+public class ListenersManager implements ListenerContainer, ExtendedListenersNotifier {
+
+	/**
+	 * Methods of notifications sent over {@link #notifyListeners}: the only abstract method of the listener class
+	 * (empty if the listener class has several abstract methods).
+	 */
+	private static final ClassValue<Optional<Method>> NOTIFICATION_METHODS = new ClassValue<Optional<Method>>() {
+		@Override
+		protected Optional<Method> computeValue( Class<?> listenerClass ) {
+			List<Method> abstractMethods = Arrays.stream( listenerClass.getMethods() )
+			                                     .filter( m -> Modifier.isAbstract( m.getModifiers() ) )
+			                                     .collect( Collectors.toList() );
+			return abstractMethods.size() == 1 ? Optional.of( abstractMethods.get( 0 ) ) : Optional.empty();
+		}
+	};
 
 	/**
 	 * Observable mock used to create this notifier
@@ -34,15 +59,61 @@ public class ListenersManager implements ListenerContainer, ListenersNotifier {
 
 	private boolean strictCheckListenerList = true;
 
-	private int registeredListenersCount;
+	private volatile boolean coalesceNotifications;
+
+	private volatile @Nullable DeterministicDispatch deterministicDispatch;
+
+	private volatile @Nullable EventDispatchThread eventDispatchThread;
+
+	private volatile @NonNull NotifierMetrics metrics = NotifierMetrics.noop();
+
+	private volatile @Nullable SlowListenerWatchdog slowListenerWatchdog;
+
+	private volatile @Nullable ChromeTraceExporter traceExporter;
+
+	/** Profiler of listener invocations (null if profiling is switched off). */
+	private volatile @Nullable ListenerProfiler profiler;
+
+	/** The last used profiler (kept after profiling is switched off, see {@link #profile()}). */
+	private volatile @Nullable ListenerProfiler lastProfiler;
+
+	/** The last registrations and deregistrations of listeners (see {@link #setRegistrationHistory}). */
+	private volatile @NonNull RegistrationHistory registrationHistory = new RegistrationHistory( 0, 0 ); // off - no record by each (de)registration
+
+	private final AtomicInteger registeredListenersCount = new AtomicInteger();
+
+	private final AtomicInteger registrationsCount = new AtomicInteger();
+
+	private final AtomicInteger deregistrationsCount = new AtomicInteger();
 
-	private int registrationsCount;
 
-	private int deregistrationsCount;
+	/**
+	 * listener class -> selector -> listeners.
+	 * <p>
+	 * Two-level map to find listeners without creation of {@link ListenerKey} objects.
+	 * Arrays of listeners are never modified (copy on write), so notifications can iterate them directly,
+	 * even if listeners are added or removed during the notification.
+	 * In weak mode arrays contain {@link WeakListener}s instead of listeners (see {@link #listenerOf}).
+	 */
+	private final Map<Class<?>, Map<ListenerSelector, Object[]>> listeners = new ConcurrentHashMap<>();
+
+	/** Queue of garbage collected {@link WeakListener}s (null if listeners are stored strongly, see {@link #setWeakListeners}). */
+	private @Nullable ReferenceQueue<Object> staleListeners;
+
+	/** Weakly stored listeners garbage collected without being removed. */
+	private final List<LeakedListener> leakedListeners = new CopyOnWriteArrayList<>();
 
+	/** Notifications postponed in coalescing mode (see {@link #setCoalesceNotifications}). */
+	private final CoalescedNotifications coalesced = new CoalescedNotifications();
 
-	/** listener key (selector + class) -> list of listeners. */
-	private final Map<ListenerKey<?>, List<Object>> listeners = new ConcurrentHashMap<>();
+	/** Notifications postponed by the batch running in the current thread (see {@link #coalesceNotifications(Runnable)}). */
+	private final ThreadLocal<CoalescedNotifications> batches = new ThreadLocal<>();
+
+	/** Number of running batches (the thread-local batch is looked up only if any batch is running). */
+	private final AtomicInteger runningBatches = new AtomicInteger();
+
+	/** Last values of bound properties (see {@link PropertyChangeNotifier#setProperty}), created on first use. */
+	private @Nullable BoundProperties boundProperties;
 
 
 	@Override
@@ -57,22 +128,170 @@ public class ListenersManager implements ListenerContainer, ListenersNotifier {
 
 	@Override
 	public <L> void addListener( @NonNull ListenerSelector selector, @NonNull Class<L> listenerClass, @NonNull L listener ) {
-		ListenerKey<L> key = new ListenerKey<>( listenerClass, selector );
-		listeners.computeIfAbsent( key, k -> new ArrayList<>() ).add( listener );
-		++registrationsCount;
-		++registeredListenersCount;
+		if( deterministicDispatch != null ) DeterministicDispatch.yieldPoint();
+		ReferenceQueue<Object> queue = staleListeners;
+		if( queue != null ) expungeStaleListeners( queue );
+		Object entry = queue != null ? new WeakListener( listenerClass, selector, listener, queue ) : listener;
+		Map<ListenerSelector, Object[]> listenersBySelector = listeners.computeIfAbsent( listenerClass, c -> new ConcurrentHashMap<>() );
+		listenersBySelector.compute( selector, ( s, registered ) -> {
+			if( registered == null ) return new Object[]{ entry };
+			Object[] updated = Arrays.copyOf( registered, registered.length + 1 );
+			updated[registered.length] = entry;
+			return updated;
+		} );
+		registrationsCount.incrementAndGet();
+		registeredListenersCount.incrementAndGet();
+		registrationHistory.record( true, selector, listenerClass, listener );
+		metrics.listenerRegistered( selector, listenerClass );
+		if( FlightRecorderEvents.isRecording() ) FlightRecorderEvents.listenerRegistered( observable.getClass(), selector, listenerClass );
+		ChromeTraceExporter exporter = traceExporter;
+		if( exporter != null ) exporter.registration( true, observable, selector, listenerClass );
 	}
 
 	@Override
 	public <L> void removeListener( @NonNull ListenerSelector selector, @NonNull Class<L> listenerClass, @NonNull L listener ) {
-		ListenerKey<L> key = new ListenerKey<>( listenerClass, selector );
-		listeners.computeIfPresent( key, ( k, list ) -> {
-			if( list.remove( listener ) ) {
-				++deregistrationsCount;
-				--registeredListenersCount;
-			}
-			return list.isEmpty() ? null : list;
+		if( deterministicDispatch != null ) DeterministicDispatch.yieldPoint();
+		expungeStaleListeners();
+		Map<ListenerSelector, Object[]> listenersBySelector = listeners.get( listenerClass );
+		if( listenersBySelector == null ) return;
+		Object[] removed = new Object[1];
+		listenersBySelector.computeIfPresent( selector, ( s, registered ) -> {
+			int index = indexOf( registered, listener );
+			if( index < 0 ) return registered;
+			removed[0] = registered[index];
+			return withoutIndex( registered, index );
 		} );
+		if( removed[0] != null ) {
+			if( removed[0] instanceof WeakListener ) ( (WeakListener) removed[0] ).clear(); // removed properly - never enqueued as leak
+			deregistrationsCount.incrementAndGet();
+			registeredListenersCount.decrementAndGet();
+			registrationHistory.record( false, selector, listenerClass, listener );
+			metrics.listenerDeregistered( selector, listenerClass );
+			if( FlightRecorderEvents.isRecording() ) FlightRecorderEvents.listenerDeregistered( observable.getClass(), selector, listenerClass );
+			ChromeTraceExporter exporter = traceExporter;
+			if( exporter != null ) exporter.registration( false, observable, selector, listenerClass );
+		}
+	}
+
+	private static int indexOf( @NonNull Object[] registered, @NonNull Object listener ) {
+		for( int i = 0; i < registered.length; i++ ) {
+			if( listener.equals( listenerOf( registered[i] ) ) ) return i;
+		}
+		return -1;
+	}
+
+	/** @return copy of the specified array of listeners without the element with the specified index (null if nothing remains) */
+	private static Object @Nullable [] withoutIndex( @NonNull Object[] registered, int index ) {
+		if( registered.length == 1 ) return null;
+		Object[] updated = new Object[registered.length - 1];
+		System.arraycopy( registered, 0, updated, 0, index );
+		System.arraycopy( registered, index + 1, updated, index, updated.length - index );
+		return updated;
+	}
+
+
+	// ==================================================================================
+	// ================================ weak listeners ==================================
+	// ==================================================================================
+
+	/**
+	 * To store all listeners registered after this call weakly (true) or strongly (false).
+	 * <p>
+	 * It is called by creation of the notifier (see {@link NotifierSettings#shouldStoreListenersWeakly()}).
+	 */
+	void setWeakListeners( boolean weak ) {
+		staleListeners = weak ? new ReferenceQueue<>() : null;
+	}
+
+	/** @return the listener stored in the specified element of an array of listeners (null if it was garbage collected) */
+	private static @Nullable Object listenerOf( @NonNull Object entry ) {
+		return entry instanceof WeakListener ? ( (WeakListener) entry ).get() : entry;
+	}
+
+	/** To remove garbage collected listeners (in weak mode, see {@link #expungeStaleListeners(ReferenceQueue)}). */
+	private void expungeStaleListeners() {
+		ReferenceQueue<Object> queue = staleListeners;
+		if( queue != null ) expungeStaleListeners( queue );
+	}
+
+	/** To remove garbage collected listeners from arrays of listeners and report them as leaked (if they were not removed). */
+	private void expungeStaleListeners( @NonNull ReferenceQueue<Object> queue ) {
+		Reference<?> stale;
+		while( ( stale = queue.poll() ) != null ) {
+			WeakListener entry = (WeakListener) stale;
+			Map<ListenerSelector, Object[]> listenersBySelector = listeners.get( entry.listenerClass );
+			boolean[] expunged = new boolean[1];
+			if( listenersBySelector != null ) {
+				listenersBySelector.computeIfPresent( entry.selector, ( s, registered ) -> {
+					int index = indexOfEntry( registered, entry );
+					if( index < 0 ) return registered;
+					expunged[0] = true;
+					return withoutIndex( registered, index );
+				} );
+			}
+			if( expunged[0] ) {
+				registeredListenersCount.decrementAndGet();
+				leakedListeners.add( new LeakedListener( entry.listenerClass, entry.selector, entry.listener ) );
+			}
+		}
+	}
+
+	private static int indexOfEntry( @NonNull Object[] registered, @NonNull WeakListener entry ) {
+		for( int i = 0; i < registered.length; i++ ) {
+			if( registered[i] == entry ) return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * @param entries elements of arrays of listeners
+	 * @return listeners of the specified elements, which are not garbage collected (the same array if all listeners are stored strongly)
+	 */
+	private static @NonNull Object @NonNull [] resolveListeners( @NonNull Object @NonNull [] entries ) {
+		boolean weak = false;
+		for( Object entry : entries ) {
+			if( entry instanceof WeakListener ) {
+				weak = true;
+				break;
+			}
+		}
+		if( !weak ) return entries;
+		List<Object> resolved = new ArrayList<>( entries.length );
+		for( Object entry : entries ) {
+			Object listener = listenerOf( entry );
+			if( listener != null ) resolved.add( listener );
+		}
+		return resolved.toArray();
+	}
+
+	@Override
+	public @NonNull List<LeakedListener> getLeakedListeners() {
+		expungeStaleListeners();
+		return Collections.unmodifiableList( new ArrayList<>( leakedListeners ) );
+	}
+
+	@Override
+	public boolean allListenersAreUnregistered() {
+		return getLeakedListeners().isEmpty() && ExtendedListenersNotifier.super.allListenersAreUnregistered();
+	}
+
+	/** Weakly stored listener (in weak mode), which knows where it is registered. */
+	private static final class WeakListener extends WeakReference<Object> {
+
+		private final @NonNull Class<?> listenerClass;
+
+		private final @NonNull ListenerSelector selector;
+
+		/** Class name and identity hash code of the listener (to report it after garbage collection). */
+		private final @NonNull String listener;
+
+		WeakListener( @NonNull Class<?> listenerClass, @NonNull ListenerSelector selector, @NonNull Object listener,
+		              @NonNull ReferenceQueue<Object> queue ) {
+			super( listener, queue );
+			this.listenerClass = listenerClass;
+			this.selector = selector;
+			this.listener = listener.getClass().getName() + "@" + Integer.toHexString( System.identityHashCode( listener ) );
+		}
 	}
 
 
@@ -82,24 +301,475 @@ public class ListenersManager implements ListenerContainer, ListenersNotifier {
 
 	@Override
 	public @NonNull <L> L notifierFor( @NonNull Class<L> listenerClass, @NonNull ListenerSelector... selectors ) {
-		Collection<L> listenersToNotify = getListeners( listenerClass, selectors );
-		if( strictCheckListenerList && listenersToNotify.isEmpty() ) throw new ListenersNotFoundException( listenerClass, selectors );
+		expungeStaleListeners();
+		// array - no iterator by each notification; in weak mode it contains weak references, so the proxy does not retain listeners
+		Object[] listenerEntries = getListenerEntries( listenerClass, selectors );
+		if( strictCheckListenerList && listenerEntries.length == 0 ) throw new ListenersNotFoundException( listenerClass, selectors );
 
 		return listenerClass.cast( Proxy.newProxyInstance(
 				getClass().getClassLoader(),
 				new Class[]{ listenerClass },
-				( ( proxy, method, args ) -> sendNotifications( listenersToNotify, method, args ) ) ) );
+				( ( proxy, method, args ) -> {
+					CoalescedNotifications postponed = postponedNotifications();
+					if( postponed != null ) {
+						ListenerSelector[] selectorsCopy = selectors.clone();
+						postponed.add( listenerClass, selectorsCopy, method, ( listener, a ) -> invokeUnwrapped( method, listener, (Object[]) a ), args );
+						return TypeUtils.getDefaultReturnValue( method.getReturnType() );
+					}
+					Object[] listenersToNotify = resolveListeners( listenerEntries );
+					EventDispatchThread eventThread = eventDispatchThread; // without event thread - no capturing lambda
+					return eventThread == null
+					       ? sendNotifications( listenerClass, listenersToNotify, method, args )
+					       : eventThread.callAndWait( () -> sendNotifications( listenerClass, listenersToNotify, method, args ) );
+				} ) ) );
 	}
 
-	@SneakyThrows
-	private static @Nullable <L> Object sendNotifications( @NonNull Collection<L> listenersToNotify, @NonNull Method method, @NonNull Object[] args ) {
+	/**
+	 * To send a notification to all listeners of the specified class registered with at least one of the specified selectors.
+	 * <p>
+	 * It is a fast path for notifications implemented in Mockobor itself (like {@link PropertyChangeNotifier#firePropertyChange}):
+	 * listeners are notified directly, without proxies and without intermediate collections.
+	 * To avoid allocations use non-capturing lambdas or method references as notification.
+	 *
+	 * @param listenerClass class of listeners to notify
+	 * @param selectors     selectors used by registration of listeners (duplicated selectors are ignored)
+	 * @param notification  notification to send: listener, argument
+	 * @param argument      argument passed to the notification (like an event object)
+	 * @param <L>           type of listeners
+	 * @param <A>           type of argument
+	 * @return number of notified listeners
+	 * @throws ListenersNotFoundException if no listeners found and strictCheckListenerList-flag set to true (default)
+	 */
+	public <L, A> int notifyListeners( @NonNull Class<L> listenerClass,
+	                                   @NonNull ListenerSelector @NonNull [] selectors,
+	                                   @NonNull BiConsumer<? super L, ? super A> notification,
+	                                   A argument ) throws ListenersNotFoundException {
+		expungeStaleListeners();
+		CoalescedNotifications postponed = postponedNotifications();
+		if( postponed != null ) {
+			if( strictCheckListenerList && getListeners( listenerClass, selectors ).isEmpty() ) {
+				throw new ListenersNotFoundException( listenerClass, selectors );
+			}
+			// the same key as notifications over notifierFor-proxies, so both are merged
+			Method method = NOTIFICATION_METHODS.get( listenerClass ).orElse( null );
+			Object key = method != null ? method : notification;
+			postponed.add( listenerClass, selectors, key, ( listener, a ) -> notify( notification, listener, a ), argument );
+			return 0;
+		}
+
+		EventDispatchThread eventThread = eventDispatchThread; // without event thread - no capturing lambda (allocation-free path)
+		int notified = eventThread == null
+		               ? dispatchNotification( listenerClass, selectors, null, notification, argument )
+		               : eventThread.callAndWait( () -> dispatchNotification( listenerClass, selectors, null, notification, argument ) );
+		if( strictCheckListenerList && notified == 0 ) throw new ListenersNotFoundException( listenerClass, selectors );
+		return notified;
+	}
+
+	/**
+	 * @param methodName name of the notification method for metrics and traces (null - derived from the listener class)
+	 * @return number of notified listeners
+	 */
+	private <L, A> int dispatchNotification( @NonNull Class<L> listenerClass, @NonNull ListenerSelector @NonNull [] selectors,
+	                                         @Nullable String methodName, @NonNull BiConsumer<? super L, ? super A> notification, A argument ) {
+		ChromeTraceExporter exporter = traceExporter;
+		boolean recording = FlightRecorderEvents.isRecording();
+		if( exporter == null && !recording ) return dispatchSequentiallyOrConcurrently( listenerClass, selectors, methodName, notification, argument );
+
+		// traced dispatch: JFR event and/or Chrome trace event
+		String name = methodName != null ? methodName : notificationName( listenerClass );
+		NotificationDispatched event = recording ? FlightRecorderEvents.beginDispatch() : null;
+		long traceStart = exporter != null ? exporter.beginDispatch() : 0;
+		int notified = -1;
+		try {
+			notified = dispatchSequentiallyOrConcurrently( listenerClass, selectors, name, notification, argument );
+		}
+		finally {
+			if( exporter != null ) exporter.endDispatch( traceStart, observable, listenerClass, name, notified, notified >= 0 );
+		}
+		if( event != null ) event.complete( listenerClass, name, notified );
+		return notified;
+	}
+
+	/** @return number of notified listeners */
+	private <L, A> int dispatchSequentiallyOrConcurrently( @NonNull Class<L> listenerClass, @NonNull ListenerSelector @NonNull [] selectors,
+	                                                       @Nullable String methodName,
+	                                                       @NonNull BiConsumer<? super L, ? super A> notification, A argument ) {
+		DeterministicDispatch dispatch = deterministicDispatch;
+		if( dispatch == null ) return dispatch( listenerClass, selectors, methodName, notification, argument );
+
+		Collection<L> listenersToNotify = getListeners( listenerClass, selectors );
+		List<Runnable> tasks = new ArrayList<>( listenersToNotify.size() );
+		for( L listener : listenersToNotify ) tasks.add( () -> notification.accept( listener, argument ) );
+		dispatch.runConcurrently( tasks );
+		NotifierMetrics currentMetrics = metrics;
+		if( currentMetrics.isEnabled() ) {
+			currentMetrics.notificationDispatched( listenerClass, methodName != null ? methodName : notificationName( listenerClass ), tasks.size() );
+		}
+		return tasks.size();
+	}
+
+	/** @return number of notified listeners */
+	private <L, A> int dispatch( @NonNull Class<L> listenerClass, @NonNull ListenerSelector @NonNull [] selectors, @Nullable String methodName,
+	                             @NonNull BiConsumer<? super L, ? super A> notification, A argument ) {
+		NotifierMetrics currentMetrics = metrics;
+		SlowListenerWatchdog watchdog = slowListenerWatchdog;
+		ListenerProfiler currentProfiler = profiler;
+		if( currentMetrics.isEnabled() || watchdog != null || currentProfiler != null ) {
+			String name = methodName != null ? methodName : notificationName( listenerClass );
+			return dispatchMeasured( currentMetrics, watchdog, currentProfiler, listenerClass, selectors, name, notification, argument );
+		}
+
+		int notified = 0;
+		Map<ListenerSelector, Object[]> listenersBySelector = listeners.get( listenerClass );
+		if( listenersBySelector != null ) {
+			for( int i = 0; i < selectors.length; i++ ) {
+				Object[] registered = listenersBySelector.get( selectors[i] );
+				if( registered != null && !isDuplicated( selectors, i ) ) {
+					for( Object entry : registered ) {
+						Object listener = listenerOf( entry );
+						if( listener != null ) {
+							notification.accept( listenerClass.cast( listener ), argument );
+							notified++;
+						}
+					}
+				}
+			}
+		}
+		return notified;
+	}
+
+	/**
+	 * Like {@link #dispatch}, but reports the dispatch and the duration of each listener invocation to the specified metrics,
+	 * watches each listener invocation by the specified watchdog and profiles it by the specified profiler (if any).
+	 */
+	private <L, A> int dispatchMeasured( @NonNull NotifierMetrics currentMetrics, @Nullable SlowListenerWatchdog watchdog,
+	                                     @Nullable ListenerProfiler currentProfiler, @NonNull Class<L> listenerClass, @NonNull ListenerSelector @NonNull [] selectors,
+	                                     @NonNull String methodName, @NonNull BiConsumer<? super L, ? super A> notification, A argument ) {
+		int notified = 0;
+		Map<ListenerSelector, Object[]> listenersBySelector = listeners.get( listenerClass );
+		if( listenersBySelector != null ) {
+			for( int i = 0; i < selectors.length; i++ ) {
+				Object[] registered = listenersBySelector.get( selectors[i] );
+				if( registered != null && !isDuplicated( selectors, i ) ) {
+					for( Object entry : registered ) {
+						Object listener = listenerOf( entry );
+						if( listener == null ) continue; // garbage collected (weak mode)
+						Watch watch = watchdog != null ? watchdog.start( listenerClass, methodName, listener ) : null;
+						long cpuStart = currentProfiler != null ? ListenerProfiler.cpuTime() : 0;
+						long allocatedStart = currentProfiler != null ? ListenerProfiler.allocatedBytes() : 0;
+						boolean completed = false;
+						long start = System.nanoTime();
+						try {
+							notification.accept( listenerClass.cast( listener ), argument );
+							completed = true;
+						}
+						finally {
+							if( currentProfiler != null ) currentProfiler.record( listener, methodName, cpuStart, allocatedStart, start );
+							if( watch != null ) watchdog.finish( watch, completed );
+						}
+						currentMetrics.listenerInvoked( listenerClass, methodName, System.nanoTime() - start );
+						notified++;
+					}
+				}
+			}
+		}
+		currentMetrics.notificationDispatched( listenerClass, methodName, notified );
+		return notified;
+	}
+
+	/** @return name of notifications sent over {@link #notifyListeners} (for metrics and traces) */
+	private static @NonNull String notificationName( @NonNull Class<?> listenerClass ) {
+		return NOTIFICATION_METHODS.get( listenerClass ).map( Method::getName ).orElse( "notification" );
+	}
+
+	@SuppressWarnings( "unchecked" )
+	private static <L, A> void notify( @NonNull BiConsumer<? super L, ? super A> notification, Object listener, Object argument ) {
+		notification.accept( (L) listener, (A) argument );
+	}
+
+	/** To invoke listeners (see {@link #invokeListeners}) and report the dispatch to JFR and to the trace exporter (if any). */
+	private @Nullable Object sendNotifications( @NonNull Class<?> listenerClass, @NonNull Object[] listenersToNotify,
+	                                            @NonNull Method method, @NonNull Object[] args ) {
+		ChromeTraceExporter exporter = traceExporter;
+		boolean recording = FlightRecorderEvents.isRecording();
+		if( exporter == null && !recording ) return invokeListeners( listenerClass, listenersToNotify, method, args );
+
+		NotificationDispatched event = recording ? FlightRecorderEvents.beginDispatch() : null;
+		long traceStart = exporter != null ? exporter.beginDispatch() : 0;
+		boolean completed = false;
+		Object result;
+		try {
+			result = invokeListeners( listenerClass, listenersToNotify, method, args );
+			completed = true;
+		}
+		finally {
+			if( exporter != null ) {
+				exporter.endDispatch( traceStart, observable, listenerClass, method.getName(), listenersToNotify.length, completed );
+			}
+		}
+		if( event != null ) event.complete( listenerClass, method.getName(), listenersToNotify.length );
+		return result;
+	}
+
+	/**
+	 * To invoke listeners sequentially or over the deterministic dispatch (if set); returns the result of the last listener.
+	 * <p>
+	 * Like the fast path ({@link #notifyListeners}), it reports the dispatch to metrics after all listeners are invoked.
+	 */
+	private @Nullable Object invokeListeners( @NonNull Class<?> listenerClass, @NonNull Object[] listenersToNotify,
+	                                          @NonNull Method method, @NonNull Object[] args ) {
+		NotifierMetrics currentMetrics = metrics;
+		DeterministicDispatch dispatch = deterministicDispatch;
 		Object result = null;
-		for( L listener : listenersToNotify ) {
-			result = method.invoke( listener, args );
+		if( dispatch != null ) {
+			result = sendNotifications( dispatch, listenersToNotify, method, args );
+		} else {
+			SlowListenerWatchdog watchdog = slowListenerWatchdog;
+			ListenerProfiler currentProfiler = profiler;
+			for( Object listener : listenersToNotify ) {
+				if( watchdog != null || currentProfiler != null ) {
+					result = invokeMeasured( currentMetrics, watchdog, currentProfiler, listenerClass, listener, method, args );
+				} else if( currentMetrics.isEnabled() ) {
+					long start = System.nanoTime();
+					result = invokeUnwrapped( method, listener, args );
+					currentMetrics.listenerInvoked( listenerClass, method.getName(), System.nanoTime() - start );
+				} else {
+					result = invokeUnwrapped( method, listener, args );
+				}
+			}
+		}
+		if( currentMetrics.isEnabled() ) currentMetrics.notificationDispatched( listenerClass, method.getName(), listenersToNotify.length );
+		return result != null ? result : TypeUtils.getDefaultReturnValue( method.getReturnType() );
+	}
+
+	/**
+	 * To invoke the specified listener watched by the specified watchdog (see {@link #setSlowListenerWatchdog})
+	 * and profiled by the specified profiler (see {@link #setProfiling}).
+	 */
+	private static @Nullable Object invokeMeasured( @NonNull NotifierMetrics currentMetrics, @Nullable SlowListenerWatchdog watchdog,
+	                                                @Nullable ListenerProfiler currentProfiler, @NonNull Class<?> listenerClass,
+	                                                @NonNull Object listener, @NonNull Method method, @NonNull Object[] args ) {
+		Watch watch = watchdog != null ? watchdog.start( listenerClass, method.getName(), listener ) : null;
+		long cpuStart = currentProfiler != null ? ListenerProfiler.cpuTime() : 0;
+		long allocatedStart = currentProfiler != null ? ListenerProfiler.allocatedBytes() : 0;
+		boolean completed = false;
+		long start = System.nanoTime();
+		Object result;
+		try {
+			result = invokeUnwrapped( method, listener, args );
+			completed = true;
+		}
+		finally {
+			if( currentProfiler != null ) currentProfiler.record( listener, method.getName(), cpuStart, allocatedStart, start );
+			if( watch != null ) watchdog.finish( watch, completed );
+		}
+		if( currentMetrics.isEnabled() ) currentMetrics.listenerInvoked( listenerClass, method.getName(), System.nanoTime() - start );
+		return result;
+	}
+
+	/** To invoke listeners concurrently with seeded interleaving; returns the result of the last listener (in order of listeners). */
+	private static @Nullable Object sendNotifications( @NonNull DeterministicDispatch dispatch, @NonNull Object[] listenersToNotify,
+	                                                   @NonNull Method method, @NonNull Object[] args ) {
+		Object[] results = new Object[listenersToNotify.length];
+		List<Runnable> tasks = new ArrayList<>( results.length );
+		for( Object listener : listenersToNotify ) {
+			int index = tasks.size();
+			tasks.add( () -> results[index] = invokeUnwrapped( method, listener, args ) );
 		}
+		dispatch.runConcurrently( tasks );
+
+		Object result = null;
+		for( Object r : results ) if( r != null ) result = r;
 		return result != null ? result : TypeUtils.getDefaultReturnValue( method.getReturnType() );
 	}
 
+	/**
+	 * To invoke the specified method of the specified listener.
+	 * <p>
+	 * It throws the exception thrown by the listener itself (instead of {@link InvocationTargetException}),
+	 * so all dispatch paths report failures of listeners in the same way.
+	 */
+	@SneakyThrows
+	static @Nullable Object invokeUnwrapped( @NonNull Method method, @NonNull Object listener, @Nullable Object[] args ) {
+		try {
+			return method.invoke( listener, args );
+		}
+		catch( InvocationTargetException e ) {
+			throw e.getCause();
+		}
+	}
+
+
+	// ==================================================================================
+	// ==================================== metrics =====================================
+	// ==================================================================================
+
+	@Override
+	public void setMetrics( @Nullable NotifierMetrics newMetrics ) {
+		metrics = newMetrics != null ? newMetrics : NotifierMetrics.noop();
+	}
+
+	@Override
+	public @NonNull NotifierMetrics getMetrics() {
+		return metrics;
+	}
+
+
+	// ==================================================================================
+	// ================================= trace exporter =================================
+	// ==================================================================================
+
+	@Override
+	public void setTraceExporter( @Nullable ChromeTraceExporter exporter ) {
+		traceExporter = exporter;
+	}
+
+
+	// ==================================================================================
+	// ============================== registration history ==============================
+	// ==================================================================================
+
+	@Override
+	public void setRegistrationHistory( int size, int stackTraceSampling ) {
+		registrationHistory = new RegistrationHistory( size, stackTraceSampling );
+	}
+
+	@Override
+	public @NonNull RegistrationHistory getRegistrationHistory() {
+		return registrationHistory;
+	}
+
+
+	// ==================================================================================
+	// =================================== profiling ====================================
+	// ==================================================================================
+
+	@Override
+	public void setProfiling( boolean profiling ) {
+		if( !profiling ) {
+			profiler = null;
+		} else if( profiler == null ) {
+			ListenerProfiler newProfiler = new ListenerProfiler();
+			lastProfiler = newProfiler;
+			profiler = newProfiler;
+		}
+	}
+
+	@Override
+	public @NonNull ListenerProfile profile() {
+		ListenerProfiler last = lastProfiler;
+		return last != null ? last.snapshot() : ListenerProfile.empty();
+	}
+
+
+	// ==================================================================================
+	// ============================= slow listener watchdog =============================
+	// ==================================================================================
+
+	@Override
+	public void setSlowListenerWatchdog( @Nullable SlowListenerWatchdog watchdog ) {
+		slowListenerWatchdog = watchdog;
+	}
+
+
+	// ==================================================================================
+	// ============================= event dispatch thread ==============================
+	// ==================================================================================
+
+	@Override
+	public void setEventDispatchThread( @Nullable EventDispatchThread eventThread ) {
+		eventDispatchThread = eventThread;
+	}
+
+	/** To run the specified dispatch on the event thread (if any) and wait for its result. */
+	@SneakyThrows
+	private <T> T onEventThread( @NonNull Callable<T> dispatch ) {
+		EventDispatchThread eventThread = eventDispatchThread;
+		return eventThread != null ? eventThread.callAndWait( dispatch ) : dispatch.call();
+	}
+
+
+	// ==================================================================================
+	// ============================= deterministic dispatch =============================
+	// ==================================================================================
+
+	@Override
+	public void setDeterministicDispatch( @Nullable DeterministicDispatch dispatch ) {
+		deterministicDispatch = dispatch;
+	}
+
+
+	// ==================================================================================
+	// ============================ coalescing notifications ============================
+	// ==================================================================================
+
+	@Override
+	public void setCoalesceNotifications( boolean coalesce ) {
+		coalesceNotifications = coalesce;
+		if( !coalesce ) flushNotifications();
+	}
+
+	@Override
+	public int numberOfPendingNotifications() {
+		return coalesced.size();
+	}
+
+	@Override
+	public int flushNotifications() {
+		return flush( coalesced );
+	}
+
+	/** @return number of sent (merged) notifications */
+	private int flush( @NonNull CoalescedNotifications notifications ) {
+		List<CoalescedNotifications.Pending> drained = notifications.drain();
+		return onEventThread( () -> {
+			int sent = 0;
+			for( CoalescedNotifications.Pending pending : drained ) {
+				if( !pending.isCanceledOut() ) {
+					dispatchNotification( pending.listenerClass, pending.selectors, pending.methodName, pending.dispatch, pending.argument );
+					sent++;
+				}
+			}
+			return sent;
+		} );
+	}
+
+	@Override
+	public int coalesceNotifications( @NonNull Runnable batch ) {
+		CoalescedNotifications outerBatch = batches.get();
+		CoalescedNotifications notifications = new CoalescedNotifications();
+		batches.set( notifications );
+		runningBatches.incrementAndGet();
+		try {
+			batch.run();
+		}
+		finally {
+			runningBatches.decrementAndGet();
+			if( outerBatch != null ) {
+				batches.set( outerBatch );
+			} else {
+				batches.remove();
+			}
+		}
+		return flush( notifications );
+	}
+
+	/** @return notifications to postpone a notification in (batch of the current thread or notifier-wide) or null to send it immediately */
+	private @Nullable CoalescedNotifications postponedNotifications() {
+		if( runningBatches.get() > 0 ) {
+			CoalescedNotifications batch = batches.get();
+			if( batch != null ) return batch;
+		}
+		return coalesceNotifications ? coalesced : null;
+	}
+
+
+	/** @return last values of bound properties of this notifier (created on first call) */
+	synchronized @NonNull BoundProperties getBoundProperties() {
+		if( boundProperties == null ) boundProperties = new BoundProperties();
+		return boundProperties;
+	}
+
 
 	@Override
 	public void setStrictCheckListenerList( boolean strict ) {
@@ -108,47 +778,91 @@ public class ListenersManager implements ListenerContainer, ListenersNotifier {
 
 	@Override
 	public int numberOfRegisteredListeners() {
-		return registeredListenersCount;
+		expungeStaleListeners();
+		return registeredListenersCount.get();
 	}
 
 	@Override
 	public int numberOfListenerRegistrations() {
-		return registrationsCount;
+		return registrationsCount.get();
 	}
 
 	@Override
 	public int numberOfListenerDeregistrations() {
-		return deregistrationsCount;
+		return deregistrationsCount.get();
 	}
 
 	@Override
 	public @NonNull Collection<Object> getAllListeners() {
-		return listeners.values().stream().flatMap( List::stream ).collect( Collectors.toList() );
+		expungeStaleListeners();
+		return listeners.values().stream()
+		                .flatMap( listenersBySelector -> listenersBySelector.values().stream() )
+		                .flatMap( Arrays::stream )
+		                .map( ListenersManager::listenerOf )
+		                .filter( Objects::nonNull )
+		                .collect( Collectors.toList() );
 	}
 
 	@Override
 	public @NonNull <L> Collection<L> getListeners( @NonNull Class<L> listenerClass ) {
-		return listeners.entrySet().stream()
-		                .filter( entry -> Objects.equals( entry.getKey().getListenerClass(), listenerClass ) )
-		                .flatMap( entry -> entry.getValue().stream() )
-		                .map( listenerClass::cast )
-		                .collect( Collectors.toList() );
+		expungeStaleListeners();
+		Map<ListenerSelector, Object[]> listenersBySelector = listeners.get( listenerClass );
+		if( listenersBySelector == null ) return new ArrayList<>();
+		return listenersBySelector.values().stream()
+		                          .flatMap( Arrays::stream )
+		                          .map( ListenersManager::listenerOf )
+		                          .filter( Objects::nonNull )
+		                          .map( listenerClass::cast )
+		                          .collect( Collectors.toList() );
 	}
 
+	/**
+	 * Listeners are returned in order of the specified selectors (duplicated selectors are ignored).
+	 */
 	@Override
 	public @NonNull <L> Collection<L> getListeners( @NonNull Class<L> listenerClass, @NonNull ListenerSelector... selectors ) {
-		Set<ListenerKey<L>> requiredKeys = Arrays.stream( selectors )
-		                                         .map( s -> new ListenerKey<>( listenerClass, s ) )
-		                                         .collect( Collectors.toSet() );
-		return listeners.entrySet().stream()
-		                .filter( entry -> requiredKeys.contains( entry.getKey() ) )
-		                .flatMap( entry -> entry.getValue().stream() )
-		                .map( listenerClass::cast )
-		                .collect( Collectors.toList() );
+		expungeStaleListeners();
+		List<L> found = new ArrayList<>();
+		Map<ListenerSelector, Object[]> listenersBySelector = listeners.get( listenerClass );
+		if( listenersBySelector == null ) return found;
+		for( int i = 0; i < selectors.length; i++ ) {
+			Object[] registered = listenersBySelector.get( selectors[i] );
+			if( registered != null && !isDuplicated( selectors, i ) ) {
+				for( Object entry : registered ) {
+					Object listener = listenerOf( entry );
+					if( listener != null ) found.add( listenerClass.cast( listener ) );
+				}
+			}
+		}
+		return found;
+	}
+
+	/** @return elements of arrays of listeners (listeners or {@link WeakListener}s) in order of the specified selectors */
+	private @NonNull Object @NonNull [] getListenerEntries( @NonNull Class<?> listenerClass, @NonNull ListenerSelector @NonNull [] selectors ) {
+		Map<ListenerSelector, Object[]> listenersBySelector = listeners.get( listenerClass );
+		if( listenersBySelector == null ) return new Object[0];
+		List<Object> found = new ArrayList<>();
+		for( int i = 0; i < selectors.length; i++ ) {
+			Object[] registered = listenersBySelector.get( selectors[i] );
+			if( registered != null && !isDuplicated( selectors, i ) ) Collections.addAll( found, registered );
+		}
+		return found.toArray();
+	}
+
+	/** @return true if the selector with the specified index is equal to one of the previous selectors */
+	private static boolean isDuplicated( @NonNull ListenerSelector[] selectors, int index ) {
+		for( int i = 0; i < index; i++ ) {
+			if( selectors[i].equals( selectors[index] ) ) return true;
+		}
+		return false;
 	}
 
 	@Override
 	public @NonNull Collection<ListenerKey<?>> getListenersWithSelector() {
-		return Collections.unmodifiableCollection( listeners.keySet() );
+		expungeStaleListeners();
+		List<ListenerKey<?>> keys = new ArrayList<>();
+		listeners.forEach( ( listenerClass, listenersBySelector ) -> listenersBySelector.forEach(
+				( selector, registered ) -> keys.add( new ListenerKey<>( listenerClass, selector ) ) ) );
+		return Collections.unmodifiableCollection( keys );
 	}
 }
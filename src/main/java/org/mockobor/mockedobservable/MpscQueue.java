@@ -0,0 +1,68 @@
+package org.mockobor.mockedobservable;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+
+/**
+ * Lock-free unbounded multi-producer single-consumer queue (linked list with a stub node, D. Vyukov).
+ * <p>
+ * {@link #offer} can be called from any thread, {@link #poll} - only from the single consumer thread.
+ *
+ * @param <E> type of elements
+ */
+final class MpscQueue<E> {
+
+	/** Last added node (producers side). */
+	private final AtomicReference<Node<E>> head;
+
+	/** Stub node before the first element (consumer side). */
+	private Node<E> tail;
+
+
+	MpscQueue() {
+		Node<E> stub = new Node<>( null );
+		head = new AtomicReference<>( stub );
+		tail = stub;
+	}
+
+
+	/**
+	 * To add an element to the end of the queue (wait-free, can be called from any thread).
+	 *
+	 * @param element element to add
+	 */
+	void offer( @NonNull E element ) {
+		Node<E> node = new Node<>( element );
+		Node<E> previous = head.getAndSet( node );
+		previous.next = node; // the element is invisible for the consumer until this line
+	}
+
+	/**
+	 * To remove the first element from the queue (consumer thread only).
+	 *
+	 * @return the first element or null if the queue is empty (or the first element is not completely added yet)
+	 */
+	@Nullable E poll() {
+		Node<E> next = tail.next;
+		if( next == null ) return null;
+		E element = next.element;
+		next.element = null; // next becomes the new stub
+		tail = next;
+		return element;
+	}
+
+
+	private static final class Node<E> {
+
+		private @Nullable E element;
+
+		private volatile @Nullable Node<E> next;
+
+		private Node( @Nullable E element ) {
+			this.element = element;
+		}
+	}
+}
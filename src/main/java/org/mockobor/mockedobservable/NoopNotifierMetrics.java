@@ -0,0 +1,45 @@
+package org.mockobor.mockedobservable;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.mockobor.listener_detectors.ListenerSelector;
+
+
+/** Disabled metrics (see {@link NotifierMetrics#noop()}). */
+final class NoopNotifierMetrics implements NotifierMetrics {
+
+	static final NoopNotifierMetrics INSTANCE = new NoopNotifierMetrics();
+
+
+	private NoopNotifierMetrics() {}
+
+
+	@Override
+	public boolean isEnabled() {
+		return false;
+	}
+
+	@Override
+	public void listenerRegistered( @NonNull ListenerSelector selector, @NonNull Class<?> listenerClass ) {
+		// nothing to record
+	}
+
+	@Override
+	public void listenerDeregistered( @NonNull ListenerSelector selector, @NonNull Class<?> listenerClass ) {
+		// nothing to record
+	}
+
+	@Override
+	public void notificationDispatched( @NonNull Class<?> listenerClass, @NonNull String methodName, int listeners ) {
+		// nothing to record
+	}
+
+	@Override
+	public void listenerInvoked( @NonNull Class<?> listenerClass, @NonNull String methodName, long nanos ) {
+		// nothing to record
+	}
+
+	@Override
+	public String toString() {
+		return "NotifierMetrics.noop()";
+	}
+}
@@ -2,7 +2,6 @@ package org.mockobor.mockedobservable;
 
 import lombok.RequiredArgsConstructor;
 import org.eclipse.jdt.annotation.NonNull;
-import org.eclipse.jdt.annotation.Nullable;
 import org.mockobor.Mockobor;
 import org.mockobor.exceptions.ListenerRegistrationMethodsNotDetectedException;
 import org.mockobor.exceptions.MethodNotFoundException;
@@ -10,23 +9,29 @@ import org.mockobor.exceptions.MockingToolNotDetectedException;
 import org.mockobor.exceptions.UnregisteredListenersFoundException;
 import org.mockobor.listener_detectors.*;
 import org.mockobor.listener_detectors.NotificationMethodDelegate.NotificationMethodInvocation;
-import org.mockobor.listener_detectors.RegistrationDelegate.RegistrationInvocation;
+import org.mockobor.mockedobservable.FlightRecorderEvents.NotifierCreated;
+import org.mockobor.mockedobservable.detection_cache.DetectionCache;
 import org.mockobor.mockedobservable.mocking_tools.ListenerRegistrationHandler;
 import org.mockobor.mockedobservable.mocking_tools.ListenerRegistrationHandler.Invocation;
+import org.mockobor.mockedobservable.PrewarmReport.TypeReport;
 import org.mockobor.mockedobservable.mocking_tools.MockingToolsRegistry;
+import org.mockobor.utils.reflection.MethodIndex;
+import org.mockobor.utils.reflection.MethodTable;
 import org.mockobor.utils.reflection.ReflectionUtils;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static java.util.Collections.unmodifiableCollection;
-import static org.mockobor.utils.reflection.ReflectionUtils.findSimilarMethod;
-import static org.mockobor.utils.reflection.ReflectionUtils.getReachableMethods;
+import static org.mockobor.utils.reflection.ReflectionUtils.getMethodTable;
 
 
 /**
@@ -40,6 +45,9 @@ import static org.mockobor.utils.reflection.ReflectionUtils.getReachableMethods;
  * </ul>
  * <p></p>
  * It used in {@link Mockobor#createNotifierFor} to do real work.
+ * <p></p>
+ * The expensive part of this work (method indexing, listener detection, definition of proxy class and initialization of mocking tools)
+ * can be done in advance for types of observables using {@link #prewarm}.
  */
 @RequiredArgsConstructor
 public class NotifierFactory {
@@ -50,6 +58,20 @@ public class NotifierFactory {
 	@NonNull
 	private final MockingToolsRegistry mockingToolsRegistry;
 
+	@NonNull
+	private final DetectionCache detectionCache;
+
+
+	/**
+	 * To create a notifier factory with the default detection cache (see {@link DetectionCache#createDefault()}).
+	 *
+	 * @param listenerDetectorsRegistry registry of listener definition detectors
+	 * @param mockingToolsRegistry      registry of supported mocking tools
+	 */
+	public NotifierFactory( @NonNull ListenerDetectorsRegistry listenerDetectorsRegistry, @NonNull MockingToolsRegistry mockingToolsRegistry ) {
+		this( listenerDetectorsRegistry, mockingToolsRegistry, DetectionCache.createDefault() );
+	}
+
 
 	/**
 	 * To create a notifier object for the specified mocked observable.
@@ -63,11 +85,25 @@ public class NotifierFactory {
 	public @NonNull ListenersNotifier create( @NonNull Object mockedObservable, @NonNull NotifierSettings settings )
 			throws ListenerRegistrationMethodsNotDetectedException, MockingToolNotDetectedException {
 
-		List<ListenerDefinition> listenerDefinitions = detectListenerDefinitions( mockedObservable );
+		NotifierCreated event = FlightRecorderEvents.isRecording() ? FlightRecorderEvents.beginNotifierCreation() : null;
+		long start = event != null ? System.nanoTime() : 0;
+
+		List<ListenerDefinition> listenerDefinitions = detectListenerDefinitions( mockedObservable.getClass(), mockedObservable );
+		long detected = event != null ? System.nanoTime() : 0;
+
 		ListenersManager listenerManager = new ListenersManager( mockedObservable );
 		listenerManager.setStrictCheckListenerList( settings.getStrictCheckListenerList() );
+		listenerManager.setCoalesceNotifications( settings.shouldCoalesceNotifications() );
+		listenerManager.setRegistrationHistory( settings.getRegistrationHistorySize(), settings.getRegistrationStackTraceSampling() );
+		listenerManager.setWeakListeners( settings.shouldStoreListenersWeakly() );
 		registerInMockedObservable( listenerManager, listenerDefinitions );
-		return createProxy( listenerManager, listenerDefinitions, settings );
+		long stubbed = event != null ? System.nanoTime() : 0;
+
+		ListenersNotifier notifier = createProxy( listenerManager, listenerDefinitions, settings );
+		if( event != null ) {
+			event.complete( mockedObservable.getClass(), listenerDefinitions.size(), detected - start, stubbed - detected, System.nanoTime() - stubbed );
+		}
+		return notifier;
 	}
 
 
@@ -87,33 +123,160 @@ public class NotifierFactory {
 			notClean.forEach( n -> {
 				builder.append( "\n\t" ).append( n.getObservableMock() );
 				n.getListenersWithSelector().forEach( lk -> builder.append( "\n\t\t" ).append( lk.toString() ) );
+				if( n instanceof ExtendedListenersNotifier ) {
+					ExtendedListenersNotifier extended = (ExtendedListenersNotifier) n;
+					extended.getLeakedListeners().forEach( leaked -> builder.append( "\n\t\t" ).append( leaked.toString() ) );
+					RegistrationHistory history = extended.getRegistrationHistory();
+					if( history.getCapacity() > 0 ) builder.append( "\n\t\t" ).append( history.toString().replace( "\n", "\n\t\t" ) );
+				}
 			} );
 			throw new UnregisteredListenersFoundException( builder.toString() );
 		}
 	}
 
 
+	// ==================================================================================
+	// ==================================== prewarm =====================================
+	// ==================================================================================
+
+	/**
+	 * To prepare creation of notifiers for mocks of the specified types in background.
+	 * <p>
+	 * For each of the specified types it indexes reachable methods, detects listener registration methods
+	 * and defines the class of notifier proxy. Additionally, it initializes all registered mocking tools.
+	 * Results are cached, so the next {@link #create} for mocks of these types does not need to do this work anymore.
+	 * <p>
+	 * Errors (for example, if a type has no registration methods) do not complete the returned future exceptionally,
+	 * they are reported in {@link PrewarmReport}.
+	 *
+	 * @param observableTypes types (classes or interfaces) of observables, which will be mocked
+	 * @param settings        settings used later to create notifiers (define interfaces implemented by notifiers)
+	 * @param executor        executor used to do the work
+	 * @return future completed with timings of the work, when all types are prepared
+	 */
+	public @NonNull CompletableFuture<PrewarmReport> prewarm( @NonNull Collection<Class<?>> observableTypes,
+	                                                          @NonNull NotifierSettings settings,
+	                                                          @NonNull Executor executor ) {
+		long start = System.nanoTime();
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader(); // the same as used to create proxies
+
+		CompletableFuture<Duration> handlerResolution = CompletableFuture.supplyAsync( () -> {
+			long handlersStart = System.nanoTime();
+			mockingToolsRegistry.prewarm();
+			return Duration.ofNanos( System.nanoTime() - handlersStart );
+		}, executor );
+		List<CompletableFuture<TypeReport>> typeReports = observableTypes.stream()
+		                                                                 .map( type -> CompletableFuture.supplyAsync(
+				                                                                 () -> prewarmType( type, settings, classLoader ), executor ) )
+		                                                                 .collect( Collectors.toList() );
+
+		List<CompletableFuture<?>> all = new ArrayList<>( typeReports );
+		all.add( handlerResolution );
+		return CompletableFuture.allOf( all.toArray( new CompletableFuture<?>[0] ) )
+		                        .thenApply( ignored -> new PrewarmReport(
+				                        handlerResolution.join(),
+				                        Duration.ofNanos( System.nanoTime() - start ),
+				                        typeReports.stream().map( CompletableFuture::join ).collect( Collectors.toList() ) ) );
+	}
+
+	private @NonNull TypeReport prewarmType( @NonNull Class<?> observableType, @NonNull NotifierSettings settings, @NonNull ClassLoader classLoader ) {
+		Duration methodIndexing = Duration.ZERO;
+		Duration detection = Duration.ZERO;
+		Duration proxyDefinition = Duration.ZERO;
+		try {
+			long start = System.nanoTime();
+			getMethodTable( observableType );
+			getMethodTable( ListenersManager.class );
+			long indexed = System.nanoTime();
+			methodIndexing = Duration.ofNanos( indexed - start );
+
+			List<ListenerDefinition> listenerDefinitions = detectListenerDefinitions( observableType, observableType );
+			long detected = System.nanoTime();
+			detection = Duration.ofNanos( detected - indexed );
+
+			Class<?>[] interfaces = collectInterfacesToImplement( collectAdditionalInterfaces( listenerDefinitions ),
+			                                                      collectDetectedListenerToImplement( listenerDefinitions, settings ) );
+			Proxy.newProxyInstance( classLoader, interfaces, ( proxy, method, args ) -> null ); // proxy classes are cached by JDK
+			proxyDefinition = Duration.ofNanos( System.nanoTime() - detected );
+
+			return new TypeReport( observableType, methodIndexing, detection, proxyDefinition, null );
+		}
+		catch( RuntimeException e ) {
+			return new TypeReport( observableType, methodIndexing, detection, proxyDefinition, e );
+		}
+	}
+
+
 	// ==================================================================================
 	// ============================== detect listeners ==================================
 	// ==================================================================================
 
-	/** To find all possible listener registrations in the specified mocked observable. */
-	private @NonNull List<ListenerDefinition> detectListenerDefinitions( @NonNull Object mockedObservable ) {
+	/**
+	 * To find all possible listener registrations in the specified mocked observable.
+	 * <p>
+	 * Precomputed detectors (for the type of the mocked observable) go first,
+	 * so registration methods found by them are not examined by other detectors.
+	 * <p>
+	 * Results are cached per type of the method table (see {@link DetectionCache}), so mocks of one type share detection results
+	 * with each other and with {@link #prewarm}.
+	 *
+	 * @param observableClass  class of the mocked observable (or a type of observable to prewarm)
+	 * @param mockedObservable mocked observable (or a type of observable to prewarm), used only for error messages
+	 */
+	private @NonNull List<ListenerDefinition> detectListenerDefinitions( @NonNull Class<?> observableClass, @NonNull Object mockedObservable ) {
+		List<ListenerDefinitionDetector> detectors = new ArrayList<>( listenerDetectorsRegistry.getPrecomputedDetectors( observableClass ) );
+		detectors.addAll( listenerDetectorsRegistry.getDetectors() );
+
+		MethodTable methodTable = getMethodTable( observableClass );
+		Class<?> detectionType = methodTable.getType(); // the mocked type if the mock class shares its method table
+		List<ListenerDefinition> cachedDefinitions = detectionCache.find( detectionType, detectors );
+		if( cachedDefinitions != null ) return cachedDefinitions;
+
 		List<ListenerDefinition> listenerDefinitions = new ArrayList<>();
-		Collection<Method> methods = getReachableMethods( mockedObservable );
-		Collection<ListenerDefinitionDetector> detectors = listenerDetectorsRegistry.getDetectors();
+		List<ListenerDefinition> detectionResults = new ArrayList<>( detectors.size() ); // per detector, null if nothing detected
+		Set<Method> processedMethods = new HashSet<>();
 		detectors.forEach( detector -> {
-			ListenerDefinition definition = detector.detect( unmodifiableCollection( methods ) );
+			ListenerDefinition definition = detector.detect( selectCandidates( methodTable, detector, processedMethods ) );
 			if( definition.hasListenerDetected() ) {
 				listenerDefinitions.add( definition );
-				// remove processed registration methods
-				definition.getRegistrations().forEach( delegation -> methods.remove( delegation.getSource() ) );
+				detectionResults.add( definition );
+				// exclude processed registration methods from further detection
+				definition.getRegistrations().forEach( delegation -> processedMethods.add( delegation.getSource() ) );
+			} else {
+				detectionResults.add( null );
 			}
 		} );
 		if( listenerDefinitions.isEmpty() ) throw new ListenerRegistrationMethodsNotDetectedException( mockedObservable, detectors );
+
+		detectionCache.store( detectionType, detectors, detectionResults );
 		return listenerDefinitions;
 	}
 
+	/** To select (not processed) methods, which can be registration methods for the specified detector. */
+	private static @NonNull Collection<Method> selectCandidates( @NonNull MethodTable methodTable,
+	                                                             @NonNull ListenerDefinitionDetector detector,
+	                                                             @NonNull Set<Method> processedMethods ) {
+		Collection<Class<?>> listenerTypes = detector.getListenerParameterTypes();
+		Collection<Method> candidates;
+		if( listenerTypes == null ) {
+			candidates = methodTable.getMethods();
+		} else if( listenerTypes.isEmpty() ) {
+			candidates = methodTable.getMethodsWithInterfaceParameters();
+		} else if( listenerTypes.size() == 1 ) {
+			candidates = methodTable.getMethodsWithParameterType( listenerTypes.iterator().next() );
+		} else {
+			candidates = new LinkedHashSet<>();
+			for( Class<?> listenerType : listenerTypes ) {
+				candidates.addAll( methodTable.getMethodsWithParameterType( listenerType ) );
+			}
+		}
+
+		if( !processedMethods.isEmpty() ) {
+			candidates = candidates.stream().filter( m -> !processedMethods.contains( m ) ).collect( Collectors.toList() );
+		}
+		return unmodifiableCollection( candidates );
+	}
+
 
 	// ==================================================================================
 	// ============================== register in mock ==================================
@@ -136,15 +299,12 @@ public class NotifierFactory {
 		Collection<Invocation> previouslyInvocations = registrationHandler.getPreviouslyRegistrations( observableMock );
 
 		if( !previouslyInvocations.isEmpty() ) {
-			Map<Method, RegistrationInvocation> registrationMethods =
-					registrationDelegateStream( listenerDefinitions ).collect(
-							Collectors.toMap( RegistrationDelegate::getSource, RegistrationDelegate::getDestination ) );
+			MethodIndex<RegistrationDelegate> registrationMethods = new MethodIndex<>();
+			registrationDelegateStream( listenerDefinitions ).forEach( delegate -> registrationMethods.put( delegate.getSource(), delegate ) );
 			previouslyInvocations.forEach( invocation -> {
-				Method invokedMethod = invocation.getInvokedMethod();
-				Method declaredMethod = findSimilarMethod( registrationMethods.keySet(), invokedMethod );
-				if( declaredMethod != null ) {
-					RegistrationInvocation registration = registrationMethods.get( declaredMethod ); // !=null because declaredMethod in keySet
-					registration.invoke( listenerManager, declaredMethod, invocation.getArguments() );
+				RegistrationDelegate registration = registrationMethods.get( invocation.getInvokedMethod() );
+				if( registration != null ) {
+					registration.getDestination().invoke( listenerManager, registration.getSource(), invocation.getArguments() );
 				}
 			} );
 		}
@@ -172,27 +332,35 @@ public class NotifierFactory {
 		// collect interfaces to implement
 		Set<Class<?>> additionalInterfaces = collectAdditionalInterfaces( listenerDefinitions );
 		Set<Class<?>> detectedListenerToImplement = collectDetectedListenerToImplement( listenerDefinitions, settings );
-		Set<Class<?>> interfacesToImplement = new LinkedHashSet<>( additionalInterfaces );
-		interfacesToImplement.add( ListenersNotifier.class ); // ListenersNotifier must always be implemented
-		interfacesToImplement.addAll( detectedListenerToImplement );
 
 		// create invocation handler for proxy
 		InvocationHandler invocationHandler = createInvocationHandler(
 				listenersNotifier,
 				collectCustomNotificationDelegates( listenerDefinitions ),
+				getMethodTable( listenersNotifier.getClass() ),
 				additionalInterfaces,
 				detectedListenerToImplement );
 
 		// create proxy, which implement required interfaces
 		return (ListenersNotifier) Proxy.newProxyInstance( Thread.currentThread().getContextClassLoader(),
-		                                                   interfacesToImplement.toArray( new Class<?>[0] ),
+		                                                   collectInterfacesToImplement( additionalInterfaces, detectedListenerToImplement ),
 		                                                   invocationHandler );
 	}
 
+	private static @NonNull Class<?> @NonNull [] collectInterfacesToImplement( @NonNull Set<Class<?>> additionalInterfaces,
+	                                                                          @NonNull Set<Class<?>> detectedListenerToImplement ) {
+		Set<Class<?>> interfacesToImplement = new LinkedHashSet<>( additionalInterfaces );
+		interfacesToImplement.add( ListenersNotifier.class ); // ListenersNotifier must always be implemented
+		interfacesToImplement.add( ExtendedListenersNotifier.class );
+		interfacesToImplement.addAll( detectedListenerToImplement );
+		return interfacesToImplement.toArray( new Class<?>[0] );
+	}
+
 	@SuppressWarnings( "java:S3776" ) // sonarlint, the methods is not too complex.
 	private static @NonNull InvocationHandler createInvocationHandler(
 			@NonNull ListenersNotifier listenersNotifier,
-			@NonNull Map<Method, NotificationMethodInvocation> customNotificationDelegates,
+			@NonNull MethodIndex<NotificationMethodInvocation> customNotificationDelegates,
+			@NonNull MethodTable listenersNotifierMethods,
 			@NonNull Set<Class<?>> additionalInterfaces,
 			@NonNull Set<Class<?>> detectedListenerToImplement ) {
 
@@ -202,7 +370,7 @@ public class NotifierFactory {
 				Class<?> declaringClass = method.getDeclaringClass();
 
 				// 1. try in explicit notification invocations
-				NotificationMethodInvocation delegate = findDelegate( customNotificationDelegates, method );
+				NotificationMethodInvocation delegate = customNotificationDelegates.get( method );
 				if( delegate != null ) {
 					return delegate.invoke( listenersNotifier, method, args );
 				}
@@ -212,23 +380,25 @@ public class NotifierFactory {
 					return ReflectionUtils.invokeDefaultMethod( proxy, method, args );
 				}
 
-				// 3. try ListenersNotifier
-				if( declaringClass.equals( ListenersNotifier.class ) || declaringClass.equals( Object.class ) ) {
+				// 3. try ListenersNotifier (and its optional features)
+				if( declaringClass.equals( ListenersNotifier.class )
+				    || declaringClass.equals( ExtendedListenersNotifier.class )
+				    || declaringClass.equals( Object.class ) ) {
 					return method.invoke( listenersNotifier, args );
 				}
 
-				// 4. try similar methods declared in listenersNotifier
-				Method compatibleMethod = findSimilarMethod( getReachableMethods( listenersNotifier ), method );
-				if( compatibleMethod != null ) {
-					return compatibleMethod.invoke( listenersNotifier, args );
-				}
-
-				// 5. try to invoke detected listener's method over ListenersNotifier.notifierFor
+				// 4. try to invoke detected listener's method over ListenersNotifier.notifierFor
 				if( detectedListenerToImplement.contains( declaringClass ) ) {
 					Object listenerProxy = listenersNotifier.notifierFor( declaringClass );
 					return method.invoke( listenerProxy, args );
 				}
 
+				// 5. try similar methods declared in listenersNotifier
+				Method compatibleMethod = listenersNotifierMethods.findSimilarMethod( method );
+				if( compatibleMethod != null ) {
+					return compatibleMethod.invoke( listenersNotifier, args );
+				}
+
 				// can not find an invocation handler for the method
 				throw new MethodNotFoundException( method, args );
 			}
@@ -240,12 +410,6 @@ public class NotifierFactory {
 		};
 	}
 
-	private static @Nullable NotificationMethodInvocation findDelegate( @NonNull Map<Method, NotificationMethodInvocation> delegates,
-	                                                                    @NonNull Method invokedMethod ) {
-		Method delegateSourceMethod = findSimilarMethod( delegates.keySet(), invokedMethod );
-		return delegateSourceMethod != null ? delegates.get( delegateSourceMethod ) : null;
-	}
-
 
 	private @NonNull Set<Class<?>> collectAdditionalInterfaces( @NonNull List<ListenerDefinition> listenerDefinitions ) {
 		Set<Class<?>> interfaces = new LinkedHashSet<>();
@@ -262,10 +426,10 @@ public class NotifierFactory {
 		return interfaces;
 	}
 
-	private @NonNull Map<Method, NotificationMethodInvocation> collectCustomNotificationDelegates(
+	private @NonNull MethodIndex<NotificationMethodInvocation> collectCustomNotificationDelegates(
 			@NonNull List<ListenerDefinition> listenerDefinitions ) {
-		Map<Method, NotificationMethodInvocation> customNotificationDelegates = new HashMap<>();
-		listenerDefinitions.forEach( ld -> customNotificationDelegates.putAll( ld.getCustomNotificationMethodDelegates() ) );
+		MethodIndex<NotificationMethodInvocation> customNotificationDelegates = new MethodIndex<>();
+		listenerDefinitions.forEach( ld -> ld.getCustomNotificationMethodDelegates().forEach( customNotificationDelegates::put ) );
 		return customNotificationDelegates;
 	}
 
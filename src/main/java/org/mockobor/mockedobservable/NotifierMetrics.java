@@ -0,0 +1,67 @@
+package org.mockobor.mockedobservable;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.mockobor.listener_detectors.ListenerSelector;
+
+
+/**
+ * Metrics of a listener notifier (see {@link ExtendedListenersNotifier#setMetrics}).
+ * <p>
+ * A notifier reports to its metrics:<ul>
+ * <li>registrations and deregistrations of listeners (per selector)</li>
+ * <li>dispatched notifications (per listener class and notification method) with the number of notified listeners</li>
+ * <li>duration of each listener invocation</li>
+ * </ul>
+ * Metrics are disabled by default ({@link #noop()}): the notifier does not even measure the time,
+ * and calls of the empty methods are eliminated by the JIT.
+ * {@link RecordingNotifierMetrics} collects counters and latency histograms.
+ * <p>
+ * Implementations must be thread-safe.
+ */
+public interface NotifierMetrics {
+
+	/** @return metrics, which record nothing (default of all notifiers) */
+	static @NonNull NotifierMetrics noop() {
+		return NoopNotifierMetrics.INSTANCE;
+	}
+
+
+	/** @return false if the notifier should not collect data for these metrics at all (like measuring of invocation time) */
+	default boolean isEnabled() {
+		return true;
+	}
+
+	/**
+	 * A listener was registered.
+	 *
+	 * @param selector      selector used by registration
+	 * @param listenerClass class of the registered listener
+	 */
+	void listenerRegistered( @NonNull ListenerSelector selector, @NonNull Class<?> listenerClass );
+
+	/**
+	 * A listener was deregistered.
+	 *
+	 * @param selector      selector used by deregistration
+	 * @param listenerClass class of the deregistered listener
+	 */
+	void listenerDeregistered( @NonNull ListenerSelector selector, @NonNull Class<?> listenerClass );
+
+	/**
+	 * A notification was dispatched.
+	 *
+	 * @param listenerClass class of notified listeners
+	 * @param methodName    name of the notification method (like {@code propertyChange})
+	 * @param listeners     number of notified listeners
+	 */
+	void notificationDispatched( @NonNull Class<?> listenerClass, @NonNull String methodName, int listeners );
+
+	/**
+	 * A listener was invoked (it is reported for each notified listener, if the invocation was completed normally).
+	 *
+	 * @param listenerClass class of the invoked listener
+	 * @param methodName    name of the notification method (like {@code propertyChange})
+	 * @param nanos         duration of the invocation in nanoseconds
+	 */
+	void listenerInvoked( @NonNull Class<?> listenerClass, @NonNull String methodName, long nanos );
+}
@@ -5,6 +5,9 @@ import org.mockobor.Mockobor;
 
 /**
  * Settings used to create a new notifier (used in {@link Mockobor#createNotifierFor(Object, NotifierSettings)}).
+ * <p>
+ * Settings added after version 1.1.4 have default implementations returning their default values,
+ * so existing implementations of this interface stay compatible.
  */
 public interface NotifierSettings {
 	/**
@@ -46,4 +49,76 @@ public interface NotifierSettings {
 	 * @see Mockobor
 	 */
 	boolean shouldNotifierImplementListenerInterfaces();
+
+
+	/**
+	 * Flag: should a new listener notifier coalesce notifications.
+	 * <ul>
+	 * <li>false (default) - notifications are sent immediately</li>
+	 * <li>true - notifications are postponed until {@link ExtendedListenersNotifier#flushNotifications()};
+	 * repeated notifications for the same listener class and selectors are merged (see {@link ExtendedListenersNotifier#setCoalesceNotifications})</li>
+	 * </ul>
+	 * <p>
+	 * Default: false
+	 *
+	 * @return true - a new listener notifier coalesces notifications
+	 * @see ExtendedListenersNotifier#setCoalesceNotifications
+	 * @see ExtendedListenersNotifier#coalesceNotifications(Runnable)
+	 */
+	default boolean shouldCoalesceNotifications() {
+		return false;
+	}
+
+
+	/**
+	 * Number of the last registrations and deregistrations of listeners kept by a new listener notifier
+	 * (see {@link ExtendedListenersNotifier#getRegistrationHistory()}).
+	 * <p>
+	 * The history is dumped in the message of {@link org.mockobor.exceptions.UnregisteredListenersFoundException}.
+	 * <p>
+	 * Default: 0 (no history)
+	 *
+	 * @return size of the registration history
+	 * @see NotifierSettingsUpdater#registrationHistory
+	 */
+	default int getRegistrationHistorySize() {
+		return 0;
+	}
+
+	/**
+	 * Sampling of stack traces in the registration history: a stack trace is taken for every n-th record.
+	 * <p>
+	 * Stack traces show where listeners were registered, but they are expensive, so they are not taken by default.
+	 * <p>
+	 * Default: 0 (never; 1 - for each registration and deregistration)
+	 *
+	 * @return stack trace sampling of the registration history
+	 * @see NotifierSettingsUpdater#registrationHistory
+	 */
+	default int getRegistrationStackTraceSampling() {
+		return 0;
+	}
+
+
+	/**
+	 * Flag: should a new listener notifier store listeners weakly.
+	 * <ul>
+	 * <li>false (default) - listeners are referenced by the notifier until they are removed</li>
+	 * <li>true - listeners are stored over weak references, so listeners, which the tested object forgot to remove,
+	 * can be garbage collected (for example, in long soak tests); collected listeners are expunged by the next
+	 * registration or notification and reported as leaks (see {@link ExtendedListenersNotifier#getLeakedListeners()})</li>
+	 * </ul>
+	 * <p>
+	 * Note: mocking tools can reference listeners too, as arguments of recorded invocations of the mocked observable.
+	 * For Mockito use stub-only mocks ({@code mock( Observable.class, withSettings().stubOnly() )});
+	 * even then Mockito keeps the last invocation of each registration method, so the last listener passed
+	 * to each registration method stays reachable until this method is called again.
+	 * <p>
+	 * Default: false
+	 *
+	 * @return true - a new listener notifier stores listeners weakly
+	 */
+	default boolean shouldStoreListenersWeakly() {
+		return false;
+	}
 }
@@ -2,6 +2,7 @@ package org.mockobor.mockedobservable;
 
 import lombok.Builder;
 import org.eclipse.jdt.annotation.NonNull;
+import org.mockobor.exceptions.MockoborIllegalArgumentException;
 
 
 @Builder( toBuilder = true )
@@ -13,6 +14,14 @@ public class NotifierSettingsImpl implements NotifierSettingsUpdater {
 	@Builder.Default
 	private boolean implementListeners = true;
 
+	private boolean coalesceNotifications;
+
+	private int registrationHistorySize;
+
+	private int registrationStackTraceSampling;
+
+	private boolean weakListeners;
+
 
 	public static NotifierSettingsImpl createDefaultSettings() {
 		return builder().build();
@@ -53,4 +62,60 @@ public class NotifierSettingsImpl implements NotifierSettingsUpdater {
 		implementListeners = false;
 		return this;
 	}
+
+
+	@Override
+	public boolean shouldCoalesceNotifications() {
+		return coalesceNotifications;
+	}
+
+	@Override
+	public @NonNull NotifierSettingsUpdater coalesceNotifications() {
+		coalesceNotifications = true;
+		return this;
+	}
+
+	@Override
+	public @NonNull NotifierSettingsUpdater immediateNotifications() {
+		coalesceNotifications = false;
+		return this;
+	}
+
+
+	@Override
+	public int getRegistrationHistorySize() {
+		return registrationHistorySize;
+	}
+
+	@Override
+	public int getRegistrationStackTraceSampling() {
+		return registrationStackTraceSampling;
+	}
+
+	@Override
+	public @NonNull NotifierSettingsUpdater registrationHistory( int size, int stackTraceSampling ) {
+		if( size < 0 ) throw new MockoborIllegalArgumentException( "size of registration history can not be negative: %d", size );
+		if( stackTraceSampling < 0 ) throw new MockoborIllegalArgumentException( "stack trace sampling can not be negative: %d", stackTraceSampling );
+		registrationHistorySize = size;
+		registrationStackTraceSampling = stackTraceSampling;
+		return this;
+	}
+
+
+	@Override
+	public boolean shouldStoreListenersWeakly() {
+		return weakListeners;
+	}
+
+	@Override
+	public @NonNull NotifierSettingsUpdater weakListeners() {
+		weakListeners = true;
+		return this;
+	}
+
+	@Override
+	public @NonNull NotifierSettingsUpdater strongListeners() {
+		weakListeners = false;
+		return this;
+	}
 }
@@ -1,10 +1,16 @@
 package org.mockobor.mockedobservable;
 
 import org.eclipse.jdt.annotation.NonNull;
+import org.mockobor.Mockobor;
+import org.mockobor.MockoborContext;
 
 
 /**
  * Update methods for {@link NotifierSettings}.
+ * <p>
+ * It is implemented by Mockobor itself (see {@link Mockobor#notifierSettings()} and
+ * {@link MockoborContext#updateNotifierSettings()}) and is not intended to be implemented by clients:
+ * new update methods can be added in new versions.
  */
 public interface NotifierSettingsUpdater extends NotifierSettings {
 
@@ -56,4 +62,68 @@ public interface NotifierSettingsUpdater extends NotifierSettings {
 	 * @see #shouldNotifierImplementListenerInterfaces()
 	 */
 	@NonNull NotifierSettingsUpdater ignoreListenerInterfaces();
+
+
+	/**
+	 * To postpone and merge notifications until {@link ExtendedListenersNotifier#flushNotifications()}.
+	 * <p>
+	 * It applies only to {@link ListenersNotifier}s created after change this setting.
+	 *
+	 * @return itself for fluent calls
+	 * @see #shouldCoalesceNotifications()
+	 * @see ExtendedListenersNotifier#setCoalesceNotifications
+	 */
+	@NonNull NotifierSettingsUpdater coalesceNotifications();
+
+	/**
+	 * To send notifications immediately.
+	 * <p>
+	 * It applies only to {@link ListenersNotifier}s created after change this setting.
+	 * <p>
+	 * It is a default behavior.
+	 *
+	 * @return itself for fluent calls
+	 * @see #shouldCoalesceNotifications()
+	 * @see ExtendedListenersNotifier#setCoalesceNotifications
+	 */
+	@NonNull NotifierSettingsUpdater immediateNotifications();
+
+
+	/**
+	 * To configure the history of registrations and deregistrations of listeners (see {@link RegistrationHistory}).
+	 * <p>
+	 * It applies only to {@link ListenersNotifier}s created after change this setting.
+	 *
+	 * @param size               number of kept records (0 - no history (default))
+	 * @param stackTraceSampling a stack trace is taken for every n-th record (0 - never (default), 1 - for each record)
+	 * @return itself for fluent calls
+	 * @see #getRegistrationHistorySize()
+	 * @see #getRegistrationStackTraceSampling()
+	 * @see ExtendedListenersNotifier#setRegistrationHistory
+	 */
+	@NonNull NotifierSettingsUpdater registrationHistory( int size, int stackTraceSampling );
+
+
+	/**
+	 * To store listeners weakly, so not removed listeners can be garbage collected and reported as leaks.
+	 * <p>
+	 * It applies only to {@link ListenersNotifier}s created after change this setting.
+	 *
+	 * @return itself for fluent calls
+	 * @see #shouldStoreListenersWeakly()
+	 * @see ExtendedListenersNotifier#getLeakedListeners()
+	 */
+	@NonNull NotifierSettingsUpdater weakListeners();
+
+	/**
+	 * To store listeners strongly (until they are removed).
+	 * <p>
+	 * It applies only to {@link ListenersNotifier}s created after change this setting.
+	 * <p>
+	 * It is a default behavior.
+	 *
+	 * @return itself for fluent calls
+	 * @see #shouldStoreListenersWeakly()
+	 */
+	@NonNull NotifierSettingsUpdater strongListeners();
 }
@@ -0,0 +1,80 @@
+package org.mockobor.mockedobservable;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.SneakyThrows;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.mockobor.exceptions.ListenersNotFoundException;
+import org.mockobor.listener_detectors.ListenerSelector;
+import org.mockobor.listener_detectors.NotificationMethodDelegate;
+import org.mockobor.listener_detectors.NotificationMethodDelegate.NotificationMethodInvocation;
+import org.mockobor.listener_detectors.ObservableDetector;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Observable;
+import java.util.Observer;
+
+
+/**
+ * Fast path for notification methods of {@link ObservableNotifier} (used as notification delegates by {@link ObservableDetector}).
+ * <p>
+ * Instead of default methods of {@link ObservableNotifier} (invoked reflectively and dispatched over a new {@code notifierFor}-proxy
+ * for each call) these delegates send the update directly to registered observers (see {@link ListenersManager#notifyListeners}).
+ */
+@SuppressWarnings( "deprecation" )
+@NoArgsConstructor( access = AccessLevel.PRIVATE )
+public final class ObservableNotificationDelegates {
+
+	private static final ListenerSelector[] ALL_OBSERVERS = { ListenerSelector.selector() };
+
+	private static final List<NotificationMethodDelegate> DELEGATES = createDelegates();
+
+
+	/** @return immutable list of notification delegates for notification methods of {@link ObservableNotifier} */
+	public static @NonNull List<NotificationMethodDelegate> getNotificationDelegates() {
+		return DELEGATES;
+	}
+
+
+	/**
+	 * To call {@link Observer#update} of all registered observers (like {@link ObservableNotifier#notifyObservers(Object)}).
+	 *
+	 * @param notifier        notifier to send update to
+	 * @param updateParameter parameter passed to observers
+	 * @throws ListenersNotFoundException if no observers found and strictCheckListenerList-flag set to true (default)
+	 */
+	public static void notifyObservers( @NonNull ListenersNotifier notifier, @Nullable Object updateParameter )
+			throws ListenersNotFoundException {
+		Object observableMock = notifier.getObservableMock();
+		Observable observable = observableMock instanceof Observable ? (Observable) observableMock : null;
+		if( notifier instanceof ListenersManager ) {
+			( (ListenersManager) notifier ).notifyListeners( Observer.class, ALL_OBSERVERS,
+			                                                 ( observer, parameter ) -> observer.update( observable, parameter ),
+			                                                 updateParameter );
+		} else {
+			notifier.notifierFor( Observer.class ).update( observable, updateParameter );
+		}
+	}
+
+
+	private static @NonNull List<NotificationMethodDelegate> createDelegates() {
+		return Collections.unmodifiableList( Arrays.asList(
+				delegate( ( notifier, method, args ) -> {
+					notifyObservers( notifier, null );
+					return null;
+				}, "notifyObservers" ),
+				delegate( ( notifier, method, args ) -> {
+					notifyObservers( notifier, args[0] );
+					return null;
+				}, "notifyObservers", Object.class ) ) );
+	}
+
+	@SneakyThrows( NoSuchMethodException.class )
+	private static @NonNull NotificationMethodDelegate delegate( @NonNull NotificationMethodInvocation invocation,
+	                                                             @NonNull String name, @NonNull Class<?>... parameterTypes ) {
+		return new NotificationMethodDelegate( ObservableNotifier.class.getMethod( name, parameterTypes ), invocation );
+	}
+}
@@ -0,0 +1,90 @@
+package org.mockobor.mockedobservable;
+
+import lombok.Value;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+import java.time.Duration;
+import java.util.List;
+
+
+/**
+ * Timings of preparation of notifier creation done by {@link NotifierFactory#prewarm} (or {@code Mockobor.prewarm}).
+ * <p>
+ * Example of output of {@link #toString()}:
+ * <pre>
+ * Mockobor prewarm: 2 types in 85 ms (mocking tools: 61 ms)
+ *     com.example.MyObservable: 7 ms (methods: 2 ms, detection: 3 ms, proxy: 2 ms)
+ *     com.example.NotObservable: 1 ms - failed: ListenerRegistrationMethodsNotDetectedException: ...
+ * </pre>
+ */
+@Value
+public class PrewarmReport {
+
+	/** Time used to initialize mocking tools (see {@link org.mockobor.mockedobservable.mocking_tools.MockingToolsRegistry#prewarm()}). */
+	@NonNull Duration handlerResolutionTime;
+
+	/** Wall-clock time from start of prewarm until all work is done. */
+	@NonNull Duration totalTime;
+
+	/** Timings per prepared type (in order of the types passed to prewarm). */
+	@NonNull List<TypeReport> typeReports;
+
+
+	/** @return true if preparation of at least one type failed */
+	public boolean hasFailures() {
+		return typeReports.stream().anyMatch( r -> r.getFailure() != null );
+	}
+
+	/**
+	 * @param observableType prepared type
+	 * @return report for the specified type or null if the type was not prepared
+	 */
+	public @Nullable TypeReport getTypeReport( @NonNull Class<?> observableType ) {
+		return typeReports.stream().filter( r -> r.getObservableType() == observableType ).findFirst().orElse( null );
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder( "Mockobor prewarm: " ).append( typeReports.size() ).append( " types in " )
+		                                                                 .append( totalTime.toMillis() ).append( " ms (mocking tools: " )
+		                                                                 .append( handlerResolutionTime.toMillis() ).append( " ms)" );
+		typeReports.forEach( r -> builder.append( "\n\t" ).append( r ) );
+		return builder.toString();
+	}
+
+
+	/** Timings of preparation of one type. */
+	@Value
+	public static class TypeReport {
+
+		/** Prepared type. */
+		@NonNull Class<?> observableType;
+
+		/** Time used to index reachable methods. */
+		@NonNull Duration methodIndexingTime;
+
+		/** Time used to detect listener registration methods. */
+		@NonNull Duration detectionTime;
+
+		/** Time used to define the class of notifier proxy. */
+		@NonNull Duration proxyDefinitionTime;
+
+		/** Error thrown by preparation or null if the type was prepared successfully. */
+		@Nullable Throwable failure;
+
+
+		/** @return sum of all timings of this type */
+		public @NonNull Duration getTotalTime() {
+			return methodIndexingTime.plus( detectionTime ).plus( proxyDefinitionTime );
+		}
+
+		@Override
+		public String toString() {
+			String timing = observableType.getName() + ": " + getTotalTime().toMillis() + " ms";
+			if( failure != null ) return timing + " - failed: " + failure.getClass().getSimpleName() + ": " + failure.getMessage();
+			return timing + " (methods: " + methodIndexingTime.toMillis() + " ms, detection: " + detectionTime.toMillis()
+			       + " ms, proxy: " + proxyDefinitionTime.toMillis() + " ms)";
+		}
+	}
+}
@@ -0,0 +1,205 @@
+package org.mockobor.mockedobservable;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.SneakyThrows;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.mockobor.exceptions.ListenersNotFoundException;
+import org.mockobor.exceptions.MockoborIllegalArgumentException;
+import org.mockobor.listener_detectors.ListenerSelector;
+import org.mockobor.listener_detectors.NotificationMethodDelegate;
+import org.mockobor.listener_detectors.NotificationMethodDelegate.NotificationMethodInvocation;
+import org.mockobor.listener_detectors.PropertyChangeDetector;
+
+import java.beans.IndexedPropertyChangeEvent;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * Fast path for fire-methods of {@link PropertyChangeNotifier} (used as notification delegates by {@link PropertyChangeDetector}).
+ * <p>
+ * Instead of default methods of {@link PropertyChangeNotifier} (invoked reflectively and dispatched over {@code notifierFor}-proxies)
+ * these delegates check equality of old and new values (already boxed by the notifier proxy) before creation of the event and
+ * send the event directly to listeners registered for all properties and for the changed property
+ * (see {@link ListenersManager#notifyListeners}).
+ * So firing of an event does not allocate anything except the event itself.
+ * <p>
+ * Bound properties ({@link PropertyChangeNotifier#setProperty}) are stored in the {@link ListenersManager} of the notifier
+ * (see {@link BoundProperties}), so they are supported only by notifiers created by Mockobor.
+ */
+@NoArgsConstructor( access = AccessLevel.PRIVATE )
+public final class PropertyChangeNotificationDelegates {
+
+	private static final List<NotificationMethodDelegate> DELEGATES = createDelegates();
+
+
+	/** @return immutable list of notification delegates for fire-methods of {@link PropertyChangeNotifier} */
+	public static @NonNull List<NotificationMethodDelegate> getNotificationDelegates() {
+		return DELEGATES;
+	}
+
+
+	/**
+	 * To fire a property change event, if old and new values are not equal or null (like {@link PropertyChangeNotifier#firePropertyChange}).
+	 *
+	 * @param notifier     notifier to send event to
+	 * @param propertyName the programmatic name of the property that was changed
+	 * @param oldValue     the old value of the property
+	 * @param newValue     the new value of the property
+	 * @throws ListenersNotFoundException if no listeners found and strictCheckListenerList-flag set to true (default)
+	 */
+	public static void firePropertyChange( @NonNull ListenersNotifier notifier,
+	                                       @Nullable String propertyName, @Nullable Object oldValue, @Nullable Object newValue )
+			throws ListenersNotFoundException {
+		if( oldValue == null || !oldValue.equals( newValue ) ) {
+			firePropertyChange( notifier, new PropertyChangeEvent( notifier.getObservableMock(), propertyName, oldValue, newValue ) );
+		}
+	}
+
+	/**
+	 * To fire the specified property change event to listeners registered for all properties and for the changed property.
+	 *
+	 * @param notifier notifier to send event to
+	 * @param event    event to fire
+	 * @throws ListenersNotFoundException if no listeners found and strictCheckListenerList-flag set to true (default)
+	 */
+	public static void firePropertyChange( @NonNull ListenersNotifier notifier, @NonNull PropertyChangeEvent event )
+			throws ListenersNotFoundException {
+		ListenerSelector[] selectors = PropertyChangeSelectors.forProperty( event.getPropertyName() ); // common (+ named)
+		if( notifier instanceof ListenersManager ) {
+			( (ListenersManager) notifier ).notifyListeners( PropertyChangeListener.class, selectors, PropertyChangeListener::propertyChange, event );
+		} else {
+			notifier.notifierFor( PropertyChangeListener.class, selectors ).propertyChange( event );
+		}
+	}
+
+
+	// ==================================================================================
+	// =============================== bound properties =================================
+	// ==================================================================================
+
+	/**
+	 * To remember the new value of the specified property and fire a property change event if the value has been changed
+	 * (see {@link PropertyChangeNotifier#setProperty(String, Object)}).
+	 *
+	 * @param notifier     notifier created by Mockobor
+	 * @param propertyName the programmatic name of the property
+	 * @param newValue     the new value of the property
+	 * @throws ListenersNotFoundException if no listeners found and strictCheckListenerList-flag set to true (default)
+	 */
+	public static void setProperty( @NonNull ListenersNotifier notifier, @Nullable String propertyName, @Nullable Object newValue )
+			throws ListenersNotFoundException {
+		fireIfChanged( notifier, boundProperties( notifier, propertyName ).set( notifier.getObservableMock(), propertyName, newValue ) );
+	}
+
+	/** {@code int} version of {@link #setProperty(ListenersNotifier, String, Object)}: stored value is not boxed. */
+	public static void setProperty( @NonNull ListenersNotifier notifier, @Nullable String propertyName, int newValue )
+			throws ListenersNotFoundException {
+		fireIfChanged( notifier, boundProperties( notifier, propertyName ).set( notifier.getObservableMock(), propertyName, newValue ) );
+	}
+
+	/** {@code long} version of {@link #setProperty(ListenersNotifier, String, Object)}: stored value is not boxed. */
+	public static void setProperty( @NonNull ListenersNotifier notifier, @Nullable String propertyName, long newValue )
+			throws ListenersNotFoundException {
+		fireIfChanged( notifier, boundProperties( notifier, propertyName ).set( notifier.getObservableMock(), propertyName, newValue ) );
+	}
+
+	/** {@code double} version of {@link #setProperty(ListenersNotifier, String, Object)}: stored value is not boxed. */
+	public static void setProperty( @NonNull ListenersNotifier notifier, @Nullable String propertyName, double newValue )
+			throws ListenersNotFoundException {
+		fireIfChanged( notifier, boundProperties( notifier, propertyName ).set( notifier.getObservableMock(), propertyName, newValue ) );
+	}
+
+	/**
+	 * @param notifier     notifier created by Mockobor
+	 * @param propertyName the programmatic name of the property
+	 * @return the last value set by {@code setProperty} or null if the property was never set
+	 */
+	public static @Nullable Object getProperty( @NonNull ListenersNotifier notifier, @Nullable String propertyName ) {
+		return boundProperties( notifier, propertyName ).get( propertyName );
+	}
+
+	private static @NonNull BoundProperties boundProperties( @NonNull ListenersNotifier notifier, @Nullable String propertyName ) {
+		if( propertyName == null ) throw new MockoborIllegalArgumentException( "name of bound property can not be null" );
+		if( !( notifier instanceof ListenersManager ) ) {
+			throw new MockoborIllegalArgumentException( "bound properties are supported only by notifiers created by Mockobor, but got %s",
+			                                            notifier.getClass().getName() );
+		}
+		return ( (ListenersManager) notifier ).getBoundProperties();
+	}
+
+	private static void fireIfChanged( @NonNull ListenersNotifier notifier, @Nullable PropertyChangeEvent event ) {
+		if( event != null ) firePropertyChange( notifier, event );
+	}
+
+
+	// ==================================================================================
+	// ================================== delegates =====================================
+	// ==================================================================================
+
+	private static @NonNull List<NotificationMethodDelegate> createDelegates() {
+		List<NotificationMethodDelegate> delegates = new ArrayList<>();
+
+		// firePropertyChange( String, X, X ): the same implementation for objects and boxed primitives
+		NotificationMethodInvocation fire = ( notifier, method, args ) -> {
+			firePropertyChange( notifier, (String) args[0], args[1], args[2] );
+			return null;
+		};
+		for( Class<?> valueType : new Class<?>[]{ Object.class, int.class, boolean.class, long.class, double.class, char.class } ) {
+			delegates.add( delegate( fire, "firePropertyChange", String.class, valueType, valueType ) );
+		}
+
+		// fireIndexedPropertyChange( String, int, X, X )
+		NotificationMethodInvocation fireIndexed = ( notifier, method, args ) -> {
+			if( args[2] == null || !args[2].equals( args[3] ) ) {
+				firePropertyChange( notifier, new IndexedPropertyChangeEvent( notifier.getObservableMock(), (String) args[0],
+				                                                              args[2], args[3], (Integer) args[1] ) );
+			}
+			return null;
+		};
+		for( Class<?> valueType : new Class<?>[]{ Object.class, int.class, boolean.class } ) {
+			delegates.add( delegate( fireIndexed, "fireIndexedPropertyChange", String.class, int.class, valueType, valueType ) );
+		}
+
+		// firePropertyChange( PropertyChangeEvent )
+		delegates.add( delegate( ( notifier, method, args ) -> {
+			firePropertyChange( notifier, (PropertyChangeEvent) args[0] );
+			return null;
+		}, "firePropertyChange", PropertyChangeEvent.class ) );
+
+		// bound properties
+		NotificationMethodInvocation setObject = ( notifier, method, args ) -> {
+			setProperty( notifier, (String) args[0], args[1] );
+			return null;
+		};
+		delegates.add( delegate( setObject, "setProperty", String.class, Object.class ) );
+		delegates.add( delegate( setObject, "setProperty", String.class, boolean.class ) ); // Boolean values are cached anyway
+		delegates.add( delegate( ( notifier, method, args ) -> {
+			setProperty( notifier, (String) args[0], (int) (Integer) args[1] );
+			return null;
+		}, "setProperty", String.class, int.class ) );
+		delegates.add( delegate( ( notifier, method, args ) -> {
+			setProperty( notifier, (String) args[0], (long) (Long) args[1] );
+			return null;
+		}, "setProperty", String.class, long.class ) );
+		delegates.add( delegate( ( notifier, method, args ) -> {
+			setProperty( notifier, (String) args[0], (double) (Double) args[1] );
+			return null;
+		}, "setProperty", String.class, double.class ) );
+		delegates.add( delegate( ( notifier, method, args ) -> getProperty( notifier, (String) args[0] ),
+		                         "getProperty", String.class ) );
+
+		return Collections.unmodifiableList( delegates );
+	}
+
+	@SneakyThrows( NoSuchMethodException.class )
+	private static @NonNull NotificationMethodDelegate delegate( @NonNull NotificationMethodInvocation invocation,
+	                                                             @NonNull String name, @NonNull Class<?>... parameterTypes ) {
+		return new NotificationMethodDelegate( PropertyChangeNotifier.class.getMethod( name, parameterTypes ), invocation );
+	}
+}
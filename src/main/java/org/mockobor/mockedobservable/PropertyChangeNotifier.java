@@ -36,6 +36,11 @@ import static org.mockobor.listener_detectors.ListenerSelector.selector;
  * notifier.firePropertyChange( "myProperty", oldValue, newValue );
  * notifier.firePropertyChange( null, oldValue, newValue );
  *
+ * // or let the notifier remember values of properties
+ * notifier.setProperty( "price", 100.5 ); // old value: null
+ * notifier.setProperty( "price", 101.0 ); // old value: 100.5
+ * notifier.setProperty( "price", 101.0 ); // no event
+ *
  * </code></pre>
  */
 @SuppressWarnings( "unused" )
@@ -111,6 +116,73 @@ public interface PropertyChangeNotifier extends ListenersNotifier {
 	}
 
 
+	/**
+	 * Reports a long bound property update to listeners that have been registered to track updates of all properties or a property with the
+	 * specified name.
+	 * <p>
+	 * No event is fired if old and new values are equal.
+	 * <p>
+	 * This is merely a convenience wrapper around the more general {@link #firePropertyChange(String, Object, Object)} method
+	 * ({@link PropertyChangeSupport} has no such method).
+	 *
+	 * @param propertyName the programmatic name of the property that was changed
+	 * @param oldValue     the old value of the property
+	 * @param newValue     the new value of the property
+	 * @throws ListenersNotFoundException if no {@code PropertyChangeListener} registered by the mocked observable and
+	 *                                    strictCheckListenerList-flag set to true (default)
+	 */
+	default void firePropertyChange( String propertyName, long oldValue, long newValue )
+			throws ListenersNotFoundException {
+		if( oldValue != newValue ) {
+			firePropertyChange( propertyName, Long.valueOf( oldValue ), Long.valueOf( newValue ) );
+		}
+	}
+
+	/**
+	 * Reports a double bound property update to listeners that have been registered to track updates of all properties or a property with the
+	 * specified name.
+	 * <p>
+	 * No event is fired if old and new values are equal.
+	 * <p>
+	 * This is merely a convenience wrapper around the more general {@link #firePropertyChange(String, Object, Object)} method
+	 * ({@link PropertyChangeSupport} has no such method).
+	 *
+	 * @param propertyName the programmatic name of the property that was changed
+	 * @param oldValue     the old value of the property
+	 * @param newValue     the new value of the property
+	 * @throws ListenersNotFoundException if no {@code PropertyChangeListener} registered by the mocked observable and
+	 *                                    strictCheckListenerList-flag set to true (default)
+	 */
+	default void firePropertyChange( String propertyName, double oldValue, double newValue )
+			throws ListenersNotFoundException {
+		if( Double.compare( oldValue, newValue ) != 0 ) {
+			firePropertyChange( propertyName, Double.valueOf( oldValue ), Double.valueOf( newValue ) );
+		}
+	}
+
+	/**
+	 * Reports a char bound property update to listeners that have been registered to track updates of all properties or a property with the
+	 * specified name.
+	 * <p>
+	 * No event is fired if old and new values are equal.
+	 * <p>
+	 * This is merely a convenience wrapper around the more general {@link #firePropertyChange(String, Object, Object)} method
+	 * ({@link PropertyChangeSupport} has no such method).
+	 *
+	 * @param propertyName the programmatic name of the property that was changed
+	 * @param oldValue     the old value of the property
+	 * @param newValue     the new value of the property
+	 * @throws ListenersNotFoundException if no {@code PropertyChangeListener} registered by the mocked observable and
+	 *                                    strictCheckListenerList-flag set to true (default)
+	 */
+	default void firePropertyChange( String propertyName, char oldValue, char newValue )
+			throws ListenersNotFoundException {
+		if( oldValue != newValue ) {
+			firePropertyChange( propertyName, Character.valueOf( oldValue ), Character.valueOf( newValue ) );
+		}
+	}
+
+
 	/**
 	 * To simulate call of {@link PropertyChangeSupport#firePropertyChange(PropertyChangeEvent)} by mocked bean.
 	 * <p>
@@ -125,10 +197,7 @@ public interface PropertyChangeNotifier extends ListenersNotifier {
 	 */
 	default void firePropertyChange( @NonNull PropertyChangeEvent event )
 			throws ListenersNotFoundException {
-		ListenerSelector[] selectors = event.getPropertyName() != null
-		                               ? new ListenerSelector[]{ selector(), selector( event.getPropertyName() ) } // common + named
-		                               : new ListenerSelector[]{ selector() }; // common only
-
+		ListenerSelector[] selectors = PropertyChangeSelectors.forProperty( event.getPropertyName() ); // common (+ named)
 		notifierFor( PropertyChangeListener.class, selectors ).propertyChange( event );
 	}
 
@@ -209,6 +278,97 @@ public interface PropertyChangeNotifier extends ListenersNotifier {
 	}
 
 
+	// ==================================================================================
+	// =============================== bound properties =================================
+	// ==================================================================================
+
+	/**
+	 * To set a new value of a bound property and notify listeners if the value has been changed.
+	 * <p>
+	 * The notifier remembers the last value of every property set by this method,
+	 * so the old value of the fired event is the value of the previous call (or null on the first call).
+	 * <p>
+	 * No event is fired if old and new values are equal and non-null (like {@link #firePropertyChange(String, Object, Object)}).
+	 *
+	 * @param propertyName the programmatic name of the property (not null)
+	 * @param newValue     the new value of the property
+	 * @throws ListenersNotFoundException if no {@code PropertyChangeListener} registered by the mocked observable and
+	 *                                    strictCheckListenerList-flag set to true (default)
+	 * @see #getProperty(String)
+	 */
+	default void setProperty( String propertyName, Object newValue )
+			throws ListenersNotFoundException {
+		PropertyChangeNotificationDelegates.setProperty( this, propertyName, newValue );
+	}
+
+	/**
+	 * To set a new value of a boolean bound property (see {@link #setProperty(String, Object)}).
+	 *
+	 * @param propertyName the programmatic name of the property (not null)
+	 * @param newValue     the new value of the property
+	 * @throws ListenersNotFoundException if no {@code PropertyChangeListener} registered by the mocked observable and
+	 *                                    strictCheckListenerList-flag set to true (default)
+	 */
+	default void setProperty( String propertyName, boolean newValue )
+			throws ListenersNotFoundException {
+		PropertyChangeNotificationDelegates.setProperty( this, propertyName, Boolean.valueOf( newValue ) );
+	}
+
+	/**
+	 * To set a new value of an integer bound property (see {@link #setProperty(String, Object)}).
+	 * <p>
+	 * The value is stored unboxed; it is boxed only to create an event if the value has been changed.
+	 *
+	 * @param propertyName the programmatic name of the property (not null)
+	 * @param newValue     the new value of the property
+	 * @throws ListenersNotFoundException if no {@code PropertyChangeListener} registered by the mocked observable and
+	 *                                    strictCheckListenerList-flag set to true (default)
+	 */
+	default void setProperty( String propertyName, int newValue )
+			throws ListenersNotFoundException {
+		PropertyChangeNotificationDelegates.setProperty( this, propertyName, newValue );
+	}
+
+	/**
+	 * To set a new value of a long bound property (see {@link #setProperty(String, Object)}).
+	 * <p>
+	 * The value is stored unboxed; it is boxed only to create an event if the value has been changed.
+	 *
+	 * @param propertyName the programmatic name of the property (not null)
+	 * @param newValue     the new value of the property
+	 * @throws ListenersNotFoundException if no {@code PropertyChangeListener} registered by the mocked observable and
+	 *                                    strictCheckListenerList-flag set to true (default)
+	 */
+	default void setProperty( String propertyName, long newValue )
+			throws ListenersNotFoundException {
+		PropertyChangeNotificationDelegates.setProperty( this, propertyName, newValue );
+	}
+
+	/**
+	 * To set a new value of a double bound property (see {@link #setProperty(String, Object)}).
+	 * <p>
+	 * The value is stored unboxed; it is boxed only to create an event if the value has been changed.
+	 * Values are compared like {@link Double#equals}: {@code NaN} is equal to {@code NaN}, {@code 0.0} is not equal to {@code -0.0}.
+	 *
+	 * @param propertyName the programmatic name of the property (not null)
+	 * @param newValue     the new value of the property
+	 * @throws ListenersNotFoundException if no {@code PropertyChangeListener} registered by the mocked observable and
+	 *                                    strictCheckListenerList-flag set to true (default)
+	 */
+	default void setProperty( String propertyName, double newValue )
+			throws ListenersNotFoundException {
+		PropertyChangeNotificationDelegates.setProperty( this, propertyName, newValue );
+	}
+
+	/**
+	 * @param propertyName the programmatic name of the property (not null)
+	 * @return the last value set by {@link #setProperty} for the specified property or null if it was never set
+	 */
+	default Object getProperty( String propertyName ) {
+		return PropertyChangeNotificationDelegates.getProperty( this, propertyName );
+	}
+
+
 	/**
 	 * Check if there are any listeners for a specific property, including those registered on all properties.
 	 * If <code>propertyName</code> is null, only check for listeners registered on all properties.
@@ -0,0 +1,48 @@
+package org.mockobor.mockedobservable;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.mockobor.listener_detectors.ListenerSelector;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.mockobor.listener_detectors.ListenerSelector.selector;
+
+
+/**
+ * Shared arrays of selectors used to fire property change events (see {@link PropertyChangeNotifier#firePropertyChange}),
+ * so firing of events does not need to create selectors for every event.
+ * <p>
+ * Returned arrays are shared and must not be modified.
+ */
+@NoArgsConstructor( access = AccessLevel.PRIVATE )
+final class PropertyChangeSelectors {
+
+	/** Maximal number of cached property names. */
+	static final int MAX_CACHED_PROPERTIES = 1024;
+
+	/** Selectors for events without property name: listeners registered for all properties only. */
+	private static final ListenerSelector[] COMMON_ONLY = { selector() };
+
+	/** property name -> selectors for listeners registered for all properties and for the property. */
+	private static final Map<String, ListenerSelector[]> PROPERTY_SELECTORS = new ConcurrentHashMap<>();
+
+
+	/**
+	 * @param propertyName name of changed property (null if unknown)
+	 * @return selectors of listeners, which should be notified about the change of the specified property (common + named)
+	 */
+	static @NonNull ListenerSelector @NonNull [] forProperty( @Nullable String propertyName ) {
+		if( propertyName == null ) return COMMON_ONLY;
+
+		ListenerSelector[] selectors = PROPERTY_SELECTORS.get( propertyName );
+		if( selectors == null ) {
+			selectors = new ListenerSelector[]{ selector(), selector( propertyName ) };
+			if( PROPERTY_SELECTORS.size() < MAX_CACHED_PROPERTIES ) PROPERTY_SELECTORS.putIfAbsent( propertyName, selectors );
+		}
+		return selectors;
+	}
+}
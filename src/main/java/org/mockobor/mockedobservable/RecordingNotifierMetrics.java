@@ -0,0 +1,251 @@
+package org.mockobor.mockedobservable;
+
+import lombok.Value;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.mockobor.listener_detectors.ListenerSelector;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Notifier metrics, which collect (see {@link ExtendedListenersNotifier#setMetrics}):<ul>
+ * <li>per listener class and notification method: number of dispatches, number of notified listeners
+ * and a latency histogram of listener invocations ({@link MethodMetrics})</li>
+ * <li>per selector: number and rate of registrations and deregistrations ({@link SelectorMetrics})</li>
+ * </ul>
+ * Example:
+ * <pre class="code"><code class="java">
+ *
+ * RecordingNotifierMetrics metrics = new RecordingNotifierMetrics();
+ * notifier.setMetrics( metrics );
+ *
+ * // ... test ...
+ *
+ * MethodMetrics propertyChange = metrics.getMethodMetrics( PropertyChangeListener.class, "propertyChange" );
+ * assertThat( propertyChange.getLatencies().getValueAtPercentile( 99 ) ).isLessThan( 1_000_000 );
+ * System.out.println( metrics ); // report of all collected metrics
+ *
+ * </code></pre>
+ * All methods are thread-safe.
+ */
+public class RecordingNotifierMetrics implements NotifierMetrics {
+
+	private final long startNanos = System.nanoTime();
+
+	private final Map<MethodKey, MethodMetrics> methods = new ConcurrentHashMap<>();
+
+	private final Map<ListenerSelector, SelectorMetrics> selectors = new ConcurrentHashMap<>();
+
+
+	// ==================================================================================
+	// =================================== recording ====================================
+	// ==================================================================================
+
+	@Override
+	public void listenerRegistered( @NonNull ListenerSelector selector, @NonNull Class<?> listenerClass ) {
+		selectorMetrics( selector ).registrations.increment();
+	}
+
+	@Override
+	public void listenerDeregistered( @NonNull ListenerSelector selector, @NonNull Class<?> listenerClass ) {
+		selectorMetrics( selector ).deregistrations.increment();
+	}
+
+	@Override
+	public void notificationDispatched( @NonNull Class<?> listenerClass, @NonNull String methodName, int listeners ) {
+		MethodMetrics metrics = methodMetrics( listenerClass, methodName );
+		metrics.dispatches.increment();
+		metrics.notifiedListeners.add( listeners );
+		if( listeners > metrics.maxListenersPerDispatch.get() ) metrics.maxListenersPerDispatch.accumulateAndGet( listeners, Math::max );
+	}
+
+	@Override
+	public void listenerInvoked( @NonNull Class<?> listenerClass, @NonNull String methodName, long nanos ) {
+		methodMetrics( listenerClass, methodName ).latencies.record( nanos );
+	}
+
+	private @NonNull MethodMetrics methodMetrics( @NonNull Class<?> listenerClass, @NonNull String methodName ) {
+		MethodKey key = new MethodKey( listenerClass, methodName );
+		MethodMetrics metrics = methods.get( key );
+		return metrics != null ? metrics : methods.computeIfAbsent( key, k -> new MethodMetrics( listenerClass, methodName ) );
+	}
+
+	private @NonNull SelectorMetrics selectorMetrics( @NonNull ListenerSelector selector ) {
+		SelectorMetrics metrics = selectors.get( selector );
+		return metrics != null ? metrics : selectors.computeIfAbsent( selector, SelectorMetrics::new );
+	}
+
+
+	// ==================================================================================
+	// ==================================== results =====================================
+	// ==================================================================================
+
+	/**
+	 * @param listenerClass class of listeners
+	 * @param methodName    name of the notification method
+	 * @return metrics of the specified notification method or null if it was never dispatched
+	 */
+	public @Nullable MethodMetrics getMethodMetrics( @NonNull Class<?> listenerClass, @NonNull String methodName ) {
+		return methods.get( new MethodKey( listenerClass, methodName ) );
+	}
+
+	/** @return metrics of all dispatched notification methods */
+	public @NonNull Collection<MethodMetrics> getAllMethodMetrics() {
+		return Collections.unmodifiableList( new ArrayList<>( methods.values() ) );
+	}
+
+	/**
+	 * @param selector selector used by (de)registration of listeners
+	 * @return registration metrics of the specified selector or null if no listener was (de)registered with it
+	 */
+	public @Nullable SelectorMetrics getSelectorMetrics( @NonNull ListenerSelector selector ) {
+		return selectors.get( selector );
+	}
+
+	/** @return registration metrics of all used selectors */
+	public @NonNull Collection<SelectorMetrics> getAllSelectorMetrics() {
+		return Collections.unmodifiableList( new ArrayList<>( selectors.values() ) );
+	}
+
+	/** @return seconds elapsed since creation of these metrics (used to calculate rates) */
+	public double getElapsedSeconds() {
+		return Math.max( 1, System.nanoTime() - startNanos ) / 1e9;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder report = new StringBuilder( "RecordingNotifierMetrics:" );
+		for( MethodMetrics metrics : getAllMethodMetrics() ) report.append( "\n    " ).append( metrics );
+		for( SelectorMetrics metrics : getAllSelectorMetrics() ) report.append( "\n    " ).append( metrics );
+		return report.toString();
+	}
+
+
+	// ==================================================================================
+	// ==================================== metrics =====================================
+	// ==================================================================================
+
+	@Value
+	private static class MethodKey {
+		@NonNull Class<?> listenerClass;
+		@NonNull String   methodName;
+	}
+
+	/** Metrics of one notification method of one listener class. */
+	public static final class MethodMetrics {
+
+		private final Class<?> listenerClass;
+
+		private final String methodName;
+
+		private final LongAdder dispatches = new LongAdder();
+
+		private final LongAdder notifiedListeners = new LongAdder();
+
+		private final AtomicInteger maxListenersPerDispatch = new AtomicInteger();
+
+		private final LatencyHistogram latencies = new LatencyHistogram();
+
+
+		private MethodMetrics( @NonNull Class<?> listenerClass, @NonNull String methodName ) {
+			this.listenerClass = listenerClass;
+			this.methodName = methodName;
+		}
+
+		/** @return class of notified listeners */
+		public @NonNull Class<?> getListenerClass() {
+			return listenerClass;
+		}
+
+		/** @return name of the notification method */
+		public @NonNull String getMethodName() {
+			return methodName;
+		}
+
+		/** @return number of dispatched notifications */
+		public long getDispatchCount() {
+			return dispatches.sum();
+		}
+
+		/** @return number of listener invocations (sum of notified listeners of all dispatches) */
+		public long getNotifiedListenersCount() {
+			return notifiedListeners.sum();
+		}
+
+		/** @return maximal number of listeners notified by one dispatch */
+		public int getMaxListenersPerDispatch() {
+			return maxListenersPerDispatch.get();
+		}
+
+		/** @return average number of listeners notified by one dispatch */
+		public double getAverageListenersPerDispatch() {
+			long count = getDispatchCount();
+			return count > 0 ? (double) getNotifiedListenersCount() / count : 0;
+		}
+
+		/** @return histogram of durations of listener invocations in nanoseconds */
+		public @NonNull LatencyHistogram getLatencies() {
+			return latencies;
+		}
+
+		@Override
+		public String toString() {
+			return String.format( "%s.%s: dispatches=%d, listeners per dispatch=%.1f (max %d), latency: %s",
+			                      listenerClass.getSimpleName(), methodName, getDispatchCount(),
+			                      getAverageListenersPerDispatch(), getMaxListenersPerDispatch(), latencies );
+		}
+	}
+
+	/** Registration metrics of one selector. */
+	public final class SelectorMetrics {
+
+		private final ListenerSelector selector;
+
+		private final LongAdder registrations = new LongAdder();
+
+		private final LongAdder deregistrations = new LongAdder();
+
+
+		private SelectorMetrics( @NonNull ListenerSelector selector ) {
+			this.selector = selector;
+		}
+
+		/** @return selector used by (de)registration of listeners */
+		public @NonNull ListenerSelector getSelector() {
+			return selector;
+		}
+
+		/** @return number of registrations of listeners with this selector */
+		public long getRegistrations() {
+			return registrations.sum();
+		}
+
+		/** @return number of deregistrations of listeners with this selector */
+		public long getDeregistrations() {
+			return deregistrations.sum();
+		}
+
+		/** @return registrations per second (since creation of the metrics) */
+		public double getRegistrationRate() {
+			return getRegistrations() / getElapsedSeconds();
+		}
+
+		/** @return deregistrations per second (since creation of the metrics) */
+		public double getDeregistrationRate() {
+			return getDeregistrations() / getElapsedSeconds();
+		}
+
+		@Override
+		public String toString() {
+			return String.format( "%s: registrations=%d (%.1f/s), deregistrations=%d (%.1f/s)",
+			                      selector, getRegistrations(), getRegistrationRate(), getDeregistrations(), getDeregistrationRate() );
+		}
+	}
+}
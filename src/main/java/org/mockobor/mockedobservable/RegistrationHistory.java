@@ -0,0 +1,187 @@
+package org.mockobor.mockedobservable;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.mockobor.exceptions.MockoborIllegalArgumentException;
+import org.mockobor.exceptions.UnregisteredListenersFoundException;
+import org.mockobor.listener_detectors.ListenerSelector;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+
+/**
+ * History of the last registrations and deregistrations of listeners by a notifier (see {@link ExtendedListenersNotifier#getRegistrationHistory()}).
+ * <p>
+ * It is a fixed-size lock-free ring buffer: each record contains timestamp, thread, listener and selector
+ * and (for every n-th record, see {@link NotifierSettingsUpdater#registrationHistory}) the stack trace of the registration.
+ * Old records are overwritten by new ones.
+ * <p>
+ * The history is dumped in the message of {@link UnregisteredListenersFoundException}, so it can be seen who registered
+ * not unregistered listeners and when.
+ * <p>
+ * Listeners are not referenced by the history (only their classes and identity hash codes), so it does not prevent
+ * garbage collection of listeners.
+ */
+public final class RegistrationHistory {
+
+	private final int capacity;
+
+	private final int stackTraceSampling;
+
+	/** Sequence number of the next record. */
+	private final AtomicLong nextSequence = new AtomicLong();
+
+	private final @Nullable AtomicReferenceArray<Record> records;
+
+
+	/**
+	 * @param capacity           maximal number of kept records (0 - no history)
+	 * @param stackTraceSampling a stack trace is taken for every n-th record (0 - never, 1 - for each record)
+	 */
+	public RegistrationHistory( int capacity, int stackTraceSampling ) {
+		if( capacity < 0 ) throw new MockoborIllegalArgumentException( "capacity can not be negative: %d", capacity );
+		if( stackTraceSampling < 0 ) throw new MockoborIllegalArgumentException( "stack trace sampling can not be negative: %d", stackTraceSampling );
+		this.capacity = capacity;
+		this.stackTraceSampling = stackTraceSampling;
+		this.records = capacity > 0 ? new AtomicReferenceArray<>( capacity ) : null;
+	}
+
+
+	/**
+	 * To add a record to the history (lock-free, can be called from any thread).
+	 *
+	 * @param registration  true - registration, false - deregistration
+	 * @param selector      selector used by (de)registration
+	 * @param listenerClass class of the listener used by (de)registration
+	 * @param listener      (de)registered listener
+	 */
+	void record( boolean registration, @NonNull ListenerSelector selector, @NonNull Class<?> listenerClass, @NonNull Object listener ) {
+		AtomicReferenceArray<Record> ring = records;
+		if( ring == null ) return;
+		long sequence = nextSequence.getAndIncrement();
+		Throwable stackTrace = stackTraceSampling > 0 && sequence % stackTraceSampling == 0 ? new Throwable( "registered at" ) : null;
+		ring.set( (int) ( sequence % capacity ), new Record( sequence, registration, selector, listenerClass, listener.getClass(),
+		                                                     System.identityHashCode( listener ), System.currentTimeMillis(),
+		                                                     Thread.currentThread().getName(), stackTrace ) );
+	}
+
+
+	/** @return maximal number of kept records */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/** @return number of all records added to the history (including overwritten) */
+	public long getTotalRecords() {
+		return nextSequence.get();
+	}
+
+	/** @return kept records (the oldest first) */
+	public @NonNull List<Record> getRecords() {
+		AtomicReferenceArray<Record> ring = records;
+		if( ring == null ) return Collections.emptyList();
+		long end = nextSequence.get();
+		List<Record> result = new ArrayList<>( (int) Math.min( capacity, end ) );
+		for( long sequence = Math.max( 0, end - capacity ); sequence < end; sequence++ ) {
+			Record record = ring.get( (int) ( sequence % capacity ) );
+			// skip slots, which are not written yet or already overwritten by concurrent registrations
+			if( record != null && record.sequence == sequence ) result.add( record );
+		}
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		List<Record> kept = getRecords();
+		StringBuilder dump = new StringBuilder( "registration history (last " ).append( kept.size() ).append( " of " )
+		                                                                       .append( getTotalRecords() ).append( "):" );
+		for( Record record : kept ) dump.append( "\n\t" ).append( record.toString().replace( "\n", "\n\t" ) );
+		return dump.toString();
+	}
+
+
+	/** One registration or deregistration of a listener. */
+	public static final class Record {
+
+		private final long sequence;
+		private final boolean registration;
+		private final @NonNull ListenerSelector selector;
+		private final @NonNull Class<?> listenerClass;
+		private final @NonNull Class<?> listenerType;
+		private final int listenerIdentity;
+		private final long timestamp;
+		private final @NonNull String threadName;
+		private final @Nullable Throwable stackTrace;
+
+		@SuppressWarnings( "java:S107" ) // immutable record
+		private Record( long sequence, boolean registration, @NonNull ListenerSelector selector, @NonNull Class<?> listenerClass,
+		                @NonNull Class<?> listenerType, int listenerIdentity, long timestamp, @NonNull String threadName,
+		                @Nullable Throwable stackTrace ) {
+			this.sequence = sequence;
+			this.registration = registration;
+			this.selector = selector;
+			this.listenerClass = listenerClass;
+			this.listenerType = listenerType;
+			this.listenerIdentity = listenerIdentity;
+			this.timestamp = timestamp;
+			this.threadName = threadName;
+			this.stackTrace = stackTrace;
+		}
+
+		/** @return sequence number of this record in the history (starts with 0) */
+		public long getSequence() {
+			return sequence;
+		}
+
+		/** @return true - registration, false - deregistration */
+		public boolean isRegistration() {
+			return registration;
+		}
+
+		/** @return selector used by (de)registration */
+		public @NonNull ListenerSelector getSelector() {
+			return selector;
+		}
+
+		/** @return class of the listener used by (de)registration (like {@code PropertyChangeListener.class}) */
+		public @NonNull Class<?> getListenerClass() {
+			return listenerClass;
+		}
+
+		/** @return the listener as "class name@identity hash code" (like {@link Object#toString()} by default) */
+		public @NonNull String getListener() {
+			return listenerType.getName() + "@" + Integer.toHexString( listenerIdentity );
+		}
+
+		/** @return time of (de)registration */
+		public @NonNull Instant getTimestamp() {
+			return Instant.ofEpochMilli( timestamp );
+		}
+
+		/** @return name of the thread, which (de)registered the listener */
+		public @NonNull String getThreadName() {
+			return threadName;
+		}
+
+		/** @return stack trace of (de)registration or null if it was not sampled */
+		public StackTraceElement @Nullable [] getStackTrace() {
+			return stackTrace != null ? stackTrace.getStackTrace() : null;
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder builder = new StringBuilder();
+			builder.append( '#' ).append( sequence ).append( ' ' ).append( getTimestamp() ).append( " [" ).append( threadName ).append( "] " )
+			       .append( registration ? "registered " : "deregistered " ).append( getListener() )
+			       .append( " as " ).append( listenerClass.getSimpleName() ).append( " with " ).append( selector );
+			StackTraceElement[] elements = getStackTrace();
+			if( elements != null ) for( StackTraceElement element : elements ) builder.append( "\n\tat " ).append( element );
+			return builder.toString();
+		}
+	}
+}
@@ -0,0 +1,367 @@
+package org.mockobor.mockedobservable;
+
+import lombok.Value;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.mockobor.exceptions.MockoborIllegalArgumentException;
+import org.mockobor.exceptions.SlowListenerException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * Watchdog, which assigns a latency budget to each invocation of a listener by a notifier
+ * (see {@link ExtendedListenersNotifier#setSlowListenerWatchdog}) and flags listeners which overrun it.
+ * <p>
+ * It helps to catch performance regressions in tested listeners, like an accidental blocking I/O in {@code propertyChange}.
+ * For each overrun the watchdog records an {@link Overrun} with the offending listener, notification method and
+ * a stack sample of the dispatching thread taken while the listener still runs.
+ * <p>
+ * Invocations are watched by a single thread over a hashed timer wheel (no thread and no timer task per invocation),
+ * so an overrun is detected with a delay of about one tick (1 ms). Without watched invocations the watchdog thread sleeps.
+ * If the watchdog is created with {@code abortDispatch}, the dispatch is aborted by a {@link SlowListenerException}
+ * as soon as the slow listener returns, so remaining listeners are not notified.
+ * <p>
+ * Listeners invoked over {@link DeterministicDispatch} are not watched.
+ * <p>
+ * Example:
+ * <pre class="code"><code class="java">
+ *
+ * try( SlowListenerWatchdog watchdog = new SlowListenerWatchdog( Duration.ofMillis( 50 ) ) ) {
+ *     notifier.setSlowListenerWatchdog( watchdog.withBudget( MyListener.class, Duration.ofMillis( 10 ) ) );
+ *
+ *     ( (PropertyChangeNotifier) notifier ).firePropertyChange( "price", 100, 101 );
+ *
+ *     assertThat( watchdog.getOverruns() ).isEmpty();
+ * }
+ *
+ * </code></pre>
+ */
+public class SlowListenerWatchdog implements AutoCloseable {
+
+	private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+	/** Number of slots of the timer wheel (power of 2). */
+	private static final int WHEEL_SIZE = 512;
+
+	private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos( 1 );
+
+
+	private final long defaultBudgetNanos;
+
+	private final boolean abortDispatch;
+
+	/** Budgets different from the default one: listener class -> budget in nanoseconds. */
+	private final Map<Class<?>, Long> budgets = new ConcurrentHashMap<>();
+
+	private final List<Overrun> overruns = Collections.synchronizedList( new ArrayList<>() );
+
+	/** Watches started, but not yet placed in the wheel (producers: dispatching threads, consumer: the watchdog thread). */
+	private final MpscQueue<Watch> started = new MpscQueue<>();
+
+	/** Number of watches in {@link #started} (to wake up the sleeping watchdog thread without lost wake-ups). */
+	private final AtomicInteger startedCount = new AtomicInteger();
+
+	/** Slots of the wheel: linked lists of watches (accessed by the watchdog thread only). */
+	private final @Nullable Watch[] wheel = new Watch[WHEEL_SIZE];
+
+	/** Number of watches in the wheel (accessed by the watchdog thread only). */
+	private int scheduledCount;
+
+	private final long startTime = System.nanoTime();
+
+	private final Thread thread;
+
+	private volatile boolean running = true;
+
+	/** True if the watchdog thread sleeps (or is about to sleep) waiting for watches. */
+	private volatile boolean waiting;
+
+
+	/**
+	 * Creates and starts a watchdog, which only records overruns (see {@link #getOverruns()}).
+	 *
+	 * @param budget default latency budget of each listener invocation (positive)
+	 */
+	public SlowListenerWatchdog( @NonNull Duration budget ) {
+		this( budget, false );
+	}
+
+	/**
+	 * Creates and starts a watchdog.
+	 *
+	 * @param budget        default latency budget of each listener invocation (positive)
+	 * @param abortDispatch true - to abort the dispatch by {@link SlowListenerException} after a slow listener returns;
+	 *                      false - only to record overruns
+	 */
+	public SlowListenerWatchdog( @NonNull Duration budget, boolean abortDispatch ) {
+		this.defaultBudgetNanos = toBudgetNanos( budget );
+		this.abortDispatch = abortDispatch;
+		thread = new Thread( this::loop, "mockobor-slow-listener-watchdog-" + THREAD_NUMBER.incrementAndGet() );
+		thread.setDaemon( true );
+		thread.start();
+	}
+
+	private static long toBudgetNanos( @NonNull Duration budget ) {
+		if( budget.isNegative() || budget.isZero() ) throw new MockoborIllegalArgumentException( "budget should be positive, but was %s", budget );
+		return budget.toNanos();
+	}
+
+
+	// ==================================================================================
+	// ===================================== budgets ====================================
+	// ==================================================================================
+
+	/**
+	 * To set a budget for invocations of listeners of the specified class (instead of the default one).
+	 *
+	 * @param listenerClass class of listeners (as used by registration, like {@code PropertyChangeListener.class})
+	 * @param budget        latency budget of each invocation of these listeners (positive)
+	 * @return itself for fluent calls
+	 */
+	public @NonNull SlowListenerWatchdog withBudget( @NonNull Class<?> listenerClass, @NonNull Duration budget ) {
+		budgets.put( listenerClass, toBudgetNanos( budget ) );
+		return this;
+	}
+
+	/**
+	 * @param listenerClass class of listeners
+	 * @return latency budget of invocations of listeners of the specified class
+	 */
+	public @NonNull Duration getBudget( @NonNull Class<?> listenerClass ) {
+		return Duration.ofNanos( budgetNanos( listenerClass ) );
+	}
+
+	private long budgetNanos( @NonNull Class<?> listenerClass ) {
+		Long budget = budgets.get( listenerClass );
+		return budget != null ? budget : defaultBudgetNanos;
+	}
+
+	/** @return true if the dispatch is aborted after a slow listener returns */
+	public boolean isAbortDispatch() {
+		return abortDispatch;
+	}
+
+	/** @return all overruns detected so far (in order of detection) */
+	public @NonNull List<Overrun> getOverruns() {
+		synchronized( overruns ) {
+			return new ArrayList<>( overruns );
+		}
+	}
+
+	/**
+	 * To stop the watchdog thread. Invocations started afterward are not watched.
+	 */
+	@Override
+	public void close() {
+		running = false;
+		LockSupport.unpark( thread );
+		try {
+			thread.join();
+		}
+		catch( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+
+	// ==================================================================================
+	// ================================ watch invocations ===============================
+	// ==================================================================================
+
+	/**
+	 * To start watching of an invocation of the specified listener in the current thread.
+	 *
+	 * @return watch to pass to {@link #finish} after the invocation
+	 */
+	@NonNull Watch start( @NonNull Class<?> listenerClass, @NonNull String method, @NonNull Object listener ) {
+		long now = System.nanoTime();
+		Watch watch = new Watch( listenerClass, method, listener, Thread.currentThread(), now, now + budgetNanos( listenerClass ) );
+		if( running ) {
+			startedCount.incrementAndGet(); // before check of waiting, so the watchdog thread can not fall asleep missing this watch
+			started.offer( watch );
+			if( waiting ) LockSupport.unpark( thread );
+		}
+		return watch;
+	}
+
+	/**
+	 * To finish watching of an invocation.
+	 *
+	 * @param watch     watch returned by {@link #start}
+	 * @param completed true if the listener returned normally (false if it threw an exception)
+	 * @throws SlowListenerException if the invocation overran its budget, the listener returned normally and the dispatch should be aborted
+	 */
+	void finish( @NonNull Watch watch, boolean completed ) throws SlowListenerException {
+		Overrun overrun = watch.stop();
+		if( overrun != null && abortDispatch && completed ) throw new SlowListenerException( overrun );
+	}
+
+
+	// ==================================================================================
+	// ==================================== timer wheel =================================
+	// ==================================================================================
+
+	private void loop() {
+		long tick = 0;
+		while( running ) {
+			if( scheduledCount == 0 && startedCount.get() == 0 ) {
+				waiting = true;
+				if( startedCount.get() == 0 && running ) LockSupport.park( this );
+				waiting = false;
+				tick = ( System.nanoTime() - startTime ) / TICK_NANOS; // the wheel is empty, so ticks can be skipped
+				continue;
+			}
+			long tickEnd = startTime + ( tick + 1 ) * TICK_NANOS;
+			long wait;
+			while( running && ( wait = tickEnd - System.nanoTime() ) > 0 ) LockSupport.parkNanos( this, wait );
+			placeStarted( tick );
+			expire( (int) ( tick & ( WHEEL_SIZE - 1 ) ) );
+			tick++;
+		}
+	}
+
+	/** To place started watches in slots of the wheel, which will be processed at the end of their budgets. */
+	private void placeStarted( long currentTick ) {
+		Watch watch;
+		while( ( watch = started.poll() ) != null ) {
+			startedCount.decrementAndGet();
+			if( watch.state != Watch.RUNNING ) continue; // already finished
+			// the slot of tick t is processed at startTime + (t + 1) * TICK_NANOS, so it is the first tick ending after the deadline
+			long expirationTick = Math.max( currentTick, ( watch.deadline - startTime + TICK_NANOS - 1 ) / TICK_NANOS - 1 );
+			watch.rounds = ( expirationTick - currentTick ) / WHEEL_SIZE;
+			int slot = (int) ( expirationTick & ( WHEEL_SIZE - 1 ) );
+			watch.next = wheel[slot];
+			wheel[slot] = watch;
+			scheduledCount++;
+		}
+	}
+
+	/** To flag all running watches of the specified slot, whose budget is over, and remove finished watches. */
+	private void expire( int slot ) {
+		long now = System.nanoTime();
+		Watch previous = null;
+		Watch watch = wheel[slot];
+		while( watch != null ) {
+			Watch next = watch.next;
+			boolean remove = true;
+			if( watch.state == Watch.RUNNING ) {
+				if( watch.rounds > 0 || watch.deadline > now ) {
+					if( watch.rounds > 0 ) watch.rounds--;
+					remove = false;
+				} else {
+					flagOverrun( watch, now );
+				}
+			}
+			if( remove ) {
+				if( previous == null ) wheel[slot] = next;
+				else previous.next = next;
+				watch.next = null;
+				scheduledCount--;
+			} else {
+				previous = watch;
+			}
+			watch = next;
+		}
+	}
+
+	private void flagOverrun( @NonNull Watch watch, long now ) {
+		if( !Watch.STATE.compareAndSet( watch, Watch.RUNNING, Watch.FLAGGING ) ) return; // finished in the meantime
+		Overrun overrun = new Overrun( watch.listenerClass, watch.method, watch.listener, watch.thread.getName(),
+		                               Duration.ofNanos( watch.deadline - watch.started ), Duration.ofNanos( now - watch.started ),
+		                               watch.thread.getStackTrace() );
+		overruns.add( overrun );
+		watch.overrun = overrun;
+		watch.state = Watch.FLAGGED;
+	}
+
+
+	/** One watched invocation of a listener. */
+	static final class Watch {
+
+		private static final int RUNNING = 0;
+		private static final int FLAGGING = 1;
+		private static final int FLAGGED = 2;
+		private static final int DONE = 3;
+
+		private static final AtomicIntegerFieldUpdater<Watch> STATE = AtomicIntegerFieldUpdater.newUpdater( Watch.class, "state" );
+
+		private final @NonNull Class<?> listenerClass;
+		private final @NonNull String method;
+		private final @NonNull Object listener;
+		private final @NonNull Thread thread;
+		private final long started;
+		private final long deadline;
+
+		private volatile int state = RUNNING;
+		private volatile @Nullable Overrun overrun;
+
+		// used by the watchdog thread only
+		private long rounds;
+		private @Nullable Watch next;
+
+
+		private Watch( @NonNull Class<?> listenerClass, @NonNull String method, @NonNull Object listener,
+		               @NonNull Thread thread, long started, long deadline ) {
+			this.listenerClass = listenerClass;
+			this.method = method;
+			this.listener = listener;
+			this.thread = thread;
+			this.started = started;
+			this.deadline = deadline;
+		}
+
+		/** @return overrun if the invocation was flagged as slow, otherwise null */
+		private @Nullable Overrun stop() {
+			if( STATE.compareAndSet( this, RUNNING, DONE ) ) return null;
+			while( state == FLAGGING ) Thread.onSpinWait(); // the watchdog thread takes the stack sample just now
+			return overrun;
+		}
+	}
+
+
+	/** Invocation of a listener, which overran its latency budget. */
+	@Value
+	public static class Overrun {
+
+		/** Class of the listener (as used by registration). */
+		@NonNull Class<?> listenerClass;
+
+		/** Name of the notification method. */
+		@NonNull String method;
+
+		/** The slow listener. */
+		@NonNull Object listener;
+
+		/** Name of the dispatching thread. */
+		@NonNull String threadName;
+
+		/** Latency budget of the invocation. */
+		@NonNull Duration budget;
+
+		/** Duration of the invocation at the moment of detection (at least the budget). */
+		@NonNull Duration elapsed;
+
+		/** Stack of the dispatching thread taken at the moment of detection (while the listener was still running). */
+		@NonNull StackTraceElement[] stackSample;
+
+		@Override
+		public String toString() {
+			StringBuilder builder = new StringBuilder();
+			builder.append( "listener " ).append( listener ).append( " (" ).append( listenerClass.getName() ).append( '.' ).append( method )
+			       .append( ") overran its budget of " ).append( budget.toMillis() ).append( " ms: still running after " )
+			       .append( elapsed.toMillis() ).append( " ms in thread " ).append( threadName );
+			for( StackTraceElement element : stackSample ) builder.append( "\n\tat " ).append( element );
+			return builder.toString();
+		}
+	}
+}
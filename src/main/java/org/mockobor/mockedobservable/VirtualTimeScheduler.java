@@ -0,0 +1,290 @@
+package org.mockobor.mockedobservable;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.mockobor.exceptions.MockoborIllegalArgumentException;
+import org.mockobor.listener_detectors.ListenerSelector;
+import org.mockobor.utils.reflection.TypeUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+
+/**
+ * Virtual time for timed sequences of notifications sent by a {@link ListenersNotifier}.
+ * <p>
+ * Notifications are scheduled at virtual timestamps (relative to the current virtual time)
+ * and delivered in timestamp order (notifications with the same timestamp - in order of scheduling)
+ * as soon as the virtual clock is advanced, so tests of debounce, timeout or rate-limit logic don't need real sleeps.
+ * <p>
+ * The tested object can use the same virtual time via {@link #getClock()}.
+ * <p>
+ * Example:
+ * <pre class="code"><code class="java">
+ *
+ * ListenersNotifier notifier = Mockobor.createNotifierFor( mockedObservable );
+ * VirtualTimeScheduler scheduler = new VirtualTimeScheduler( notifier );
+ * TestedDebouncer testedObject = new TestedDebouncer( mockedObservable, scheduler.getClock() );
+ *
+ * scheduler.notifierFor( Duration.ofMillis( 100 ), PropertyChangeListener.class ).propertyChange( event1 );
+ * scheduler.schedule( Duration.ofMillis( 250 ), () -&gt; ( (PropertyChangeNotifier) notifier ).setProperty( "price", 101.5 ) );
+ *
+ * scheduler.advanceBy( Duration.ofMillis( 200 ) ); // event1 delivered at t=100ms, clock at t=200ms
+ * scheduler.runAll();                              // price changed at t=250ms
+ *
+ * </code></pre>
+ * The scheduler is not thread-safe; it is intended to be used from the test thread only.
+ */
+public class VirtualTimeScheduler {
+
+	private static final Comparator<ScheduledEvent> ORDER = Comparator.comparingLong( ( ScheduledEvent e ) -> e.time )
+	                                                                  .thenComparingLong( e -> e.sequence );
+
+	@NonNull
+	private final ListenersNotifier notifier;
+
+	@NonNull
+	private final Instant start;
+
+	private final PriorityQueue<ScheduledEvent> queue = new PriorityQueue<>( ORDER );
+
+	/** Current virtual time in nanoseconds since start. */
+	private long now;
+
+	private long sequence;
+
+
+	/**
+	 * Create a scheduler with virtual time started at {@link Instant#EPOCH}.
+	 *
+	 * @param notifier notifier used to send scheduled notifications
+	 */
+	public VirtualTimeScheduler( @NonNull ListenersNotifier notifier ) {
+		this( notifier, Instant.EPOCH );
+	}
+
+	/**
+	 * @param notifier notifier used to send scheduled notifications
+	 * @param start    instant of the virtual clock at time 0 (see {@link #getClock()})
+	 */
+	public VirtualTimeScheduler( @NonNull ListenersNotifier notifier, @NonNull Instant start ) {
+		this.notifier = notifier;
+		this.start = start;
+	}
+
+
+	// ==================================================================================
+	// ================================== virtual time ==================================
+	// ==================================================================================
+
+	/** @return virtual time elapsed since the start of the scheduler */
+	public @NonNull Duration now() {
+		return Duration.ofNanos( now );
+	}
+
+	/** @return clock which shows the current virtual time (start instant + {@link #now()}), zone UTC */
+	public @NonNull Clock getClock() {
+		return new VirtualClock( ZoneOffset.UTC );
+	}
+
+
+	// ==================================================================================
+	// =================================== scheduling ===================================
+	// ==================================================================================
+
+	/**
+	 * To schedule the specified action at the current virtual time plus the specified delay.
+	 *
+	 * @param delay  delay relative to the current virtual time (not negative)
+	 * @param action action to run (for example: a call of notification method of the notifier)
+	 * @return scheduled event, which can be canceled
+	 */
+	public @NonNull ScheduledEvent schedule( @NonNull Duration delay, @NonNull Runnable action ) {
+		if( delay.isNegative() ) throw new MockoborIllegalArgumentException( "delay can not be negative: %s", delay );
+		ScheduledEvent event = new ScheduledEvent( now + delay.toNanos(), sequence++, action );
+		queue.add( event );
+		return event;
+	}
+
+	/**
+	 * To get a proxy, which implements the specified listener interface and schedules every call of its methods
+	 * to be sent over {@link ListenersNotifier#notifierFor(Class, ListenerSelector...)} after the specified delay.
+	 * <p>
+	 * Listeners are looked up at the moment of delivery. Return values of listener methods are ignored
+	 * (the proxy returns default values: null, 0, false).
+	 *
+	 * @param delay         delay relative to the current virtual time (not negative)
+	 * @param listenerClass class of required listener
+	 * @param selectors     selectors used by registration of listeners (none - like {@code selector()})
+	 * @param <L>           class of required listener
+	 * @return an object which implements the specified listener interface to schedule notifications
+	 */
+	public @NonNull <L> L notifierFor( @NonNull Duration delay, @NonNull Class<L> listenerClass, @NonNull ListenerSelector... selectors ) {
+		ListenerSelector[] usedSelectors = selectors.length == 0 ? new ListenerSelector[]{ ListenerSelector.selector() } : selectors.clone();
+		return listenerClass.cast( Proxy.newProxyInstance(
+				getClass().getClassLoader(),
+				new Class[]{ listenerClass },
+				( proxy, method, args ) -> {
+					schedule( delay, () -> ListenersManager.invokeUnwrapped( method, notifier.notifierFor( listenerClass, usedSelectors ), args ) );
+					return TypeUtils.getDefaultReturnValue( method.getReturnType() );
+				} ) );
+	}
+
+	/** @return number of scheduled, not yet delivered and not canceled events */
+	public int numberOfPendingEvents() {
+		return (int) queue.stream().filter( e -> !e.canceled ).count();
+	}
+
+	/** @return virtual time of the next pending event or null if nothing scheduled */
+	public @Nullable Duration nextEventTime() {
+		dropCanceled();
+		ScheduledEvent next = queue.peek();
+		return next != null ? Duration.ofNanos( next.time ) : null;
+	}
+
+
+	// ==================================================================================
+	// =================================== advancing ====================================
+	// ==================================================================================
+
+	/**
+	 * To advance the virtual clock by the specified duration and deliver all events due until then (in timestamp order).
+	 * <p>
+	 * While an event is delivered, the virtual clock shows its timestamp.
+	 * Events scheduled by delivered events are delivered too, if they are due until the new virtual time.
+	 *
+	 * @param duration duration to advance the virtual clock by (not negative)
+	 * @return number of delivered events
+	 */
+	public int advanceBy( @NonNull Duration duration ) {
+		if( duration.isNegative() ) throw new MockoborIllegalArgumentException( "virtual time can not go back: %s", duration );
+		return advanceTo( now().plus( duration ) );
+	}
+
+	/**
+	 * To advance the virtual clock to the specified time and deliver all events due until then (see {@link #advanceBy}).
+	 *
+	 * @param time virtual time since the start of the scheduler (not before {@link #now()})
+	 * @return number of delivered events
+	 */
+	public int advanceTo( @NonNull Duration time ) {
+		long target = time.toNanos();
+		if( target < now ) throw new MockoborIllegalArgumentException( "virtual time can not go back: %s < %s", time, now() );
+		int delivered = runDue( target );
+		now = target;
+		return delivered;
+	}
+
+	/**
+	 * To deliver all scheduled events (including events scheduled by delivered events)
+	 * and advance the virtual clock to the time of the last one.
+	 *
+	 * @return number of delivered events
+	 */
+	public int runAll() {
+		return runDue( Long.MAX_VALUE );
+	}
+
+	private int runDue( long target ) {
+		int delivered = 0;
+		ScheduledEvent next;
+		while( ( next = queue.peek() ) != null && next.time <= target ) {
+			queue.poll();
+			if( !next.canceled ) {
+				now = next.time;
+				next.done = true;
+				next.action.run();
+				delivered++;
+			}
+		}
+		return delivered;
+	}
+
+	private void dropCanceled() {
+		while( !queue.isEmpty() && queue.peek().canceled ) queue.poll();
+	}
+
+
+	// ==================================================================================
+	// ================================ ScheduledEvent ==================================
+	// ==================================================================================
+
+	/** Event scheduled at a virtual timestamp. */
+	public static final class ScheduledEvent {
+
+		private final long time;
+
+		private final long sequence;
+
+		private final Runnable action;
+
+		private boolean canceled;
+
+		private boolean done;
+
+
+		private ScheduledEvent( long time, long sequence, @NonNull Runnable action ) {
+			this.time = time;
+			this.sequence = sequence;
+			this.action = action;
+		}
+
+		/** @return virtual time of delivery since the start of the scheduler */
+		public @NonNull Duration getTime() {
+			return Duration.ofNanos( time );
+		}
+
+		/**
+		 * To cancel delivery of this event.
+		 *
+		 * @return true if the event was canceled; false if it is already delivered or canceled
+		 */
+		public boolean cancel() {
+			if( done || canceled ) return false;
+			canceled = true;
+			return true;
+		}
+
+		/** @return true if the event is canceled */
+		public boolean isCanceled() {
+			return canceled;
+		}
+
+		/** @return true if the event is delivered */
+		public boolean isDone() {
+			return done;
+		}
+	}
+
+
+	/** Clock showing the virtual time of the scheduler. */
+	private class VirtualClock extends Clock {
+
+		private final ZoneId zone;
+
+		private VirtualClock( @NonNull ZoneId zone ) {
+			this.zone = zone;
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return zone;
+		}
+
+		@Override
+		public Clock withZone( ZoneId zone ) {
+			return new VirtualClock( zone );
+		}
+
+		@Override
+		public Instant instant() {
+			return start.plusNanos( now );
+		}
+	}
+}
@@ -0,0 +1,364 @@
+package org.mockobor.mockedobservable.detection_cache;
+
+import lombok.RequiredArgsConstructor;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.mockobor.listener_detectors.AbstractDetector;
+import org.mockobor.listener_detectors.ListenerDefinition;
+import org.mockobor.listener_detectors.ListenerDefinition.ListenerDefinitionImpl;
+import org.mockobor.listener_detectors.ListenerDefinitionDetector;
+import org.mockobor.listener_detectors.RegistrationDescriptor;
+import org.mockobor.utils.reflection.MethodSignature;
+import org.mockobor.utils.reflection.MethodTable;
+import org.mockobor.utils.reflection.ReflectionUtils;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+
+/**
+ * Cache of results of listener detection per class of mocked observable.
+ * <p>
+ * Results are cached:<ul>
+ * <li>in memory - per mock class and list of used detectors,</li>
+ * <li>optional, in a file shared between JVM runs (see {@link #CACHE_FILE_PROPERTY}) - per key consisting of
+ * names of mocked types, a fingerprint of used detectors (see {@link ListenerDefinitionDetector#getFingerprint()})
+ * and a hash of bytecode of mocked types and all their super types.
+ * If bytecode changes, the cached entry is not used anymore (and replaced by the next store).</li>
+ * </ul>
+ * Persistently cached results are stored as descriptors of registration methods (see {@link RegistrationDescriptor})
+ * and rehydrated into listener definitions by searching for methods by signature (see {@link AbstractDetector#rehydrate}).
+ * <p>
+ * Only results of detectors extending {@link AbstractDetector} (without overridden {@code detect} method) are cached,
+ * because only they can be rehydrated from descriptors.
+ * Detection results found by other detectors are never cached.
+ */
+public final class DetectionCache {
+
+	/** System property to enable the persistent cache: path to the cache file. */
+	public static final String CACHE_FILE_PROPERTY = "mockobor.detection-cache";
+
+	private static final char KEY_SEPARATOR = '|';
+
+	/** detector class -> true if its detection results can be cached. */
+	private static final ClassValue<Boolean> CACHEABLE_DETECTORS = new ClassValue<>() {
+		@Override
+		protected Boolean computeValue( Class<?> type ) {
+			try {
+				return AbstractDetector.class.isAssignableFrom( type )
+				       && type.getMethod( "detect", Collection.class ).getDeclaringClass() == AbstractDetector.class;
+			}
+			catch( NoSuchMethodException e ) {
+				return false;
+			}
+		}
+	};
+
+	/** class -> hex hash of bytecode of the class and all its super types; empty if bytecode is not available. */
+	private static final ClassValue<String> HIERARCHY_HASHES = new ClassValue<>() {
+		@Override
+		protected String computeValue( Class<?> type ) {
+			return computeHierarchyHash( type );
+		}
+	};
+
+
+	/** mock class -> last detection result. */
+	private final ClassValue<AtomicReference<CachedDetection>> memoryCache = new ClassValue<>() {
+		@Override
+		protected AtomicReference<CachedDetection> computeValue( Class<?> type ) {
+			return new AtomicReference<>();
+		}
+	};
+
+	private final @Nullable DetectionCacheFile cacheFile;
+
+
+	/** To create an in-memory only cache. */
+	public DetectionCache() {
+		this( null );
+	}
+
+	/**
+	 * To create a cache backed by the specified file.
+	 *
+	 * @param cacheFile file to store detection results persistently; null - in-memory only cache
+	 */
+	public DetectionCache( @Nullable Path cacheFile ) {
+		this.cacheFile = cacheFile != null ? new DetectionCacheFile( cacheFile ) : null;
+	}
+
+	/**
+	 * To create a cache configured by system property {@value #CACHE_FILE_PROPERTY}.
+	 *
+	 * @return a cache backed by the file specified in system property or an in-memory only cache if the property is not set
+	 */
+	public static @NonNull DetectionCache createDefault() {
+		String cacheFile = System.getProperty( CACHE_FILE_PROPERTY );
+		return new DetectionCache( cacheFile != null && !cacheFile.trim().isEmpty() ? Paths.get( cacheFile.trim() ) : null );
+	}
+
+
+	/** @return path of the cache file or null if it is an in-memory only cache */
+	public @Nullable Path getCacheFile() {
+		return cacheFile != null ? cacheFile.getPath() : null;
+	}
+
+
+	// ==================================================================================
+	// ================================== find/store ====================================
+	// ==================================================================================
+
+	/**
+	 * To find cached listener definitions for the specified mock class detected by the specified detectors.
+	 *
+	 * @param mockClass class of mocked observable
+	 * @param detectors detectors (in processing order) used for detection
+	 * @return cached listener definitions or null if not cached
+	 */
+	public @Nullable List<ListenerDefinition> find( @NonNull Class<?> mockClass, @NonNull List<ListenerDefinitionDetector> detectors ) {
+		CachedDetection cached = memoryCache.get( mockClass ).get();
+		if( cached != null && cached.detectors.equals( detectors ) ) return cached.definitions;
+
+		if( cacheFile != null && isCacheable( detectors ) ) {
+			String key = createPersistentKey( mockClass, detectors );
+			byte[] data = key != null ? cacheFile.get( key ) : null;
+			List<ListenerDefinition> definitions = data != null ? rehydrate( mockClass, detectors, data ) : null;
+			if( definitions != null ) {
+				memoryCache.get( mockClass ).set( new CachedDetection( new ArrayList<>( detectors ), definitions ) );
+				return definitions;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * To store detected listener definitions.
+	 * <p>
+	 * Nothing is stored, if some of the specified detectors produce not cacheable results.
+	 *
+	 * @param mockClass         class of mocked observable
+	 * @param detectors         detectors (in processing order) used for detection
+	 * @param detectionResults  listener definitions detected by corresponding detectors (null if nothing detected by a detector)
+	 */
+	public void store( @NonNull Class<?> mockClass,
+	                   @NonNull List<ListenerDefinitionDetector> detectors,
+	                   @NonNull List<@Nullable ListenerDefinition> detectionResults ) {
+		if( !isCacheable( detectors ) ) return;
+
+		List<ListenerDefinition> definitions = detectionResults.stream().filter( Objects::nonNull ).collect( Collectors.toList() );
+		memoryCache.get( mockClass ).set( new CachedDetection( new ArrayList<>( detectors ), Collections.unmodifiableList( definitions ) ) );
+
+		if( cacheFile != null ) {
+			String key = createPersistentKey( mockClass, detectors );
+			byte[] data = key != null ? encode( detectionResults ) : null;
+			if( data != null ) cacheFile.put( key, data );
+		}
+	}
+
+	/**
+	 * To write persistently cached detection results into the cache file.
+	 * <p>
+	 * It will be called automatically at JVM shutdown.
+	 */
+	public void flush() {
+		if( cacheFile != null ) cacheFile.flush();
+	}
+
+
+	private static boolean isCacheable( @NonNull List<ListenerDefinitionDetector> detectors ) {
+		for( ListenerDefinitionDetector detector : detectors ) {
+			if( !CACHEABLE_DETECTORS.get( detector.getClass() ) ) return false;
+		}
+		return true;
+	}
+
+
+	// ==================================================================================
+	// ================================ persistent key ==================================
+	// ==================================================================================
+
+	/** @return {@code <mocked types>|<detectors fingerprint>|<bytecode hash>} or null if bytecode is not available */
+	private static @Nullable String createPersistentKey( @NonNull Class<?> mockClass, @NonNull List<ListenerDefinitionDetector> detectors ) {
+		StringBuilder types = new StringBuilder();
+		StringBuilder hashes = new StringBuilder();
+		for( Class<?> mockedType : ReflectionUtils.getMockedTypes( mockClass ) ) {
+			String hash = HIERARCHY_HASHES.get( mockedType );
+			if( hash.isEmpty() ) return null;
+			if( types.length() > 0 ) types.append( ',' );
+			types.append( mockedType.getName() );
+			hashes.append( hash );
+		}
+		String fingerprint = detectors.stream().map( ListenerDefinitionDetector::getFingerprint ).collect( Collectors.joining( "\n" ) );
+		return types.toString() + KEY_SEPARATOR + digest( fingerprint.getBytes( StandardCharsets.UTF_8 ) ) + KEY_SEPARATOR
+		       + ( hashes.length() > 32 ? digest( hashes.toString().getBytes( StandardCharsets.UTF_8 ) ) : hashes );
+	}
+
+	private static @NonNull String computeHierarchyHash( @NonNull Class<?> type ) {
+		Set<Class<?>> hierarchy = new LinkedHashSet<>();
+		collectHierarchy( type, hierarchy );
+		ByteArrayOutputStream bytecode = new ByteArrayOutputStream();
+		for( Class<?> clazz : hierarchy ) {
+			try( InputStream in = clazz.getResourceAsStream( '/' + clazz.getName().replace( '.', '/' ) + ".class" ) ) {
+				if( in == null ) return "";
+				bytecode.write( clazz.getName().getBytes( StandardCharsets.UTF_8 ) );
+				in.transferTo( bytecode );
+			}
+			catch( IOException e ) {
+				return "";
+			}
+		}
+		return digest( bytecode.toByteArray() );
+	}
+
+	private static void collectHierarchy( @Nullable Class<?> type, @NonNull Set<Class<?>> hierarchy ) {
+		if( type == null || type == Object.class || !hierarchy.add( type ) ) return;
+		collectHierarchy( type.getSuperclass(), hierarchy );
+		for( Class<?> iface : type.getInterfaces() ) collectHierarchy( iface, hierarchy );
+	}
+
+	/** @return the first 16 bytes of SHA-256 of the specified data as hex string */
+	private static @NonNull String digest( byte @NonNull [] data ) {
+		try {
+			byte[] hash = MessageDigest.getInstance( "SHA-256" ).digest( data );
+			StringBuilder hex = new StringBuilder( 32 );
+			for( int i = 0; i < 16; i++ ) hex.append( String.format( "%02x", hash[i] ) );
+			return hex.toString();
+		}
+		catch( NoSuchAlgorithmException e ) {
+			throw new IllegalStateException( "SHA-256 must be supported by every java platform", e );
+		}
+	}
+
+
+	// ==================================================================================
+	// ================================ encode/decode ===================================
+	// ==================================================================================
+
+	/**
+	 * Entry data: number of definitions, then for each definition: index of detector, number of descriptors, descriptors.
+	 * Descriptor: registration flag, method name, return type, parameter types, listener indexes, selector indexes.
+	 *
+	 * @return encoded detection results or null if some results have no descriptors
+	 */
+	private static byte @Nullable [] encode( @NonNull List<@Nullable ListenerDefinition> detectionResults ) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try( DataOutputStream out = new DataOutputStream( bytes ) ) {
+			out.writeInt( (int) detectionResults.stream().filter( Objects::nonNull ).count() );
+			for( int detectorIndex = 0; detectorIndex < detectionResults.size(); detectorIndex++ ) {
+				ListenerDefinition definition = detectionResults.get( detectorIndex );
+				if( definition == null ) continue;
+				List<RegistrationDescriptor> descriptors = definition instanceof ListenerDefinitionImpl
+				                                           ? ( (ListenerDefinitionImpl) definition ).getRegistrationDescriptors()
+				                                           : null;
+				if( descriptors == null ) return null;
+
+				out.writeInt( detectorIndex );
+				out.writeInt( descriptors.size() );
+				for( RegistrationDescriptor descriptor : descriptors ) {
+					MethodSignature signature = descriptor.getSignature();
+					out.writeBoolean( descriptor.isRegistration() );
+					out.writeUTF( signature.getName() );
+					out.writeUTF( signature.getReturnType().getName() );
+					Class<?>[] parameterTypes = signature.getParameterTypes();
+					out.writeInt( parameterTypes.length );
+					for( Class<?> parameterType : parameterTypes ) out.writeUTF( parameterType.getName() );
+					writeIndexes( out, descriptor.getListenerIndexes() );
+					writeIndexes( out, descriptor.getSelectorIndexes() );
+				}
+			}
+		}
+		catch( IOException e ) {
+			return null;
+		}
+		return bytes.toByteArray();
+	}
+
+	/** @return rehydrated listener definitions or null if the data can not be rehydrated (unknown types or methods) */
+	private static @Nullable List<ListenerDefinition> rehydrate( @NonNull Class<?> mockClass,
+	                                                            @NonNull List<ListenerDefinitionDetector> detectors,
+	                                                            byte @NonNull [] data ) {
+		MethodTable methodTable = ReflectionUtils.getMethodTable( mockClass );
+		ClassLoader classLoader = mockClass.getClassLoader();
+		List<ListenerDefinition> definitions = new ArrayList<>();
+		try( DataInputStream in = new DataInputStream( new ByteArrayInputStream( data ) ) ) {
+			int definitionCount = in.readInt();
+			for( int d = 0; d < definitionCount; d++ ) {
+				int detectorIndex = in.readInt();
+				if( detectorIndex < 0 || detectorIndex >= detectors.size() ) return null;
+
+				int descriptorCount = in.readInt();
+				List<RegistrationDescriptor> descriptors = new ArrayList<>( descriptorCount );
+				for( int i = 0; i < descriptorCount; i++ ) {
+					boolean registration = in.readBoolean();
+					String name = in.readUTF();
+					Class<?> returnType = loadClass( in.readUTF(), classLoader );
+					Class<?>[] parameterTypes = new Class<?>[in.readInt()];
+					for( int p = 0; p < parameterTypes.length; p++ ) parameterTypes[p] = loadClass( in.readUTF(), classLoader );
+					descriptors.add( new RegistrationDescriptor( registration, MethodSignature.of( name, returnType, parameterTypes ),
+					                                             readIndexes( in ), readIndexes( in ) ) );
+				}
+
+				AbstractDetector detector = (AbstractDetector) detectors.get( detectorIndex );
+				ListenerDefinition definition = detector.rehydrate( methodTable::findMethod, descriptors );
+				if( definition == null ) return null;
+				definitions.add( definition );
+			}
+		}
+		catch( IOException | ClassNotFoundException | RuntimeException e ) {
+			return null;
+		}
+		return Collections.unmodifiableList( definitions );
+	}
+
+	private static void writeIndexes( @NonNull DataOutputStream out, int @NonNull [] indexes ) throws IOException {
+		out.writeInt( indexes.length );
+		for( int index : indexes ) out.writeInt( index );
+	}
+
+	private static int @NonNull [] readIndexes( @NonNull DataInputStream in ) throws IOException {
+		int[] indexes = new int[in.readInt()];
+		for( int i = 0; i < indexes.length; i++ ) indexes[i] = in.readInt();
+		return indexes;
+	}
+
+	private static @NonNull Class<?> loadClass( @NonNull String name, @Nullable ClassLoader classLoader ) throws ClassNotFoundException {
+		switch( name ) {
+			case "void":
+				return void.class;
+			case "boolean":
+				return boolean.class;
+			case "byte":
+				return byte.class;
+			case "char":
+				return char.class;
+			case "short":
+				return short.class;
+			case "int":
+				return int.class;
+			case "long":
+				return long.class;
+			case "float":
+				return float.class;
+			case "double":
+				return double.class;
+			default:
+				return Class.forName( name, false, classLoader );
+		}
+	}
+
+
+	/** Detection result cached in memory. */
+	@RequiredArgsConstructor
+	private static final class CachedDetection {
+		private final @NonNull List<ListenerDefinitionDetector> detectors;
+		private final @NonNull List<ListenerDefinition>         definitions;
+	}
+}
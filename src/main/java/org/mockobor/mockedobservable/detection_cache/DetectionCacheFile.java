@@ -0,0 +1,232 @@
+package org.mockobor.mockedobservable.detection_cache;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+
+
+/**
+ * Binary file with entries of the persistent detection cache (key -> opaque data).
+ * <p>
+ * File format:<ul>
+ * <li>header: magic number, format version, payload length, CRC32 of payload (4 ints)</li>
+ * <li>payload: number of entries, then for each entry: key (length + UTF-8 bytes) and data (length + bytes)</li>
+ * </ul>
+ * <p>
+ * The file is read at once into a heap buffer (it is not memory-mapped, because a mapped file can not be replaced on Windows).
+ * A file with an unexpected header, length or checksum is ignored (as empty).
+ * <p>
+ * Changes are written on {@link #flush()} (or at JVM shutdown): the current content of the file (possibly written by other JVMs)
+ * is merged with added entries, written into a temporary file and atomically moved to the cache file,
+ * so readers never see a partially written file.
+ * Merging and writing are done under an exclusive lock of the file {@code <cache file>.lock}
+ * (and of the cache file path within the JVM), so concurrent writers do not drop entries of each other.
+ * <p>
+ * Keys have the form {@code <scope>|<version>}. Adding an entry removes all entries with the same scope and another version
+ * (invalidation of entries for changed bytecode).
+ */
+final class DetectionCacheFile {
+
+	static final int MAGIC = 0x4D4B4443; // "MKDC"
+
+	static final int FORMAT_VERSION = 1;
+
+	private static final int HEADER_SIZE = 4 * Integer.BYTES;
+
+	private static final char VERSION_SEPARATOR = '|';
+
+	/** Monitors per cache file path: a file lock is held by the whole JVM, so writers in the same JVM must be serialized separately. */
+	private static final Map<Path, Object> PATH_MONITORS = new ConcurrentHashMap<>();
+
+
+	private final @NonNull Path path;
+
+	/** Entries read from the file (loaded lazily). */
+	private volatile Map<String, byte[]> loadedEntries;
+
+	/** Entries added since the last flush. */
+	private final Map<String, byte[]> addedEntries = new ConcurrentHashMap<>();
+
+	private final AtomicBoolean shutdownHookRegistered = new AtomicBoolean();
+
+
+	DetectionCacheFile( @NonNull Path path ) {
+		this.path = path;
+	}
+
+
+	@NonNull Path getPath() {
+		return path;
+	}
+
+	/**
+	 * @param key key of entry
+	 * @return data of the entry with the specified key or null if not found
+	 */
+	byte @Nullable [] get( @NonNull String key ) {
+		byte[] data = addedEntries.get( key );
+		return data != null ? data : getLoadedEntries().get( key );
+	}
+
+	/**
+	 * To add an entry (it will be written on the next {@link #flush()}).
+	 *
+	 * @param key  key of entry
+	 * @param data data of entry
+	 */
+	void put( @NonNull String key, byte @NonNull [] data ) {
+		addedEntries.put( key, data );
+		if( shutdownHookRegistered.compareAndSet( false, true ) ) {
+			Runtime.getRuntime().addShutdownHook( new Thread( this::flush, "mockobor-detection-cache" ) );
+		}
+	}
+
+	/**
+	 * To write added entries into the file.
+	 * <p>
+	 * Errors are ignored: the cache is only an optimization.
+	 */
+	void flush() {
+		if( addedEntries.isEmpty() ) return;
+		Path lockPath = path.resolveSibling( path.getFileName() + ".lock" );
+		synchronized( PATH_MONITORS.computeIfAbsent( path.toAbsolutePath().normalize(), p -> new Object() ) ) {
+			try {
+				Files.createDirectories( path.toAbsolutePath().getParent() );
+				try( FileChannel lockChannel = FileChannel.open( lockPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE );
+				     FileLock lock = lockChannel.lock() ) {
+					Map<String, byte[]> entries = read( path );
+					addedEntries.forEach( ( key, data ) -> putWithInvalidation( entries, key, data ) );
+					write( path, entries );
+					addedEntries.clear();
+					loadedEntries = entries;
+				}
+			}
+			catch( IOException | OverlappingFileLockException ignored ) {
+				// the cache is only an optimization => try again later
+			}
+		}
+	}
+
+
+	private @NonNull Map<String, byte[]> getLoadedEntries() {
+		Map<String, byte[]> entries = loadedEntries;
+		if( entries == null ) {
+			entries = read( path );
+			loadedEntries = entries;
+		}
+		return entries;
+	}
+
+	private static void putWithInvalidation( @NonNull Map<String, byte[]> entries, @NonNull String key, byte @NonNull [] data ) {
+		String scope = key.substring( 0, key.lastIndexOf( VERSION_SEPARATOR ) + 1 );
+		if( !scope.isEmpty() ) entries.keySet().removeIf( k -> k.startsWith( scope ) && k.indexOf( VERSION_SEPARATOR, scope.length() ) < 0 );
+		entries.put( key, data );
+	}
+
+
+	// ==================================================================================
+	// ================================== read/write ====================================
+	// ==================================================================================
+
+	/** @return entries of the specified file or empty map if the file does not exist or is corrupted */
+	static @NonNull Map<String, byte[]> read( @NonNull Path path ) {
+		Map<String, byte[]> entries = new HashMap<>();
+		if( !Files.isRegularFile( path ) ) return entries;
+		try( FileChannel channel = FileChannel.open( path, StandardOpenOption.READ ) ) {
+			long size = channel.size();
+			if( size < HEADER_SIZE || size > Integer.MAX_VALUE ) return entries;
+
+			ByteBuffer buffer = ByteBuffer.allocate( (int) size );
+			while( buffer.hasRemaining() ) {
+				if( channel.read( buffer ) < 0 ) return entries; // truncated concurrently
+			}
+			buffer.flip();
+			if( buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION ) return entries;
+			int payloadLength = buffer.getInt();
+			int checksum = buffer.getInt();
+			if( payloadLength != size - HEADER_SIZE ) return entries;
+
+			ByteBuffer payload = buffer.slice();
+			CRC32 crc = new CRC32();
+			crc.update( payload.duplicate() );
+			if( (int) crc.getValue() != checksum ) return entries;
+
+			int count = payload.getInt();
+			for( int i = 0; i < count; i++ ) {
+				String key = new String( readBytes( payload ), StandardCharsets.UTF_8 );
+				entries.put( key, readBytes( payload ) );
+			}
+			return entries;
+		}
+		catch( IOException | RuntimeException e ) {
+			// unreadable or corrupted file => ignore its content
+			entries.clear();
+			return entries;
+		}
+	}
+
+	private static byte @NonNull [] readBytes( @NonNull ByteBuffer buffer ) {
+		byte[] bytes = new byte[buffer.getInt()];
+		buffer.get( bytes );
+		return bytes;
+	}
+
+	/** To write the specified entries in the temporary file and atomically replace the specified file with it. */
+	static void write( @NonNull Path path, @NonNull Map<String, byte[]> entries ) throws IOException {
+		ByteArrayOutputStream payloadStream = new ByteArrayOutputStream();
+		try( DataOutputStream out = new DataOutputStream( payloadStream ) ) {
+			out.writeInt( entries.size() );
+			for( Map.Entry<String, byte[]> entry : entries.entrySet() ) {
+				byte[] key = entry.getKey().getBytes( StandardCharsets.UTF_8 );
+				out.writeInt( key.length );
+				out.write( key );
+				out.writeInt( entry.getValue().length );
+				out.write( entry.getValue() );
+			}
+		}
+		byte[] payload = payloadStream.toByteArray();
+		CRC32 crc = new CRC32();
+		crc.update( payload );
+
+		ByteBuffer header = ByteBuffer.allocate( HEADER_SIZE );
+		header.putInt( MAGIC ).putInt( FORMAT_VERSION ).putInt( payload.length ).putInt( (int) crc.getValue() ).flip();
+
+		Path directory = path.toAbsolutePath().getParent();
+		Files.createDirectories( directory );
+		Path temp = Files.createTempFile( directory, path.getFileName().toString(), ".tmp" );
+		try {
+			try( FileChannel channel = FileChannel.open( temp, StandardOpenOption.WRITE ) ) {
+				ByteBuffer[] buffers = { header, ByteBuffer.wrap( payload ) };
+				while( buffers[1].hasRemaining() ) channel.write( buffers );
+				channel.force( true );
+			}
+			try {
+				Files.move( temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING );
+			}
+			catch( AtomicMoveNotSupportedException e ) {
+				Files.move( temp, path, StandardCopyOption.REPLACE_EXISTING );
+			}
+		}
+		finally {
+			Files.deleteIfExists( temp );
+		}
+	}
+}
@@ -38,6 +38,17 @@ public interface MockingToolsRegistry {
 			throws MockingToolNotDetectedException;
 
 
+	/**
+	 * To initialize all available mocking tools in advance (for example, to load their classes and plugins),
+	 * so the first {@link #findHandlerForMock} does not pay for it.
+	 * <p>
+	 * It is used by prewarm of notifier creation and must be safe to call from any thread. Errors are ignored.
+	 */
+	default void prewarm() {
+		// nothing to initialize by default
+	}
+
+
 	/**
 	 * To add custom support for your mocking tool.
 	 * <p></p>
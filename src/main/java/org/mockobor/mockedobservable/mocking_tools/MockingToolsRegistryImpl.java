@@ -35,6 +35,21 @@ public class MockingToolsRegistryImpl implements MockingToolsRegistry {
 	}
 
 
+	/** To call {@link ListenerRegistrationHandler#canHandle} of all handlers with a probe object (it initializes used mocking tools). */
+	@Override
+	public void prewarm() {
+		Object probe = new Object();
+		for( ListenerRegistrationHandler h : new ArrayList<>( availableHandlers ) ) {
+			try {
+				h.canHandle( probe );
+			}
+			catch( RuntimeException | LinkageError ignored ) {
+				// prewarm is only an optimization; the same error will be reported by findHandlerForMock
+			}
+		}
+	}
+
+
 	@Override
 	public boolean registerListenerRegistrationHandler( @NonNull ListenerRegistrationHandler registrationHandler ) {
 		return availableHandlers.add( registrationHandler );
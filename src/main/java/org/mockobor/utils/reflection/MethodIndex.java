@@ -0,0 +1,209 @@
+package org.mockobor.utils.reflection;
+
+import lombok.RequiredArgsConstructor;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Index of methods (with associated values) by their signatures (see {@link MethodSignature}).
+ * <p>
+ * It is a replacement for linear searches like {@link ReflectionUtils#findSimilarMethod}:
+ * a lookup for a method declared in any class is a hash lookup for a method with the same signature.
+ * Results of lookups are memoized per looked-up {@link Method}, so repeated lookups of the same method
+ * (typical for invocation handlers of dynamic proxies) do not create signatures anymore.
+ * Memoized results are stored in the declaring class of the looked-up method (over {@link ClassValue}),
+ * so they do not prevent unloading of classes, even if the index itself lives forever.
+ * <p>
+ * The index keeps insertion order. Only one entry per signature is stored.
+ * <p>
+ * Implementation note: the index is not thread-safe for modification.
+ * It is expected to be filled once and then used (concurrently) only to look up methods.
+ *
+ * @param <V> type of values associated with methods
+ */
+public final class MethodIndex<V> {
+
+	/** Marker for memoized unsuccessful lookups. */
+	private static final Object NOT_FOUND = new Object();
+
+	private final Map<MethodSignature, Entry<V>> entries = new LinkedHashMap<>();
+
+	/**
+	 * declaring class -> looked up method -> found entry or {@link #NOT_FOUND}.
+	 * <p>
+	 * It is dropped by each modification and created again by the first lookup afterward.
+	 */
+	private volatile @Nullable ClassValue<Map<Method, Object>> lookupCache;
+
+
+	/**
+	 * To create an index of the specified methods (the method itself is used as value).
+	 * <p>
+	 * If some methods have the same signature, then the first one is indexed.
+	 *
+	 * @param methods methods to index
+	 * @return index of the specified methods
+	 */
+	public static @NonNull MethodIndex<Method> of( @NonNull Collection<Method> methods ) {
+		MethodIndex<Method> index = new MethodIndex<>();
+		methods.forEach( m -> index.putIfAbsent( m, m ) );
+		return index;
+	}
+
+
+	/**
+	 * To associate the specified value with the signature of the specified method.
+	 * <p>
+	 * A previous entry with the same signature will be replaced.
+	 *
+	 * @param method method to index
+	 * @param value  value associated with the method's signature
+	 * @return the previous value associated with the method's signature, or null if there was no one
+	 */
+	public @Nullable V put( @NonNull Method method, @NonNull V value ) {
+		lookupCache = null;
+		Entry<V> previous = entries.put( MethodSignature.of( method ), new Entry<>( method, value ) );
+		return previous != null ? previous.value : null;
+	}
+
+	/**
+	 * To associate the specified value with the signature of the specified method
+	 * if the signature is not already indexed.
+	 *
+	 * @param method method to index
+	 * @param value  value associated with the method's signature
+	 * @return true if the method was added; false if a method with the same signature is already indexed
+	 */
+	public boolean putIfAbsent( @NonNull Method method, @NonNull V value ) {
+		MethodSignature signature = MethodSignature.of( method );
+		if( entries.containsKey( signature ) ) return false;
+		lookupCache = null;
+		entries.put( signature, new Entry<>( method, value ) );
+		return true;
+	}
+
+	/**
+	 * To add all entries of the specified index (with replacement of existing entries with the same signatures).
+	 *
+	 * @param other index to copy entries from
+	 */
+	public void putAll( @NonNull MethodIndex<? extends V> other ) {
+		lookupCache = null;
+		other.entries.forEach( ( signature, entry ) -> entries.put( signature, new Entry<>( entry.method, entry.value ) ) );
+	}
+
+	/**
+	 * To remove the entry with the signature of the specified method.
+	 *
+	 * @param method method to remove (any method with the same signature)
+	 * @return true if an entry was removed
+	 */
+	public boolean remove( @NonNull Method method ) {
+		lookupCache = null;
+		return entries.remove( MethodSignature.of( method ) ) != null;
+	}
+
+
+	/**
+	 * To get the value associated with a method similar to the specified one (with the same signature).
+	 *
+	 * @param method method to look up
+	 * @return found value or null if no method with the same signature indexed
+	 */
+	public @Nullable V get( @NonNull Method method ) {
+		Entry<V> entry = lookup( method );
+		return entry != null ? entry.value : null;
+	}
+
+	/**
+	 * To get the indexed method similar to the specified one (with the same signature).
+	 *
+	 * @param method method to look up
+	 * @return indexed method or null if no method with the same signature indexed
+	 */
+	public @Nullable Method findSimilarMethod( @NonNull Method method ) {
+		Entry<V> entry = lookup( method );
+		return entry != null ? entry.method : null;
+	}
+
+	/**
+	 * @param method method to look up
+	 * @return true if a method with the same signature as the specified method is indexed
+	 */
+	public boolean contains( @NonNull Method method ) {
+		return lookup( method ) != null;
+	}
+
+	/**
+	 * @param signature signature to look up
+	 * @return the indexed method with the specified signature or null if not found
+	 */
+	public @Nullable Method findMethod( @NonNull MethodSignature signature ) {
+		Entry<V> entry = entries.get( signature );
+		return entry != null ? entry.method : null;
+	}
+
+
+	/** @return number of indexed signatures */
+	public int size() {
+		return entries.size();
+	}
+
+	/** @return true if nothing indexed */
+	public boolean isEmpty() {
+		return entries.isEmpty();
+	}
+
+	/** @return unmodifiable list of indexed methods (in insertion order) */
+	public @NonNull List<Method> methods() {
+		List<Method> methods = new ArrayList<>( entries.size() );
+		entries.values().forEach( e -> methods.add( e.method ) );
+		return Collections.unmodifiableList( methods );
+	}
+
+	/** @return unmodifiable map of indexed methods to associated values (in insertion order) */
+	public @NonNull Map<Method, V> asMap() {
+		Map<Method, V> map = new LinkedHashMap<>( entries.size() * 2 );
+		entries.values().forEach( e -> map.put( e.method, e.value ) );
+		return Collections.unmodifiableMap( map );
+	}
+
+
+	@SuppressWarnings( "unchecked" )
+	private @Nullable Entry<V> lookup( @NonNull Method method ) {
+		ClassValue<Map<Method, Object>> cache = lookupCache;
+		if( cache == null ) {
+			cache = newLookupCache();
+			lookupCache = cache;
+		}
+		Map<Method, Object> lookedUp = cache.get( method.getDeclaringClass() );
+		Object found = lookedUp.get( method );
+		if( found == null ) {
+			Entry<V> entry = entries.get( MethodSignature.of( method ) );
+			found = entry != null ? entry : NOT_FOUND;
+			lookedUp.put( method, found );
+		}
+		return found != NOT_FOUND ? (Entry<V>) found : null;
+	}
+
+	private static @NonNull ClassValue<Map<Method, Object>> newLookupCache() {
+		return new ClassValue<>() {
+			@Override
+			protected Map<Method, Object> computeValue( Class<?> declaringClass ) {
+				return new ConcurrentHashMap<>();
+			}
+		};
+	}
+
+
+	@RequiredArgsConstructor
+	private static final class Entry<V> {
+		private final @NonNull Method method;
+		private final @NonNull V      value;
+	}
+}
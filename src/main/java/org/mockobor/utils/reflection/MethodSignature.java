@@ -0,0 +1,118 @@
+package org.mockobor.utils.reflection;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+
+/**
+ * Immutable signature of a method: the name, return type and parameter types.
+ * <p>
+ * Methods are "similar" (see {@link ReflectionUtils#isSimilar}) if they have equal signatures,
+ * even if they are declared in different classes.
+ * <p>
+ * The hash code is computed once on creation, so a signature is a cheap key for hash-based collections
+ * (see {@link MethodIndex}).
+ */
+public final class MethodSignature {
+
+	private final @NonNull String name;
+
+	private final @NonNull Class<?> returnType;
+
+	private final @NonNull Class<?>[] parameterTypes;
+
+	private final int hash;
+
+
+	private MethodSignature( @NonNull String name, @NonNull Class<?> returnType, @NonNull Class<?>[] parameterTypes ) {
+		this.name = name;
+		this.returnType = returnType;
+		this.parameterTypes = parameterTypes;
+		this.hash = 31 * ( 31 * name.hashCode() + returnType.hashCode() ) + Arrays.hashCode( parameterTypes );
+	}
+
+	/**
+	 * To create a signature of the specified method.
+	 *
+	 * @param method method to create signature for
+	 * @return signature of the specified method
+	 */
+	public static @NonNull MethodSignature of( @NonNull Method method ) {
+		return new MethodSignature( method.getName(), method.getReturnType(), method.getParameterTypes() );
+	}
+
+	/**
+	 * To create a signature from the specified parts.
+	 *
+	 * @param name           method name
+	 * @param returnType     return type of method
+	 * @param parameterTypes parameter types of method
+	 * @return signature with the specified name, return type and parameter types
+	 */
+	public static @NonNull MethodSignature of( @NonNull String name, @NonNull Class<?> returnType, @NonNull Class<?>... parameterTypes ) {
+		return new MethodSignature( name, returnType, parameterTypes.clone() );
+	}
+
+
+	/**
+	 * To check if the specified method has this signature.
+	 * <p>
+	 * It compares the cheap parts (name, return type, number of parameters) first,
+	 * and copies parameter types of the specified method only if all of them are equal.
+	 *
+	 * @param method method to check
+	 * @return true if the specified method has the same name, return type and parameter types
+	 */
+	public boolean matches( @NonNull Method method ) {
+		return name.equals( method.getName() )
+		       && returnType == method.getReturnType()
+		       && parameterTypes.length == method.getParameterCount()
+		       && Arrays.equals( parameterTypes, method.getParameterTypes() );
+	}
+
+
+	public @NonNull String getName() {
+		return name;
+	}
+
+	public @NonNull Class<?> getReturnType() {
+		return returnType;
+	}
+
+	public int getParameterCount() {
+		return parameterTypes.length;
+	}
+
+	/** @return a copy of parameter types */
+	public @NonNull Class<?>[] getParameterTypes() {
+		return parameterTypes.clone();
+	}
+
+
+	@Override
+	public boolean equals( @Nullable Object o ) {
+		if( this == o ) return true;
+		if( !( o instanceof MethodSignature ) ) return false;
+		MethodSignature that = (MethodSignature) o;
+		return hash == that.hash
+		       && name.equals( that.name )
+		       && returnType == that.returnType
+		       && Arrays.equals( parameterTypes, that.parameterTypes );
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.stream( parameterTypes )
+		             .map( Class::getSimpleName )
+		             .collect( Collectors.joining( ", ", returnType.getSimpleName() + " " + name + "(", ")" ) );
+	}
+}
@@ -0,0 +1,120 @@
+package org.mockobor.utils.reflection;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+import java.lang.reflect.Method;
+import java.util.*;
+
+
+/**
+ * Immutable table of all methods reachable from an external object of some class (see {@link ReflectionUtils#getReachableMethods}).
+ * <p>
+ * Tables are computed once per class and shared by all callers (see {@link ReflectionUtils#getMethodTable}).
+ * They are pre-indexed by method signature, so search for similar methods is a hash lookup,
+ * and by interface-typed parameters, so listener detectors need to examine only candidates for registration methods.
+ */
+public final class MethodTable {
+
+	private final @NonNull Class<?> type;
+
+	private final @NonNull List<Method> methods;
+
+	private final @NonNull MethodIndex<Method> index;
+
+	/** Methods with at least one parameter of an interface type. */
+	private final @NonNull List<Method> methodsWithInterfaceParameters;
+
+	/** interface type -> methods with at least one parameter of this type. */
+	private final @NonNull Map<Class<?>, List<Method>> methodsByInterfaceParameter;
+
+
+	MethodTable( @NonNull Class<?> type, @NonNull Collection<Method> methods ) {
+		this.type = type;
+		this.index = MethodIndex.of( methods );
+		this.methods = index.methods();
+
+		List<Method> withInterfaceParameters = new ArrayList<>();
+		Map<Class<?>, List<Method>> byInterfaceParameter = new HashMap<>();
+		for( Method method : this.methods ) {
+			boolean hasInterfaceParameter = false;
+			for( Class<?> parameterType : method.getParameterTypes() ) {
+				if( parameterType.isInterface() ) {
+					List<Method> methodsWithType = byInterfaceParameter.computeIfAbsent( parameterType, t -> new ArrayList<>() );
+					if( methodsWithType.isEmpty() || methodsWithType.get( methodsWithType.size() - 1 ) != method ) {
+						methodsWithType.add( method );
+					}
+					hasInterfaceParameter = true;
+				}
+			}
+			if( hasInterfaceParameter ) withInterfaceParameters.add( method );
+		}
+		byInterfaceParameter.replaceAll( ( t, list ) -> Collections.unmodifiableList( list ) );
+		this.methodsWithInterfaceParameters = Collections.unmodifiableList( withInterfaceParameters );
+		this.methodsByInterfaceParameter = byInterfaceParameter;
+	}
+
+
+	/** @return class or interface the methods were collected from */
+	public @NonNull Class<?> getType() {
+		return type;
+	}
+
+	/** @return immutable list of reachable methods (in the order of {@link ReflectionUtils#getReachableMethods}) */
+	public @NonNull List<Method> getMethods() {
+		return methods;
+	}
+
+	/**
+	 * To get methods with at least one parameter of an interface type (candidates for listener registration methods).
+	 *
+	 * @return immutable list of methods with interface-typed parameters (in the order of {@link #getMethods()})
+	 */
+	public @NonNull List<Method> getMethodsWithInterfaceParameters() {
+		return methodsWithInterfaceParameters;
+	}
+
+	/**
+	 * To get methods with at least one parameter of the specified interface type.
+	 *
+	 * @param interfaceType type of parameter
+	 * @return immutable list of methods with a parameter of the specified type (in the order of {@link #getMethods()});
+	 * 		empty list if nothing found or the specified type is not an interface
+	 */
+	public @NonNull List<Method> getMethodsWithParameterType( @NonNull Class<?> interfaceType ) {
+		return methodsByInterfaceParameter.getOrDefault( interfaceType, Collections.emptyList() );
+	}
+
+	/** @return number of reachable methods */
+	public int size() {
+		return methods.size();
+	}
+
+
+	/**
+	 * To find a reachable method similar to the specified method (with the same signature, see {@link MethodSignature}).
+	 *
+	 * @param method method to find similar one
+	 * @return similar method from this table or null if not found
+	 * @see ReflectionUtils#findSimilarMethod
+	 */
+	public @Nullable Method findSimilarMethod( @NonNull Method method ) {
+		return index.findSimilarMethod( method );
+	}
+
+	/**
+	 * To find a reachable method with the specified signature.
+	 *
+	 * @param signature signature of required method
+	 * @return method with the specified signature or null if not found
+	 */
+	public @Nullable Method findMethod( @NonNull MethodSignature signature ) {
+		return index.findMethod( signature );
+	}
+
+
+	@Override
+	public String toString() {
+		return "MethodTable(" + type.getName() + ", " + methods.size() + " methods)";
+	}
+}
@@ -10,10 +10,7 @@ import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collection;
-import java.util.Objects;
+import java.util.*;
 
 
 @NoArgsConstructor( access = AccessLevel.PRIVATE )
@@ -23,6 +20,15 @@ public final class ReflectionUtils {
 	// ============================= getReachableMethods ================================
 	// ==================================================================================
 
+	/** Reachable methods per class. It does not prevent unloading of classes (values are stored in the class itself). */
+	private static final ClassValue<MethodTable> METHOD_TABLES = new ClassValue<>() {
+		@Override
+		protected MethodTable computeValue( Class<?> type ) {
+			return createMethodTable( type );
+		}
+	};
+
+
 	/**
 	 * To get all methods that can be reached from an external object.
 	 * <p>
@@ -46,20 +52,83 @@ public final class ReflectionUtils {
 	 *
 	 * @param clazz class to search for methods
 	 * @return a mutable list of methods. Changes in this list have no effect on the specified class.
+	 * @see #getMethodTable(Class)
 	 */
 	public static @NonNull Collection<Method> getReachableMethods( @NonNull Class<?> clazz ) {
+		return new ArrayList<>( getMethodTable( clazz ).getMethods() );
+	}
+
+
+	/**
+	 * To get an immutable, pre-indexed table of all methods that can be reached from an external object of the specified class.
+	 * <p>
+	 * It contains the same methods as {@link #getReachableMethods(Class)}, but the table is computed only once per class
+	 * and shared by all callers.
+	 * <p>
+	 * Mock classes, which mock exactly one class or interface, share the table of the mocked type.
+	 *
+	 * @param clazz class to search for methods
+	 * @return immutable table of reachable methods
+	 */
+	public static @NonNull MethodTable getMethodTable( @NonNull Class<?> clazz ) {
+		return METHOD_TABLES.get( clazz );
+	}
+
+
+	private static @NonNull MethodTable createMethodTable( @NonNull Class<?> clazz ) {
+		if( isMockSubclass( clazz ) ) {
+			// declared methods of a mock class are ignored, so a mock of one type has exactly the methods of the mocked type
+			// (types without methods, like Serializable, add nothing)
+			List<MethodTable> mockedTables = new ArrayList<>();
+			getMockedTypes( clazz ).stream().map( ReflectionUtils::getMethodTable ).filter( t -> t.size() > 0 ).forEach( mockedTables::add );
+			if( mockedTables.size() == 1 ) {
+				return mockedTables.get( 0 );
+			}
+		}
+
 		Collection<Method> methods = new ArrayList<>();
-		collectApplicableMethods( clazz, methods );
-		return methods;
+		collectApplicableMethods( clazz, methods, new HashSet<>() );
+		return new MethodTable( clazz, methods );
+	}
+
+	/**
+	 * To get types (classes and interfaces) mocked by the specified mock class.
+	 * <p>
+	 * For classes, which are not mock subclasses (for example, mocks created by Mockito's inline mock maker),
+	 * it is the class itself.
+	 *
+	 * @param clazz class of a mock
+	 * @return immutable set of mocked types (in declaration order)
+	 */
+	public static @NonNull Set<Class<?>> getMockedTypes( @NonNull Class<?> clazz ) {
+		if( !isMockSubclass( clazz ) ) return Collections.singleton( clazz );
+		Set<Class<?>> mockedTypes = new LinkedHashSet<>();
+		collectMockedTypes( clazz, mockedTypes );
+		return Collections.unmodifiableSet( mockedTypes );
 	}
 
+	private static void collectMockedTypes( @NonNull Class<?> mockClass, @NonNull Set<Class<?>> mockedTypes ) {
+		List<Class<?>> supertypes = new ArrayList<>( Arrays.asList( mockClass.getInterfaces() ) );
+		Class<?> superclass = mockClass.getSuperclass();
+		if( superclass != null && superclass != Object.class ) supertypes.add( 0, superclass );
+
+		for( Class<?> supertype : supertypes ) {
+			if( isMockSubclass( supertype ) ) {
+				collectMockedTypes( supertype, mockedTypes );
+			} else {
+				mockedTypes.add( supertype );
+			}
+		}
+	}
 
-	private static void collectApplicableMethods( @NonNull Class<?> clazz, @NonNull Collection<Method> collectedMethods ) {
+	private static void collectApplicableMethods( @NonNull Class<?> clazz,
+	                                              @NonNull Collection<Method> collectedMethods,
+	                                              @NonNull Set<MethodSignature> collectedSignatures ) {
 
-		// collect declaring methods
+		// collect declaring methods (not overridden in subclasses)
 		if( !isMockSubclass( clazz ) ) {
 			for( Method m : clazz.getDeclaredMethods() ) {
-				if( isApplicable( m ) && !isOverridden( collectedMethods, m ) ) {
+				if( isApplicable( m ) && collectedSignatures.add( MethodSignature.of( m ) ) ) {
 					collectedMethods.add( m );
 				}
 			}
@@ -68,22 +137,15 @@ public final class ReflectionUtils {
 		// collect in superclass
 		Class<?> superclass = clazz.getSuperclass();
 		if( superclass != null && superclass != Object.class ) {
-			collectApplicableMethods( superclass, collectedMethods );
+			collectApplicableMethods( superclass, collectedMethods, collectedSignatures );
 		}
 
 		// collect default methods from interfaces
 		for( Class<?> iface : clazz.getInterfaces() ) {
-			collectApplicableMethods( iface, collectedMethods );
+			collectApplicableMethods( iface, collectedMethods, collectedSignatures );
 		}
 	}
 
-	private static boolean isOverridden( @NonNull Collection<Method> alreadyCollectedMethods, @NonNull Method method ) {
-		return alreadyCollectedMethods.stream().anyMatch(
-				alreadyCollected -> Objects.equals( alreadyCollected.getName(), method.getName() )
-				                    && Objects.equals( alreadyCollected.getReturnType(), method.getReturnType() )
-				                    && Arrays.equals( alreadyCollected.getParameterTypes(), method.getParameterTypes() ) );
-	}
-
 	private static boolean isApplicable( @NonNull Method method ) {
 		return !Modifier.isPrivate( method.getModifiers() );
 	}
@@ -136,7 +198,9 @@ public final class ReflectionUtils {
 	 * @return true if the method has the same name and parameters types
 	 */
 	public static boolean methodMatch( @NonNull Method method, @NonNull String name, @NonNull Class<?>... paramTypes ) {
-		return name.equals( method.getName() ) && Arrays.equals( method.getParameterTypes(), paramTypes );
+		return name.equals( method.getName() )
+		       && method.getParameterCount() == paramTypes.length
+		       && Arrays.equals( method.getParameterTypes(), paramTypes );
 	}
 
 
@@ -145,6 +209,8 @@ public final class ReflectionUtils {
 	 * <p>
 	 * Methods are similar if both have same method signature (the name, return type and parameter types) - see {@link #isSimilar}.
 	 * <p>
+	 * It is a linear search. To search often in the same methods use {@link MethodIndex} instead.
+	 * <p>
 	 * It makes sense, for example, to use this method in invocation handler by creation of dynamic proxy,
 	 * to find and invoke implementation of compatible method declared in another interface
 	 * (if both interfaces are implemented in proxy class).
@@ -156,7 +222,26 @@ public final class ReflectionUtils {
 	 */
 	public static @Nullable Method findSimilarMethod( @NonNull Collection<Method> declaredMethods,
 	                                                  @NonNull Method invokedMethods ) {
-		return declaredMethods.stream().filter( m -> isSimilar( m, invokedMethods ) ).findFirst().orElse( null );
+		MethodSignature signature = MethodSignature.of( invokedMethods );
+		for( Method m : declaredMethods ) {
+			if( signature.matches( m ) ) return m;
+		}
+		return null;
+	}
+
+	/**
+	 * To find method similar to the specified {@code invokedMethods} in the specified index of declared methods.
+	 * <p>
+	 * It is the same as {@link #findSimilarMethod(Collection, Method)}, but uses a hash lookup instead of a linear search.
+	 *
+	 * @param declaredMethods index of declared methods to search in
+	 * @param invokedMethods  invoked method to find similar declared one
+	 * @return similar method from the specified index or null if not found
+	 * @see MethodIndex
+	 */
+	public static @Nullable Method findSimilarMethod( @NonNull MethodIndex<?> declaredMethods,
+	                                                  @NonNull Method invokedMethods ) {
+		return declaredMethods.findSimilarMethod( invokedMethods );
 	}
 
 	/**
@@ -168,9 +253,7 @@ public final class ReflectionUtils {
 	 * @return true if the methodA and methodB have the same name, return type and parameter types
 	 */
 	public static boolean isSimilar( @NonNull Method methodA, @NonNull Method methodB ) {
-		return Objects.equals( methodA.getName(), methodB.getName() )
-		       && Objects.equals( methodA.getReturnType(), methodB.getReturnType() )
-		       && Arrays.equals( methodA.getParameterTypes(), methodB.getParameterTypes() );
+		return methodA.equals( methodB ) || MethodSignature.of( methodA ).matches( methodB );
 	}
 
 
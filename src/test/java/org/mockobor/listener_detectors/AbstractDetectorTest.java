@@ -15,8 +15,7 @@ import org.mockobor.utils.reflection.ReflectionUtils;
 
 import java.beans.PropertyChangeListener;
 import java.lang.reflect.Method;
-import java.util.Arrays;
-import java.util.Collection;
+import java.util.*;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -170,6 +169,43 @@ class AbstractDetectorTest {
 	}
 
 
+	@Test
+	void detectRegistrations_checks_only_declared_listener_types() {
+		List<Class<?>> checkedTypes = new ArrayList<>();
+		AbstractDetector typedDetector = new AbstractDetector() {
+			@Override
+			public @NonNull Collection<Class<?>> getListenerParameterTypes() {
+				return Collections.singletonList( MyAnotherListener.class );
+			}
+
+			@Override
+			protected boolean isListenerClass( @NonNull Class<?> parameterType, @NonNull Method method ) {
+				checkedTypes.add( parameterType );
+				return true;
+			}
+
+			@Override
+			protected boolean isAddMethods( @NonNull Method method ) {
+				return method.getName().startsWith( "add" );
+			}
+
+			@Override
+			protected boolean isRemoveMethods( @NonNull Method method ) {
+				return method.getName().startsWith( "remove" );
+			}
+		};
+
+		ListenerDefinition listenerDefinition = typedDetector.detectRegistrations( ReflectionUtils.getReachableMethods( MockedObservable.class ) );
+
+		assertThat( checkedTypes ).as( "isListenerClass called only for declared types" ).containsOnly( MyAnotherListener.class );
+		assertThat( listenerDefinition.getDetectedListeners() ).containsExactly( MyAnotherListener.class );
+		assertThat( listenerDefinition.getRegistrations() )
+				.extracting( RegistrationDelegate::getSource )
+				.extracting( Method::getName )
+				.containsExactlyInAnyOrder( "addMyAnotherListener", "addTwoListeners", "removeMyAnotherListener", "removeTwoListeners" );
+	}
+
+
 	// ==================================================================================
 	// ============================= hasListenerParameter ===============================
 	// ==================================================================================
@@ -181,6 +217,8 @@ class AbstractDetectorTest {
 		assertThat( registrationParameters ).isNotNull();
 		assertThat( registrationParameters.getListenerIndexes() ).containsExactly( expectedListenerIndexes );
 		assertThat( registrationParameters.getSelectorIndexes() ).containsExactly( expectedSelectorIndexes );
+		assertThat( registrationParameters.getListenerIndexArray() ).containsExactly( Arrays.stream( expectedListenerIndexes ).mapToInt( i -> i ).toArray() );
+		assertThat( registrationParameters.getSelectorIndexArray() ).containsExactly( Arrays.stream( expectedSelectorIndexes ).mapToInt( i -> i ).toArray() );
 	}
 
 	@SuppressWarnings( "unused" ) // used as @MethodSource for hasListenerParameter_listener_found
@@ -23,4 +23,21 @@ class ListenerSelectorTest {
 		assertThat( selector( null, null ) ).isNotEqualTo( selector( (Object) null ) ).isNotEqualTo( selector() );
 		assertThat( selector( null, null ).toString() ).contains( "null, null" );
 	}
+
+	@Test
+	void selectors_with_same_values_are_equal() {
+		assertThat( selector( "a" ) ).isEqualTo( selector( new Object[]{ "a" } ) ).hasSameHashCodeAs( selector( new Object[]{ "a" } ) );
+		assertThat( selector( 1 ) ).isEqualTo( selector( 1 ) ).hasSameHashCodeAs( selector( 1 ) ).isNotEqualTo( selector( 1L ) );
+		assertThat( selector( "a", 2 ) ).isEqualTo( selector( "a", 2 ) ).hasSameHashCodeAs( selector( "a", 2 ) ).isNotEqualTo( selector( 2, "a" ) );
+		assertThat( selector( "a" ) ).isNotEqualTo( selector( "a", "a" ) ).isNotEqualTo( selector() );
+		assertThat( selector( (Object) new int[]{ 1, 2 } ) ).isEqualTo( selector( (Object) new int[]{ 1, 2 } ) )
+		                                                 .hasSameHashCodeAs( selector( (Object) new int[]{ 1, 2 } ) );
+	}
+
+	@Test
+	void empty_and_string_selectors_are_interned() {
+		assertThat( selector() ).isSameAs( selector() ).isSameAs( selector( new Object[0] ) );
+		assertThat( selector( "propertyName" ) ).isSameAs( selector( "propertyName" ) ).isSameAs( selector( new Object[]{ "propertyName" } ) );
+		assertThat( selector( 1 ) ).isNotSameAs( selector( 1 ) );
+	}
 }
@@ -0,0 +1,51 @@
+package org.mockobor.listener_detectors;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+class NameMatcherTest {
+
+	@ParameterizedTest( name = "matches_like_regular_expression - ''{0}'' with ''{1}''" )
+	@CsvSource( {
+			// literal
+			"addListener, addListener",
+			"addListener, addListeners",
+			"addListener, xaddListener",
+			// .*literal
+			".*Listener, MyListener",
+			".*Listener, Listener",
+			".*Listener, MyListeners",
+			// literal.*
+			"add.*, addListener",
+			"add.*, add",
+			"add.*, removeListener",
+			// .*literal.*
+			".*Change.*, PropertyChangeListener",
+			".*Change.*, Change",
+			".*Change.*, PropertyListener",
+			// others
+			"add(.*)Listeners?, addMyListener",
+			"add(.*)Listeners?, addMyListeners",
+			"add(.*)Listeners?, addListener",
+			"add(.*)Listeners?, addMyListenerX",
+			"add(.*)Listeners?, removeMyListener",
+			"ad?d.*, aaddX",
+			"ad?d.*, adX",
+			"adx*.*, adX",
+			"add|remove, remove",
+			"add|remove, removeX",
+			".*, anything",
+	} )
+	void matches_like_regular_expression( String regexp, String name ) {
+		NameMatcher matcher = new NameMatcher( regexp );
+		boolean expected = Pattern.compile( regexp ).matcher( name ).matches();
+
+		assertThat( matcher.matches( name ) ).isEqualTo( expected );
+		assertThat( matcher.matches( name ) ).as( "memoized decision" ).isEqualTo( expected );
+	}
+}
@@ -40,7 +40,11 @@ class ObservableDetectorTest {
 				.as( "expected interfaces" )
 				.containsExactly( ObservableNotifier.class );
 
-		// no additional notifications expected because all methods of {@link ObservableNotifier} have the default implementation
-		assertThat( listenerDefinition.getCustomNotificationMethodDelegates() ).isEmpty();
+		// notifyObservers-methods of {@link ObservableNotifier} are served by direct delegates instead of their default implementations
+		assertThat( listenerDefinition.getCustomNotificationMethodDelegates() )
+				.as( "fast path for notifyObservers" )
+				.containsOnlyKeys( ReflectionUtils.getReachableMethods( ObservableNotifier.class ).stream()
+				                                  .filter( m -> m.getName().equals( "notifyObservers" ) )
+				                                  .toArray( Method[]::new ) );
 	}
 }
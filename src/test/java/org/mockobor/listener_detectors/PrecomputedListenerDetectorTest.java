@@ -0,0 +1,83 @@
+package org.mockobor.listener_detectors;
+
+import org.junit.jupiter.api.Test;
+import org.mockobor.Mockobor;
+import org.mockobor.mockedobservable.ListenersNotifier;
+import org.mockobor.mockedobservable.MockedObservable;
+import org.mockobor.utils.reflection.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockobor.listener_detectors.ListenerSelector.selector;
+
+
+class PrecomputedListenerDetectorTest {
+
+	/** Observable with registration methods, which can not be detected by default detectors. */
+	public interface PrecomputedObservable {
+
+		interface Handler {
+			void handle( String event );
+		}
+
+		void subscribe( String topic, Handler handler );
+
+		void unsubscribe( String topic, Handler handler );
+	}
+
+	/** Detector as generated by mockobor-processor (registered in META-INF/services). */
+	public static final class PrecomputedObservableDetector extends PrecomputedListenerDetector {
+
+		public PrecomputedObservableDetector() {
+			super( PrecomputedObservable.class );
+			addRegistrationMethod( "subscribe", void.class, new Class<?>[]{ String.class, PrecomputedObservable.Handler.class }, new int[]{ 1 }, new int[]{ 0 } );
+			addDeregistrationMethod( "unsubscribe", void.class, new Class<?>[]{ String.class, PrecomputedObservable.Handler.class }, new int[]{ 1 }, new int[]{ 0 } );
+			addRegistrationMethod( "notExistingMethod", void.class, new Class<?>[]{ PrecomputedObservable.Handler.class }, new int[]{ 0 }, new int[]{} );
+		}
+	}
+
+
+	@Test
+	void detect_by_signatures() {
+		PrecomputedObservableDetector detector = new PrecomputedObservableDetector();
+
+		ListenerDefinition listenerDefinition = detector.detect( ReflectionUtils.getReachableMethods( mock( PrecomputedObservable.class ) ) );
+
+		assertThat( listenerDefinition.getRegistrations() )
+				.as( "not existing methods ignored" )
+				.extracting( RegistrationDelegate::getSource )
+				.extracting( Method::getName )
+				.containsExactlyInAnyOrder( "subscribe", "unsubscribe" );
+		assertThat( listenerDefinition.getDetectedListeners() ).containsExactly( PrecomputedObservable.Handler.class );
+		assertThat( detector.getListenerParameterTypes() ).containsExactly( PrecomputedObservable.Handler.class );
+	}
+
+	@Test
+	void precomputed_detectors_loaded_as_services() {
+		ListenerDetectorsRegistry registry = new ListenerDetectorsRegistryImpl();
+
+		assertThat( registry.getPrecomputedDetectors( mock( PrecomputedObservable.class ).getClass() ) )
+				.hasOnlyElementsOfType( PrecomputedObservableDetector.class )
+				.hasSize( 1 );
+		assertThat( registry.getPrecomputedDetectors( mock( MockedObservable.class ).getClass() ) ).isEmpty();
+	}
+
+	@Test
+	void precomputed_detectors_used_by_notifier_creation() {
+		PrecomputedObservable observable = mock( PrecomputedObservable.class );
+		List<String> events = new ArrayList<>();
+		PrecomputedObservable.Handler handler = events::add;
+
+		ListenersNotifier notifier = Mockobor.createNotifierFor( observable );
+		observable.subscribe( "topic", handler );
+		notifier.notifierFor( PrecomputedObservable.Handler.class, selector( "topic" ) ).handle( "event" );
+		observable.unsubscribe( "topic", handler );
+
+		assertThat( events ).containsExactly( "event" );
+		assertThat( notifier.allListenersAreUnregistered() ).isTrue();
+	}
+}
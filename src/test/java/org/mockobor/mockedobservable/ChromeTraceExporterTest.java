@@ -0,0 +1,97 @@
+package org.mockobor.mockedobservable;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockobor.Mockobor;
+import org.mockobor.mockedobservable.MockedObservable.MyAnotherListener;
+import org.mockobor.mockedobservable.MockedObservable.MyListener;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+
+class ChromeTraceExporterTest {
+
+	private static final Pattern DISPATCH = Pattern.compile(
+			"\\{\"name\":\"(\\w+\\.\\w+)\",\"cat\":\"dispatch\",\"ph\":\"X\",\"pid\":\\d+,\"tid\":(\\d+),\"ts\":([\\d.]+),\"dur\":([\\d.]+),"
+			+ "\"args\":\\{\"observable\":\"[^\"]+\",\"listenerClass\":\"[^\"]+\",\"listeners\":(\\d+),\"depth\":(\\d+)}}" );
+
+	@TempDir
+	Path tempDir;
+
+
+	@Test
+	void cascade_of_notifications() throws IOException {
+		Path file = tempDir.resolve( "trace.json" );
+		MockedObservable observable1 = mock( MockedObservable.class );
+		MockedObservable observable2 = mock( MockedObservable.class );
+		ExtendedListenersNotifier notifier1 = (ExtendedListenersNotifier) Mockobor.createNotifierFor( observable1 );
+		ExtendedListenersNotifier notifier2 = (ExtendedListenersNotifier) Mockobor.createNotifierFor( observable2 );
+
+		try( ChromeTraceExporter exporter = new ChromeTraceExporter( file ) ) {
+			notifier1.setTraceExporter( exporter );
+			notifier2.setTraceExporter( exporter );
+
+			MyListener myListener = mock( MyListener.class );
+			observable2.addMyListener( myListener );
+			observable2.addMyListener( mock( MyListener.class ) );
+			observable1.addMyAnotherListener( v -> ( (MyListener) notifier2 ).somethingChanged1( v ) ); // cascade: notifier1 -> notifier2
+
+			( (MyAnotherListener) notifier1 ).somethingOtherChanged( "v1" );
+			observable2.removeMyListener( myListener );
+		}
+
+		String trace = new String( Files.readAllBytes( file ), StandardCharsets.UTF_8 );
+		assertThat( trace ).startsWith( "[\n" ).endsWith( "\n]\n" )
+		                   .contains( "\"ph\":\"M\"", "\"name\":\"" + Thread.currentThread().getName() + "\"" )
+		                   .contains( "\"name\":\"register MyListener\"", "\"name\":\"register MyAnotherListener\"",
+		                              "\"name\":\"deregister MyListener\"" );
+
+		Matcher matcher = DISPATCH.matcher( trace );
+		assertThat( matcher.find() ).isTrue();
+		assertThat( matcher.group( 1 ) ).as( "inner dispatch completes first" ).isEqualTo( "MyListener.somethingChanged1" );
+		assertThat( matcher.group( 5 ) ).as( "fan-out" ).isEqualTo( "2" );
+		assertThat( matcher.group( 6 ) ).as( "depth" ).isEqualTo( "2" );
+		double innerStart = Double.parseDouble( matcher.group( 3 ) );
+		double innerEnd = innerStart + Double.parseDouble( matcher.group( 4 ) );
+		String innerThread = matcher.group( 2 );
+
+		assertThat( matcher.find() ).isTrue();
+		assertThat( matcher.group( 1 ) ).isEqualTo( "MyAnotherListener.somethingOtherChanged" );
+		assertThat( matcher.group( 5 ) ).isEqualTo( "1" );
+		assertThat( matcher.group( 6 ) ).isEqualTo( "1" );
+		assertThat( matcher.group( 2 ) ).isEqualTo( innerThread );
+		double outerStart = Double.parseDouble( matcher.group( 3 ) );
+		double outerEnd = outerStart + Double.parseDouble( matcher.group( 4 ) );
+		assertThat( innerStart ).as( "nested in outer dispatch" ).isBetween( outerStart, outerEnd );
+		assertThat( innerEnd ).as( "nested in outer dispatch" ).isLessThanOrEqualTo( outerEnd );
+
+		assertThat( matcher.find() ).isFalse();
+	}
+
+	@Test
+	void large_runs_are_streamed() throws IOException {
+		Path file = tempDir.resolve( "large.json" );
+		MockedObservable observable = mock( MockedObservable.class );
+		ExtendedListenersNotifier notifier = (ExtendedListenersNotifier) Mockobor.createNotifierFor( observable );
+		observable.addPropertyChangeListener( evt -> {} );
+
+		try( ChromeTraceExporter exporter = new ChromeTraceExporter( file ) ) {
+			notifier.setTraceExporter( exporter );
+			for( int i = 0; i < 2000; i++ ) ( (PropertyChangeNotifier) notifier ).firePropertyChange( "p", i, i + 1 );
+			assertThat( Files.size( file ) ).as( "full buffers are written before close" ).isPositive();
+		}
+
+		String trace = new String( Files.readAllBytes( file ), StandardCharsets.UTF_8 );
+		assertThat( trace ).startsWith( "[\n" ).endsWith( "\n]\n" );
+		assertThat( trace.split( "\"name\":\"PropertyChangeListener.propertyChange\"", -1 ) ).hasSize( 2001 );
+		assertThat( trace ).doesNotContain( ",\n,", "[\n,", ",\n\n]" );
+	}
+}
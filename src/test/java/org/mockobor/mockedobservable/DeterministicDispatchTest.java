@@ -0,0 +1,177 @@
+package org.mockobor.mockedobservable;
+
+import org.junit.jupiter.api.Test;
+import org.mockobor.Mockobor;
+import org.mockobor.exceptions.MockoborException;
+import org.mockobor.mockedobservable.MockedObservable.MyAnotherListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.LongFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+
+class DeterministicDispatchTest {
+
+	private final MockedObservable mockedObservable = mock( MockedObservable.class );
+
+	private final ExtendedListenersNotifier notifier = (ExtendedListenersNotifier) Mockobor.createNotifierFor( mockedObservable );
+
+
+	@Test
+	void same_seed_same_interleaving() {
+		LongFunction<List<String>> interleaving = seed -> {
+			List<String> steps = Collections.synchronizedList( new ArrayList<>() );
+			for( int i = 0; i < 4; i++ ) mockedObservable.addMyAnotherListener( new SteppingListener( "L" + i, steps ) );
+			notifier.setDeterministicDispatch( new DeterministicDispatch( seed, 4 ) );
+			( (MyAnotherListener) notifier ).somethingOtherChanged( "v" );
+			notifier.getListeners( MyAnotherListener.class ).forEach( mockedObservable::removeMyAnotherListener );
+			return steps;
+		};
+
+		assertThat( interleaving.apply( 42 ) ).hasSize( 12 ).isEqualTo( interleaving.apply( 42 ) );
+
+		Set<List<String>> differentInterleavings = new HashSet<>();
+		for( long seed = 0; seed < 20; seed++ ) differentInterleavings.add( interleaving.apply( seed ) );
+		assertThat( differentInterleavings ).as( "seed changes interleaving" ).hasSizeGreaterThan( 1 );
+	}
+
+	@Test
+	void listeners_invoked_on_several_threads() {
+		Set<String> threadNames = Collections.synchronizedSet( new HashSet<>() );
+		for( int i = 0; i < 3; i++ ) mockedObservable.addMyAnotherListener( v -> threadNames.add( Thread.currentThread().getName() ) );
+		notifier.setDeterministicDispatch( new DeterministicDispatch( 1, 3 ) );
+
+		( (MyAnotherListener) notifier ).somethingOtherChanged( "v" );
+		( (MyAnotherListener) notifier ).somethingOtherChanged( "v" );
+
+		assertThat( threadNames ).as( "threads are reused" ).hasSize( 3 ).allMatch( name -> name.startsWith( "mockobor-dispatch-1-" ) );
+	}
+
+	@Test
+	void failing_seed_can_be_replayed() {
+		// lost update: read - yield - write
+		int[] counter = new int[1];
+		MyAnotherListener racyListener = v -> {
+			int read = counter[0];
+			DeterministicDispatch.yieldPoint();
+			counter[0] = read + 1;
+		};
+		mockedObservable.addMyAnotherListener( racyListener );
+		mockedObservable.addMyAnotherListener( racyListener );
+
+		Long failingSeed = null;
+		for( long seed = 0; seed < 100 && failingSeed == null; seed++ ) {
+			counter[0] = 0;
+			notifier.setDeterministicDispatch( new DeterministicDispatch( seed, 2 ) );
+			( (MyAnotherListener) notifier ).somethingOtherChanged( "v" );
+			if( counter[0] != 2 ) failingSeed = seed;
+		}
+		assertThat( failingSeed ).as( "race found" ).isNotNull();
+
+		for( int replay = 0; replay < 10; replay++ ) {
+			counter[0] = 0;
+			notifier.setDeterministicDispatch( new DeterministicDispatch( failingSeed, 2 ) );
+			( (MyAnotherListener) notifier ).somethingOtherChanged( "v" );
+			assertThat( counter[0] ).as( "replay of seed %d", failingSeed ).isEqualTo( 1 );
+		}
+	}
+
+	@Test
+	void failing_run_can_be_replayed_by_its_seed() {
+		// lost update detected: read - yield - check - write
+		int[] counter = new int[1];
+		MyAnotherListener racyListener = v -> {
+			int read = counter[0];
+			DeterministicDispatch.yieldPoint();
+			if( counter[0] != read ) throw new IllegalStateException( "lost update" );
+			counter[0] = read + 1;
+		};
+		mockedObservable.addMyAnotherListener( racyListener );
+		mockedObservable.addMyAnotherListener( racyListener );
+		notifier.setDeterministicDispatch( new DeterministicDispatch( 3, 2 ) );
+
+		String failure = null;
+		for( int run = 0; run < 100 && failure == null; run++ ) {
+			try {
+				( (MyAnotherListener) notifier ).somethingOtherChanged( "v" );
+			}
+			catch( MockoborException e ) {
+				failure = e.getMessage();
+			}
+		}
+		assertThat( failure ).as( "race found" ).isNotNull().contains( " of DeterministicDispatch(seed=3, threads=2)" );
+
+		Matcher replay = Pattern.compile( "new DeterministicDispatch\\( (-?\\d+)L, 2 \\)" ).matcher( failure );
+		assertThat( replay.find() ).isTrue();
+		notifier.setDeterministicDispatch( new DeterministicDispatch( Long.parseLong( replay.group( 1 ) ), 2 ) );
+		assertThatThrownBy( () -> ( (MyAnotherListener) notifier ).somethingOtherChanged( "v" ) )
+				.isInstanceOf( MockoborException.class )
+				.hasMessageContaining( "failed in run 0 of" )
+				.hasMessageContaining( replay.group() );
+	}
+
+	@Test
+	void parallel_registrations() {
+		DeterministicDispatch dispatch = new DeterministicDispatch( 7, 4 );
+		notifier.setDeterministicDispatch( dispatch ); // registrations are scheduling points
+		List<MyAnotherListener> listeners = new ArrayList<>();
+		List<Runnable> registrations = new ArrayList<>();
+		for( int i = 0; i < 20; i++ ) {
+			MyAnotherListener listener = mock( MyAnotherListener.class );
+			listeners.add( listener );
+			registrations.add( () -> {
+				mockedObservable.addMyAnotherListener( listener );
+				mockedObservable.removeMyAnotherListener( listener );
+				mockedObservable.addMyAnotherListener( listener );
+			} );
+		}
+
+		dispatch.runConcurrently( registrations );
+
+		assertThat( notifier.getListeners( MyAnotherListener.class ) ).containsExactlyInAnyOrderElementsOf( listeners );
+		assertThat( notifier.numberOfListenerRegistrations() ).isEqualTo( 40 );
+		assertThat( notifier.numberOfListenerDeregistrations() ).isEqualTo( 20 );
+	}
+
+	@Test
+	void failure_reports_seed() {
+		IllegalStateException listenerFailure = new IllegalStateException( "listener failed" );
+		mockedObservable.addMyAnotherListener( v -> {} );
+		mockedObservable.addMyAnotherListener( v -> { throw listenerFailure; } );
+		notifier.setDeterministicDispatch( new DeterministicDispatch( 123, 2 ) );
+
+		assertThatThrownBy( () -> ( (MyAnotherListener) notifier ).somethingOtherChanged( "v" ) )
+				.isInstanceOf( MockoborException.class )
+				.hasMessageContaining( "new DeterministicDispatch( 123L, 2 )" )
+				.hasCause( listenerFailure );
+	}
+
+
+	/** Listener with two scheduling points: records three steps per notification. */
+	private static class SteppingListener implements MyAnotherListener {
+
+		private final String name;
+		private final List<String> steps;
+
+		SteppingListener( String name, List<String> steps ) {
+			this.name = name;
+			this.steps = steps;
+		}
+
+		@Override
+		public void somethingOtherChanged( Object somethingOtherValue ) {
+			for( int step = 0; step < 3; step++ ) {
+				steps.add( name + "." + step );
+				if( step < 2 ) DeterministicDispatch.yieldPoint();
+			}
+		}
+	}
+}
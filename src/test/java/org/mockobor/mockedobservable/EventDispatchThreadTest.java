@@ -0,0 +1,147 @@
+package org.mockobor.mockedobservable;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockobor.Mockobor;
+import org.mockobor.exceptions.MockoborException;
+import org.mockobor.mockedobservable.MockedObservable.MyAnotherListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+
+class EventDispatchThreadTest {
+
+	private final MockedObservable mockedObservable = mock( MockedObservable.class );
+
+	private final ExtendedListenersNotifier notifier = (ExtendedListenersNotifier) Mockobor.createNotifierFor( mockedObservable );
+
+	private final EventDispatchThread eventThread = new EventDispatchThread();
+
+
+	@AfterEach
+	void closeEventThread() {
+		eventThread.close();
+	}
+
+
+	@Test
+	void listeners_invoked_on_event_thread() {
+		List<String> threadNames = Collections.synchronizedList( new ArrayList<>() );
+		mockedObservable.addMyAnotherListener( v -> threadNames.add( Thread.currentThread().getName() ) );
+		notifier.setEventDispatchThread( eventThread );
+
+		( (MyAnotherListener) notifier ).somethingOtherChanged( "v1" );
+		notifier.notifierFor( MyAnotherListener.class ).somethingOtherChanged( "v2" );
+
+		assertThat( threadNames ).hasSize( 2 ).allMatch( name -> name.startsWith( "mockobor-event-thread-" ) );
+	}
+
+	@Test
+	void invokeLater_over_notifierFor() {
+		List<Object> received = Collections.synchronizedList( new ArrayList<>() );
+		mockedObservable.addMyAnotherListener( received::add );
+
+		MyAnotherListener laterNotifier = eventThread.notifierFor( notifier, MyAnotherListener.class );
+		for( int i = 0; i < 10; i++ ) laterNotifier.somethingOtherChanged( i );
+		eventThread.invokeAndWait( () -> {} ); // barrier: all previous tasks are done
+
+		assertThat( received ).containsExactly( 0, 1, 2, 3, 4, 5, 6, 7, 8, 9 );
+	}
+
+	@Test
+	void exceptions_of_listeners() {
+		mockedObservable.addMyAnotherListener( v -> {
+			throw new IllegalStateException( "failed " + v );
+		} );
+		notifier.setEventDispatchThread( eventThread );
+
+		// invokeAndWait: rethrown in the calling thread (like without event thread)
+		assertThatThrownBy( () -> ( (MyAnotherListener) notifier ).somethingOtherChanged( "v1" ) )
+				.hasStackTraceContaining( "IllegalStateException: failed v1" );
+
+		// invokeLater: collected
+		eventThread.notifierFor( notifier, MyAnotherListener.class ).somethingOtherChanged( "v2" );
+		eventThread.invokeAndWait( () -> {} );
+		assertThat( eventThread.getUncaughtFailures() ).singleElement()
+		                                               .satisfies( e -> assertThat( e ).hasStackTraceContaining( "IllegalStateException: failed v2" ) );
+	}
+
+	@Test
+	void statistics() {
+		mockedObservable.addMyAnotherListener( v -> sleep( 5 ) );
+
+		MyAnotherListener laterNotifier = eventThread.notifierFor( notifier, MyAnotherListener.class );
+		for( int i = 0; i < 5; i++ ) laterNotifier.somethingOtherChanged( i );
+		eventThread.invokeAndWait( () -> {} );
+
+		EventDispatchThread.Statistics statistics = eventThread.getStatistics();
+		assertThat( statistics.getQueueDepth() ).isZero();
+		assertThat( statistics.getMaxQueueDepth() ).isGreaterThan( 1 );
+		assertThat( statistics.getDispatchedTasks() ).isEqualTo( 6 );
+		assertThat( statistics.getFailedTasks() ).isZero();
+		assertThat( statistics.getMaxLatency() ).isGreaterThanOrEqualTo( statistics.getAverageLatency() )
+		                                        .isGreaterThan( Duration.ZERO );
+	}
+
+	@Test
+	void concurrent_producers_keep_their_order() throws InterruptedException {
+		int producers = 4;
+		int notificationsPerProducer = 500;
+		List<Object> received = new ArrayList<>(); // accessed by the event thread only
+		mockedObservable.addMyAnotherListener( received::add );
+		notifier.setEventDispatchThread( eventThread );
+
+		List<Thread> threads = new ArrayList<>();
+		for( int p = 0; p < producers; p++ ) {
+			int producer = p;
+			threads.add( new Thread( () -> {
+				MyAnotherListener laterNotifier = eventThread.notifierFor( notifier, MyAnotherListener.class );
+				for( int i = 0; i < notificationsPerProducer; i++ ) {
+					if( i % 2 == 0 ) laterNotifier.somethingOtherChanged( producer + ":" + i );
+					else ( (MyAnotherListener) notifier ).somethingOtherChanged( producer + ":" + i );
+				}
+			} ) );
+		}
+		for( Thread thread : threads ) thread.start();
+		for( Thread thread : threads ) thread.join();
+		List<Object> receivedCopy = eventThread.callAndWait( () -> new ArrayList<>( received ) );
+
+		assertThat( receivedCopy ).hasSize( producers * notificationsPerProducer );
+		for( int p = 0; p < producers; p++ ) {
+			String prefix = p + ":";
+			List<Object> expected = new ArrayList<>();
+			for( int i = 0; i < notificationsPerProducer; i++ ) expected.add( prefix + i );
+			assertThat( receivedCopy ).filteredOn( v -> ( (String) v ).startsWith( prefix ) ).containsExactlyElementsOf( expected );
+		}
+	}
+
+	@Test
+	void closed_event_thread_rejects_tasks() {
+		List<Object> received = Collections.synchronizedList( new ArrayList<>() );
+		mockedObservable.addMyAnotherListener( received::add );
+		eventThread.notifierFor( notifier, MyAnotherListener.class ).somethingOtherChanged( "v1" );
+
+		eventThread.close();
+
+		assertThat( received ).as( "submitted tasks are executed before close" ).containsExactly( "v1" );
+		assertThatThrownBy( () -> eventThread.invokeLater( () -> {} ) ).isInstanceOf( MockoborException.class ).hasMessageContaining( "closed" );
+		notifier.setEventDispatchThread( eventThread );
+		assertThatThrownBy( () -> ( (MyAnotherListener) notifier ).somethingOtherChanged( "v2" ) ).isInstanceOf( MockoborException.class );
+	}
+
+
+	private static void sleep( long millis ) {
+		try {
+			Thread.sleep( millis );
+		}
+		catch( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
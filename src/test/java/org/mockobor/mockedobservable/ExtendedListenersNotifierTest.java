@@ -0,0 +1,89 @@
+package org.mockobor.mockedobservable;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.junit.jupiter.api.Test;
+import org.mockobor.Mockobor;
+import org.mockobor.exceptions.UnregisteredListenersFoundException;
+import org.mockobor.listener_detectors.ListenerSelector;
+
+import java.util.Collection;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+
+/** Optional features are implemented by notifiers created by Mockobor, external implementations need only {@link ListenersNotifier}. */
+class ExtendedListenersNotifierTest {
+
+	@Test
+	void created_notifiers_support_optional_features() {
+		ListenersNotifier notifier = Mockobor.createNotifierFor( mock( MockedObservable.class ) );
+
+		assertThat( notifier ).isInstanceOf( ExtendedListenersNotifier.class );
+	}
+
+	@Test
+	void basic_notifiers_can_be_checked_for_unregistered_listeners() {
+		ListenersNotifier notifier = new BasicNotifier();
+
+		assertThatThrownBy( () -> Mockobor.assertThatAllListenersAreUnregistered( notifier ) )
+				.isInstanceOf( UnregisteredListenersFoundException.class )
+				.hasMessage( "Found not unregistered listeners by:\n\t" + notifier );
+	}
+
+
+	private static class BasicNotifier implements ListenersNotifier {
+
+		@Override
+		public @NonNull <L> L notifierFor( @NonNull Class<L> listenerClass, @NonNull ListenerSelector... selectors ) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void setStrictCheckListenerList( boolean strict ) {
+			// nothing to do
+		}
+
+		@Override
+		public @NonNull Object getObservableMock() {
+			return this;
+		}
+
+		@Override
+		public int numberOfListenerRegistrations() {
+			return 0;
+		}
+
+		@Override
+		public int numberOfListenerDeregistrations() {
+			return 0;
+		}
+
+		@Override
+		public int numberOfRegisteredListeners() {
+			return 0;
+		}
+
+		@Override
+		public @NonNull Collection<Object> getAllListeners() {
+			return Collections.emptyList();
+		}
+
+		@Override
+		public @NonNull <L> Collection<L> getListeners( @NonNull Class<L> listenerClass ) {
+			return Collections.emptyList();
+		}
+
+		@Override
+		public @NonNull <L> Collection<L> getListeners( @NonNull Class<L> listenerClass, @NonNull ListenerSelector... selectors ) {
+			return Collections.emptyList();
+		}
+
+		@Override
+		public @NonNull Collection<ListenerKey<?>> getListenersWithSelector() {
+			return Collections.emptyList();
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package org.mockobor.mockedobservable;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockobor.Mockobor;
+import org.mockobor.mockedobservable.MockedObservable.MyAnotherListener;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+
+class FlightRecorderEventsTest {
+
+	@TempDir
+	Path tempDir;
+
+
+	@Test
+	void events_are_recorded() throws IOException {
+		MockedObservable mockedObservable = mock( MockedObservable.class );
+		MyAnotherListener anotherListener = v -> {};
+		PropertyChangeListener propertyChangeListener = evt -> {};
+
+		List<RecordedEvent> events;
+		try( Recording recording = new Recording() ) {
+			recording.enable( "org.mockobor.NotifierCreated" );
+			recording.enable( "org.mockobor.ListenerRegistered" );
+			recording.enable( "org.mockobor.ListenerDeregistered" );
+			recording.enable( "org.mockobor.NotificationDispatched" );
+			recording.start();
+			assertThat( FlightRecorderEvents.isRecording() ).isTrue();
+
+			ListenersNotifier notifier = Mockobor.createNotifierFor( mockedObservable );
+			mockedObservable.addMyAnotherListener( anotherListener );
+			mockedObservable.addPropertyChangeListener( propertyChangeListener );
+			( (MyAnotherListener) notifier ).somethingOtherChanged( "v1" );
+			( (PropertyChangeNotifier) notifier ).firePropertyChange( null, null, "v2" );
+			mockedObservable.removeMyAnotherListener( anotherListener );
+
+			recording.stop();
+			Path file = tempDir.resolve( "mockobor.jfr" );
+			recording.dump( file );
+			events = RecordingFile.readAllEvents( file );
+		}
+		assertThat( FlightRecorderEvents.isRecording() ).isFalse();
+
+		assertThat( ofType( events, "org.mockobor.NotifierCreated" ) ).singleElement().satisfies( e -> {
+			assertThat( e.getClass( "observableClass" ).getName() ).contains( MockedObservable.class.getSimpleName() );
+			assertThat( e.getInt( "listenerDefinitions" ) ).isPositive();
+			assertThat( e.getDuration( "detectionDuration" ).plus( e.getDuration( "stubbingDuration" ) ).plus( e.getDuration( "proxyDuration" ) ) )
+					.isLessThanOrEqualTo( e.getDuration() );
+		} );
+		assertThat( ofType( events, "org.mockobor.ListenerRegistered" ) )
+				.extracting( e -> e.getClass( "listenerClass" ).getName() )
+				.containsExactly( MyAnotherListener.class.getName(), PropertyChangeListener.class.getName() );
+		assertThat( ofType( events, "org.mockobor.ListenerDeregistered" ) )
+				.extracting( e -> e.getClass( "listenerClass" ).getName() )
+				.containsExactly( MyAnotherListener.class.getName() );
+		assertThat( ofType( events, "org.mockobor.NotificationDispatched" ) )
+				.extracting( e -> e.getClass( "listenerClass" ).getName() + "." + e.getString( "method" ) + ":" + e.getInt( "listeners" ) )
+				.containsExactly( MyAnotherListener.class.getName() + ".somethingOtherChanged:1",
+				                  PropertyChangeListener.class.getName() + ".propertyChange:1" );
+	}
+
+	@Test
+	void no_events_without_recording() {
+		assertThat( FlightRecorderEvents.isRecording() ).isFalse();
+
+		MockedObservable mockedObservable = mock( MockedObservable.class );
+		ListenersNotifier notifier = Mockobor.createNotifierFor( mockedObservable );
+		List<PropertyChangeEvent> received = new ArrayList<>();
+		mockedObservable.addPropertyChangeListener( received::add );
+
+		( (PropertyChangeNotifier) notifier ).firePropertyChange( "p", 1, 2 );
+		assertThat( received ).singleElement().extracting( PropertyChangeEvent::getNewValue ).isEqualTo( 2 );
+	}
+
+
+	private static List<RecordedEvent> ofType( List<RecordedEvent> events, String name ) {
+		return events.stream().filter( e -> e.getEventType().getName().equals( name ) ).collect( Collectors.toList() );
+	}
+}
@@ -0,0 +1,64 @@
+package org.mockobor.mockedobservable;
+
+import org.junit.jupiter.api.Test;
+import org.mockobor.exceptions.MockoborIllegalArgumentException;
+
+import static org.assertj.core.api.Assertions.*;
+
+
+class LatencyHistogramTest {
+
+	private final LatencyHistogram histogram = new LatencyHistogram();
+
+
+	@Test
+	void empty_histogram() {
+		assertThat( histogram.getTotalCount() ).isZero();
+		assertThat( histogram.getMin() ).isZero();
+		assertThat( histogram.getMax() ).isZero();
+		assertThat( histogram.getMean() ).isZero();
+		assertThat( histogram.getValueAtPercentile( 99 ) ).isZero();
+	}
+
+	@Test
+	void small_values_are_exact() {
+		for( long v = 1; v <= 10; v++ ) histogram.record( v );
+
+		assertThat( histogram.getTotalCount() ).isEqualTo( 10 );
+		assertThat( histogram.getMin() ).isEqualTo( 1 );
+		assertThat( histogram.getMax() ).isEqualTo( 10 );
+		assertThat( histogram.getMean() ).isEqualTo( 5.5 );
+		assertThat( histogram.getValueAtPercentile( 50 ) ).isEqualTo( 5 );
+		assertThat( histogram.getValueAtPercentile( 100 ) ).isEqualTo( 10 );
+	}
+
+	@Test
+	void percentiles_within_relative_error() {
+		for( long v = 1; v <= 100_000; v++ ) histogram.record( v * 1_000 ); // 1us .. 100ms
+
+		assertThat( histogram.getValueAtPercentile( 50 ) ).isCloseTo( 50_000_000L, within( 3_200_000L ) );
+		assertThat( histogram.getValueAtPercentile( 99 ) ).isCloseTo( 99_000_000L, within( 3_200_000L ) );
+		assertThat( histogram.getValueAtPercentile( 99.9 ) ).isCloseTo( 99_900_000L, within( 3_200_000L ) );
+		assertThat( histogram.getValueAtPercentile( 100 ) ).isEqualTo( 100_000_000L );
+	}
+
+	@Test
+	void bucket_boundaries_cover_whole_range() {
+		for( long value : new long[]{ 0, 63, 64, 65, 127, 128, 1L << 40, Long.MAX_VALUE } ) {
+			int index = LatencyHistogram.bucketIndex( value );
+			assertThat( LatencyHistogram.highestValueOf( index ) ).as( "highest value of bucket of %d", value ).isGreaterThanOrEqualTo( value );
+			if( index > 0 ) {
+				assertThat( LatencyHistogram.highestValueOf( index - 1 ) ).as( "previous bucket of %d", value ).isLessThan( value );
+			}
+		}
+		histogram.record( Long.MAX_VALUE );
+		histogram.record( -5 );
+		assertThat( histogram.getMin() ).isZero();
+		assertThat( histogram.getValueAtPercentile( 100 ) ).isEqualTo( Long.MAX_VALUE );
+	}
+
+	@Test
+	void invalid_percentile() {
+		assertThatThrownBy( () -> histogram.getValueAtPercentile( 101 ) ).isInstanceOf( MockoborIllegalArgumentException.class );
+	}
+}
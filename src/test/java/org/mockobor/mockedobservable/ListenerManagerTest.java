@@ -12,6 +12,9 @@ import org.mockobor.mockedobservable.TestedObserver.InvocationDef;
 import org.mockobor.mockedobservable.TestedObserver.MyAnotherListenerImpl;
 import org.mockobor.mockedobservable.TestedObserver.MyListenerImpl;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.mock;
 import static org.mockobor.listener_detectors.ListenerSelector.selector;
@@ -91,6 +94,26 @@ class ListenerManagerTest {
 			assertThat( listenerManager.getListeners( MyListener.class, selector( "x" ) ) ).containsExactly( listener_v_selector );
 		}
 
+		@Test
+		void concurrent_add_and_remove_with_same_selector() throws InterruptedException {
+			List<Thread> threads = new ArrayList<>();
+			for( int t = 0; t < 8; t++ ) {
+				threads.add( new Thread( () -> {
+					List<MyListener> added = new ArrayList<>();
+					for( int i = 0; i < 500; i++ ) {
+						MyListenerImpl listener = new MyListenerImpl();
+						listenerManager.addListener( selector( "concurrent" ), MyListener.class, listener );
+						if( i % 2 == 0 ) added.add( listener );
+					}
+					added.forEach( l -> listenerManager.removeListener( selector( "concurrent" ), MyListener.class, l ) );
+				} ) );
+			}
+			threads.forEach( Thread::start );
+			for( Thread thread : threads ) thread.join();
+
+			assertThat( listenerManager.getListeners( MyListener.class, selector( "concurrent" ) ) ).as( "no lost updates" ).hasSize( 8 * 250 );
+		}
+
 		@Test
 		void removeListener() {
 			listenerManager.removeListener( selector(), MyListener.class, listener_no_selector );
@@ -190,6 +213,14 @@ class ListenerManagerTest {
 			assertThat( listener_v_selector.getInvocations() ).hasSize( 1 );
 		}
 
+		@Test
+		void listeners_found_in_order_of_selectors() {
+			assertThat( listenerManager.getListeners( MyListener.class, selector( "v1", "v2" ), selector( "v" ), selector(), selector( "v" ) ) )
+					.containsExactly( listener_v1_v2_selector, listener_v_selector, listener_no_selector );
+			assertThat( listenerManager.getListeners( MyListener.class, selector(), selector( "v" ) ) )
+					.containsExactly( listener_no_selector, listener_v_selector );
+		}
+
 		@Test
 		void notifyListeners_return_value_if_notify_multi_selectors() {
 			listenerManager.notifierFor( MyListener.class, selector(), selector( "v" ), selector() ).somethingChanged2( "something" );
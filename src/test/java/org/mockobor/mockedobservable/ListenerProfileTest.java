@@ -0,0 +1,94 @@
+package org.mockobor.mockedobservable;
+
+import org.junit.jupiter.api.Test;
+import org.mockobor.Mockobor;
+import org.mockobor.mockedobservable.MockedObservable.MyAnotherListener;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assumptions.assumeThat;
+import static org.mockito.Mockito.mock;
+
+
+class ListenerProfileTest {
+
+	private final MockedObservable mockedObservable = mock( MockedObservable.class );
+
+	private final ExtendedListenersNotifier notifier = (ExtendedListenersNotifier) Mockobor.createNotifierFor( mockedObservable );
+
+
+	@Test
+	void profile_sorted_by_cost() {
+		mockedObservable.addPropertyChangeListener( new CheapListener() );
+		mockedObservable.addPropertyChangeListener( new AllocatingListener() );
+		mockedObservable.addPropertyChangeListener( new BurningListener() );
+		notifier.setProfiling( true );
+
+		for( int i = 0; i < 20; i++ ) ( (PropertyChangeNotifier) notifier ).firePropertyChange( "p", i, i + 1 );
+
+		ListenerProfile profile = notifier.profile();
+		assertThat( profile.getEntries() ).hasSize( 3 ).allSatisfy( entry -> {
+			assertThat( entry.getMethod() ).isEqualTo( "propertyChange" );
+			assertThat( entry.getInvocations() ).isEqualTo( 20 );
+		} );
+		assertThat( profile.getEntry( BurningListener.class, "propertyChange" ).getWallTime() )
+				.isGreaterThan( profile.getEntry( CheapListener.class, "propertyChange" ).getWallTime() );
+		assertThat( profile.toString() ).contains( BurningListener.class.getName() + ".propertyChange: invocations=20" );
+
+		assumeThat( profile.isCpuTimeMeasured() && profile.isAllocationMeasured() ).isTrue();
+		assertThat( profile.getEntries().get( 0 ).getListenerClass() ).isEqualTo( BurningListener.class );
+		assertThat( profile.getEntriesByAllocatedBytes().get( 0 ) ).satisfies( entry -> {
+			assertThat( entry.getListenerClass() ).isEqualTo( AllocatingListener.class );
+			assertThat( entry.getAverageAllocatedBytes() ).isGreaterThanOrEqualTo( 100_000 );
+		} );
+	}
+
+	@Test
+	void profiling_on_and_off() {
+		mockedObservable.addMyAnotherListener( v -> {} );
+		MyAnotherListener anotherNotifier = notifier.notifierFor( MyAnotherListener.class );
+		assertThat( notifier.profile().getEntries() ).as( "profiling was never switched on" ).isEmpty();
+
+		notifier.setProfiling( true );
+		for( int i = 0; i < 5; i++ ) anotherNotifier.somethingOtherChanged( i );
+		notifier.setProfiling( false );
+		anotherNotifier.somethingOtherChanged( "not profiled" );
+
+		assertThat( notifier.profile().getEntries() ).singleElement().satisfies( entry -> {
+			assertThat( entry.getMethod() ).isEqualTo( "somethingOtherChanged" );
+			assertThat( entry.getInvocations() ).isEqualTo( 5 );
+		} );
+
+		notifier.setProfiling( true );
+		assertThat( notifier.profile().getEntries() ).as( "new profile" ).isEmpty();
+	}
+
+
+	private static volatile Object blackhole;
+
+	private static class CheapListener implements PropertyChangeListener {
+		@Override
+		public void propertyChange( PropertyChangeEvent evt ) {
+			blackhole = evt;
+		}
+	}
+
+	private static class AllocatingListener implements PropertyChangeListener {
+		@Override
+		public void propertyChange( PropertyChangeEvent evt ) {
+			blackhole = new byte[100_000];
+		}
+	}
+
+	private static class BurningListener implements PropertyChangeListener {
+		@Override
+		public void propertyChange( PropertyChangeEvent evt ) {
+			long end = System.nanoTime() + 2_000_000;
+			long counter = 0;
+			while( System.nanoTime() < end ) counter++;
+			blackhole = counter;
+		}
+	}
+}
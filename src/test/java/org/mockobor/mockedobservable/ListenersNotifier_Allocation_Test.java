@@ -0,0 +1,86 @@
+package org.mockobor.mockedobservable;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockobor.Mockobor;
+import org.mockobor.mockedobservable.MockedObservable.MyAnotherListener;
+import org.mockobor.utils.AllocationMeter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+
+/**
+ * Allocation budgets of hot notification paths in steady state (after warm-up).
+ * <p>
+ * Budgets contain allocations, which can not be avoided, plus a small reserve:
+ * arguments array created by the proxy for each call (24 bytes for one argument) and event objects.
+ */
+class ListenersNotifier_Allocation_Test {
+
+	/** Arguments array of the listener proxy. */
+	private static final long NOTIFIER_FOR_PROXY_BUDGET = 48;
+
+	/** New {@code notifierFor}-proxy (proxy, invocation handler, found listeners) plus arguments array. */
+	private static final long NOTIFIER_FOR_WITH_DISPATCH_BUDGET = 384;
+
+	/** Arguments array of the notifier proxy and the event. */
+	private static final long FIRE_PROPERTY_CHANGE_BUDGET = 96;
+
+	/** Arguments array of the notifier proxy and the notification capturing the observable. */
+	private static final long NOTIFY_OBSERVERS_BUDGET = 64;
+
+
+	private final MockedObservable mockedObservable = mock( MockedObservable.class );
+
+	private final ListenersNotifier notifier = Mockobor.createNotifierFor( mockedObservable );
+
+	private final AtomicInteger received = new AtomicInteger();
+
+	private final Object argument = "value";
+
+
+	@SuppressWarnings( "deprecation" )
+	@BeforeEach
+	void registerListeners() {
+		AllocationMeter.assumeAllocationMeasurable();
+		mockedObservable.addMyAnotherListener( v -> received.incrementAndGet() );
+		mockedObservable.addPropertyChangeListener( evt -> received.incrementAndGet() );
+		mockedObservable.addObserver( ( o, arg ) -> received.incrementAndGet() );
+	}
+
+
+	@Test
+	void dispatch_over_notifierFor_proxy() {
+		MyAnotherListener listenerNotifier = notifier.notifierFor( MyAnotherListener.class );
+
+		AllocationMeter.assertAllocatesAtMost( NOTIFIER_FOR_PROXY_BUDGET, () -> listenerNotifier.somethingOtherChanged( argument ) );
+		assertThat( received ).hasPositiveValue();
+	}
+
+	@Test
+	void notifierFor_and_dispatch() {
+		AllocationMeter.assertAllocatesAtMost( NOTIFIER_FOR_WITH_DISPATCH_BUDGET,
+		                                       () -> notifier.notifierFor( MyAnotherListener.class ).somethingOtherChanged( argument ) );
+		assertThat( received ).hasPositiveValue();
+	}
+
+	@Test
+	void firePropertyChange() {
+		PropertyChangeNotifier propertyChangeNotifier = (PropertyChangeNotifier) notifier;
+		Object oldValue = "old";
+
+		AllocationMeter.assertAllocatesAtMost( FIRE_PROPERTY_CHANGE_BUDGET, () -> propertyChangeNotifier.firePropertyChange( "prop", oldValue, argument ) );
+		assertThat( received ).hasPositiveValue();
+	}
+
+	@Test
+	void notifyObservers() {
+		ObservableNotifier observableNotifier = (ObservableNotifier) notifier;
+
+		AllocationMeter.assertAllocatesAtMost( NOTIFY_OBSERVERS_BUDGET, () -> observableNotifier.notifyObservers( argument ) );
+		assertThat( received ).hasPositiveValue();
+	}
+}
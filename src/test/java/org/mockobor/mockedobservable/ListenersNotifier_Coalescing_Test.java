@@ -0,0 +1,159 @@
+package org.mockobor.mockedobservable;
+
+import org.junit.jupiter.api.Test;
+import org.mockobor.Mockobor;
+import org.mockobor.exceptions.ListenersNotFoundException;
+import org.mockobor.mockedobservable.MockedObservable.MyListener;
+import org.mockobor.mockedobservable.UsageExample_BeanPropertyChange_Test.ObservableBean;
+
+import java.beans.IndexedPropertyChangeEvent;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.mockobor.listener_detectors.ListenerSelector.selector;
+
+
+class ListenersNotifier_Coalescing_Test {
+
+	private final ObservableBean observableBean = mock( ObservableBean.class );
+
+	private final PropertyChangeNotifier    notifier         = (PropertyChangeNotifier) Mockobor.createNotifierFor( observableBean );
+	private final ExtendedListenersNotifier extendedNotifier = (ExtendedListenersNotifier) notifier;
+
+	private final List<PropertyChangeEvent> events = new ArrayList<>();
+
+
+	@Test
+	void burst_of_property_changes_merged_per_property() {
+		observableBean.addPropertyChangeListener( events::add );
+
+		int sent = extendedNotifier.coalesceNotifications( () -> {
+			for( int i = 1; i <= 1000; i++ ) {
+				notifier.setProperty( "price", 100.0 + i );
+				notifier.firePropertyChange( "volume", i - 1, i );
+			}
+		} );
+
+		assertThat( sent ).isEqualTo( 2 );
+		assertThat( events ).extracting( PropertyChangeEvent::getPropertyName, PropertyChangeEvent::getOldValue, PropertyChangeEvent::getNewValue )
+		                    .containsExactly( tuple( "price", null, 1100.0 ), tuple( "volume", 0, 1000 ) );
+		assertThat( extendedNotifier.numberOfPendingNotifications() ).isZero();
+	}
+
+	@Test
+	void changes_canceling_each_other_out_are_not_sent() {
+		observableBean.addPropertyChangeListener( events::add );
+		extendedNotifier.setCoalesceNotifications( true );
+
+		notifier.firePropertyChange( "p", 1, 2 );
+		notifier.firePropertyChange( "p", 2, 1 );
+
+		assertThat( extendedNotifier.flushNotifications() ).isZero();
+		assertThat( events ).isEmpty();
+	}
+
+	@Test
+	void notifications_over_fire_methods_and_proxies_are_merged() {
+		observableBean.addPropertyChangeListener( events::add );
+
+		int sent = extendedNotifier.coalesceNotifications( () -> {
+			// the same selectors as used by firePropertyChange( "p", ... )
+			PropertyChangeListener proxy = notifier.notifierFor( PropertyChangeListener.class, selector(), selector( "p" ) );
+			notifier.firePropertyChange( "p", 1, 2 );
+			proxy.propertyChange( new PropertyChangeEvent( observableBean, "p", 2, 3 ) );
+			notifier.firePropertyChange( "p", 3, 4 );
+			proxy.propertyChange( new PropertyChangeEvent( observableBean, "p", 4, 5 ) );
+		} );
+
+		assertThat( sent ).isEqualTo( 1 );
+		assertThat( events ).extracting( PropertyChangeEvent::getOldValue, PropertyChangeEvent::getNewValue ).containsExactly( tuple( 1, 5 ) );
+	}
+
+	@Test
+	void batch_postpones_only_notifications_of_its_thread() {
+		observableBean.addPropertyChangeListener( events::add );
+
+		int sent = extendedNotifier.coalesceNotifications( () -> {
+			notifier.firePropertyChange( "p", 1, 2 );
+			Thread other = new Thread( () -> notifier.firePropertyChange( "other", 1, 2 ) );
+			other.start();
+			join( other );
+			assertThat( events ).extracting( PropertyChangeEvent::getPropertyName ).containsExactly( "other" );
+		} );
+
+		assertThat( sent ).isEqualTo( 1 );
+		assertThat( events ).extracting( PropertyChangeEvent::getPropertyName ).containsExactly( "other", "p" );
+	}
+
+	@Test
+	void indexed_events_stay_indexed() {
+		observableBean.addPropertyChangeListener( events::add );
+
+		extendedNotifier.coalesceNotifications( () -> {
+			notifier.fireIndexedPropertyChange( "p", 3, "a", "b" );
+			notifier.fireIndexedPropertyChange( "p", 3, "b", "c" );
+		} );
+
+		assertThat( events ).singleElement().isInstanceOf( IndexedPropertyChangeEvent.class )
+		                    .extracting( PropertyChangeEvent::getOldValue, PropertyChangeEvent::getNewValue ).containsExactly( "a", "c" );
+	}
+
+	@Test
+	void last_notification_of_other_listeners_wins() {
+		MockedObservable mockedObservable = mock( MockedObservable.class );
+		ExtendedListenersNotifier myNotifier = (ExtendedListenersNotifier) Mockobor.createNotifierFor( mockedObservable, Mockobor.notifierSettings().coalesceNotifications() );
+		MyListener listener = mock( MyListener.class );
+		mockedObservable.addMyListener( listener );
+
+		( (MyListener) myNotifier ).somethingChanged1( "v1" );
+		myNotifier.notifierFor( MyListener.class ).somethingChanged1( "v2" );
+		verifyNoInteractions( listener );
+
+		assertThat( myNotifier.flushNotifications() ).isEqualTo( 1 );
+		verify( listener ).somethingChanged1( "v2" );
+		verifyNoMoreInteractions( listener );
+	}
+
+	@Test
+	void pending_notifications_flushed_when_coalescing_switched_off() {
+		observableBean.addPropertyChangeListener( events::add );
+		extendedNotifier.setCoalesceNotifications( true );
+		notifier.firePropertyChange( "p", 1, 2 );
+		assertThat( events ).isEmpty();
+
+		extendedNotifier.setCoalesceNotifications( false );
+		assertThat( events ).hasSize( 1 );
+		notifier.firePropertyChange( "p", 2, 3 );
+		assertThat( events ).hasSize( 2 );
+	}
+
+	@Test
+	void notifications_sent_to_listeners_registered_at_flush() {
+		extendedNotifier.setCoalesceNotifications( true );
+		assertThatThrownBy( () -> notifier.firePropertyChange( "p", 1, 2 ) ).isInstanceOf( ListenersNotFoundException.class );
+
+		observableBean.addPropertyChangeListener( "p", events::add );
+		notifier.firePropertyChange( "p", 1, 2 );
+		List<PropertyChangeEvent> lateEvents = new ArrayList<>();
+		observableBean.addPropertyChangeListener( lateEvents::add );
+		extendedNotifier.flushNotifications();
+
+		assertThat( events ).hasSize( 1 );
+		assertThat( lateEvents ).hasSize( 1 );
+	}
+
+
+	private static void join( Thread thread ) {
+		try {
+			thread.join();
+		}
+		catch( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+			throw new AssertionError( e );
+		}
+	}
+}
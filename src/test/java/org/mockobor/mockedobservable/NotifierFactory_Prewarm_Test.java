@@ -0,0 +1,103 @@
+package org.mockobor.mockedobservable;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.junit.jupiter.api.Test;
+import org.mockobor.Mockobor;
+import org.mockobor.exceptions.ListenerRegistrationMethodsNotDetectedException;
+import org.mockobor.listener_detectors.ListenerDefinition.ListenerDefinitionImpl;
+import org.mockobor.listener_detectors.ListenerDetectorsRegistryImpl;
+import org.mockobor.listener_detectors.TypicalJavaListenerDetector;
+import org.mockobor.mockedobservable.MockedObservable.MyListener;
+import org.mockobor.mockedobservable.PrewarmReport.TypeReport;
+import org.mockobor.mockedobservable.detection_cache.DetectionCache;
+import org.mockobor.mockedobservable.mocking_tools.MockingToolsRegistryImpl;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+
+class NotifierFactory_Prewarm_Test {
+
+	private final CountingDetector detector = new CountingDetector();
+
+	private final NotifierFactory factory = createFactory( detector );
+
+
+	@Test
+	void created_notifier_uses_prewarmed_detection() throws Exception {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			PrewarmReport report = factory.prewarm( Collections.singletonList( MockedObservable.class ),
+			                                        NotifierSettingsImpl.createDefaultSettings(), executor )
+			                              .get();
+
+			assertThat( report.hasFailures() ).isFalse();
+			assertThat( report.getTypeReports() ).extracting( TypeReport::getObservableType ).containsExactly( MockedObservable.class );
+			assertThat( detector.detectionCount ).isEqualTo( 1 );
+		}
+		finally {
+			executor.shutdown();
+		}
+
+		MockedObservable mockedObservable = mock( MockedObservable.class );
+		ListenersNotifier notifier = factory.create( mockedObservable, NotifierSettingsImpl.createDefaultSettings() );
+		assertThat( detector.detectionCount ).as( "detection is not repeated for the mock" ).isEqualTo( 1 );
+
+		MyListener listener = mock( MyListener.class );
+		mockedObservable.addMyListener( listener );
+		( (MyListener) notifier ).somethingChanged1( "v1" );
+		verify( listener ).somethingChanged1( "v1" );
+	}
+
+	@Test
+	void failures_are_reported_per_type() {
+		PrewarmReport report = factory.prewarm( Arrays.asList( Runnable.class, MockedObservable.class ),
+		                                        NotifierSettingsImpl.createDefaultSettings(), Runnable::run )
+		                              .join();
+
+		assertThat( report.hasFailures() ).isTrue();
+		TypeReport failed = report.getTypeReport( Runnable.class );
+		assertThat( failed ).isNotNull();
+		assertThat( failed.getFailure() ).isInstanceOf( ListenerRegistrationMethodsNotDetectedException.class );
+		TypeReport prepared = report.getTypeReport( MockedObservable.class );
+		assertThat( prepared ).isNotNull();
+		assertThat( prepared.getFailure() ).isNull();
+		assertThat( report.toString() ).contains( "2 types", Runnable.class.getName() + ": ", "failed", MockedObservable.class.getName() + ": " );
+	}
+
+	@Test
+	void mockobor_prewarm() {
+		PrewarmReport report = Mockobor.prewarm( MockedObservable.class ).join();
+
+		assertThat( report.hasFailures() ).isFalse();
+		assertThat( report.getTotalTime() ).isGreaterThanOrEqualTo( report.getTypeReports().get( 0 ).getTotalTime() );
+		assertThat( Mockobor.createNotifierFor( mock( MockedObservable.class ) ) ).isInstanceOf( MyListener.class );
+	}
+
+
+	private static @NonNull NotifierFactory createFactory( @NonNull CountingDetector detector ) {
+		ListenerDetectorsRegistryImpl registry = new ListenerDetectorsRegistryImpl();
+		registry.registerListenerDefinitionDetector( detector );
+		return new NotifierFactory( registry, new MockingToolsRegistryImpl(), new DetectionCache() );
+	}
+
+
+	private static class CountingDetector extends TypicalJavaListenerDetector {
+
+		private volatile int detectionCount;
+
+		@Override
+		protected @NonNull ListenerDefinitionImpl detectRegistrations( @NonNull Collection<Method> methods ) {
+			detectionCount++;
+			return super.detectRegistrations( methods );
+		}
+	}
+}
@@ -0,0 +1,128 @@
+package org.mockobor.mockedobservable;
+
+import org.junit.jupiter.api.Test;
+import org.mockobor.Mockobor;
+import org.mockobor.mockedobservable.MockedObservable.MyAnotherListener;
+import org.mockobor.mockedobservable.MockedObservable.MyListener;
+import org.mockobor.mockedobservable.RecordingNotifierMetrics.MethodMetrics;
+import org.mockobor.mockedobservable.RecordingNotifierMetrics.SelectorMetrics;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockobor.listener_detectors.ListenerSelector.selector;
+
+
+class NotifierMetricsTest {
+
+	private final MockedObservable mockedObservable = mock( MockedObservable.class );
+
+	private final ExtendedListenersNotifier notifier = (ExtendedListenersNotifier) Mockobor.createNotifierFor( mockedObservable );
+
+	private final RecordingNotifierMetrics metrics = new RecordingNotifierMetrics();
+
+
+	@Test
+	void metrics_are_disabled_by_default() {
+		assertThat( notifier.getMetrics() ).isSameAs( NotifierMetrics.noop() );
+		assertThat( notifier.getMetrics().isEnabled() ).isFalse();
+
+		notifier.setMetrics( metrics );
+		assertThat( notifier.getMetrics() ).isSameAs( metrics );
+
+		notifier.setMetrics( null );
+		assertThat( notifier.getMetrics() ).isSameAs( NotifierMetrics.noop() );
+	}
+
+	@Test
+	void dispatches_and_listener_invocations_over_notifierFor() {
+		notifier.setMetrics( metrics );
+		List<Object> received = new ArrayList<>();
+		mockedObservable.addMyAnotherListener( received::add );
+		mockedObservable.addMyAnotherListener( received::add );
+
+		for( int i = 0; i < 5; i++ ) ( (MyAnotherListener) notifier ).somethingOtherChanged( i );
+
+		MethodMetrics methodMetrics = metrics.getMethodMetrics( MyAnotherListener.class, "somethingOtherChanged" );
+		assertThat( methodMetrics ).isNotNull();
+		assertThat( methodMetrics.getDispatchCount() ).isEqualTo( 5 );
+		assertThat( methodMetrics.getNotifiedListenersCount() ).isEqualTo( 10 );
+		assertThat( methodMetrics.getMaxListenersPerDispatch() ).isEqualTo( 2 );
+		assertThat( methodMetrics.getAverageListenersPerDispatch() ).isEqualTo( 2.0 );
+		assertThat( methodMetrics.getLatencies().getTotalCount() ).isEqualTo( 10 );
+		assertThat( methodMetrics.getLatencies().getMax() ).isGreaterThanOrEqualTo( methodMetrics.getLatencies().getMin() );
+		assertThat( received ).hasSize( 10 );
+	}
+
+	@Test
+	void fast_path_notifications_are_measured_too() {
+		notifier.setMetrics( metrics );
+		mockedObservable.addPropertyChangeListener( evt -> {} );
+		mockedObservable.addPropertyChangeListener( "prop", evt -> {} );
+
+		( (PropertyChangeNotifier) notifier ).firePropertyChange( "prop", 1, 2 );
+		( (PropertyChangeNotifier) notifier ).firePropertyChange( new PropertyChangeEvent( mockedObservable, "other", 1, 2 ) );
+
+		MethodMetrics methodMetrics = metrics.getMethodMetrics( PropertyChangeListener.class, "propertyChange" );
+		assertThat( methodMetrics ).isNotNull();
+		assertThat( methodMetrics.getDispatchCount() ).isEqualTo( 2 );
+		assertThat( methodMetrics.getNotifiedListenersCount() ).isEqualTo( 3 );
+		assertThat( methodMetrics.getLatencies().getTotalCount() ).isEqualTo( 3 );
+		assertThat( metrics.toString() ).contains( "PropertyChangeListener.propertyChange: dispatches=2" );
+	}
+
+	@Test
+	void dispatch_is_reported_after_listeners_on_both_paths() {
+		notifier.setMetrics( metrics );
+		IllegalStateException failure = new IllegalStateException( "listener failed" );
+		mockedObservable.addPropertyChangeListener( evt -> { throw failure; } );
+		PropertyChangeEvent event = new PropertyChangeEvent( mockedObservable, "prop", 1, 2 );
+
+		assertThatThrownBy( () -> ( (PropertyChangeNotifier) notifier ).firePropertyChange( event ) ).isSameAs( failure );
+		assertThatThrownBy( () -> notifier.notifierFor( PropertyChangeListener.class ).propertyChange( event ) ).isSameAs( failure );
+
+		MethodMetrics methodMetrics = metrics.getMethodMetrics( PropertyChangeListener.class, "propertyChange" );
+		assertThat( methodMetrics == null || methodMetrics.getDispatchCount() == 0 ).as( "failed dispatches are not reported" ).isTrue();
+	}
+
+	@Test
+	void flushed_notifications_keep_method_names() {
+		notifier.setMetrics( metrics );
+		mockedObservable.addMyListener( mock( MyListener.class ) );
+
+		notifier.coalesceNotifications( () -> notifier.notifierFor( MyListener.class ).somethingChanged1( "v" ) );
+
+		MethodMetrics methodMetrics = metrics.getMethodMetrics( MyListener.class, "somethingChanged1" );
+		assertThat( methodMetrics ).isNotNull();
+		assertThat( methodMetrics.getDispatchCount() ).isEqualTo( 1 );
+		assertThat( metrics.getMethodMetrics( MyListener.class, "notification" ) ).isNull();
+	}
+
+	@Test
+	void registrations_per_selector() {
+		notifier.setMetrics( metrics );
+		PropertyChangeListener listener = evt -> {};
+
+		mockedObservable.addPropertyChangeListener( listener );
+		mockedObservable.addPropertyChangeListener( "prop", listener );
+		mockedObservable.addPropertyChangeListener( "prop", evt -> {} );
+		mockedObservable.removePropertyChangeListener( "prop", listener );
+
+		SelectorMetrics propSelector = metrics.getSelectorMetrics( selector( "prop" ) );
+		assertThat( propSelector ).isNotNull();
+		assertThat( propSelector.getRegistrations() ).isEqualTo( 2 );
+		assertThat( propSelector.getDeregistrations() ).isEqualTo( 1 );
+		assertThat( propSelector.getRegistrationRate() ).isPositive();
+		assertThat( metrics.getSelectorMetrics( selector() ) ).extracting( SelectorMetrics::getRegistrations ).isEqualTo( 1L );
+		assertThat( metrics.getAllSelectorMetrics() ).hasSize( 2 );
+
+		// the existing counters are still maintained
+		assertThat( notifier.numberOfListenerRegistrations() ).isEqualTo( 3 );
+		assertThat( notifier.numberOfListenerDeregistrations() ).isEqualTo( 1 );
+	}
+}
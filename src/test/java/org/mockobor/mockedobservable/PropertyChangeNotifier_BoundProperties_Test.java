@@ -0,0 +1,133 @@
+package org.mockobor.mockedobservable;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockobor.Mockobor;
+import org.mockobor.exceptions.MockoborIllegalArgumentException;
+import org.mockobor.mockedobservable.UsageExample_BeanPropertyChange_Test.ObservableBean;
+
+import java.beans.PropertyChangeEvent;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.assertj.core.api.Assumptions.assumeThat;
+import static org.mockito.Mockito.mock;
+
+
+class PropertyChangeNotifier_BoundProperties_Test {
+
+	private final ObservableBean observableBean = mock( ObservableBean.class );
+
+	private final PropertyChangeNotifier notifier = (PropertyChangeNotifier) Mockobor.createNotifierFor( observableBean );
+
+	private final List<PropertyChangeEvent> events = new ArrayList<>();
+
+
+	@BeforeEach
+	void registerListener() {
+		observableBean.addPropertyChangeListener( events::add );
+	}
+
+
+	@Test
+	void old_value_is_remembered() {
+		notifier.setProperty( "name", "a" );
+		notifier.setProperty( "name", "b" );
+		notifier.setProperty( "name", "b" );
+		notifier.setProperty( "name", null );
+		notifier.setProperty( "name", null );
+
+		assertThat( events ).extracting( PropertyChangeEvent::getPropertyName, PropertyChangeEvent::getOldValue, PropertyChangeEvent::getNewValue )
+		                    .containsExactly( tuple( "name", null, "a" ), tuple( "name", "a", "b" ), tuple( "name", "b", null ),
+		                                      tuple( "name", null, null ) );
+		assertThat( events ).extracting( PropertyChangeEvent::getSource ).containsOnly( observableBean );
+		assertThat( notifier.getProperty( "name" ) ).isNull();
+	}
+
+	@Test
+	void primitive_properties() {
+		notifier.setProperty( "int", 1 );
+		notifier.setProperty( "int", 1 );
+		notifier.setProperty( "int", 2 );
+		notifier.setProperty( "long", 1L );
+		notifier.setProperty( "long", 1L );
+		notifier.setProperty( "double", Double.NaN );
+		notifier.setProperty( "double", Double.NaN );
+		notifier.setProperty( "double", 1.5 );
+		notifier.setProperty( "boolean", true );
+		notifier.setProperty( "boolean", true );
+
+		assertThat( events ).extracting( PropertyChangeEvent::getPropertyName, PropertyChangeEvent::getOldValue, PropertyChangeEvent::getNewValue )
+		                    .containsExactly( tuple( "int", null, 1 ), tuple( "int", 1, 2 ),
+		                                      tuple( "long", null, 1L ),
+		                                      tuple( "double", null, Double.NaN ), tuple( "double", Double.NaN, 1.5 ),
+		                                      tuple( "boolean", null, true ) );
+		assertThat( notifier.getProperty( "int" ) ).isEqualTo( 2 );
+		assertThat( notifier.getProperty( "long" ) ).isEqualTo( 1L );
+		assertThat( notifier.getProperty( "double" ) ).isEqualTo( 1.5 );
+		assertThat( notifier.getProperty( "boolean" ) ).isEqualTo( true );
+		assertThat( notifier.getProperty( "unknown" ) ).isNull();
+	}
+
+	@Test
+	void equal_values_of_different_setters_are_not_changes() {
+		notifier.setProperty( "value", 5 );
+		notifier.setProperty( "value", Integer.valueOf( 5 ) );
+		notifier.setProperty( "value", 5 );
+		notifier.setProperty( "value", 5L );
+
+		assertThat( events ).extracting( PropertyChangeEvent::getOldValue, PropertyChangeEvent::getNewValue )
+		                    .containsExactly( tuple( null, 5 ), tuple( 5, 5L ) );
+	}
+
+	@Test
+	void properties_are_separated_by_notifiers() {
+		ObservableBean anotherBean = mock( ObservableBean.class );
+		PropertyChangeNotifier anotherNotifier = (PropertyChangeNotifier) Mockobor.createNotifierFor( anotherBean );
+		anotherBean.addPropertyChangeListener( events::add );
+
+		notifier.setProperty( "price", 100.0 );
+		anotherNotifier.setProperty( "price", 200.0 );
+		notifier.setProperty( "price", 101.0 );
+
+		assertThat( events ).extracting( PropertyChangeEvent::getOldValue ).containsExactly( null, null, 100.0 );
+		assertThat( anotherNotifier.getProperty( "price" ) ).isEqualTo( 200.0 );
+	}
+
+	@Test
+	void unchanged_primitive_values_allocate_nothing() {
+		java.lang.management.ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+		assumeThat( threadMXBean ).isInstanceOf( com.sun.management.ThreadMXBean.class );
+		com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadMXBean;
+		assumeThat( allocationBean.isThreadAllocatedMemorySupported() && allocationBean.isThreadAllocatedMemoryEnabled() ).isTrue();
+
+		ListenersManager listenersManager = new ListenersManager( observableBean );
+		listenersManager.setStrictCheckListenerList( false );
+		PropertyChangeNotificationDelegates.setProperty( listenersManager, "price", 1.5 );
+		PropertyChangeNotificationDelegates.setProperty( listenersManager, "volume", 1_000_000L );
+		PropertyChangeNotificationDelegates.setProperty( listenersManager, "trades", 1_000 );
+
+		int iterations = 100_000;
+		for( int i = 0; i < iterations; i++ ) setUnchangedValues( listenersManager ); // warm up
+
+		long threadId = Thread.currentThread().getId();
+		long before = allocationBean.getThreadAllocatedBytes( threadId );
+		for( int i = 0; i < iterations; i++ ) setUnchangedValues( listenersManager );
+		long allocated = allocationBean.getThreadAllocatedBytes( threadId ) - before;
+
+		assertThat( allocated ).as( "bytes allocated by %d unchanged values", iterations ).isLessThan( 4096 );
+	}
+
+	private static void setUnchangedValues( ListenersManager listenersManager ) {
+		PropertyChangeNotificationDelegates.setProperty( listenersManager, "price", 1.5 );
+		PropertyChangeNotificationDelegates.setProperty( listenersManager, "volume", 1_000_000L );
+		PropertyChangeNotificationDelegates.setProperty( listenersManager, "trades", 1_000 );
+	}
+
+	@Test
+	void null_property_name_is_not_allowed() {
+		assertThatThrownBy( () -> notifier.setProperty( null, 1 ) ).isInstanceOf( MockoborIllegalArgumentException.class );
+	}
+}
@@ -0,0 +1,122 @@
+package org.mockobor.mockedobservable;
+
+import org.junit.jupiter.api.Test;
+import org.mockobor.Mockobor;
+import org.mockobor.exceptions.ListenersNotFoundException;
+import org.mockobor.mockedobservable.UsageExample_BeanPropertyChange_Test.ObservableBean;
+import org.mockobor.utils.AllocationMeter;
+
+import java.beans.IndexedPropertyChangeEvent;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockobor.listener_detectors.ListenerSelector.selector;
+
+
+class PropertyChangeNotifier_FastPath_Test {
+
+	private static final String PROPERTY = "property";
+
+	private final ObservableBean observableBean = mock( ObservableBean.class );
+
+	private final PropertyChangeNotifier notifier = (PropertyChangeNotifier) Mockobor.createNotifierFor( observableBean );
+
+	private final List<PropertyChangeEvent> events = new ArrayList<>();
+
+
+	@Test
+	void primitive_overloads_fire_only_changes() {
+		observableBean.addPropertyChangeListener( events::add );
+
+		notifier.firePropertyChange( PROPERTY, 1L, 1L );
+		notifier.firePropertyChange( PROPERTY, 1L, 2L );
+		notifier.firePropertyChange( PROPERTY, 1.5d, 1.5d );
+		notifier.firePropertyChange( PROPERTY, Double.NaN, Double.NaN );
+		notifier.firePropertyChange( PROPERTY, 1.5d, 2.5d );
+		notifier.firePropertyChange( PROPERTY, 'a', 'a' );
+		notifier.firePropertyChange( PROPERTY, 'a', 'b' );
+		notifier.firePropertyChange( PROPERTY, 3, 3 );
+		notifier.firePropertyChange( PROPERTY, true, false );
+		notifier.firePropertyChange( PROPERTY, "same", "same" );
+		notifier.firePropertyChange( PROPERTY, null, null );
+
+		assertThat( events ).extracting( PropertyChangeEvent::getOldValue, PropertyChangeEvent::getNewValue )
+		                    .containsExactly( tuple( 1L, 2L ), tuple( 1.5d, 2.5d ), tuple( 'a', 'b' ), tuple( true, false ), tuple( null, null ) );
+		assertThat( events ).extracting( PropertyChangeEvent::getSource ).containsOnly( observableBean );
+	}
+
+	@Test
+	void listener_exception_is_thrown_unwrapped_by_all_paths() {
+		IllegalStateException failure = new IllegalStateException( "listener failed" );
+		observableBean.addPropertyChangeListener( evt -> { throw failure; } );
+		PropertyChangeEvent event = new PropertyChangeEvent( observableBean, PROPERTY, 1, 2 );
+
+		assertThatThrownBy( () -> notifier.firePropertyChange( PROPERTY, 1, 2 ) ).isSameAs( failure );
+		assertThatThrownBy( () -> ( (PropertyChangeListener) notifier ).propertyChange( event ) ).isSameAs( failure );
+		assertThatThrownBy( () -> notifier.notifierFor( PropertyChangeListener.class ).propertyChange( event ) ).isSameAs( failure );
+	}
+
+	@Test
+	void events_sent_to_common_and_named_listeners() {
+		List<PropertyChangeEvent> namedEvents = new ArrayList<>();
+		observableBean.addPropertyChangeListener( events::add );
+		observableBean.addPropertyChangeListener( PROPERTY, namedEvents::add );
+
+		notifier.firePropertyChange( PROPERTY, 1, 2 );
+		notifier.firePropertyChange( "another", 1, 2 );
+		notifier.firePropertyChange( null, 1, 2 );
+		notifier.fireIndexedPropertyChange( PROPERTY, 3, "a", "b" );
+
+		assertThat( events ).extracting( PropertyChangeEvent::getPropertyName ).containsExactly( PROPERTY, "another", null, PROPERTY );
+		assertThat( namedEvents ).extracting( PropertyChangeEvent::getPropertyName ).containsExactly( PROPERTY, PROPERTY );
+		assertThat( namedEvents.get( 1 ) ).isInstanceOf( IndexedPropertyChangeEvent.class );
+		assertThat( ( (IndexedPropertyChangeEvent) namedEvents.get( 1 ) ).getIndex() ).isEqualTo( 3 );
+	}
+
+	@Test
+	void listener_can_unregister_itself_during_notification() {
+		PropertyChangeListener selfRemoving = new PropertyChangeListener() {
+			@Override
+			public void propertyChange( PropertyChangeEvent evt ) {
+				events.add( evt );
+				observableBean.removePropertyChangeListener( this );
+			}
+		};
+		observableBean.addPropertyChangeListener( selfRemoving );
+		observableBean.addPropertyChangeListener( events::add );
+
+		notifier.firePropertyChange( PROPERTY, 1, 2 );
+		notifier.firePropertyChange( PROPERTY, 2, 3 );
+
+		assertThat( events ).extracting( PropertyChangeEvent::getNewValue ).containsExactly( 2, 2, 3 );
+	}
+
+	@Test
+	void strict_check_if_no_listeners_registered() {
+		assertThatThrownBy( () -> notifier.firePropertyChange( PROPERTY, 1, 2 ) ).isInstanceOf( ListenersNotFoundException.class );
+		assertThatNoException().isThrownBy( () -> notifier.firePropertyChange( PROPERTY, 1, 1 ) );
+	}
+
+	@Test
+	void firePropertyChange_allocates_nothing_but_the_event() {
+		AllocationMeter.assumeAllocationMeasurable();
+
+		ListenersManager listenersManager = new ListenersManager( observableBean );
+		AtomicInteger received = new AtomicInteger();
+		PropertyChangeListener listener = evt -> received.incrementAndGet();
+		listenersManager.addListener( selector(), PropertyChangeListener.class, listener );
+		listenersManager.addListener( selector( PROPERTY ), PropertyChangeListener.class, listener );
+		PropertyChangeEvent event = new PropertyChangeEvent( observableBean, PROPERTY, 1, 2 );
+
+		int iterations = 100_000;
+		double allocated = AllocationMeter.bytesPerOperation( iterations, () -> PropertyChangeNotificationDelegates.firePropertyChange( listenersManager, event ) );
+
+		assertThat( received.get() ).isEqualTo( 2 * 2 * iterations ); // warm-up + measurement
+		assertThat( allocated * iterations ).as( "bytes allocated by %d events", iterations ).isLessThan( 4096 );
+	}
+}
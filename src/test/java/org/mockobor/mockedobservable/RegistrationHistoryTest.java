@@ -0,0 +1,93 @@
+package org.mockobor.mockedobservable;
+
+import org.junit.jupiter.api.Test;
+import org.mockobor.Mockobor;
+import org.mockobor.exceptions.UnregisteredListenersFoundException;
+import org.mockobor.mockedobservable.MockedObservable.MyListener;
+import org.mockobor.mockedobservable.RegistrationHistory.Record;
+
+import java.beans.PropertyChangeListener;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+
+class RegistrationHistoryTest {
+
+	private final MockedObservable mockedObservable = mock( MockedObservable.class );
+
+
+	@Test
+	void last_records_are_kept() {
+		ExtendedListenersNotifier notifier = (ExtendedListenersNotifier) Mockobor.createNotifierFor( mockedObservable, Mockobor.notifierSettings().registrationHistory( 4, 0 ) );
+		MyListener myListener = mock( MyListener.class );
+		mockedObservable.addMyListener( myListener );
+		for( int i = 0; i < 3; i++ ) mockedObservable.addPropertyChangeListener( "p" + i, evt -> {} );
+		mockedObservable.removeMyListener( myListener );
+		mockedObservable.removeMyListener( myListener ); // not registered - not recorded
+
+		RegistrationHistory history = notifier.getRegistrationHistory();
+		assertThat( history.getTotalRecords() ).isEqualTo( 5 );
+		List<Record> records = history.getRecords();
+		assertThat( records ).extracting( Record::getSequence ).containsExactly( 1L, 2L, 3L, 4L );
+		assertThat( records.get( 0 ) ).satisfies( r -> {
+			assertThat( r.isRegistration() ).isTrue();
+			assertThat( r.getListenerClass() ).isEqualTo( PropertyChangeListener.class );
+			assertThat( r.getThreadName() ).isEqualTo( Thread.currentThread().getName() );
+			assertThat( r.getStackTrace() ).isNull();
+		} );
+		assertThat( records.get( 3 ) ).satisfies( r -> {
+			assertThat( r.isRegistration() ).isFalse();
+			assertThat( r.getListenerClass() ).isEqualTo( MyListener.class );
+			assertThat( r.getListener() ).isEqualTo( myListener.getClass().getName() + "@" + Integer.toHexString( System.identityHashCode( myListener ) ) );
+		} );
+		assertThat( history.toString() ).startsWith( "registration history (last 4 of 5):" );
+	}
+
+	@Test
+	void stack_traces_are_sampled() {
+		ExtendedListenersNotifier notifier = (ExtendedListenersNotifier) Mockobor.createNotifierFor( mockedObservable, Mockobor.notifierSettings().registrationHistory( 8, 3 ) );
+		for( int i = 0; i < 7; i++ ) mockedObservable.addPropertyChangeListener( evt -> {} );
+
+		assertThat( notifier.getRegistrationHistory().getRecords() )
+				.filteredOn( r -> r.getStackTrace() != null )
+				.extracting( Record::getSequence ).containsExactly( 0L, 3L, 6L );
+		assertThat( notifier.getRegistrationHistory().getRecords().get( 0 ).getStackTrace() )
+				.anySatisfy( e -> assertThat( e.getMethodName() ).isEqualTo( "stack_traces_are_sampled" ) );
+	}
+
+	@Test
+	void history_is_dumped_in_exception_message() {
+		ExtendedListenersNotifier notifier = (ExtendedListenersNotifier) Mockobor.createNotifierFor( mockedObservable, Mockobor.notifierSettings().registrationHistory( 8, 1 ) );
+		mockedObservable.addMyListener( mock( MyListener.class ) );
+
+		assertThatThrownBy( () -> Mockobor.assertThatAllListenersAreUnregistered( notifier ) )
+				.isInstanceOf( UnregisteredListenersFoundException.class )
+				.hasMessageContaining( "registration history (last 1 of 1):" )
+				.hasMessageContaining( "] registered " )
+				.hasMessageContaining( " as MyListener with " )
+				.hasMessageContaining( "at " + getClass().getName() + ".history_is_dumped_in_exception_message" );
+	}
+
+	@Test
+	void history_is_off_by_default() {
+		ExtendedListenersNotifier notifier = (ExtendedListenersNotifier) Mockobor.createNotifierFor( mockedObservable );
+		mockedObservable.addMyListener( mock( MyListener.class ) );
+
+		assertThat( notifier.getRegistrationHistory().getCapacity() ).isZero();
+		assertThat( notifier.getRegistrationHistory().getRecords() ).isEmpty();
+	}
+
+	@Test
+	void history_can_be_switched_off() {
+		ExtendedListenersNotifier notifier = (ExtendedListenersNotifier) Mockobor.createNotifierFor( mockedObservable, Mockobor.notifierSettings().registrationHistory( 0, 0 ) );
+		mockedObservable.addMyListener( mock( MyListener.class ) );
+
+		assertThat( notifier.getRegistrationHistory().getRecords() ).isEmpty();
+		assertThatThrownBy( () -> Mockobor.assertThatAllListenersAreUnregistered( notifier ) )
+				.isInstanceOf( UnregisteredListenersFoundException.class )
+				.hasMessageNotContaining( "registration history" );
+	}
+}
@@ -0,0 +1,124 @@
+package org.mockobor.mockedobservable;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockobor.Mockobor;
+import org.mockobor.exceptions.MockoborIllegalArgumentException;
+import org.mockobor.exceptions.SlowListenerException;
+import org.mockobor.mockedobservable.MockedObservable.MyAnotherListener;
+import org.mockobor.mockedobservable.SlowListenerWatchdog.Overrun;
+
+import java.beans.PropertyChangeListener;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+
+class SlowListenerWatchdogTest {
+
+	private final MockedObservable mockedObservable = mock( MockedObservable.class );
+
+	private final ExtendedListenersNotifier notifier = (ExtendedListenersNotifier) Mockobor.createNotifierFor( mockedObservable );
+
+	private final List<SlowListenerWatchdog> watchdogs = new ArrayList<>();
+
+
+	@AfterEach
+	void closeWatchdogs() {
+		watchdogs.forEach( SlowListenerWatchdog::close );
+	}
+
+
+	@Test
+	void slow_listener_flagged_with_stack_sample() {
+		SlowListenerWatchdog watchdog = watchdog( Duration.ofMillis( 20 ), false );
+		PropertyChangeListener slowListener = evt -> sleep( 200 );
+		mockedObservable.addPropertyChangeListener( evt -> {} );
+		mockedObservable.addPropertyChangeListener( slowListener );
+		notifier.setSlowListenerWatchdog( watchdog );
+
+		( (PropertyChangeNotifier) notifier ).firePropertyChange( "p", 1, 2 );
+
+		assertThat( watchdog.getOverruns() ).singleElement().satisfies( overrun -> {
+			assertThat( overrun.getListener() ).isSameAs( slowListener );
+			assertThat( overrun.getListenerClass() ).isEqualTo( PropertyChangeListener.class );
+			assertThat( overrun.getMethod() ).isEqualTo( "propertyChange" );
+			assertThat( overrun.getThreadName() ).isEqualTo( Thread.currentThread().getName() );
+			assertThat( overrun.getElapsed() ).isGreaterThanOrEqualTo( overrun.getBudget() );
+			assertThat( overrun.getStackSample() ).extracting( StackTraceElement::getMethodName )
+			                                      .contains( "sleep", "slow_listener_flagged_with_stack_sample" );
+		} );
+	}
+
+	@Test
+	void slow_listener_over_notifierFor() {
+		SlowListenerWatchdog watchdog = watchdog( Duration.ofSeconds( 10 ), false ).withBudget( MyAnotherListener.class, Duration.ofMillis( 20 ) );
+		mockedObservable.addMyAnotherListener( v -> sleep( 200 ) );
+		notifier.setSlowListenerWatchdog( watchdog );
+
+		notifier.notifierFor( MyAnotherListener.class ).somethingOtherChanged( "v1" );
+
+		assertThat( watchdog.getBudget( MyAnotherListener.class ) ).isEqualTo( Duration.ofMillis( 20 ) );
+		assertThat( watchdog.getOverruns() ).extracting( Overrun::getMethod ).containsExactly( "somethingOtherChanged" );
+	}
+
+	@Test
+	void abort_dispatch() {
+		SlowListenerWatchdog watchdog = watchdog( Duration.ofMillis( 20 ), true );
+		List<Object> received = Collections.synchronizedList( new ArrayList<>() );
+		mockedObservable.addMyAnotherListener( v -> sleep( 200 ) );
+		mockedObservable.addMyAnotherListener( received::add );
+		notifier.setSlowListenerWatchdog( watchdog );
+
+		assertThatThrownBy( () -> ( (MyAnotherListener) notifier ).somethingOtherChanged( "v1" ) )
+				.isInstanceOf( SlowListenerException.class )
+				.hasMessageContaining( "somethingOtherChanged" )
+				.hasMessageContaining( "overran its budget of 20 ms" );
+		assertThat( received ).as( "remaining listeners are not notified" ).isEmpty();
+	}
+
+	@Test
+	void fast_listeners_and_exceptions_are_not_flagged() {
+		SlowListenerWatchdog watchdog = watchdog( Duration.ofSeconds( 10 ), true );
+		List<Object> received = new ArrayList<>();
+		mockedObservable.addMyAnotherListener( received::add );
+		notifier.setSlowListenerWatchdog( watchdog );
+
+		for( int i = 0; i < 1000; i++ ) ( (MyAnotherListener) notifier ).somethingOtherChanged( i );
+		mockedObservable.addMyAnotherListener( v -> {
+			throw new IllegalStateException( "failed" );
+		} );
+		assertThatThrownBy( () -> ( (MyAnotherListener) notifier ).somethingOtherChanged( "v" ) ).hasStackTraceContaining( "failed" );
+
+		assertThat( received ).hasSize( 1001 );
+		assertThat( watchdog.getOverruns() ).isEmpty();
+	}
+
+	@Test
+	void budget_must_be_positive() {
+		assertThatThrownBy( () -> new SlowListenerWatchdog( Duration.ZERO ) ).isInstanceOf( MockoborIllegalArgumentException.class );
+		SlowListenerWatchdog watchdog = watchdog( Duration.ofMillis( 10 ), false );
+		assertThatThrownBy( () -> watchdog.withBudget( MyAnotherListener.class, Duration.ofMillis( -1 ) ) )
+				.isInstanceOf( MockoborIllegalArgumentException.class );
+	}
+
+
+	private SlowListenerWatchdog watchdog( Duration budget, boolean abortDispatch ) {
+		SlowListenerWatchdog watchdog = new SlowListenerWatchdog( budget, abortDispatch );
+		watchdogs.add( watchdog );
+		return watchdog;
+	}
+
+	private static void sleep( long millis ) {
+		try {
+			Thread.sleep( millis );
+		}
+		catch( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
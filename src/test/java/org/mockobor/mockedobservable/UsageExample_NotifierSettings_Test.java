@@ -147,6 +147,32 @@ class UsageExample_NotifierSettings_Test {
 	}
 
 
+	// ==================================================================================
+	// ============================ coalesce notifications ==============================
+	// ==================================================================================
+
+	@Test
+	void coalesceNotifications_using_local_settings() {
+		// create notifier with local setting: notifications are postponed until flush
+		PropertyChangeNotifier notifier = (PropertyChangeNotifier) Mockobor.createNotifierFor( mockedObservable,
+		                                                                                      Mockobor.notifierSettings().coalesceNotifications() );
+
+		notifier.firePropertyChange( null, "v1", "v2" );
+		notifier.firePropertyChange( null, "v2", "v3" );
+		notifier.firePropertyChange( null, "v3", "v4" );
+		assertThat( testedObserver.getPropertyChangeListener().getInvocations() ).isEmpty();
+		assertThat( ( (ExtendedListenersNotifier) notifier ).numberOfPendingNotifications() ).isEqualTo( 1 );
+
+		// burst merged into one event: first old value and last new value
+		assertThat( ( (ExtendedListenersNotifier) notifier ).flushNotifications() ).isEqualTo( 1 );
+		assertThat( testedObserver.getPropertyChangeListener().getInvocations() )
+				.extracting( InvocationDef::getParam )
+				.map( PropertyChangeEvent.class::cast )
+				.extracting( PropertyChangeEvent::getOldValue, PropertyChangeEvent::getNewValue )
+				.containsExactly( tuple( "v1", "v4" ) );
+	}
+
+
 	// ==================================================================================
 	// =================================== common =======================================
 	// ==================================================================================
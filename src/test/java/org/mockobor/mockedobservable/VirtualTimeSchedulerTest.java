@@ -0,0 +1,121 @@
+package org.mockobor.mockedobservable;
+
+import org.junit.jupiter.api.Test;
+import org.mockobor.Mockobor;
+import org.mockobor.exceptions.MockoborIllegalArgumentException;
+import org.mockobor.mockedobservable.UsageExample_BeanPropertyChange_Test.ObservableBean;
+import org.mockobor.mockedobservable.VirtualTimeScheduler.ScheduledEvent;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockobor.listener_detectors.ListenerSelector.selector;
+
+
+class VirtualTimeSchedulerTest {
+
+	private final ObservableBean observableBean = mock( ObservableBean.class );
+
+	private final PropertyChangeNotifier notifier = (PropertyChangeNotifier) Mockobor.createNotifierFor( observableBean );
+
+	private final VirtualTimeScheduler scheduler = new VirtualTimeScheduler( notifier );
+
+	private final List<String> delivered = new ArrayList<>();
+
+
+	@Test
+	void events_delivered_in_timestamp_order() {
+		observableBean.addPropertyChangeListener( evt -> delivered.add( evt.getNewValue() + "@" + scheduler.now().toMillis() ) );
+
+		scheduler.schedule( Duration.ofMillis( 300 ), () -> notifier.setProperty( "p", "c" ) );
+		scheduler.schedule( Duration.ofMillis( 100 ), () -> notifier.setProperty( "p", "a" ) );
+		scheduler.schedule( Duration.ofMillis( 200 ), () -> notifier.setProperty( "p", "b1" ) );
+		scheduler.schedule( Duration.ofMillis( 200 ), () -> notifier.setProperty( "p", "b2" ) );
+
+		assertThat( scheduler.advanceBy( Duration.ofMillis( 250 ) ) ).isEqualTo( 3 );
+		assertThat( delivered ).containsExactly( "a@100", "b1@200", "b2@200" );
+		assertThat( scheduler.now() ).isEqualTo( Duration.ofMillis( 250 ) );
+		assertThat( scheduler.numberOfPendingEvents() ).isEqualTo( 1 );
+		assertThat( scheduler.nextEventTime() ).isEqualTo( Duration.ofMillis( 300 ) );
+
+		assertThat( scheduler.runAll() ).isEqualTo( 1 );
+		assertThat( delivered ).endsWith( "c@300" );
+		assertThat( scheduler.nextEventTime() ).isNull();
+	}
+
+	@Test
+	void scheduled_listener_notifications() {
+		List<PropertyChangeEvent> events = new ArrayList<>();
+		observableBean.addPropertyChangeListener( "p", events::add );
+
+		PropertyChangeEvent event = new PropertyChangeEvent( observableBean, "p", 1, 2 );
+		scheduler.notifierFor( Duration.ofMillis( 250 ), PropertyChangeListener.class, selector( "p" ) ).propertyChange( event );
+
+		scheduler.advanceBy( Duration.ofMillis( 249 ) );
+		assertThat( events ).isEmpty();
+		scheduler.advanceBy( Duration.ofMillis( 1 ) );
+		assertThat( events ).containsExactly( event );
+	}
+
+	@Test
+	void events_scheduled_by_delivered_events() {
+		observableBean.addPropertyChangeListener( evt -> {
+			delivered.add( evt.getNewValue() + "@" + scheduler.now().toMillis() );
+			int value = (Integer) evt.getNewValue();
+			if( value < 5 ) scheduler.schedule( Duration.ofMillis( 100 ), () -> notifier.setProperty( "p", value + 1 ) );
+		} );
+		notifier.setProperty( "p", 1 );
+
+		scheduler.advanceTo( Duration.ofMillis( 250 ) );
+		assertThat( delivered ).containsExactly( "1@0", "2@100", "3@200" );
+
+		scheduler.runAll();
+		assertThat( delivered ).endsWith( "4@300", "5@400" );
+		assertThat( scheduler.now() ).isEqualTo( Duration.ofMillis( 400 ) );
+	}
+
+	@Test
+	void canceled_events_are_not_delivered() {
+		ScheduledEvent timeout = scheduler.schedule( Duration.ofSeconds( 5 ), () -> delivered.add( "timeout" ) );
+		scheduler.schedule( Duration.ofSeconds( 1 ), () -> delivered.add( "response" ) );
+
+		scheduler.advanceBy( Duration.ofSeconds( 1 ) );
+		assertThat( timeout.cancel() ).isTrue();
+		assertThat( timeout.cancel() ).isFalse();
+		scheduler.advanceBy( Duration.ofMinutes( 1 ) );
+
+		assertThat( delivered ).containsExactly( "response" );
+		assertThat( timeout.isCanceled() ).isTrue();
+		assertThat( timeout.isDone() ).isFalse();
+		assertThat( scheduler.numberOfPendingEvents() ).isZero();
+	}
+
+	@Test
+	void clock_shows_virtual_time() {
+		Instant start = Instant.parse( "2024-01-01T10:00:00Z" );
+		VirtualTimeScheduler startedScheduler = new VirtualTimeScheduler( notifier, start );
+		Clock clock = startedScheduler.getClock();
+		List<Instant> instants = new ArrayList<>();
+		startedScheduler.schedule( Duration.ofMillis( 250 ), () -> instants.add( clock.instant() ) );
+
+		startedScheduler.advanceBy( Duration.ofHours( 1 ) );
+
+		assertThat( instants ).containsExactly( start.plusMillis( 250 ) );
+		assertThat( clock.instant() ).isEqualTo( start.plus( Duration.ofHours( 1 ) ) );
+	}
+
+	@Test
+	void virtual_time_can_not_go_back() {
+		scheduler.advanceBy( Duration.ofSeconds( 1 ) );
+		assertThatThrownBy( () -> scheduler.advanceTo( Duration.ZERO ) ).isInstanceOf( MockoborIllegalArgumentException.class );
+		assertThatThrownBy( () -> scheduler.schedule( Duration.ofMillis( -1 ), () -> {} ) )
+				.isInstanceOf( MockoborIllegalArgumentException.class );
+	}
+}
@@ -0,0 +1,108 @@
+package org.mockobor.mockedobservable;
+
+import org.junit.jupiter.api.Test;
+import org.mockobor.Mockobor;
+import org.mockobor.exceptions.UnregisteredListenersFoundException;
+import org.mockobor.mockedobservable.ExtendedListenersNotifier.LeakedListener;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+
+class WeakListenersTest {
+
+	// stub only - Mockito does not keep arguments of invocations (listeners)
+	private final MockedObservable mockedObservable = mock( MockedObservable.class, withSettings().stubOnly() );
+
+	private final ExtendedListenersNotifier notifier = (ExtendedListenersNotifier) Mockobor.createNotifierFor( mockedObservable, Mockobor.notifierSettings().weakListeners() );
+
+
+	@Test
+	void not_removed_listener_is_collected_and_reported_as_leak() throws InterruptedException {
+		AtomicInteger notifications = new AtomicInteger();
+		registerForgottenListener();
+		// Mockito keeps the last invocation of each stubbed registration method - replace it
+		PropertyChangeListener removedListener = evt -> notifications.incrementAndGet();
+		mockedObservable.addPropertyChangeListener( removedListener );
+		assertThat( notifier.numberOfRegisteredListeners() ).isEqualTo( 2 );
+
+		mockedObservable.removePropertyChangeListener( removedListener );
+		List<LeakedListener> leaked = awaitLeakedListeners();
+
+		assertThat( leaked ).singleElement().satisfies( l -> {
+			assertThat( l.getListenerClass() ).isEqualTo( PropertyChangeListener.class );
+			assertThat( l.getListener() ).startsWith( ForgottenListener.class.getName() + "@" );
+		} );
+		assertThat( notifier.numberOfRegisteredListeners() ).isZero();
+		assertThat( notifier.getAllListeners() ).isEmpty();
+		assertThat( notifier.getListenersWithSelector() ).isEmpty();
+		assertThat( notifier.allListenersAreUnregistered() ).isFalse();
+		assertThatThrownBy( () -> Mockobor.assertThatAllListenersAreUnregistered( notifier ) )
+				.isInstanceOf( UnregisteredListenersFoundException.class )
+				.hasMessageContaining( ForgottenListener.class.getName() + "@" )
+				.hasMessageContaining( "(garbage collected, but not removed) registered as PropertyChangeListener.class" );
+		assertThat( notifications ).hasValue( 0 );
+	}
+
+	@Test
+	void notifier_for_listeners_does_not_retain_listeners() throws InterruptedException {
+		registerForgottenListener();
+		PropertyChangeListener listenersNotifier = notifier.notifierFor( PropertyChangeListener.class );
+		// Mockito keeps the last invocation of each stubbed registration method - replace it
+		PropertyChangeListener removedListener = evt -> {};
+		mockedObservable.addPropertyChangeListener( removedListener );
+		mockedObservable.removePropertyChangeListener( removedListener );
+
+		assertThat( awaitLeakedListeners() ).hasSize( 1 );
+		listenersNotifier.propertyChange( new PropertyChangeEvent( mockedObservable, "p", 1, 2 ) );
+		assertThat( notifier.getListeners( PropertyChangeListener.class ) ).isEmpty();
+	}
+
+	@Test
+	void strongly_reachable_listeners_are_notified_and_removed() throws InterruptedException {
+		AtomicInteger notifications = new AtomicInteger();
+		PropertyChangeListener listener = evt -> notifications.incrementAndGet();
+		mockedObservable.addPropertyChangeListener( listener );
+
+		gc();
+		( (PropertyChangeNotifier) notifier ).firePropertyChange( "p", 1, 2 );
+		mockedObservable.removePropertyChangeListener( listener );
+
+		assertThat( notifications ).hasValue( 1 );
+		assertThat( notifier.getLeakedListeners() ).isEmpty();
+		assertThat( notifier.allListenersAreUnregistered() ).isTrue();
+	}
+
+
+	private void registerForgottenListener() {
+		mockedObservable.addPropertyChangeListener( new ForgottenListener() );
+	}
+
+	private List<LeakedListener> awaitLeakedListeners() throws InterruptedException {
+		for( int i = 0; i < 100; i++ ) {
+			gc();
+			List<LeakedListener> leaked = notifier.getLeakedListeners();
+			if( !leaked.isEmpty() ) return leaked;
+		}
+		return notifier.getLeakedListeners();
+	}
+
+	private static void gc() throws InterruptedException {
+		System.gc();
+		Thread.sleep( 10 );
+	}
+
+	private static class ForgottenListener implements PropertyChangeListener {
+		@Override
+		public void propertyChange( PropertyChangeEvent evt ) {
+			throw new AssertionError( "must not be notified" );
+		}
+	}
+}
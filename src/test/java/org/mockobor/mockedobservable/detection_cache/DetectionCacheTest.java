@@ -0,0 +1,164 @@
+package org.mockobor.mockedobservable.detection_cache;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockobor.listener_detectors.ListenerDefinition;
+import org.mockobor.listener_detectors.ListenerDefinition.ListenerDefinitionImpl;
+import org.mockobor.listener_detectors.ListenerDefinitionDetector;
+import org.mockobor.listener_detectors.ListenerDetectorsRegistryImpl;
+import org.mockobor.listener_detectors.TypicalJavaListenerDetector;
+import org.mockobor.mockedobservable.ListenersNotifier;
+import org.mockobor.mockedobservable.MockedObservable;
+import org.mockobor.mockedobservable.MockedObservable.MyListener;
+import org.mockobor.mockedobservable.NotifierFactory;
+import org.mockobor.mockedobservable.NotifierSettingsImpl;
+import org.mockobor.mockedobservable.mocking_tools.MockingToolsRegistryImpl;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+
+class DetectionCacheTest {
+
+	@TempDir
+	Path tempDir;
+
+
+	@Test
+	void detection_runs_only_once_per_mock_class() {
+		CountingDetector detector = new CountingDetector();
+		NotifierFactory factory = createFactory( detector, new DetectionCache() );
+
+		ListenersNotifier notifier1 = factory.create( mock( MockedObservable.class ), NotifierSettingsImpl.createDefaultSettings() );
+		ListenersNotifier notifier2 = factory.create( mock( MockedObservable.class ), NotifierSettingsImpl.createDefaultSettings() );
+
+		assertThat( detector.detectionCount ).isEqualTo( 1 );
+		assertThat( notifier1 ).isNotSameAs( notifier2 );
+	}
+
+	@Test
+	void detection_results_of_not_cacheable_detectors_are_not_cached() {
+		CountingDetector detector = new CountingDetector();
+		ListenerDetectorsRegistryImpl registry = new ListenerDetectorsRegistryImpl();
+		registry.registerListenerDefinitionDetector( detector );
+		registry.registerListenerDefinitionDetector( new NotCacheableDetector() );
+		NotifierFactory factory = new NotifierFactory( registry, new MockingToolsRegistryImpl(), new DetectionCache() );
+
+		factory.create( mock( MockedObservable.class ), NotifierSettingsImpl.createDefaultSettings() );
+		factory.create( mock( MockedObservable.class ), NotifierSettingsImpl.createDefaultSettings() );
+
+		assertThat( detector.detectionCount ).isEqualTo( 2 );
+	}
+
+	@Test
+	void detection_results_shared_between_caches_using_same_file() {
+		Path cacheFile = tempDir.resolve( "detection.cache" );
+		DetectionCache firstCache = new DetectionCache( cacheFile );
+		createFactory( new CountingDetector(), firstCache )
+				.create( mock( MockedObservable.class ), NotifierSettingsImpl.createDefaultSettings() );
+		firstCache.flush();
+		assertThat( cacheFile ).isRegularFile();
+
+		// simulate next JVM run: new cache and new detectors
+		CountingDetector detector = new CountingDetector();
+		MockedObservable mockedObservable = mock( MockedObservable.class );
+		ListenersNotifier notifier = createFactory( detector, new DetectionCache( cacheFile ) )
+				.create( mockedObservable, NotifierSettingsImpl.createDefaultSettings() );
+
+		assertThat( detector.detectionCount ).as( "served from the cache file" ).isZero();
+
+		MyListener listener = mock( MyListener.class );
+		mockedObservable.addMyListener( listener );
+		notifier.notifierFor( MyListener.class ).somethingChanged1( "v1" );
+		verify( listener ).somethingChanged1( "v1" );
+		assertThat( notifier.allListenersAreUnregistered() ).isFalse();
+	}
+
+	@Test
+	void corrupted_cache_file_is_ignored_and_overwritten() throws IOException {
+		Path cacheFile = tempDir.resolve( "detection.cache" );
+		Files.write( cacheFile, "not a cache file".getBytes( StandardCharsets.UTF_8 ) );
+
+		CountingDetector detector = new CountingDetector();
+		DetectionCache cache = new DetectionCache( cacheFile );
+		createFactory( detector, cache ).create( mock( MockedObservable.class ), NotifierSettingsImpl.createDefaultSettings() );
+		cache.flush();
+
+		assertThat( detector.detectionCount ).isEqualTo( 1 );
+		assertThat( DetectionCacheFile.read( cacheFile ) ).hasSize( 1 );
+	}
+
+	@Test
+	void new_version_of_entry_replaces_old_version() {
+		Path path = tempDir.resolve( "entries.cache" );
+		DetectionCacheFile file = new DetectionCacheFile( path );
+		file.put( "a|detectors|hash1", new byte[]{ 1 } );
+		file.put( "b|detectors|hash1", new byte[]{ 2 } );
+		file.flush();
+
+		DetectionCacheFile otherFile = new DetectionCacheFile( path );
+		otherFile.put( "a|detectors|hash2", new byte[]{ 3 } );
+		otherFile.flush();
+
+		Map<String, byte[]> entries = DetectionCacheFile.read( path );
+		assertThat( entries ).containsOnlyKeys( "a|detectors|hash2", "b|detectors|hash1" );
+		assertThat( entries.get( "a|detectors|hash2" ) ).containsExactly( 3 );
+		assertThat( otherFile.get( "b|detectors|hash1" ) ).containsExactly( 2 );
+	}
+
+	@Test
+	void concurrent_writers_do_not_drop_entries_of_each_other() throws InterruptedException {
+		Path path = tempDir.resolve( "concurrent.cache" );
+		List<Thread> writers = new ArrayList<>();
+		for( int i = 0; i < 8; i++ ) {
+			DetectionCacheFile file = new DetectionCacheFile( path );
+			file.put( "type" + i + "|detectors|hash", new byte[]{ (byte) i } );
+			writers.add( new Thread( file::flush ) );
+		}
+		writers.forEach( Thread::start );
+		for( Thread writer : writers ) writer.join();
+
+		assertThat( DetectionCacheFile.read( path ) ).hasSize( 8 );
+	}
+
+
+	private static @NonNull NotifierFactory createFactory( @NonNull ListenerDefinitionDetector detector, @NonNull DetectionCache cache ) {
+		ListenerDetectorsRegistryImpl registry = new ListenerDetectorsRegistryImpl();
+		registry.registerListenerDefinitionDetector( detector );
+		return new NotifierFactory( registry, new MockingToolsRegistryImpl(), cache );
+	}
+
+
+	/** Stateless detector (its results can be cached) which counts detections. */
+	private static class CountingDetector extends TypicalJavaListenerDetector {
+
+		private int detectionCount;
+
+		@Override
+		protected @NonNull ListenerDefinitionImpl detectRegistrations( @NonNull Collection<Method> methods ) {
+			detectionCount++;
+			return super.detectRegistrations( methods );
+		}
+	}
+
+	/** Detector with own detection logic - its results can not be cached. */
+	private static class NotCacheableDetector implements ListenerDefinitionDetector {
+
+		@Override
+		public @NonNull ListenerDefinition detect( @NonNull Collection<Method> methods ) {
+			return new ListenerDefinitionImpl();
+		}
+	}
+}
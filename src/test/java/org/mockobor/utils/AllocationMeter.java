@@ -0,0 +1,84 @@
+package org.mockobor.utils;
+
+import org.eclipse.jdt.annotation.NonNull;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assumptions.assumeThat;
+
+
+/**
+ * Test support: measures bytes allocated by the current thread (over {@code com.sun.management.ThreadMXBean}).
+ * <p>
+ * Used by allocation regression tests of hot notification paths:
+ * <pre class="code"><code class="java">
+ *
+ * &#64;Test
+ * void firePropertyChange_allocates_nothing_but_the_event() {
+ *     AllocationMeter.assumeAllocationMeasurable();
+ *     AllocationMeter.assertAllocatesAtMost( 40, () -&gt; notifier.firePropertyChange( "prop", 1, 2 ) );
+ * }
+ *
+ * </code></pre>
+ * Operations are warmed up (so they are compiled by JIT and escape analysis is applied) before the measurement.
+ * The budget is checked against the average allocation per operation, so single allocations by the JVM itself
+ * (like class loading or deoptimization) do not break the tests.
+ */
+public final class AllocationMeter {
+
+	/** Default number of operations used for warm-up and for the measurement. */
+	public static final int DEFAULT_ITERATIONS = 100_000;
+
+
+	private AllocationMeter() {}
+
+
+	/** To skip the current test (as assumption), if the JVM can not measure allocations per thread. */
+	public static void assumeAllocationMeasurable() {
+		assumeThat( isAllocationMeasurable() ).as( "JVM supports measuring of allocated bytes per thread" ).isTrue();
+	}
+
+	/** @return true if the JVM can measure allocations per thread */
+	public static boolean isAllocationMeasurable() {
+		ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+		if( !( threadMXBean instanceof com.sun.management.ThreadMXBean ) ) return false;
+		com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadMXBean;
+		return allocationBean.isThreadAllocatedMemorySupported() && allocationBean.isThreadAllocatedMemoryEnabled();
+	}
+
+	/** @return number of bytes allocated by the current thread so far */
+	public static long currentThreadAllocatedBytes() {
+		return ( (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean() ).getThreadAllocatedBytes( Thread.currentThread().getId() );
+	}
+
+
+	/**
+	 * To run the specified operation {@code iterations} times to warm up and then {@code iterations} times to measure.
+	 *
+	 * @param iterations number of operations to warm up and to measure
+	 * @param operation  operation to measure
+	 * @return average number of bytes allocated by one operation (after warm-up)
+	 */
+	public static double bytesPerOperation( int iterations, @NonNull Runnable operation ) {
+		for( int i = 0; i < iterations; i++ ) operation.run();
+
+		long before = currentThreadAllocatedBytes();
+		for( int i = 0; i < iterations; i++ ) operation.run();
+		long allocated = currentThreadAllocatedBytes() - before;
+		return (double) allocated / iterations;
+	}
+
+	/**
+	 * To check, that the specified operation allocates (on average, after warm-up) not more than the specified budget.
+	 *
+	 * @param budgetBytesPerOperation maximal allowed allocation of one operation in bytes
+	 * @param operation               operation to measure
+	 */
+	public static void assertAllocatesAtMost( long budgetBytesPerOperation, @NonNull Runnable operation ) {
+		double allocated = bytesPerOperation( DEFAULT_ITERATIONS, operation );
+		assertThat( allocated ).as( "bytes allocated per operation (budget %d)", budgetBytesPerOperation )
+		                       .isLessThanOrEqualTo( budgetBytesPerOperation );
+	}
+}
@@ -0,0 +1,152 @@
+package org.mockobor.utils.reflection;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+@SuppressWarnings( "unused" )
+class MethodIndexTest {
+
+	private interface TestMethods {
+		void method( String s );
+
+		void method( Object s );
+
+		void method( Integer s );
+
+		void method();
+	}
+
+	private interface TestMethods2 {
+		void method( String s );
+
+		int method( Integer s );
+
+		void anotherMethod();
+	}
+
+
+	// ==================================================================================
+	// =============================== MethodSignature ==================================
+	// ==================================================================================
+
+	@Test
+	void signature_equals_for_similar_methods() throws NoSuchMethodException {
+		MethodSignature signature1 = MethodSignature.of( TestMethods.class.getMethod( "method", String.class ) );
+		MethodSignature signature2 = MethodSignature.of( TestMethods2.class.getMethod( "method", String.class ) );
+
+		assertThat( signature1 ).isEqualTo( signature2 ).hasSameHashCodeAs( signature2 );
+		assertThat( signature1 ).isEqualTo( MethodSignature.of( "method", void.class, String.class ) );
+		assertThat( signature1.matches( TestMethods2.class.getMethod( "method", String.class ) ) ).isTrue();
+		assertThat( signature1.toString() ).contains( "void", "method", "String" );
+	}
+
+	@Test
+	void signature_not_equals_for_different_methods() throws NoSuchMethodException {
+		MethodSignature signature = MethodSignature.of( TestMethods.class.getMethod( "method", Integer.class ) );
+
+		assertThat( signature ).as( "different return type" )
+		                       .isNotEqualTo( MethodSignature.of( TestMethods2.class.getMethod( "method", Integer.class ) ) );
+		assertThat( signature ).as( "different parameter type" )
+		                       .isNotEqualTo( MethodSignature.of( TestMethods.class.getMethod( "method", Object.class ) ) );
+		assertThat( signature ).as( "different number of parameters" )
+		                       .isNotEqualTo( MethodSignature.of( TestMethods.class.getMethod( "method" ) ) );
+		assertThat( signature.matches( TestMethods2.class.getMethod( "anotherMethod" ) ) ).as( "different name" ).isFalse();
+	}
+
+
+	// ==================================================================================
+	// ================================= MethodIndex ====================================
+	// ==================================================================================
+
+	@Test
+	void index_finds_similar_method() throws NoSuchMethodException {
+		MethodIndex<Method> index = MethodIndex.of( Arrays.asList( TestMethods.class.getDeclaredMethods() ) );
+
+		Method invokedMethod = TestMethods2.class.getMethod( "method", String.class );
+		Method declaredMethod = TestMethods.class.getMethod( "method", String.class );
+
+		assertThat( index.size() ).isEqualTo( 4 );
+		assertThat( index.get( invokedMethod ) ).isEqualTo( declaredMethod );
+		assertThat( index.findSimilarMethod( invokedMethod ) ).isEqualTo( declaredMethod );
+		assertThat( index.contains( invokedMethod ) ).isTrue();
+		assertThat( index.get( invokedMethod ) ).as( "memoized lookup" ).isEqualTo( declaredMethod );
+	}
+
+	@Test
+	void index_does_not_find_different_method() throws NoSuchMethodException {
+		MethodIndex<Method> index = MethodIndex.of( Arrays.asList( TestMethods.class.getDeclaredMethods() ) );
+
+		assertThat( index.get( TestMethods2.class.getMethod( "method", Integer.class ) ) ).as( "different return type" ).isNull();
+		assertThat( index.get( TestMethods2.class.getMethod( "anotherMethod" ) ) ).as( "different name" ).isNull();
+		assertThat( index.contains( TestMethods2.class.getMethod( "anotherMethod" ) ) ).as( "memoized miss" ).isFalse();
+	}
+
+	@Test
+	void index_put_replaces_and_remove_invalidates_memoized_lookups() throws NoSuchMethodException {
+		Method method = TestMethods.class.getMethod( "method", String.class );
+		Method similarMethod = TestMethods2.class.getMethod( "method", String.class );
+		MethodIndex<String> index = new MethodIndex<>();
+
+		assertThat( index.get( similarMethod ) ).isNull();
+
+		index.put( method, "value1" );
+		assertThat( index.get( similarMethod ) ).isEqualTo( "value1" );
+
+		assertThat( index.putIfAbsent( similarMethod, "value2" ) ).isFalse();
+		assertThat( index.put( similarMethod, "value3" ) ).isEqualTo( "value1" );
+		assertThat( index.get( method ) ).isEqualTo( "value3" );
+		assertThat( index.asMap() ).containsOnlyKeys( similarMethod );
+
+		assertThat( index.remove( method ) ).isTrue();
+		assertThat( index.get( similarMethod ) ).isNull();
+		assertThat( index.isEmpty() ).isTrue();
+	}
+
+	@Test
+	void index_keeps_insertion_order() {
+		List<Method> methods = Arrays.stream( TestMethods.class.getDeclaredMethods() ).collect( Collectors.toList() );
+		MethodIndex<Method> index = MethodIndex.of( methods );
+
+		assertThat( index.methods() ).containsExactlyElementsOf( methods );
+	}
+
+	@Test
+	void memoized_lookups_do_not_prevent_class_unloading() throws Exception {
+		MethodIndex<Method> index = MethodIndex.of( Arrays.asList( TestMethods.class.getDeclaredMethods() ) );
+		WeakReference<ClassLoader> loader = lookUpInOwnClassLoader( index );
+
+		for( int i = 0; i < 100 && loader.get() != null; i++ ) {
+			System.gc();
+			Thread.sleep( 10 );
+		}
+		assertThat( loader.get() ).as( "class loader of looked up methods is collected" ).isNull();
+	}
+
+	private static WeakReference<ClassLoader> lookUpInOwnClassLoader( MethodIndex<Method> index ) throws Exception {
+		String name = TestMethods2.class.getName();
+		byte[] bytes;
+		try( InputStream in = MethodIndexTest.class.getResourceAsStream( "/" + name.replace( '.', '/' ) + ".class" ) ) {
+			bytes = in.readAllBytes();
+		}
+		ClassLoader loader = new ClassLoader( null ) {
+			@Override
+			protected Class<?> findClass( String className ) throws ClassNotFoundException {
+				if( !className.equals( name ) ) throw new ClassNotFoundException( className );
+				return defineClass( className, bytes, 0, bytes.length );
+			}
+		};
+		Class<?> foreignClass = loader.loadClass( name );
+		assertThat( index.get( foreignClass.getMethod( "method", String.class ) ) ).isNotNull();
+		assertThat( index.get( foreignClass.getMethod( "anotherMethod" ) ) ).isNull();
+		return new WeakReference<>( loader );
+	}
+}
@@ -6,15 +6,20 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.Mockito;
+import org.mockobor.mockedobservable.MockedObservable;
+import org.mockobor.mockedobservable.MockedObservable.MyListener;
 import org.mockobor.utils.reflection.mockito.DisableForStandardMockitoMockMaker;
 
+import java.beans.PropertyChangeListener;
 import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
+import static org.mockobor.utils.reflection.ReflectionUtils.getMethodTable;
 import static org.mockobor.utils.reflection.ReflectionUtils.getReachableMethods;
 
 
@@ -127,6 +132,73 @@ class ReflectionUtils_ReachableMethods_Test {
 	}
 
 
+	// ==================================================================================
+	// ================================= method table ===================================
+	// ==================================================================================
+
+	@Test
+	void getMethodTable_cached_per_class() {
+		MethodTable table = getMethodTable( Derived.class );
+
+		assertThat( getMethodTable( Derived.class ) ).as( "computed once per class" ).isSameAs( table );
+		assertThat( table.getType() ).isEqualTo( Derived.class );
+		assertThat( table.getMethods() )
+				.extracting( Method::getName )
+				.containsExactlyInAnyOrder( EXPECTED_LIST_OF_METHOD_NAMES_IN_DERIVED_CLASS );
+		assertThatThrownBy( () -> table.getMethods().clear() ).isInstanceOf( UnsupportedOperationException.class );
+	}
+
+	@Test
+	void getReachableMethods_returns_mutable_copy_of_method_table() {
+		Collection<Method> methods = getReachableMethods( Derived.class );
+		methods.clear();
+
+		assertThat( getReachableMethods( Derived.class ) ).hasSize( EXPECTED_LIST_OF_METHOD_NAMES_IN_DERIVED_CLASS.length );
+	}
+
+	@Test
+	void getMethodTable_findSimilarMethod() throws NoSuchMethodException {
+		MethodTable table = getMethodTable( DerivedInterface.class );
+
+		Method similar = table.findSimilarMethod( Interface2.class.getMethod( "publicDerivedMethod" ) );
+
+		assertThat( similar ).isNotNull();
+		assertThat( similar.getDeclaringClass() ).as( "overridden in DerivedInterface" ).isEqualTo( DerivedInterface.class );
+		assertThat( table.findSimilarMethod( Derived.class.getMethod( "publicDerivedMethod", String.class ) ) ).isNull();
+	}
+
+	@Test
+	void getMethodTable_methods_by_interface_parameters() {
+		MethodTable table = getMethodTable( MockedObservable.class );
+
+		assertThat( table.getMethodsWithInterfaceParameters() )
+				.as( "all methods of MockedObservable have listener parameters" )
+				.containsExactlyElementsOf( table.getMethods() );
+
+		assertThat( table.getMethodsWithParameterType( PropertyChangeListener.class ) )
+				.extracting( Method::getName )
+				.containsExactlyInAnyOrder( "addPropertyChangeListener", "addPropertyChangeListener",
+				                            "removePropertyChangeListener", "removePropertyChangeListener" );
+
+		assertThat( table.getMethodsWithParameterType( MyListener.class ) )
+				.as( "each method only once, even with many parameters of the same type" )
+				.extracting( Method::getName )
+				.containsExactlyInAnyOrder( "addMyListener", "addMyListener", "addTwoListeners",
+				                            "removeMyListener", "removeMyListener", "removeTwoListeners" );
+
+		assertThat( table.getMethodsWithParameterType( String.class ) ).as( "not an interface" ).isEmpty();
+		assertThat( getMethodTable( Derived.class ).getMethodsWithInterfaceParameters() ).isEmpty();
+	}
+
+	@ParameterizedTest( name = "getMethodTable_mock_shares_table_of_mocked_type - {0}" )
+	@MethodSource( "mockingTools" )
+	void getMethodTable_mock_shares_table_of_mocked_type( String name, Function<Class<?>, Object> mocker ) {
+		Object mock = mocker.apply( DerivedInterface.class );
+
+		assertThat( getMethodTable( mock.getClass() ) ).isSameAs( getMethodTable( DerivedInterface.class ) );
+	}
+
+
 	static Stream<Arguments> mockingTools() {
 		return Stream.of(
 				arguments( "Mockito", (Function<Class<?>, Object>) Mockito::mock ),
@@ -0,0 +1,87 @@
+import org.gradle.api.tasks.testing.logging.TestExceptionFormat
+
+
+group = rootProject.group
+version = rootProject.version
+description = "Annotation processor for Mockobor - generates listener definition detectors at compile time for types annotated with @MockoborObservable."
+
+// test dependencies versions
+val junit5Version = "5.11.4"
+val assertjVersion = "3.27.0"
+
+
+plugins {
+    `java-library`
+    `maven-publish`
+}
+
+
+repositories {
+    mavenCentral()
+}
+
+
+// ==================================================================================
+// ==================================== build =======================================
+// ==================================================================================
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+    withJavadocJar()
+    withSourcesJar()
+}
+
+dependencies {
+    // the processor itself has no dependencies; generated code requires mockobor in classpath
+    testImplementation(rootProject)
+
+    testImplementation(platform("org.junit:junit-bom:$junit5Version"))
+    testImplementation("org.junit.jupiter:junit-jupiter:$junit5Version")
+    testImplementation("org.assertj:assertj-core:$assertjVersion")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
+
+tasks.test {
+    useJUnitPlatform()
+
+    testLogging {
+        events("skipped", "failed")
+        showStandardStreams = true
+        showExceptions = true
+        showCauses = true
+        showStackTraces = true
+        exceptionFormat = TestExceptionFormat.FULL
+    }
+    enableAssertions = true
+    failFast = false
+}
+
+tasks.javadoc {
+    (options as StandardJavadocDocletOptions).addStringOption("Xdoclint:none", "-quiet")
+}
+
+
+// ==================================================================================
+// ================================== publishing ====================================
+// ==================================================================================
+
+publishing {
+    publications {
+        create<MavenPublication>("mockoborProcessor") {
+            from(components["java"])
+            pom {
+                name = "Mockobor Processor"
+                description = project.description
+                url = "https://github.com/mickle-ak/mockobor"
+
+                licenses {
+                    license {
+                        name = "The Apache License, Version 2.0"
+                        url = "https://www.apache.org/licenses/LICENSE-2.0.txt"
+                    }
+                }
+            }
+        }
+    }
+}
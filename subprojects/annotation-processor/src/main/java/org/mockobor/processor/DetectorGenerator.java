@@ -0,0 +1,253 @@
+package org.mockobor.processor;
+
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+
+/**
+ * To generate a precomputed listener definition detector for one observable type.
+ * <p>
+ * It finds registration methods the same way as {@code TypicalJavaListenerDetector} does it in runtime:<ul>
+ * <li>listener parameters - parameters of an interface type with a name ending with "Listener",</li>
+ * <li>registration methods - "add(.*)Listeners?" with at least one listener parameter,</li>
+ * <li>deregistration methods - "remove(.*)Listeners?" with at least one listener parameter,</li>
+ * <li>all other parameters of registration methods are used as selector.</li>
+ * </ul>
+ * Methods with {@code PropertyChangeListener} parameters are skipped (they are handled by {@code PropertyChangeDetector} in runtime).
+ */
+class DetectorGenerator {
+
+	static final String DETECTOR_BASE_CLASS = "org.mockobor.listener_detectors.PrecomputedListenerDetector";
+
+	static final String DETECTOR_SUFFIX = "_MockoborDetector";
+
+	private static final Pattern LISTENER_CLASS_NAME = Pattern.compile( ".*Listener" );
+	private static final Pattern ADD_METHOD_NAME     = Pattern.compile( "add(.*)Listeners?" );
+	private static final Pattern REMOVE_METHOD_NAME  = Pattern.compile( "remove(.*)Listeners?" );
+
+	private static final String PROPERTY_CHANGE_LISTENER = "java.beans.PropertyChangeListener";
+
+	private final ProcessingEnvironment processingEnv;
+	private final Elements              elements;
+	private final Types                 types;
+	private final Messager              messager;
+
+
+	DetectorGenerator( ProcessingEnvironment processingEnv ) {
+		this.processingEnv = processingEnv;
+		this.elements = processingEnv.getElementUtils();
+		this.types = processingEnv.getTypeUtils();
+		this.messager = processingEnv.getMessager();
+	}
+
+
+	/**
+	 * To generate a detector for the specified observable type.
+	 * <p>
+	 * The detector is generated in the package of the annotated element.
+	 *
+	 * @param observableType    type to generate detector for
+	 * @param annotatedElement  element annotated with {@code @MockoborObservable}
+	 * @return qualified name of the generated detector or null if nothing generated
+	 */
+	String generate( TypeElement observableType, Element annotatedElement ) {
+		String packageName = elements.getPackageOf( annotatedElement ).getQualifiedName().toString();
+		if( !isAccessible( observableType, packageName ) ) {
+			messager.printMessage( Diagnostic.Kind.ERROR, "observable type is not accessible from package '" + packageName + "'", annotatedElement );
+			return null;
+		}
+
+		List<RegistrationMethod> registrationMethods = collectRegistrationMethods( observableType, packageName );
+		if( registrationMethods.isEmpty() ) {
+			messager.printMessage( Diagnostic.Kind.WARNING,
+			                       "no listener registration methods found in " + observableType.getQualifiedName(), annotatedElement );
+			return null;
+		}
+
+		String detectorSimpleName = getNestedName( observableType ).replace( '.', '_' ) + DETECTOR_SUFFIX;
+		String detectorName = packageName.isEmpty() ? detectorSimpleName : packageName + "." + detectorSimpleName;
+		try {
+			JavaFileObject sourceFile = processingEnv.getFiler().createSourceFile( detectorName, annotatedElement );
+			try( PrintWriter writer = new PrintWriter( sourceFile.openWriter() ) ) {
+				writeSource( writer, packageName, detectorSimpleName, observableType, registrationMethods );
+			}
+		}
+		catch( IOException e ) {
+			messager.printMessage( Diagnostic.Kind.ERROR, "can not generate " + detectorName + ": " + e, annotatedElement );
+			return null;
+		}
+		return detectorName;
+	}
+
+
+	// ==================================================================================
+	// ============================= registration methods ===============================
+	// ==================================================================================
+
+	private List<RegistrationMethod> collectRegistrationMethods( TypeElement observableType, String packageName ) {
+		Map<String, RegistrationMethod> registrationMethods = new LinkedHashMap<>(); // signature -> method
+		for( ExecutableElement method : ElementFilter.methodsIn( elements.getAllMembers( observableType ) ) ) {
+			Set<Modifier> modifiers = method.getModifiers();
+			if( modifiers.contains( Modifier.STATIC ) || modifiers.contains( Modifier.PRIVATE ) ) continue;
+
+			String name = method.getSimpleName().toString();
+			boolean add = ADD_METHOD_NAME.matcher( name ).matches();
+			if( !add && !REMOVE_METHOD_NAME.matcher( name ).matches() ) continue;
+
+			RegistrationMethod registrationMethod = createRegistrationMethod( add, name, method, packageName );
+			if( registrationMethod != null ) registrationMethods.putIfAbsent( registrationMethod.getSignature(), registrationMethod );
+		}
+		return new ArrayList<>( registrationMethods.values() );
+	}
+
+	/** @return registration method or null if the specified method has no (supported) listener parameters */
+	private RegistrationMethod createRegistrationMethod( boolean add, String name, ExecutableElement method, String packageName ) {
+		List<String> parameterTypes = new ArrayList<>();
+		List<Integer> listenerIndexes = new ArrayList<>();
+		List<Integer> selectorIndexes = new ArrayList<>();
+		List<? extends VariableElement> parameters = method.getParameters();
+		for( int i = 0; i < parameters.size(); i++ ) {
+			TypeMirror parameterType = types.erasure( parameters.get( i ).asType() );
+			if( !isAccessible( parameterType, packageName ) ) return null;
+			String typeName = getTypeName( parameterType );
+			if( PROPERTY_CHANGE_LISTENER.equals( typeName ) ) return null;
+			parameterTypes.add( typeName );
+			if( isListenerType( parameterType ) ) {
+				listenerIndexes.add( i );
+			} else {
+				selectorIndexes.add( i );
+			}
+		}
+		TypeMirror returnType = types.erasure( method.getReturnType() );
+		if( listenerIndexes.isEmpty() || !isAccessible( returnType, packageName ) ) return null;
+		return new RegistrationMethod( add, name, getTypeName( returnType ), parameterTypes, listenerIndexes, selectorIndexes );
+	}
+
+	private boolean isListenerType( TypeMirror type ) {
+		if( type.getKind() != TypeKind.DECLARED ) return false;
+		Element element = ( (DeclaredType) type ).asElement();
+		return element.getKind() == ElementKind.INTERFACE
+		       && LISTENER_CLASS_NAME.matcher( element.getSimpleName() ).matches();
+	}
+
+
+	// ==================================================================================
+	// ==================================== types =======================================
+	// ==================================================================================
+
+	/** @return name of the specified (erased) type usable in class literals of generated code */
+	private String getTypeName( TypeMirror type ) {
+		switch( type.getKind() ) {
+			case DECLARED:
+				return ( (TypeElement) ( (DeclaredType) type ).asElement() ).getQualifiedName().toString();
+			case ARRAY:
+				return getTypeName( types.erasure( ( (ArrayType) type ).getComponentType() ) ) + "[]";
+			case TYPEVAR:
+				return getTypeName( types.erasure( type ) );
+			default:
+				return type.getKind().name().toLowerCase( Locale.ROOT ); // primitives and void
+		}
+	}
+
+	private boolean isAccessible( TypeMirror type, String packageName ) {
+		if( type.getKind() == TypeKind.ARRAY ) return isAccessible( ( (ArrayType) type ).getComponentType(), packageName );
+		if( type.getKind() != TypeKind.DECLARED ) return true;
+		return isAccessible( (TypeElement) ( (DeclaredType) type ).asElement(), packageName );
+	}
+
+	/** @return true if the specified type (and all enclosing types) can be used in the specified package */
+	private boolean isAccessible( TypeElement type, String packageName ) {
+		boolean samePackage = elements.getPackageOf( type ).getQualifiedName().contentEquals( packageName );
+		for( Element element = type; element instanceof TypeElement; element = element.getEnclosingElement() ) {
+			Set<Modifier> modifiers = element.getModifiers();
+			if( modifiers.contains( Modifier.PRIVATE ) ) return false;
+			if( !samePackage && !modifiers.contains( Modifier.PUBLIC ) ) return false;
+		}
+		return true;
+	}
+
+	/** @return name of the specified type inside its package (like {@code Outer.Inner}) */
+	private String getNestedName( TypeElement type ) {
+		String qualifiedName = type.getQualifiedName().toString();
+		String packageName = elements.getPackageOf( type ).getQualifiedName().toString();
+		return packageName.isEmpty() ? qualifiedName : qualifiedName.substring( packageName.length() + 1 );
+	}
+
+
+	// ==================================================================================
+	// =================================== source =======================================
+	// ==================================================================================
+
+	private void writeSource( PrintWriter writer, String packageName, String detectorSimpleName,
+	                          TypeElement observableType, List<RegistrationMethod> registrationMethods ) {
+		String observableTypeName = observableType.getQualifiedName().toString();
+		if( !packageName.isEmpty() ) {
+			writer.println( "package " + packageName + ";" );
+			writer.println();
+		}
+		writer.println();
+		writer.println( "/**" );
+		writer.println( " * Precomputed listener definition detector for {@link " + observableTypeName + "}." );
+		writer.println( " */" );
+		writer.println( "@javax.annotation.processing.Generated( \"" + MockoborObservableProcessor.class.getName() + "\" )" );
+		writer.println( "public final class " + detectorSimpleName + " extends " + DETECTOR_BASE_CLASS + " {" );
+		writer.println();
+		writer.println( "\tpublic " + detectorSimpleName + "() {" );
+		writer.println( "\t\tsuper( " + observableTypeName + ".class );" );
+		for( RegistrationMethod method : registrationMethods ) {
+			writer.println( "\t\t" + method.toSource() );
+		}
+		writer.println( "\t}" );
+		writer.println( "}" );
+	}
+
+
+	/** Precomputed registration method. */
+	private static final class RegistrationMethod {
+		private final boolean       add;
+		private final String        name;
+		private final String        returnType;
+		private final List<String>  parameterTypes;
+		private final List<Integer> listenerIndexes;
+		private final List<Integer> selectorIndexes;
+
+		RegistrationMethod( boolean add, String name, String returnType, List<String> parameterTypes,
+		                    List<Integer> listenerIndexes, List<Integer> selectorIndexes ) {
+			this.add = add;
+			this.name = name;
+			this.returnType = returnType;
+			this.parameterTypes = parameterTypes;
+			this.listenerIndexes = listenerIndexes;
+			this.selectorIndexes = selectorIndexes;
+		}
+
+		String getSignature() {
+			return returnType + " " + name + parameterTypes;
+		}
+
+		String toSource() {
+			return String.format( "%s( \"%s\", %s.class, new Class<?>[]{ %s }, new int[]{ %s }, new int[]{ %s } );",
+			                      add ? "addRegistrationMethod" : "addDeregistrationMethod",
+			                      name,
+			                      returnType,
+			                      parameterTypes.stream().map( t -> t + ".class" ).collect( Collectors.joining( ", " ) ),
+			                      listenerIndexes.stream().map( String::valueOf ).collect( Collectors.joining( ", " ) ),
+			                      selectorIndexes.stream().map( String::valueOf ).collect( Collectors.joining( ", " ) ) );
+		}
+	}
+}
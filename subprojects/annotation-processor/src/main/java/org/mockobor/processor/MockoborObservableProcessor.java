@@ -0,0 +1,103 @@
+package org.mockobor.processor;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+
+/**
+ * Annotation processor for {@code org.mockobor.MockoborObservable}.
+ * <p>
+ * For each observable type (the annotated type or types specified in the annotation) it generates
+ * a subclass of {@code org.mockobor.listener_detectors.PrecomputedListenerDetector} (see {@link DetectorGenerator})
+ * and, at the end of processing, registers all generated detectors as services in
+ * {@code META-INF/services/org.mockobor.listener_detectors.PrecomputedListenerDetector}.
+ */
+@SupportedAnnotationTypes( MockoborObservableProcessor.ANNOTATION )
+public class MockoborObservableProcessor extends AbstractProcessor {
+
+	static final String ANNOTATION = "org.mockobor.MockoborObservable";
+
+	static final String SERVICE_FILE = "META-INF/services/" + DetectorGenerator.DETECTOR_BASE_CLASS;
+
+	/** Qualified names of observable types already processed (in this compilation). */
+	private final Set<String> processedTypes = new HashSet<>();
+
+	/** Qualified names of generated detectors (to register as services). */
+	private final Set<String> generatedDetectors = new TreeSet<>();
+
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+
+	@Override
+	public boolean process( Set<? extends TypeElement> annotations, RoundEnvironment roundEnv ) {
+		if( roundEnv.processingOver() ) {
+			writeServiceFile();
+			return false;
+		}
+
+		TypeElement annotation = processingEnv.getElementUtils().getTypeElement( ANNOTATION );
+		if( annotation == null ) return false;
+
+		DetectorGenerator generator = new DetectorGenerator( processingEnv );
+		for( Element annotatedElement : roundEnv.getElementsAnnotatedWith( annotation ) ) {
+			for( TypeElement observableType : getObservableTypes( annotatedElement, annotation ) ) {
+				if( processedTypes.add( observableType.getQualifiedName().toString() ) ) {
+					String detectorName = generator.generate( observableType, annotatedElement );
+					if( detectorName != null ) generatedDetectors.add( detectorName );
+				}
+			}
+		}
+		return false;
+	}
+
+
+	/** @return the types specified in the annotation's value or the annotated type itself if nothing specified */
+	private List<TypeElement> getObservableTypes( Element annotatedElement, TypeElement annotation ) {
+		List<TypeElement> observableTypes = new ArrayList<>();
+		for( AnnotationMirror mirror : annotatedElement.getAnnotationMirrors() ) {
+			if( !mirror.getAnnotationType().asElement().equals( annotation ) ) continue;
+			mirror.getElementValues().forEach( ( method, value ) -> {
+				if( method.getSimpleName().contentEquals( "value" ) ) {
+					for( Object type : (List<?>) value.getValue() ) {
+						TypeMirror typeMirror = (TypeMirror) ( (AnnotationValue) type ).getValue();
+						observableTypes.add( (TypeElement) ( (DeclaredType) typeMirror ).asElement() );
+					}
+				}
+			} );
+		}
+		if( observableTypes.isEmpty() && annotatedElement instanceof TypeElement ) {
+			observableTypes.add( (TypeElement) annotatedElement );
+		}
+		return observableTypes;
+	}
+
+
+	private void writeServiceFile() {
+		if( generatedDetectors.isEmpty() ) return;
+		try {
+			FileObject serviceFile = processingEnv.getFiler().createResource( StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE );
+			try( Writer writer = serviceFile.openWriter() ) {
+				for( String detector : generatedDetectors ) {
+					writer.write( detector );
+					writer.write( '\n' );
+				}
+			}
+		}
+		catch( IOException e ) {
+			processingEnv.getMessager().printMessage( Diagnostic.Kind.ERROR, "can not write " + SERVICE_FILE + ": " + e );
+		}
+	}
+}
@@ -0,0 +1,168 @@
+package org.mockobor.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockobor.listener_detectors.*;
+import org.mockobor.utils.reflection.ReflectionUtils;
+
+import javax.tools.*;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+class MockoborObservableProcessorTest {
+
+	private static final String OBSERVABLE = String.join( "\n",
+	                                                      "package test.observable;",
+	                                                      "import java.beans.PropertyChangeListener;",
+	                                                      "@org.mockobor.MockoborObservable",
+	                                                      "public interface Observable extends BaseObservable {",
+	                                                      "  interface MyListener { void somethingChanged( Object o ); }",
+	                                                      "  interface MyAnotherListener { void onChange( int i ); }",
+	                                                      "  void addMyListener( MyListener listener );",
+	                                                      "  void addMyListener( String selector, MyListener listener );",
+	                                                      "  boolean removeMyListener( MyListener listener );",
+	                                                      "  void removeMyListener( String selector, MyListener listener );",
+	                                                      "  void addListeners( MyListener listener, MyAnotherListener anotherListener, int... selectors );",
+	                                                      "  <L extends MyAnotherListener> void addMyAnotherListener( L listener );",
+	                                                      "  void addPropertyChangeListener( PropertyChangeListener listener );",
+	                                                      "  void addNotListener( Runnable runnable );",
+	                                                      "  String getName();",
+	                                                      "}" );
+
+	private static final String BASE_OBSERVABLE = String.join( "\n",
+	                                                           "package test.observable;",
+	                                                           "public interface BaseObservable {",
+	                                                           "  void removeMyAnotherListener( Observable.MyAnotherListener listener );",
+	                                                           "}" );
+
+	private static final String NOT_OBSERVABLE = String.join( "\n",
+	                                                          "package test.observable;",
+	                                                          "@org.mockobor.MockoborObservable",
+	                                                          "public interface NotObservable { void run(); }" );
+
+	private static final String TEST_CLASS = String.join( "\n",
+	                                                      "package test.usage;",
+	                                                      "@org.mockobor.MockoborObservable( test.observable.Observable.class )",
+	                                                      "public class ObservableTest {}" );
+
+	@TempDir
+	Path outputDir;
+
+
+	@Test
+	void generated_detector_finds_same_registrations_as_typical_java_detector() throws Exception {
+		List<Diagnostic<? extends JavaFileObject>> diagnostics = compile( OBSERVABLE, BASE_OBSERVABLE );
+		assertThat( diagnostics ).filteredOn( d -> d.getKind() == Diagnostic.Kind.ERROR ).isEmpty();
+
+		try( URLClassLoader classLoader = new URLClassLoader( new URL[]{ outputDir.toUri().toURL() }, getClass().getClassLoader() ) ) {
+			Class<?> observableType = classLoader.loadClass( "test.observable.Observable" );
+			PrecomputedListenerDetector detector = (PrecomputedListenerDetector) classLoader.loadClass( "test.observable.Observable_MockoborDetector" )
+			                                                                               .getConstructor().newInstance();
+			assertThat( detector.getObservableType() ).isSameAs( observableType );
+
+			Collection<Method> methods = ReflectionUtils.getReachableMethods( observableType );
+			ListenerDefinition precomputed = detector.detect( methods );
+			ListenerDefinition reflective = new TypicalJavaListenerDetector().detect( methods.stream()
+			                                                                                 .filter( m -> !m.getName().contains( "PropertyChange" ) )
+			                                                                                 .collect( Collectors.toList() ) );
+
+			assertThat( sourceMethods( precomputed ) )
+					.containsExactlyInAnyOrder( "addMyListener", "addMyListener", "removeMyListener", "removeMyListener",
+					                            "addListeners", "addMyAnotherListener", "removeMyAnotherListener" )
+					.containsExactlyInAnyOrderElementsOf( sourceMethods( reflective ) );
+			assertThat( precomputed.getDetectedListeners() ).containsExactlyInAnyOrderElementsOf( reflective.getDetectedListeners() );
+			assertThat( detector.getListenerParameterTypes() ).containsExactlyInAnyOrderElementsOf( reflective.getDetectedListeners() );
+		}
+	}
+
+	@Test
+	void generated_detectors_registered_as_services() throws IOException {
+		compile( OBSERVABLE, BASE_OBSERVABLE, TEST_CLASS );
+
+		Path serviceFile = outputDir.resolve( MockoborObservableProcessor.SERVICE_FILE );
+		assertThat( Files.readAllLines( serviceFile, StandardCharsets.UTF_8 ) )
+				.as( "observable type processed only once" )
+				.containsExactly( "test.observable.Observable_MockoborDetector" );
+	}
+
+	@Test
+	void detector_generated_in_package_of_annotated_class_if_types_specified() throws IOException {
+		compile( TEST_CLASS, OBSERVABLE, BASE_OBSERVABLE );
+
+		assertThat( Files.readAllLines( outputDir.resolve( MockoborObservableProcessor.SERVICE_FILE ), StandardCharsets.UTF_8 ) )
+				.containsExactly( "test.usage.Observable_MockoborDetector" );
+		assertThat( outputDir.resolve( "test/usage/Observable_MockoborDetector.class" ) ).exists();
+	}
+
+	@Test
+	void warning_if_no_registration_methods_found() {
+		List<Diagnostic<? extends JavaFileObject>> diagnostics = compile( NOT_OBSERVABLE );
+
+		assertThat( diagnostics )
+				.filteredOn( d -> d.getKind() == Diagnostic.Kind.WARNING )
+				.extracting( d -> d.getMessage( Locale.ROOT ) )
+				.anyMatch( message -> message.contains( "no listener registration methods found in test.observable.NotObservable" ) );
+		assertThat( outputDir.resolve( MockoborObservableProcessor.SERVICE_FILE ) ).doesNotExist();
+	}
+
+
+	private List<Diagnostic<? extends JavaFileObject>> compile( String... sources ) {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		List<JavaFileObject> compilationUnits = Arrays.stream( sources ).map( SourceFile::new ).collect( Collectors.toList() );
+		List<String> options = Arrays.asList( "-d", outputDir.toString(), "-s", outputDir.toString(),
+		                                      "-classpath", getClassPath() );
+
+		JavaCompiler.CompilationTask task = compiler.getTask( null, null, diagnostics, options, null, compilationUnits );
+		task.setProcessors( Collections.singletonList( new MockoborObservableProcessor() ) );
+		boolean success = task.call();
+		assertThat( success ).as( "compilation: %s", diagnostics.getDiagnostics() ).isTrue();
+		return diagnostics.getDiagnostics();
+	}
+
+	/** classpath with mockobor (required to compile the annotation and generated code). */
+	private static String getClassPath() {
+		return new File( PrecomputedListenerDetector.class.getProtectionDomain().getCodeSource().getLocation().getPath() ).getPath();
+	}
+
+	private static List<String> sourceMethods( ListenerDefinition definition ) {
+		return definition.getRegistrations().stream()
+		                 .map( RegistrationDelegate::getSource )
+		                 .map( Method::getName )
+		                 .collect( Collectors.toList() );
+	}
+
+
+	private static final class SourceFile extends SimpleJavaFileObject {
+
+		private final String source;
+
+		SourceFile( String source ) {
+			super( URI.create( "string:///" + getClassName( source ).replace( '.', '/' ) + Kind.SOURCE.extension ), Kind.SOURCE );
+			this.source = source;
+		}
+
+		private static String getClassName( String source ) {
+			String packageName = source.replaceAll( "(?s)^package ([\\w.]+);.*", "$1" );
+			String className = source.replaceAll( "(?s).*public (?:interface|class) (\\w+).*", "$1" );
+			return packageName + "." + className;
+		}
+
+		@Override
+		public CharSequence getCharContent( boolean ignoreEncodingErrors ) {
+			return source;
+		}
+	}
+}
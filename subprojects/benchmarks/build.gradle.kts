@@ -0,0 +1,68 @@
+group = "io.github.mickle-ak.mockobor"
+description = "JMH benchmarks of the Mockobor hot paths: notifier creation, listener registration and notification dispatch."
+
+// dependencies versions
+val jmhCoreVersion = "1.37"
+val mockitoVersion = "5.14.2"
+val easymockVersion = "5.5.0"
+val byteBuddyVersion = "1.15.10"
+
+
+plugins {
+    java
+    id("me.champeau.jmh") version "0.7.2"
+}
+
+repositories {
+    mavenCentral()
+}
+
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    // resolved from the including build (../..), see settings.gradle.kts
+    jmh("io.github.mickle-ak.mockobor:mockobor")
+
+    jmh("org.mockito:mockito-core:$mockitoVersion")
+    jmh("org.easymock:easymock:$easymockVersion")
+
+    // generation of synthetic observables for the suite simulation
+    jmh("net.bytebuddy:byte-buddy:$byteBuddyVersion")
+}
+
+// enable the mockito's inline-mock-maker (required for java 21+)
+val mockitoAgent = configurations.create("mockitoAgent")
+dependencies {
+    mockitoAgent("org.mockito:mockito-core:$mockitoVersion") { isTransitive = false }
+}
+
+jmh {
+    jmhVersion = jmhCoreVersion
+    includes = listOf(System.getProperty("jmh.includes", ".*"))
+
+    fork = 1
+    warmupIterations = 3
+    warmup = "1s"
+    iterations = 5
+    timeOnIteration = "1s"
+
+    // allocation rate per operation for every benchmark: gc.alloc.rate.norm
+    profilers = listOf("gc")
+
+    resultFormat = "JSON"
+    jvmArgsAppend = listOf("-Xshare:off", "-javaagent:${mockitoAgent.asPath}")
+}
+
+// macro benchmark: simulated test suite, see SuiteSimulation (arguments: -PsuiteArgs="cycles=10000 tools=mockito")
+tasks.register<JavaExec>("suiteSimulation") {
+    group = "benchmark"
+    description = "Simulates thousands of test methods using Mockobor and reports time, allocation and retained heap per test."
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass = "org.mockobor.benchmarks.suite.SuiteSimulation"
+    jvmArgs("-Xshare:off", "-javaagent:${mockitoAgent.asPath}")
+    args((findProperty("suiteArgs") as String?)?.split(" ")?.filter { it.isNotBlank() } ?: emptyList<String>())
+}
@@ -0,0 +1,4 @@
+rootProject.name = "benchmarks"
+
+// benchmarks always measure the current sources of mockobor
+includeBuild("../..")
@@ -0,0 +1,33 @@
+package org.mockobor.benchmarks;
+
+import java.beans.PropertyChangeListener;
+import java.util.Observer;
+
+
+/** Observable mocked in benchmarks: typical java listeners, property change listeners and observers. */
+@SuppressWarnings( "unused" )
+public interface BenchmarkObservable {
+
+	interface BenchmarkListener {
+		void onEvent( Object event );
+	}
+
+
+	void addBenchmarkListener( BenchmarkListener listener );
+
+	void removeBenchmarkListener( BenchmarkListener listener );
+
+
+	void addPropertyChangeListener( PropertyChangeListener listener );
+
+	void addPropertyChangeListener( String propertyName, PropertyChangeListener listener );
+
+	void removePropertyChangeListener( PropertyChangeListener listener );
+
+	void removePropertyChangeListener( String propertyName, PropertyChangeListener listener );
+
+
+	void addObserver( Observer o );
+
+	void deleteObserver( Observer o );
+}
@@ -0,0 +1,34 @@
+package org.mockobor.benchmarks;
+
+import org.mockobor.benchmarks.BenchmarkObservable.BenchmarkListener;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.Observable;
+import java.util.Observer;
+
+
+/** Listener used in benchmarks: counts received notifications, so the JIT can not eliminate them. */
+public class CountingListener implements BenchmarkListener, PropertyChangeListener, Observer {
+
+	private int received;
+
+	@Override
+	public void onEvent( Object event ) {
+		received++;
+	}
+
+	@Override
+	public void propertyChange( PropertyChangeEvent evt ) {
+		received++;
+	}
+
+	@Override
+	public void update( Observable o, Object arg ) {
+		received++;
+	}
+
+	public int getReceived() {
+		return received;
+	}
+}
@@ -0,0 +1,48 @@
+package org.mockobor.benchmarks;
+
+import org.mockito.Mockito;
+import org.mockobor.Mockobor;
+import org.mockobor.benchmarks.BenchmarkObservable.BenchmarkListener;
+import org.mockobor.mockedobservable.ListenersNotifier;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+
+/** Notifications sent over {@code ListenersNotifier.notifierFor} and over the notifier itself to registered listeners. */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@State( Scope.Thread )
+public class DispatchBenchmark {
+
+	@Param( { "1", "10", "10000" } )
+	public int listeners;
+
+	private final Object event = new Object();
+
+	private BenchmarkListener notifierFor;
+
+	private BenchmarkListener notifierAsListener;
+
+
+	@Setup
+	public void registerListeners() {
+		BenchmarkObservable mock = Mockito.mock( BenchmarkObservable.class );
+		ListenersNotifier notifier = Mockobor.createNotifierFor( mock );
+		for( int i = 0; i < listeners; i++ ) mock.addBenchmarkListener( new CountingListener() );
+
+		notifierFor = notifier.notifierFor( BenchmarkListener.class );
+		notifierAsListener = (BenchmarkListener) notifier;
+	}
+
+
+	@Benchmark
+	public void notifierFor() {
+		notifierFor.onEvent( event );
+	}
+
+	@Benchmark
+	public void notifierAsListener() {
+		notifierAsListener.onEvent( event );
+	}
+}
@@ -0,0 +1,44 @@
+package org.mockobor.benchmarks;
+
+import org.easymock.EasyMock;
+import org.mockito.Mockito;
+import org.mockobor.Mockobor;
+import org.mockobor.mockedobservable.ListenersNotifier;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * {@code Mockobor.createNotifierFor}: detection of listeners (cached after the first call per mock class),
+ * creation of the notifier proxy and redirection of registration methods of the mock.
+ * <p>
+ * Every invocation gets a new mock, because a notifier redirects registration methods of its mock.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@State( Scope.Thread )
+public class NotifierCreationBenchmark {
+
+	private BenchmarkObservable mockitoMock;
+
+	private BenchmarkObservable easymockMock;
+
+
+	@Setup( Level.Invocation )
+	public void createMocks() {
+		mockitoMock = Mockito.mock( BenchmarkObservable.class );
+		easymockMock = EasyMock.mock( BenchmarkObservable.class );
+	}
+
+
+	@Benchmark
+	public ListenersNotifier createNotifierFor_mockito() {
+		return Mockobor.createNotifierFor( mockitoMock );
+	}
+
+	@Benchmark
+	public ListenersNotifier createNotifierFor_easymock() {
+		return Mockobor.createNotifierFor( easymockMock );
+	}
+}
@@ -0,0 +1,42 @@
+package org.mockobor.benchmarks;
+
+import org.mockito.Mockito;
+import org.mockobor.Mockobor;
+import org.mockobor.mockedobservable.ObservableNotifier;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+
+/** {@code ObservableNotifier.notifyObservers} with and without update parameter. */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@State( Scope.Thread )
+public class ObservableBenchmark {
+
+	@Param( { "1", "10" } )
+	public int observers;
+
+	private final Object updateParameter = new Object();
+
+	private ObservableNotifier notifier;
+
+
+	@Setup
+	public void registerObservers() {
+		BenchmarkObservable mock = Mockito.mock( BenchmarkObservable.class );
+		notifier = (ObservableNotifier) Mockobor.createNotifierFor( mock );
+		for( int i = 0; i < observers; i++ ) mock.addObserver( new CountingListener() );
+	}
+
+
+	@Benchmark
+	public void notifyObservers() {
+		notifier.notifyObservers();
+	}
+
+	@Benchmark
+	public void notifyObservers_withParameter() {
+		notifier.notifyObservers( updateParameter );
+	}
+}
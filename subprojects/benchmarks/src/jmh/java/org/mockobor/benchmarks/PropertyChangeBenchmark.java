@@ -0,0 +1,54 @@
+package org.mockobor.benchmarks;
+
+import org.mockito.Mockito;
+import org.mockobor.Mockobor;
+import org.mockobor.mockedobservable.PropertyChangeNotifier;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+
+/** {@code PropertyChangeNotifier.firePropertyChange} to listeners registered for all properties and for the fired property. */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@State( Scope.Thread )
+public class PropertyChangeBenchmark {
+
+	@Param( { "1", "10" } )
+	public int listeners;
+
+	private final Object oldValue = "old";
+
+	private final Object newValue = "new";
+
+	private PropertyChangeNotifier notifier;
+
+	private int counter;
+
+
+	@Setup
+	public void registerListeners() {
+		BenchmarkObservable mock = Mockito.mock( BenchmarkObservable.class );
+		notifier = (PropertyChangeNotifier) Mockobor.createNotifierFor( mock );
+		for( int i = 0; i < listeners; i++ ) {
+			mock.addPropertyChangeListener( new CountingListener() );
+			mock.addPropertyChangeListener( "value", new CountingListener() );
+		}
+	}
+
+
+	@Benchmark
+	public void firePropertyChange_object() {
+		notifier.firePropertyChange( "value", oldValue, newValue );
+	}
+
+	@Benchmark
+	public void firePropertyChange_int() {
+		notifier.firePropertyChange( "value", counter, ++counter );
+	}
+
+	@Benchmark
+	public void firePropertyChange_boolean() {
+		notifier.firePropertyChange( "value", false, true );
+	}
+}
@@ -0,0 +1,51 @@
+package org.mockobor.benchmarks;
+
+import org.mockobor.benchmarks.BenchmarkObservable.BenchmarkListener;
+import org.mockobor.listener_detectors.ListenerSelector;
+import org.mockobor.mockedobservable.ListenersManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * {@code ListenerContainer.addListener} followed by {@code removeListener} of the same listener
+ * (so the number of registered listeners stays constant) with the empty and a property name selector.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@State( Scope.Thread )
+public class RegistrationBenchmark {
+
+	/** Number of listeners registered before the measurement. */
+	@Param( { "1", "100" } )
+	public int registeredListeners;
+
+	private final ListenersManager listenersManager = new ListenersManager( new Object() );
+
+	private final ListenerSelector propertySelector = ListenerSelector.selector( "value" );
+
+	private final BenchmarkListener listener = new CountingListener();
+
+
+	@Setup
+	public void registerListeners() {
+		for( int i = 0; i < registeredListeners; i++ ) {
+			listenersManager.addListener( ListenerSelector.selector(), BenchmarkListener.class, new CountingListener() );
+			listenersManager.addListener( propertySelector, BenchmarkListener.class, new CountingListener() );
+		}
+	}
+
+
+	@Benchmark
+	public void addRemove_emptySelector() {
+		listenersManager.addListener( ListenerSelector.selector(), BenchmarkListener.class, listener );
+		listenersManager.removeListener( ListenerSelector.selector(), BenchmarkListener.class, listener );
+	}
+
+	@Benchmark
+	public void addRemove_propertySelector() {
+		listenersManager.addListener( propertySelector, BenchmarkListener.class, listener );
+		listenersManager.removeListener( propertySelector, BenchmarkListener.class, listener );
+	}
+}
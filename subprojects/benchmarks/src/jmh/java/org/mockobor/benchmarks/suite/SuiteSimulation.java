@@ -0,0 +1,231 @@
+package org.mockobor.benchmarks.suite;
+
+import org.easymock.EasyMock;
+import org.mockito.Mockito;
+import org.mockobor.Mockobor;
+import org.mockobor.MockoborContext;
+import org.mockobor.mockedobservable.ListenersNotifier;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Macro benchmark: simulates a test suite with thousands of JUnit-style test methods using Mockobor.
+ * <p>
+ * Every cycle (one "test method") creates a mock of a generated observable interface (see {@link SyntheticObservable}),
+ * creates a notifier for it ({@code Mockobor.createNotifierFor}), registers listeners of the "tested object",
+ * fires all notification methods, deregisters the listeners and checks {@code assertThatAllListenersAreUnregistered}.
+ * Cycles go round-robin over several observable types (like test classes with different collaborators).
+ * <p>
+ * Reported per mocking tool and size of observables: total time, time per cycle (first cycle and percentiles),
+ * allocation per cycle (allocated by the running thread), GC count/time and retained heap per cycle
+ * (heap used after full GC at the end minus at the start, mocks are still reachable as in a real suite).
+ * <p>
+ * Arguments ({@code name=value}, all optional):<ul>
+ * <li>{@code cycles} - number of simulated test methods per run (default 10000)</li>
+ * <li>{@code observables} - number of generated observable types per run (default 20)</li>
+ * <li>{@code listenerTypes} - number of listener interfaces per observable (default 10)</li>
+ * <li>{@code listenerMethods} - comma separated sizes: notification methods per observable (default 50,250)</li>
+ * <li>{@code tools} - comma separated mocking tools: mockito, easymock (default mockito,easymock)</li>
+ * </ul>
+ */
+public final class SuiteSimulation {
+
+	private static final Object EVENT = new Object();
+
+
+	private final int cycles;
+
+	private final List<SyntheticObservable> observables;
+
+	private final String tool;
+
+	private final AtomicLong received = new AtomicLong();
+
+	/** Notifiers (and so mocks) are kept like in a real suite: mocking tools keep them until the end of the JVM. */
+	private final List<ListenersNotifier> usedNotifiers = new ArrayList<>();
+
+
+	private SuiteSimulation( int cycles, List<SyntheticObservable> observables, String tool ) {
+		this.cycles = cycles;
+		this.observables = observables;
+		this.tool = tool;
+	}
+
+
+	public static void main( String[] args ) throws Exception {
+		Map<String, String> options = parseOptions( args );
+		int cycles = Integer.parseInt( options.getOrDefault( "cycles", "10000" ) );
+		int observableCount = Integer.parseInt( options.getOrDefault( "observables", "20" ) );
+		int listenerTypes = Integer.parseInt( options.getOrDefault( "listenerTypes", "10" ) );
+		List<String> listenerMethods = Arrays.asList( options.getOrDefault( "listenerMethods", "50,250" ).split( "," ) );
+		List<String> tools = Arrays.asList( options.getOrDefault( "tools", "mockito,easymock" ).split( "," ) );
+
+		System.out.printf( "suite simulation: %d cycles, %d observables, %d listener types, listener methods %s, tools %s%n",
+		                   cycles, observableCount, listenerTypes, listenerMethods, tools );
+		int run = 0;
+		for( String methods : listenerMethods ) {
+			int methodsPerListener = Math.max( 1, Integer.parseInt( methods.trim() ) / listenerTypes );
+			for( String tool : tools ) {
+				// new types for every run, so detection and proxy generation are not already cached by the previous run
+				List<SyntheticObservable> observables = new ArrayList<>();
+				for( int i = 0; i < observableCount; i++ ) {
+					observables.add( SyntheticObservable.generate( run * observableCount + i, listenerTypes, methodsPerListener ) );
+				}
+				run++;
+
+				MockoborContext.reset();
+				Result result = new SuiteSimulation( cycles, observables, tool.trim() ).run();
+				System.out.println( result.format( tool.trim(), listenerTypes * methodsPerListener ) );
+			}
+		}
+	}
+
+
+	// ==================================================================================
+	// ==================================== cycles ======================================
+	// ==================================================================================
+
+	private Result run() throws Exception {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		long heapBefore = usedHeapAfterGc( memory );
+		long gcCountBefore = gcCount();
+		long gcTimeBefore = gcTimeMillis();
+		long allocatedBefore = threads.getThreadAllocatedBytes( Thread.currentThread().getId() );
+
+		long[] cycleNanos = new long[cycles];
+		long start = System.nanoTime();
+		for( int i = 0; i < cycles; i++ ) {
+			long cycleStart = System.nanoTime();
+			testMethod( observables.get( i % observables.size() ) );
+			cycleNanos[i] = System.nanoTime() - cycleStart;
+		}
+		long totalNanos = System.nanoTime() - start;
+
+		long allocated = threads.getThreadAllocatedBytes( Thread.currentThread().getId() ) - allocatedBefore;
+		long gcCount = gcCount() - gcCountBefore;
+		long gcTime = gcTimeMillis() - gcTimeBefore;
+		long retained = usedHeapAfterGc( memory ) - heapBefore;
+
+		int expectedNotifications = observables.stream().mapToInt( o -> o.notificationMethods.size() ).sum();
+		if( received.get() < (long) expectedNotifications * ( cycles / observables.size() ) ) {
+			throw new IllegalStateException( "listeners received only " + received.get() + " notifications" );
+		}
+		return new Result( cycles, totalNanos, cycleNanos, allocated, gcCount, gcTime, retained );
+	}
+
+	/** One simulated test method. */
+	private void testMethod( SyntheticObservable observable ) throws Exception {
+		// @BeforeEach: mock collaborator, create notifier, create tested object (registers its listeners)
+		Object mock = createMock( observable.observableType );
+		ListenersNotifier notifier = Mockobor.createNotifierFor( mock );
+		if( tool.equals( "easymock" ) ) EasyMock.replay( mock );
+		List<Object> listeners = new ArrayList<>();
+		for( int k = 0; k < observable.listenerTypes.size(); k++ ) {
+			Object listener = observable.createListener( observable.listenerTypes.get( k ), received );
+			observable.addMethods.get( k ).invoke( mock, listener );
+			listeners.add( listener );
+		}
+
+		// test: simulate events of the collaborator
+		for( Method notification : observable.notificationMethods ) notification.invoke( notifier, EVENT );
+
+		// @AfterEach: tested object is closed, all listeners must be unregistered
+		for( int k = 0; k < listeners.size(); k++ ) observable.removeMethods.get( k ).invoke( mock, listeners.get( k ) );
+		Mockobor.assertThatAllListenersAreUnregistered( notifier );
+		usedNotifiers.add( notifier );
+	}
+
+	private Object createMock( Class<?> type ) {
+		switch( tool ) {
+			case "mockito":
+				return Mockito.mock( type );
+			case "easymock":
+				return EasyMock.niceMock( type );
+			default:
+				throw new IllegalArgumentException( "unknown mocking tool: " + tool );
+		}
+	}
+
+
+	// ==================================================================================
+	// ================================== measurement ===================================
+	// ==================================================================================
+
+	private static long usedHeapAfterGc( MemoryMXBean memory ) throws InterruptedException {
+		for( int i = 0; i < 3; i++ ) {
+			System.gc();
+			TimeUnit.MILLISECONDS.sleep( 50 );
+		}
+		return memory.getHeapMemoryUsage().getUsed();
+	}
+
+	private static long gcCount() {
+		return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong( GarbageCollectorMXBean::getCollectionCount ).sum();
+	}
+
+	private static long gcTimeMillis() {
+		return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong( GarbageCollectorMXBean::getCollectionTime ).sum();
+	}
+
+	private static Map<String, String> parseOptions( String[] args ) {
+		Map<String, String> options = new LinkedHashMap<>();
+		for( String arg : args ) {
+			int separator = arg.indexOf( '=' );
+			if( separator <= 0 ) throw new IllegalArgumentException( "argument should look like name=value: " + arg );
+			options.put( arg.substring( 0, separator ), arg.substring( separator + 1 ) );
+		}
+		return options;
+	}
+
+
+	/** Measured values of one run. */
+	private static final class Result {
+
+		private final int cycles;
+		private final long totalNanos;
+		private final long[] cycleNanos;
+		private final long allocatedBytes;
+		private final long gcCount;
+		private final long gcTimeMillis;
+		private final long retainedBytes;
+
+		private Result( int cycles, long totalNanos, long[] cycleNanos, long allocatedBytes, long gcCount, long gcTimeMillis, long retainedBytes ) {
+			this.cycles = cycles;
+			this.totalNanos = totalNanos;
+			this.cycleNanos = cycleNanos;
+			this.allocatedBytes = allocatedBytes;
+			this.gcCount = gcCount;
+			this.gcTimeMillis = gcTimeMillis;
+			this.retainedBytes = retainedBytes;
+		}
+
+		private String format( String tool, int listenerMethods ) {
+			long first = cycleNanos[0];
+			long[] sorted = cycleNanos.clone();
+			Arrays.sort( sorted );
+			return String.format( Locale.ROOT,
+			                      "%-8s %4d listener methods: total %8.1f ms | per cycle: first %8.1f us, p50 %7.1f us, p99 %8.1f us"
+			                      + " | allocated %9.1f KB/cycle | retained %7.2f KB/cycle | gc %d (%d ms)",
+			                      tool, listenerMethods, totalNanos / 1e6,
+			                      first / 1e3, percentile( sorted, 0.50 ) / 1e3, percentile( sorted, 0.99 ) / 1e3,
+			                      allocatedBytes / 1024.0 / cycles, retainedBytes / 1024.0 / cycles, gcCount, gcTimeMillis );
+		}
+
+		private static long percentile( long[] sorted, double percentile ) {
+			return sorted[Math.min( sorted.length - 1, (int) ( sorted.length * percentile ) )];
+		}
+	}
+}
@@ -0,0 +1,107 @@
+package org.mockobor.benchmarks.suite;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.modifier.Visibility;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Observable interface generated at runtime: {@code SyntheticObservableN} with {@code listenerTypes} typical java listeners
+ * ({@code SyntheticObservableNEventKListener} with {@code methodsPerListener} methods {@code onEventM(Object)} each)
+ * and registration methods {@code addEventKListener}/{@code removeEventKListener} for each listener type.
+ */
+final class SyntheticObservable {
+
+	/** Generated types are defined in the package of this class (in the application class loader, like real observables). */
+	private static final String PREFIX = SyntheticObservable.class.getPackage().getName() + ".Synthetic";
+
+
+	/** Generated observable interface (to mock). */
+	final Class<?> observableType;
+
+	final List<Class<?>> listenerTypes = new ArrayList<>();
+
+	/** Per listener type: add-method of the observable. */
+	final List<Method> addMethods = new ArrayList<>();
+
+	/** Per listener type: remove-method of the observable. */
+	final List<Method> removeMethods = new ArrayList<>();
+
+	/** All notification methods of all listener types. */
+	final List<Method> notificationMethods = new ArrayList<>();
+
+
+	private SyntheticObservable( Class<?> observableType, List<Class<?>> listenerTypes ) throws NoSuchMethodException {
+		this.observableType = observableType;
+		for( int k = 0; k < listenerTypes.size(); k++ ) {
+			Class<?> listenerType = listenerTypes.get( k );
+			this.listenerTypes.add( listenerType );
+			addMethods.add( observableType.getMethod( "addEvent" + k + "Listener", listenerType ) );
+			removeMethods.add( observableType.getMethod( "removeEvent" + k + "Listener", listenerType ) );
+			for( Method method : listenerType.getMethods() ) notificationMethods.add( method );
+		}
+	}
+
+
+	/**
+	 * @param index              index of the observable (part of generated names)
+	 * @param listenerTypes      number of listener interfaces
+	 * @param methodsPerListener number of notification methods per listener interface
+	 * @return new generated observable
+	 */
+	static SyntheticObservable generate( int index, int listenerTypes, int methodsPerListener ) throws NoSuchMethodException {
+		String observableName = PREFIX + "Observable" + index;
+		List<DynamicType.Unloaded<?>> listeners = new ArrayList<>();
+		DynamicType.Builder<?> observable = new ByteBuddy().makeInterface().name( observableName );
+		for( int k = 0; k < listenerTypes; k++ ) {
+			DynamicType.Builder<?> listener = new ByteBuddy().makeInterface().name( observableName + "Event" + k + "Listener" );
+			for( int m = 0; m < methodsPerListener; m++ ) {
+				listener = listener.defineMethod( "onEvent" + m, void.class, Visibility.PUBLIC ).withParameters( Object.class ).withoutCode();
+			}
+			DynamicType.Unloaded<?> listenerType = listener.make();
+			listeners.add( listenerType );
+			observable = observable.defineMethod( "addEvent" + k + "Listener", void.class, Visibility.PUBLIC )
+			                       .withParameters( listenerType.getTypeDescription() ).withoutCode()
+			                       .defineMethod( "removeEvent" + k + "Listener", void.class, Visibility.PUBLIC )
+			                       .withParameters( listenerType.getTypeDescription() ).withoutCode();
+		}
+
+		DynamicType.Loaded<?> loaded = observable.make().include( listeners )
+		                                         .load( SyntheticObservable.class.getClassLoader(), ClassLoadingStrategy.UsingLookup.of( MethodHandles.lookup() ) );
+		List<Class<?>> listenerClasses = new ArrayList<>();
+		for( DynamicType.Unloaded<?> listener : listeners ) {
+			listenerClasses.add( loaded.getAllLoaded().get( listener.getTypeDescription() ) );
+		}
+		return new SyntheticObservable( loaded.getLoaded(), listenerClasses );
+	}
+
+
+	/**
+	 * @param listenerType one of {@link #listenerTypes}
+	 * @param received     counter of received notifications
+	 * @return listener of the tested object (counts received notifications)
+	 */
+	Object createListener( Class<?> listenerType, AtomicLong received ) {
+		return Proxy.newProxyInstance( listenerType.getClassLoader(), new Class<?>[]{ listenerType }, ( proxy, method, args ) -> {
+			switch( method.getName() ) {
+				case "equals":
+					return proxy == args[0];
+				case "hashCode":
+					return System.identityHashCode( proxy );
+				case "toString":
+					return listenerType.getSimpleName() + "@" + Integer.toHexString( System.identityHashCode( proxy ) );
+				default:
+					received.incrementAndGet();
+					return null;
+			}
+		} );
+	}
+}